@@ -6,27 +6,90 @@ import androidx.annotation.NonNull;
 
 import org.json.JSONException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Used to integrate with Braintree's American Express API
  */
 public class AmericanExpressClient {
 
+    /**
+     * Default time a rewards balance is served from memory after it was fetched.
+     */
+    public static final long DEFAULT_REWARDS_BALANCE_TIME_TO_LIVE_MS = TimeUnit.SECONDS.toMillis(30);
+
     private static final String AMEX_REWARDS_BALANCE_PATH =
         ApiClient.versionedPath("payment_methods/amex_rewards_balance");
 
+    private static final int MAX_CACHED_REWARDS_BALANCES = 16;
+
     private final BraintreeClient braintreeClient;
+    private final long rewardsBalanceTimeToLiveMs;
+
+    // guarded by this
+    private final Map<String, CachedRewardsBalance> rewardsBalances =
+        new LinkedHashMap<String, CachedRewardsBalance>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRewardsBalance> eldest) {
+                return size() > MAX_CACHED_REWARDS_BALANCES;
+            }
+        };
+    private final Map<String, RewardsBalanceRequest> rewardsBalanceRequests = new HashMap<>();
 
     public AmericanExpressClient(@NonNull BraintreeClient braintreeClient) {
+        this(braintreeClient, DEFAULT_REWARDS_BALANCE_TIME_TO_LIVE_MS);
+    }
+
+    /**
+     * @param braintreeClient {@link BraintreeClient}
+     * @param rewardsBalanceTimeToLiveMs how long a rewards balance is returned from memory after
+     * it was fetched. Pass 0 to always fetch a new balance.
+     */
+    public AmericanExpressClient(@NonNull BraintreeClient braintreeClient, long rewardsBalanceTimeToLiveMs) {
         this.braintreeClient = braintreeClient;
+        this.rewardsBalanceTimeToLiveMs = rewardsBalanceTimeToLiveMs;
     }
 
     /**
      * Gets the rewards balance associated with a Braintree nonce. Only for American Express cards.
+     * <p>
+     * A balance fetched by this client within the time to live is returned immediately without a
+     * network request. Calls for the same nonce and currency made while a request is in flight
+     * share that request.
+     *
      * @param nonce A nonce representing a card that will be used to look up the rewards balance
      * @param currencyIsoCode The currencyIsoCode to use. Example: 'USD'
      * @param callback {@link AmericanExpressGetRewardsBalanceCallback}
      */
     public void getRewardsBalance(@NonNull String nonce, @NonNull String currencyIsoCode, @NonNull final AmericanExpressGetRewardsBalanceCallback callback) {
+        final String key = cacheKey(nonce, currencyIsoCode);
+        final RewardsBalanceRequest request;
+        AmericanExpressRewardsBalance cachedRewardsBalance;
+        synchronized (this) {
+            cachedRewardsBalance = getCachedRewardsBalance(key);
+            if (cachedRewardsBalance == null) {
+                RewardsBalanceRequest inFlight = rewardsBalanceRequests.get(key);
+                if (inFlight != null) {
+                    inFlight.callbacks.add(callback);
+                    return;
+                }
+                request = new RewardsBalanceRequest(callback);
+                rewardsBalanceRequests.put(key, request);
+            } else {
+                request = null;
+            }
+        }
+
+        if (cachedRewardsBalance != null) {
+            callback.onResult(cachedRewardsBalance, null);
+            return;
+        }
+
         String getRewardsBalanceUrl = Uri.parse(AMEX_REWARDS_BALANCE_PATH)
                 .buildUpon()
                 .appendQueryParameter("paymentMethodNonce", nonce)
@@ -43,16 +106,93 @@ public class AmericanExpressClient {
                     braintreeClient.sendAnalyticsEvent("amex.rewards-balance.success");
                     try {
                         AmericanExpressRewardsBalance rewardsBalance = AmericanExpressRewardsBalance.fromJson(responseBody);
-                        callback.onResult(rewardsBalance, null);
+                        complete(key, request, rewardsBalance, null);
                     } catch (JSONException e) {
                         braintreeClient.sendAnalyticsEvent("amex.rewards-balance.parse.failed");
-                        callback.onResult(null, e);
+                        complete(key, request, null, e);
                     }
                 } else {
-                    callback.onResult(null, httpError);
+                    complete(key, request, null, httpError);
                     braintreeClient.sendAnalyticsEvent("amex.rewards-balance.error");
                 }
             }
         });
     }
+
+    /**
+     * Removes the rewards balance cached for a nonce and currency, so that the next call to
+     * {@link #getRewardsBalance(String, String, AmericanExpressGetRewardsBalanceCallback)}
+     * fetches it again. A request that is in flight still delivers its result, but the result is
+     * not cached.
+     *
+     * @param nonce the nonce the balance was fetched for
+     * @param currencyIsoCode the currency the balance was fetched in
+     */
+    public synchronized void invalidateRewardsBalance(@NonNull String nonce, @NonNull String currencyIsoCode) {
+        String key = cacheKey(nonce, currencyIsoCode);
+        rewardsBalances.remove(key);
+        rewardsBalanceRequests.remove(key);
+    }
+
+    /**
+     * Removes every cached rewards balance.
+     */
+    public synchronized void invalidateRewardsBalances() {
+        rewardsBalances.clear();
+        rewardsBalanceRequests.clear();
+    }
+
+    private AmericanExpressRewardsBalance getCachedRewardsBalance(String key) {
+        CachedRewardsBalance cached = rewardsBalances.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - cached.fetchedAt >= rewardsBalanceTimeToLiveMs) {
+            rewardsBalances.remove(key);
+            return null;
+        }
+        return cached.rewardsBalance;
+    }
+
+    private void complete(String key, RewardsBalanceRequest request,
+                          AmericanExpressRewardsBalance rewardsBalance, Exception error) {
+        synchronized (this) {
+            // the request is no longer registered if it was invalidated while in flight
+            if (rewardsBalanceRequests.get(key) == request) {
+                rewardsBalanceRequests.remove(key);
+                if (rewardsBalance != null && rewardsBalanceTimeToLiveMs > 0) {
+                    rewardsBalances.put(key, new CachedRewardsBalance(rewardsBalance, System.currentTimeMillis()));
+                }
+            }
+        }
+
+        // callbacks can no longer be added once the request is unregistered
+        for (AmericanExpressGetRewardsBalanceCallback callback : request.callbacks) {
+            callback.onResult(rewardsBalance, error);
+        }
+    }
+
+    private static String cacheKey(String nonce, String currencyIsoCode) {
+        return currencyIsoCode + ":" + nonce;
+    }
+
+    private static class CachedRewardsBalance {
+
+        final AmericanExpressRewardsBalance rewardsBalance;
+        final long fetchedAt;
+
+        CachedRewardsBalance(AmericanExpressRewardsBalance rewardsBalance, long fetchedAt) {
+            this.rewardsBalance = rewardsBalance;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private static class RewardsBalanceRequest {
+
+        final List<AmericanExpressGetRewardsBalanceCallback> callbacks = new ArrayList<>();
+
+        RewardsBalanceRequest(AmericanExpressGetRewardsBalanceCallback callback) {
+            callbacks.add(callback);
+        }
+    }
 }
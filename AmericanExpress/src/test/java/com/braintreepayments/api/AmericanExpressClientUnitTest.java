@@ -3,9 +3,12 @@ package com.braintreepayments.api;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import org.junit.Before;
@@ -149,4 +152,139 @@ public class AmericanExpressClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent("amex.rewards-balance.start");
         verify(braintreeClient).sendAnalyticsEvent("amex.rewards-balance.parse.failed");
     }
+
+    @Test
+    public void getRewardsBalance_withinTimeToLive_returnsCachedBalanceWithoutRequestOrAnalytics() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+        AmericanExpressGetRewardsBalanceCallback secondCallback =
+                mock(AmericanExpressGetRewardsBalanceCallback.class);
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "USD", secondCallback);
+
+        verify(braintreeClient, times(1)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(braintreeClient, times(1)).sendAnalyticsEvent("amex.rewards-balance.start");
+        verify(braintreeClient, times(1)).sendAnalyticsEvent("amex.rewards-balance.success");
+
+        ArgumentCaptor<AmericanExpressRewardsBalance> firstCaptor =
+            ArgumentCaptor.forClass(AmericanExpressRewardsBalance.class);
+        verify(amexRewardsCallback).onResult(firstCaptor.capture(), (Exception) isNull());
+        ArgumentCaptor<AmericanExpressRewardsBalance> secondCaptor =
+            ArgumentCaptor.forClass(AmericanExpressRewardsBalance.class);
+        verify(secondCallback).onResult(secondCaptor.capture(), (Exception) isNull());
+        assertSame(firstCaptor.getValue(), secondCaptor.getValue());
+    }
+
+    @Test
+    public void getRewardsBalance_cachesByNonceAndCurrency() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "EUR", amexRewardsCallback);
+        sut.getRewardsBalance("other-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(3)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void getRewardsBalance_withZeroTimeToLive_alwaysFetches() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient, 0);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void getRewardsBalance_onFailure_doesNotCache() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETErrorResponse(new AuthorizationException("Bad fingerprint"))
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void getRewardsBalance_whileIdenticalRequestIsInFlight_sharesRequest() {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        AmericanExpressGetRewardsBalanceCallback secondCallback =
+                mock(AmericanExpressGetRewardsBalanceCallback.class);
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("fake-nonce", "USD", secondCallback);
+
+        ArgumentCaptor<HttpResponseCallback> captor =
+            ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient, times(1)).sendGET(anyString(), captor.capture());
+        verify(braintreeClient, times(1)).sendAnalyticsEvent("amex.rewards-balance.start");
+
+        Exception error = new Exception("error");
+        captor.getValue().onResult(null, error);
+
+        verify(amexRewardsCallback).onResult(null, error);
+        verify(secondCallback).onResult(null, error);
+    }
+
+    @Test
+    public void invalidateRewardsBalance_removesCachedBalance() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.invalidateRewardsBalance("fake-nonce", "USD");
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void invalidateRewardsBalance_whileRequestIsInFlight_deliversButDoesNotCacheResult() {
+        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        ArgumentCaptor<HttpResponseCallback> captor =
+            ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGET(anyString(), captor.capture());
+
+        sut.invalidateRewardsBalance("fake-nonce", "USD");
+        captor.getValue().onResult(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS, null);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+
+        verify(amexRewardsCallback).onResult(any(AmericanExpressRewardsBalance.class), (Exception) isNull());
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void invalidateRewardsBalances_removesAllCachedBalances() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sendGETSuccessfulResponse(Fixtures.AMEX_REWARDS_BALANCE_SUCCESS)
+                .build();
+
+        AmericanExpressClient sut = new AmericanExpressClient(braintreeClient);
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("other-nonce", "USD", amexRewardsCallback);
+        sut.invalidateRewardsBalances();
+        sut.getRewardsBalance("fake-nonce", "USD", amexRewardsCallback);
+        sut.getRewardsBalance("other-nonce", "USD", amexRewardsCallback);
+
+        verify(braintreeClient, times(4)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
 }
@@ -12,6 +12,9 @@ import org.json.JSONArray
 import org.json.JSONException
 import org.json.JSONObject
 import java.util.*
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
 import java.util.concurrent.TimeUnit
 
 @Suppress("SwallowedException", "TooGenericExceptionCaught")
@@ -19,10 +22,23 @@ internal class AnalyticsClient @VisibleForTesting constructor(
     private val httpClient: BraintreeHttpClient,
     private val analyticsDatabase: AnalyticsDatabase,
     private val workManager: WorkManager,
-    private val deviceInspector: DeviceInspector
+    private val deviceInspector: DeviceInspector,
+    private val dispatchStrategy: AnalyticsDispatchStrategy = AnalyticsDispatchStrategy.WORK_MANAGER,
+    private val dispatchExecutor: Executor? = null,
+    private val applicationContext: Context? = null,
+    private val uploadDelayScheduler: ScheduledExecutorService? = null
 ) {
     private var lastKnownAnalyticsUrl: String? = null
 
+    // with the EXECUTOR strategy at most one upload is pending or running; events stored while it
+    // runs set hasEventsAfterUpload so another upload follows
+    private val uploadLock = Any()
+    private var isUploadPending = false
+    private var hasEventsAfterUpload = false
+
+    @Volatile
+    private var latestUploadInputData: Data? = null
+
     constructor(context: Context) : this(
         BraintreeHttpClient(),
         getInstance(context.applicationContext),
@@ -30,6 +46,21 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         DeviceInspector()
     )
 
+    constructor(
+        context: Context,
+        httpClient: BraintreeHttpClient,
+        dispatchStrategy: AnalyticsDispatchStrategy,
+        dispatchExecutor: Executor?
+    ) : this(
+        httpClient,
+        getInstance(context.applicationContext),
+        WorkManager.getInstance(context.applicationContext),
+        DeviceInspector(),
+        dispatchStrategy,
+        dispatchExecutor,
+        context.applicationContext
+    )
+
     fun sendEvent(
         configuration: Configuration,
         eventName: String?,
@@ -49,21 +80,86 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         integration: String?,
         timestamp: Long,
         authorization: Authorization
-    ): UUID {
+    ): UUID? {
         lastKnownAnalyticsUrl = configuration.analyticsUrl
-        scheduleAnalyticsWrite("android.$eventName", timestamp, authorization)
-        return scheduleAnalyticsUpload(configuration, authorization, sessionId, integration)
-    }
-
-    private fun scheduleAnalyticsWrite(
-        eventName: String, timestamp: Long, authorization: Authorization
-    ) {
-        val inputData = Data.Builder()
+        val writeInputData = Data.Builder()
             .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(WORK_INPUT_KEY_EVENT_NAME, eventName)
+            .putString(WORK_INPUT_KEY_EVENT_NAME, "android.$eventName")
             .putLong(WORK_INPUT_KEY_TIMESTAMP, timestamp)
             .build()
+        val uploadInputData = Data.Builder()
+            .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
 
+        return when (dispatchStrategy) {
+            AnalyticsDispatchStrategy.WORK_MANAGER -> {
+                scheduleAnalyticsWrite(writeInputData)
+                scheduleAnalyticsUpload(uploadInputData)
+            }
+            AnalyticsDispatchStrategy.EXECUTOR -> {
+                dispatchAnalytics(writeInputData, uploadInputData)
+                null
+            }
+        }
+    }
+
+    private fun dispatchAnalytics(writeInputData: Data, uploadInputData: Data) {
+        latestUploadInputData = uploadInputData
+        resolveDispatchExecutor().execute {
+            try {
+                writeAnalytics(writeInputData)
+            } catch (e: Exception) {
+                // the event is lost, which is no worse than a failed upload
+                return@execute
+            }
+            val shouldScheduleUpload = synchronized(uploadLock) {
+                if (isUploadPending) {
+                    hasEventsAfterUpload = true
+                    false
+                } else {
+                    isUploadPending = true
+                    true
+                }
+            }
+            if (shouldScheduleUpload) {
+                scheduleDispatchedUpload()
+            }
+        }
+    }
+
+    // waits briefly so the events of a burst, e.g. the start and end of a flow, share one upload
+    private fun scheduleDispatchedUpload() {
+        (uploadDelayScheduler ?: UPLOAD_DELAY_SCHEDULER).schedule(
+            Runnable { resolveDispatchExecutor().execute { runDispatchedUpload() } },
+            EXECUTOR_UPLOAD_DELAY_MS,
+            TimeUnit.MILLISECONDS
+        )
+    }
+
+    private fun runDispatchedUpload() {
+        synchronized(uploadLock) {
+            hasEventsAfterUpload = false
+        }
+        try {
+            latestUploadInputData?.let { uploadAnalytics(applicationContext, it) }
+        } finally {
+            val shouldScheduleUpload = synchronized(uploadLock) {
+                isUploadPending = hasEventsAfterUpload
+                hasEventsAfterUpload = false
+                isUploadPending
+            }
+            if (shouldScheduleUpload) {
+                scheduleDispatchedUpload()
+            }
+        }
+    }
+
+    private fun resolveDispatchExecutor(): Executor = dispatchExecutor ?: DEFAULT_DISPATCH_EXECUTOR
+
+    private fun scheduleAnalyticsWrite(inputData: Data) {
         val analyticsWorkRequest =
             OneTimeWorkRequest.Builder(AnalyticsWriteToDbWorker::class.java)
                 .setInputData(inputData)
@@ -87,19 +183,7 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         }
     }
 
-    private fun scheduleAnalyticsUpload(
-        configuration: Configuration,
-        authorization: Authorization,
-        sessionId: String?,
-        integration: String?
-    ): UUID {
-        val inputData = Data.Builder()
-            .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
-            .putString(WORK_INPUT_KEY_SESSION_ID, sessionId)
-            .putString(WORK_INPUT_KEY_INTEGRATION, integration)
-            .build()
-
+    private fun scheduleAnalyticsUpload(inputData: Data): UUID {
         val analyticsWorkRequest = OneTimeWorkRequest.Builder(AnalyticsUploadWorker::class.java)
             .setInitialDelay(DELAY_TIME_SECONDS, TimeUnit.SECONDS)
             .setInputData(inputData)
@@ -219,6 +303,19 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         const val WORK_INPUT_KEY_TIMESTAMP = "timestamp"
         private const val DELAY_TIME_SECONDS = 30L
 
+        private const val EXECUTOR_UPLOAD_DELAY_MS = 2000L
+
+        private val DEFAULT_DISPATCH_EXECUTOR: Executor by lazy {
+            Executors.newSingleThreadExecutor()
+        }
+
+        // only times uploads and hands them to the dispatch executor, so one thread is enough
+        private val UPLOAD_DELAY_SCHEDULER: ScheduledExecutorService by lazy {
+            Executors.newSingleThreadScheduledExecutor { runnable ->
+                Thread(runnable, "braintree-analytics-upload-delay").apply { isDaemon = true }
+            }
+        }
+
         private fun getAuthorizationFromData(inputData: Data?): Authorization? =
             inputData?.getString(WORK_INPUT_KEY_AUTHORIZATION)?.let {
                 Authorization.fromString(it)
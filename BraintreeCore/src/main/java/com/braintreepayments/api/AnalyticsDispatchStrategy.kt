@@ -0,0 +1,21 @@
+package com.braintreepayments.api
+
+/**
+ * How [BraintreeClient] stores and uploads analytics events.
+ */
+enum class AnalyticsDispatchStrategy {
+
+    /**
+     * Store and upload events with WorkManager jobs, batching the events of 30 seconds into one
+     * upload that also runs after the app process ends.
+     */
+    WORK_MANAGER,
+
+    /**
+     * Store and upload events on the network executor of [BraintreeOptions], without WorkManager.
+     * Events stored within a couple of seconds of each other are uploaded together, events stored
+     * while an upload runs are uploaded after it, and events that could not be uploaded are sent
+     * with the next upload.
+     */
+    EXECUTOR
+}
@@ -1,8 +1,8 @@
 package com.braintreepayments.api
 
 import androidx.annotation.RestrictTo
-import org.json.JSONException
 import org.json.JSONObject
+import java.io.StringReader
 
 /**
  * @suppress
@@ -11,52 +11,153 @@ import org.json.JSONObject
 class ApiClient(private val braintreeClient: BraintreeClient) {
 
     fun tokenizeGraphQL(tokenizePayload: JSONObject, callback: TokenizeCallback) =
-        braintreeClient.run {
-            sendAnalyticsEvent("card.graphql.tokenization.started")
-            sendGraphQLPOST(tokenizePayload.toString(), object : HttpResponseCallback {
+        tokenizeGraphQL(
+            JsonPayload { writer -> Json.writeMembers(writer, tokenizePayload) },
+            callback
+        )
+
+    fun tokenizeGraphQL(tokenizePayload: JsonPayload, callback: TokenizeCallback) =
+        braintreeClient.tokenize(
+            JSONTokenizationSpec(null, tokenizePayload, GRAPHQL_ANALYTICS_EVENT_PREFIX)
+        ) { json, error -> callback.onResult(json, error) }
+
+    /**
+     * Tokenizes a payment method through GraphQL, decoding the `data` of the response with
+     * [dataDecoder] while it is read from the connection instead of building a [JSONObject].
+     */
+    fun <T> tokenizeGraphQL(
+        tokenizePayload: JsonPayload,
+        dataDecoder: JsonDecoder<T>,
+        callback: HttpResponseStreamCallback<T>
+    ) = braintreeClient.tokenize(
+        DecodingTokenizationSpec(null, tokenizePayload, dataDecoder, GRAPHQL_ANALYTICS_EVENT_PREFIX)
+    ) { result, error -> callback.onResult(result, error) }
+
+    /**
+     * Tokenizes several payment methods at once, sending the payloads as a single batched GraphQL
+     * request when the configuration enables batching. Each callback receives the result for the
+     * payload at the same position, decoded from the `data` of its operation with [dataDecoder].
+     * No analytics events are sent per payload so that callers can report on the batch as a whole.
+     */
+    fun <T> tokenizeGraphQL(
+        tokenizePayloads: List<JsonPayload>,
+        dataDecoder: JsonDecoder<T>,
+        callbacks: List<HttpResponseStreamCallback<T>>
+    ) {
+        require(tokenizePayloads.size == callbacks.size) {
+            "Expected one callback per tokenize payload."
+        }
+        val streamHandler = GraphQLResponseStreamHandler(dataDecoder)
+        val operations = tokenizePayloads.mapIndexed { i, payload ->
+            val callback = callbacks[i]
+            GraphQLBatchOperation(payload, object : HttpResponseCallback {
                 override fun onResult(responseBody: String?, httpError: Exception?) {
-                    parseResponseToJSON(responseBody)?.let { json ->
-                        sendAnalyticsEvent("card.graphql.tokenization.success")
-                        callback.onResult(json, null)
-                    } ?: httpError?.let { error ->
-                        sendAnalyticsEvent("card.graphql.tokenization.failure")
-                        callback.onResult(null, error)
+                    if (responseBody == null) {
+                        callback.onResult(null, httpError)
+                        return
                     }
+                    // batched results share one response and are split before they are decoded
+                    val result = try {
+                        streamHandler.handle(StringReader(responseBody))
+                    } catch (e: Exception) {
+                        callback.onResult(null, e)
+                        return
+                    }
+                    callback.onResult(result, null)
                 }
             })
         }
+        braintreeClient.sendGraphQLBatch(operations)
+    }
 
     fun tokenizeREST(paymentMethod: PaymentMethod, callback: TokenizeCallback) =
-        braintreeClient.run {
-            val url = versionedPath("$PAYMENT_METHOD_ENDPOINT/${paymentMethod.apiPath}")
-            paymentMethod.setSessionId(braintreeClient.sessionId)
+        braintreeClient.tokenize(
+            JSONTokenizationSpec(
+                restPath(paymentMethod),
+                restPayload(paymentMethod),
+                REST_ANALYTICS_EVENT_PREFIX
+            )
+        ) { json, error -> callback.onResult(json, error) }
 
-            sendAnalyticsEvent("card.rest.tokenization.started")
-            sendPOST(url, paymentMethod.buildJSON().toString(), object : HttpResponseCallback {
-                override fun onResult(responseBody: String?, httpError: Exception?) {
-                    parseResponseToJSON(responseBody)?.let { json ->
-                        sendAnalyticsEvent("card.rest.tokenization.success")
-                        callback.onResult(json, null)
-                    } ?: httpError?.let { error ->
-                        sendAnalyticsEvent("card.rest.tokenization.failure")
-                        callback.onResult(null, error)
-                    }
-                }
-            })
-        }
+    /**
+     * Tokenizes a payment method through the REST API, decoding the response with [decoder] while
+     * it is read from the connection instead of building a [JSONObject].
+     */
+    fun <T> tokenizeREST(
+        paymentMethod: PaymentMethod,
+        decoder: JsonDecoder<T>,
+        callback: HttpResponseStreamCallback<T>
+    ) = tokenizeREST(paymentMethod, true, decoder, callback)
 
-    private fun parseResponseToJSON(responseBody: String?): JSONObject? =
-        responseBody?.let {
-            try {
-                JSONObject(it)
-            } catch (e: JSONException) {
-                null
-            }
-        }
+    /**
+     * @param sendAnalyticsEvents `false` to skip the per request tokenization analytics events,
+     * for callers that report on a group of tokenizations themselves.
+     */
+    fun <T> tokenizeREST(
+        paymentMethod: PaymentMethod,
+        sendAnalyticsEvents: Boolean,
+        decoder: JsonDecoder<T>,
+        callback: HttpResponseStreamCallback<T>
+    ) = braintreeClient.tokenize(
+        DecodingTokenizationSpec(
+            restPath(paymentMethod),
+            restPayload(paymentMethod),
+            decoder,
+            if (sendAnalyticsEvents) REST_ANALYTICS_EVENT_PREFIX else null
+        )
+    ) { result, error -> callback.onResult(result, error) }
+
+    private fun restPath(paymentMethod: PaymentMethod) =
+        versionedPath("$PAYMENT_METHOD_ENDPOINT/${paymentMethod.apiPath}")
+
+    private fun restPayload(paymentMethod: PaymentMethod): JsonPayload {
+        paymentMethod.setSessionId(braintreeClient.sessionId)
+        return JsonPayload { writer -> paymentMethod.writeJSON(writer) }
+    }
+
+    /**
+     * Tokenizes [payload] and hands the response body to the callback as a [JSONObject].
+     */
+    private class JSONTokenizationSpec(
+        private val path: String?,
+        private val payload: JsonPayload,
+        private val analyticsEventPrefix: String?
+    ) : StringTokenizationSpec<JSONObject>() {
+
+        override fun getPath() = path
+
+        override fun getAnalyticsEventPrefix() = analyticsEventPrefix
+
+        override fun serialize(configuration: Configuration?) = payload
+
+        override fun decode(responseBody: String) = JSONObject(responseBody)
+    }
+
+    /**
+     * Tokenizes [payload] and decodes the response with [decoder] while it is received.
+     */
+    private class DecodingTokenizationSpec<T>(
+        private val path: String?,
+        private val payload: JsonPayload,
+        private val decoder: JsonDecoder<T>,
+        private val analyticsEventPrefix: String?
+    ) : StreamingTokenizationSpec<T>() {
+
+        override fun getPath() = path
+
+        override fun getAnalyticsEventPrefix() = analyticsEventPrefix
+
+        override fun serialize(configuration: Configuration?) = payload
+
+        override fun getDecoder() = decoder
+    }
 
     companion object {
         const val PAYMENT_METHOD_ENDPOINT = "payment_methods"
 
+        private const val REST_ANALYTICS_EVENT_PREFIX = "card.rest.tokenization"
+        private const val GRAPHQL_ANALYTICS_EVENT_PREFIX = "card.graphql.tokenization"
+
         @JvmStatic
         fun versionedPath(path: String): String {
             return "/v1/$path"
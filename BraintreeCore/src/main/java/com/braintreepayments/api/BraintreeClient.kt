@@ -4,10 +4,18 @@ import android.content.Context
 import android.content.Intent
 import android.content.pm.ActivityInfo
 import android.net.Uri
+import android.os.CancellationSignal
+import android.os.Looper
 import androidx.annotation.RestrictTo
 import androidx.annotation.VisibleForTesting
 import androidx.fragment.app.FragmentActivity
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleEventObserver
+import androidx.lifecycle.LifecycleOwner
 import com.braintreepayments.api.IntegrationType.Integration
+import org.json.JSONException
+import org.json.JSONObject
+import java.util.concurrent.Executor
 
 /**
  * Core Braintree class that handles network requests.
@@ -38,14 +46,48 @@ open class BraintreeClient @VisibleForTesting internal constructor(
     private val httpClient: BraintreeHttpClient,
     private val graphQLClient: BraintreeGraphQLClient,
     private val browserSwitchClient: BrowserSwitchClient,
+    private val browserSwitchAccelerator: BrowserSwitchAccelerator,
     private val configurationLoader: ConfigurationLoader,
+    private val readyToPayCache: ReadyToPayCache,
+    private val flowStateStore: FlowStateStore,
     private val manifestValidator: ManifestValidator,
     private val returnUrlScheme: String,
     private val braintreeDeepLinkReturnUrlScheme: String,
+    private val parsingExecutor: Executor? = null,
+
+    /**
+     * The executor callbacks are delivered on, or null if the app did not supply one in
+     * [BraintreeOptions] and callbacks are delivered on the main thread.
+     *
+     * @suppress
+     */
+    @get:RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    val callbackExecutor: Executor? = null,
+    private val flowStateExecutor: Executor = FlowStateStore.IO_EXECUTOR,
+    private val mainExecutor: Executor = TokenizationPipeline.MAIN_EXECUTOR,
+
+    /**
+     * The executor network requests run on, or null if the app did not supply one in
+     * [BraintreeOptions].
+     *
+     * @suppress
+     */
+    @get:RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    val networkExecutor: Executor? = null,
 ) {
 
     private val crashReporter: CrashReporter
     private var launchesBrowserSwitchAsNewTask: Boolean = false
+    private val tokenizationPipeline by lazy {
+        TokenizationPipeline(
+            this,
+            parsingExecutor ?: TokenizationPipeline.WORKER_EXECUTOR,
+            callbackExecutor ?: TokenizationPipeline.MAIN_EXECUTOR
+        )
+    }
+
+    private val resultExecutor: Executor
+        get() = callbackExecutor ?: mainExecutor
 
     // NOTE: this constructor is used to make dependency injection easy
     internal constructor(params: BraintreeClientParams) : this(
@@ -57,16 +99,27 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         httpClient = params.httpClient,
         graphQLClient = params.graphQLClient,
         browserSwitchClient = params.browserSwitchClient,
+        browserSwitchAccelerator = params.browserSwitchAccelerator,
         configurationLoader = params.configurationLoader,
+        readyToPayCache = params.readyToPayCache,
+        flowStateStore = params.flowStateStore,
         manifestValidator = params.manifestValidator,
         returnUrlScheme = params.returnUrlScheme,
-        braintreeDeepLinkReturnUrlScheme = params.braintreeReturnUrlScheme
+        braintreeDeepLinkReturnUrlScheme = params.braintreeReturnUrlScheme,
+        parsingExecutor = params.parsingExecutor,
+        callbackExecutor = params.callbackExecutor,
+        flowStateExecutor = params.flowStateExecutor,
+        mainExecutor = params.mainExecutor,
+        networkExecutor = params.networkExecutor
     )
 
     /**
-     * @suppress
+     * Create a new instance of [BraintreeClient] using [BraintreeOptions], for example to run the
+     * SDK on executors supplied by the app.
+     *
+     * @param options [BraintreeOptions]; either [BraintreeOptions.initialAuthString] or
+     * [BraintreeOptions.clientTokenProvider] must be set
      */
-    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     constructor(options: BraintreeOptions) : this(BraintreeClientParams(options))
 
     /**
@@ -198,6 +251,24 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         }
     }
 
+    /**
+     * Retrieve how often the configuration of each recently used merchant was served from the
+     * configuration cache, which is shared by all [BraintreeClient] instances in the process.
+     *
+     * @return a [ConfigurationCacheStats] for each recently used merchant
+     */
+    fun getConfigurationCacheStats(): List<ConfigurationCacheStats> =
+        configurationLoader.getCacheStats()
+
+    /**
+     * Retrieve how often GraphQL operations sent by this [BraintreeClient] as persisted queries
+     * were resolved by the server from the hash of their query alone. Persisted queries are only
+     * sent when the merchant configuration enables them.
+     *
+     * @return the [PersistedQueryStats] of this client
+     */
+    fun getPersistedQueryStats(): PersistedQueryStats = graphQLClient.getPersistedQueryStats()
+
     /**
      * @suppress
      */
@@ -206,6 +277,15 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         authorizationLoader.loadAuthorization(callback)
     }
 
+    /**
+     * Returns the authorization this client has already loaded without fetching a client token,
+     * or null if it has not been loaded yet.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun getCachedAuthorization(): Authorization? = authorizationLoader.authorizationFromCache
+
     /**
      * @suppress
      */
@@ -260,7 +340,21 @@ open class BraintreeClient @VisibleForTesting internal constructor(
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    fun sendPOST(url: String, data: String, responseCallback: HttpResponseCallback) {
+    fun sendPOST(url: String, data: String, responseCallback: HttpResponseCallback) =
+        sendPOST(url, data, null, responseCallback)
+
+    /**
+     * Sends [data] to [url], aborting the request when [cancellationSignal] is canceled.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendPOST(
+        url: String,
+        data: String,
+        cancellationSignal: CancellationSignal?,
+        responseCallback: HttpResponseCallback
+    ) {
         getAuthorization { authorization, authError ->
             if (authorization != null) {
                 getConfiguration { configuration, configError ->
@@ -270,6 +364,99 @@ open class BraintreeClient @VisibleForTesting internal constructor(
                             data,
                             configuration,
                             authorization,
+                            cancellationSignal,
+                            responseCallback
+                        )
+                    } else {
+                        responseCallback.onResult(null, configError)
+                    }
+                }
+            } else {
+                responseCallback.onResult(null, authError)
+            }
+        }
+    }
+
+    /**
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendPOST(url: String, payload: JsonPayload, responseCallback: HttpResponseCallback) =
+        sendPOST(url, payload, null, responseCallback)
+
+    /**
+     * Sends [payload] to [url], aborting the request when [cancellationSignal] is canceled.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendPOST(
+        url: String,
+        payload: JsonPayload,
+        cancellationSignal: CancellationSignal?,
+        responseCallback: HttpResponseCallback
+    ) {
+        getAuthorization { authorization, authError ->
+            if (authorization != null) {
+                getConfiguration { configuration, configError ->
+                    if (configuration != null) {
+                        httpClient.post(
+                            url,
+                            payload,
+                            configuration,
+                            authorization,
+                            cancellationSignal,
+                            responseCallback
+                        )
+                    } else {
+                        responseCallback.onResult(null, configError)
+                    }
+                }
+            } else {
+                responseCallback.onResult(null, authError)
+            }
+        }
+    }
+
+    /**
+     * Sends [payload] to [url] and decodes the response body with [decoder] while it is read from
+     * the connection.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun <T> sendPOST(
+        url: String,
+        payload: JsonPayload,
+        decoder: JsonDecoder<T>,
+        responseCallback: HttpResponseStreamCallback<T>
+    ) = sendPOST(url, payload, decoder, null, responseCallback)
+
+    /**
+     * Sends [payload] to [url] like the [JsonDecoder] variant of [sendPOST], aborting the request
+     * when [cancellationSignal] is canceled.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun <T> sendPOST(
+        url: String,
+        payload: JsonPayload,
+        decoder: JsonDecoder<T>,
+        cancellationSignal: CancellationSignal?,
+        responseCallback: HttpResponseStreamCallback<T>
+    ) {
+        getAuthorization { authorization, authError ->
+            if (authorization != null) {
+                getConfiguration { configuration, configError ->
+                    if (configuration != null) {
+                        httpClient.post(
+                            url,
+                            payload,
+                            configuration,
+                            authorization,
+                            decoder,
+                            cancellationSignal,
                             responseCallback
                         )
                     } else {
@@ -307,6 +494,118 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         }
     }
 
+    /**
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLPOST(payload: JsonPayload, responseCallback: HttpResponseCallback) =
+        sendGraphQLPOST(payload, null, responseCallback)
+
+    /**
+     * Sends [payload] to the GraphQL API, aborting the request when [cancellationSignal] is
+     * canceled. A payload that is batched with others is not aborted.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLPOST(
+        payload: JsonPayload,
+        cancellationSignal: CancellationSignal?,
+        responseCallback: HttpResponseCallback
+    ) {
+        getAuthorization { authorization, authError ->
+            if (authorization != null) {
+                getConfiguration { configuration, configError ->
+                    if (configuration != null) {
+                        graphQLClient.post(
+                            payload,
+                            configuration,
+                            authorization,
+                            cancellationSignal,
+                            responseCallback
+                        )
+                    } else {
+                        responseCallback.onResult(null, configError)
+                    }
+                }
+            } else {
+                responseCallback.onResult(null, authError)
+            }
+        }
+    }
+
+    /**
+     * Sends [payload] to the GraphQL API and decodes the `data` of the response with
+     * [dataDecoder] while it is read from the connection. GraphQL errors are reported to
+     * [responseCallback] the same way as for the [String] variants.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun <T> sendGraphQLPOST(
+        payload: JsonPayload,
+        dataDecoder: JsonDecoder<T>,
+        responseCallback: HttpResponseStreamCallback<T>
+    ) = sendGraphQLPOST(payload, dataDecoder, null, responseCallback)
+
+    /**
+     * Sends [payload] like the [JsonDecoder] variant of [sendGraphQLPOST], aborting the request
+     * when [cancellationSignal] is canceled.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun <T> sendGraphQLPOST(
+        payload: JsonPayload,
+        dataDecoder: JsonDecoder<T>,
+        cancellationSignal: CancellationSignal?,
+        responseCallback: HttpResponseStreamCallback<T>
+    ) {
+        getAuthorization { authorization, authError ->
+            if (authorization != null) {
+                getConfiguration { configuration, configError ->
+                    if (configuration != null) {
+                        graphQLClient.post(
+                            payload,
+                            configuration,
+                            authorization,
+                            dataDecoder,
+                            cancellationSignal,
+                            responseCallback
+                        )
+                    } else {
+                        responseCallback.onResult(null, configError)
+                    }
+                }
+            } else {
+                responseCallback.onResult(null, authError)
+            }
+        }
+    }
+
+    /**
+     * Sends [operations] to the GraphQL API in a single request when the merchant configuration
+     * enables batching. Each operation's callback receives only the result of that operation.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLBatch(operations: List<GraphQLBatchOperation>) {
+        getAuthorization { authorization, authError ->
+            if (authorization != null) {
+                getConfiguration { configuration, configError ->
+                    if (configuration != null) {
+                        graphQLClient.postBatch(operations, configuration, authorization)
+                    } else {
+                        operations.forEach { it.callback.onResult(null, configError) }
+                    }
+                }
+            } else {
+                operations.forEach { it.callback.onResult(null, authError) }
+            }
+        }
+    }
+
     /**
      * @suppress
      */
@@ -318,9 +617,146 @@ open class BraintreeClient @VisibleForTesting internal constructor(
     ) {
         if (activity != null && browserSwitchOptions != null) {
             browserSwitchClient.start(activity, browserSwitchOptions)
+            sendAnalyticsEvent("browser-switch.started")
+            // lifecycles can only be observed on the main thread, and a callbackExecutor supplied
+            // by the app may call this from another one
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                observeBrowserVisible(activity)
+            } else {
+                mainExecutor.execute { observeBrowserVisible(activity) }
+            }
         }
     }
 
+    /**
+     * Tokenizes a payment method described by [spec], building the request and decoding the
+     * response off the main thread. [callback] receives the result on the callback executor.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun <T> tokenize(
+        spec: TokenizationSpec<T>,
+        callback: TokenizationPipelineCallback<T>
+    ): TokenizationTask = tokenizationPipeline.execute(spec, callback)
+
+    /**
+     * Returns whether [paymentMethod] is ready to pay, using [loader] only when no cached result
+     * exists for [configuration] and [parameters]. An expired result is returned immediately while
+     * [loader] refreshes it in the background.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun loadReadyToPay(
+        paymentMethod: String,
+        configuration: Configuration,
+        parameters: String?,
+        loader: ReadyToPayLoader,
+        callback: ReadyToPayResultCallback
+    ) {
+        readyToPayCache.watchPackageChanges(applicationContext)
+        // the hash of the raw configuration identifies its generation; a new one misses the cache
+        val key = "$paymentMethod:${configuration.toJson().hashCode()}:${parameters.orEmpty()}"
+        readyToPayCache.load(key, loader, callback)
+    }
+
+    /**
+     * Drops the cached readiness results of [paymentMethod], e.g. after sending the customer to
+     * set up or update the wallet app.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun invalidateReadyToPay(paymentMethod: String) {
+        readyToPayCache.invalidate("$paymentMethod:")
+    }
+
+    /**
+     * Persists [state] for the flow identified by [requestCode] so the flow can continue after the
+     * process was killed. Any state previously saved for [requestCode] is replaced. The state
+     * expires after an hour and can only be restored with an authorization for the same merchant.
+     * Nothing is saved if the authorization has not been loaded yet. The file is written in the
+     * background.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun saveFlowState(requestCode: Int, state: JSONObject) {
+        val owner = authorizationLoader.authorizationFromCache?.configUrl ?: return
+        val serializedState = state.toString()
+        flowStateExecutor.execute { flowStateStore.put(requestCode, owner, serializedState) }
+    }
+
+    /**
+     * Removes the state saved for [requestCode] by a process that has since been killed and
+     * delivers it to [callback] on the callback executor, or null if there is none. State saved
+     * by the current process is not returned since its flow may still be running, and state saved
+     * for another merchant is never returned. The file is read in the background.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun restoreFlowState(requestCode: Int, callback: FlowStateCallback) {
+        getAuthorization { authorization, _ ->
+            // the configuration URL identifies the merchant and, unlike a client token, stays
+            // the same across processes
+            val owner = authorization?.configUrl
+            if (owner == null) {
+                resultExecutor.execute { callback.onResult(null) }
+                return@getAuthorization
+            }
+            flowStateExecutor.execute {
+                val state = flowStateStore.takeFromPreviousProcess(requestCode, owner)?.let {
+                    try {
+                        JSONObject(it)
+                    } catch (e: JSONException) {
+                        null
+                    }
+                }
+                resultExecutor.execute { callback.onResult(state) }
+            }
+        }
+    }
+
+    /**
+     * Removes the state saved for [requestCode] once its flow has completed. The file is written
+     * in the background, after any state saved before this call.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun clearFlowState(requestCode: Int) {
+        flowStateExecutor.execute { flowStateStore.remove(requestCode) }
+    }
+
+    /**
+     * Binds to the default browser's Custom Tabs service and starts the browser process so a
+     * browser switch later in the flow does not have to cold start it. Call this as soon as a
+     * flow that ends in a browser switch begins.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun warmUpBrowserSwitch() {
+        browserSwitchAccelerator.warmUp(applicationContext)
+    }
+
+    // the browser covering the host activity stops it; the time between the browser-switch.started
+    // and browser-switch.visible events is the time it took for the browser to become visible
+    private fun observeBrowserVisible(activity: FragmentActivity) {
+        activity.lifecycle.addObserver(object : LifecycleEventObserver {
+            override fun onStateChanged(source: LifecycleOwner, event: Lifecycle.Event) {
+                if (event == Lifecycle.Event.ON_STOP) {
+                    sendAnalyticsEvent("browser-switch.visible")
+                    source.lifecycle.removeObserver(this)
+                } else if (event == Lifecycle.Event.ON_DESTROY) {
+                    source.lifecycle.removeObserver(this)
+                }
+            }
+        })
+    }
+
     /**
      * @suppress
      */
@@ -338,6 +774,7 @@ open class BraintreeClient @VisibleForTesting internal constructor(
      */
     open fun deliverBrowserSwitchResult(activity: FragmentActivity): BrowserSwitchResult? {
         return browserSwitchClient.deliverResult(activity)
+            ?.also { browserSwitchAccelerator.release() }
     }
 
     /**
@@ -357,6 +794,7 @@ open class BraintreeClient @VisibleForTesting internal constructor(
      */
     open fun deliverBrowserSwitchResultFromNewTask(context: Context): BrowserSwitchResult? {
         return browserSwitchClient.deliverResultFromCache(context)
+            ?.also { browserSwitchAccelerator.release() }
     }
 
     /**
@@ -365,6 +803,7 @@ open class BraintreeClient @VisibleForTesting internal constructor(
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     fun parseBrowserSwitchResult(context: Context, requestCode: Int, intent: Intent?) =
         browserSwitchClient.parseResult(context, requestCode, intent)
+            ?.also { browserSwitchAccelerator.release() }
 
     /**
      * @suppress
@@ -3,6 +3,7 @@ package com.braintreepayments.api
 import android.content.Context
 import androidx.annotation.VisibleForTesting
 import com.braintreepayments.api.IntegrationType.Integration
+import java.util.concurrent.Executor
 
 internal data class BraintreeClientParams @VisibleForTesting constructor(
     val context: Context,
@@ -13,20 +14,52 @@ internal data class BraintreeClientParams @VisibleForTesting constructor(
     val graphQLClient: BraintreeGraphQLClient = BraintreeGraphQLClient(),
     val analyticsClient: AnalyticsClient = AnalyticsClient(context),
     val browserSwitchClient: BrowserSwitchClient = BrowserSwitchClient(),
+    val browserSwitchAccelerator: BrowserSwitchAccelerator = BrowserSwitchAccelerator.getInstance(),
+    val readyToPayCache: ReadyToPayCache = ReadyToPayCache.getInstance(),
+    val flowStateStore: FlowStateStore = FlowStateStore.getInstance(context),
     val manifestValidator: ManifestValidator = ManifestValidator(),
     val uuidHelper: UUIDHelper = UUIDHelper(),
     val configurationLoader: ConfigurationLoader = ConfigurationLoader(context, httpClient),
     @Integration val integrationType: String,
+    val parsingExecutor: Executor? = null,
+    val callbackExecutor: Executor? = null,
+    val flowStateExecutor: Executor = FlowStateStore.IO_EXECUTOR,
+    val mainExecutor: Executor = TokenizationPipeline.MAIN_EXECUTOR,
+    val networkExecutor: Executor? = null,
 ) {
 
-    constructor(options: BraintreeOptions) : this(
+    constructor(options: BraintreeOptions) : this(options, createScheduler(options))
+
+    // the HTTP and GraphQL clients share one scheduler, and so one set of threads
+    private constructor(options: BraintreeOptions, scheduler: Scheduler?) : this(
+        options = options,
+        httpClient = scheduler?.let { BraintreeHttpClient(it) } ?: BraintreeHttpClient(),
+        graphQLClient = scheduler?.let { BraintreeGraphQLClient(it) } ?: BraintreeGraphQLClient()
+    )
+
+    private constructor(
+        options: BraintreeOptions,
+        httpClient: BraintreeHttpClient,
+        graphQLClient: BraintreeGraphQLClient
+    ) : this(
         context = options.context,
         authorizationLoader = options.run {
             AuthorizationLoader(initialAuthString, clientTokenProvider)
         },
         sessionId = options.sessionId ?: createUniqueSessionId(),
         returnUrlScheme = options.returnUrlScheme ?: createDefaultReturnUrlScheme(options.context),
-        integrationType = options.integrationType ?: IntegrationType.CUSTOM
+        httpClient = httpClient,
+        graphQLClient = graphQLClient,
+        analyticsClient = AnalyticsClient(
+            options.context,
+            httpClient,
+            options.analyticsDispatchStrategy,
+            options.networkExecutor
+        ),
+        integrationType = options.integrationType ?: IntegrationType.CUSTOM,
+        parsingExecutor = options.parsingExecutor,
+        callbackExecutor = options.callbackExecutor,
+        networkExecutor = options.networkExecutor
     )
 
     val applicationContext: Context = context.applicationContext
@@ -34,6 +67,14 @@ internal data class BraintreeClientParams @VisibleForTesting constructor(
         "${getAppPackageNameWithoutUnderscores(context)}.braintree.deeplinkhandler"
 
     companion object {
+        // without host executors the HTTP clients keep creating their default ThreadScheduler
+        private fun createScheduler(options: BraintreeOptions): Scheduler? =
+            if (options.networkExecutor == null && options.callbackExecutor == null) {
+                null
+            } else {
+                ExecutorScheduler(options.networkExecutor, options.callbackExecutor)
+            }
+
         private fun createUniqueSessionId() = UUIDHelper().formattedUUID
 
         private fun getAppPackageNameWithoutUnderscores(context: Context) =
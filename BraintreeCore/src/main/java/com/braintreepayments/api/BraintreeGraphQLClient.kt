@@ -1,11 +1,24 @@
 package com.braintreepayments.api
 
+import android.os.CancellationSignal
+import android.os.Handler
+import android.os.Looper
+import org.json.JSONArray
+import org.json.JSONException
 import java.util.Locale
+import java.util.concurrent.atomic.AtomicLong
 
 internal class BraintreeGraphQLClient(
-    private val httpClient: HttpClient = createDefaultHttpClient()
+    private val httpClient: HttpClient = createDefaultHttpClient(),
+    handler: Handler? = null
 ) {
 
+    constructor(scheduler: Scheduler) : this(createDefaultHttpClient(scheduler))
+
+    private val batchHandler: Handler by lazy { handler ?: Handler(Looper.getMainLooper()) }
+    private val batchLock = Any()
+    private var pendingBatch: PendingBatch? = null
+
     fun post(
         path: String?,
         data: String?,
@@ -53,6 +66,359 @@ internal class BraintreeGraphQLClient(
         httpClient.sendRequest(request, callback)
     }
 
+    /**
+     * Number of persisted queries the server resolved from their hash alone.
+     */
+    val persistedQueryHitCount: Long
+        get() = persistedQueryHits.get()
+
+    /**
+     * Number of persisted queries that had to be resent with their full query text.
+     */
+    val persistedQueryMissCount: Long
+        get() = persistedQueryMisses.get()
+
+    /**
+     * Snapshot of [persistedQueryHitCount] and [persistedQueryMissCount].
+     */
+    fun getPersistedQueryStats() =
+        PersistedQueryStats(persistedQueryHits.get(), persistedQueryMisses.get())
+
+    private val persistedQueryHits = AtomicLong()
+    private val persistedQueryMisses = AtomicLong()
+
+    @Volatile
+    private var persistedQueriesSupported = true
+
+    /**
+     * Sends [payload] to the GraphQL API. When the payload is a [GraphQLPayload] and the
+     * configuration enables persisted queries, only the hash of the query is sent at first; if the
+     * server does not know the hash the request is sent once more with the full query text.
+     *
+     * When the configuration enables batching, the payload is held back for a short window and
+     * sent together with the other payloads posted in that window.
+     */
+    fun post(
+        payload: JsonPayload,
+        configuration: Configuration,
+        authorization: Authorization,
+        callback: HttpResponseCallback
+    ) = post(payload, configuration, authorization, null, callback)
+
+    /**
+     * Sends [payload] to the GraphQL API like [post], aborting the request when
+     * [cancellationSignal] is canceled. A batched payload shares its request with other payloads,
+     * so that request is never aborted.
+     */
+    fun post(
+        payload: JsonPayload,
+        configuration: Configuration,
+        authorization: Authorization,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseCallback
+    ) {
+        if (authorization is InvalidAuthorization) {
+            val message = authorization.errorMessage
+            callback.onResult(null, BraintreeException(message))
+            return
+        }
+        if (isBatchingEnabled(configuration)) {
+            enqueue(GraphQLBatchOperation(payload, callback), configuration, authorization)
+        } else {
+            postNow(payload, configuration, authorization, cancellationSignal, callback)
+        }
+    }
+
+    /**
+     * Sends [operations] to the GraphQL API in a single batched request and hands each callback
+     * the result of its own operation. Errors reported for one operation do not affect the
+     * others. When the configuration does not enable batching the operations are sent one by one.
+     */
+    fun postBatch(
+        operations: List<GraphQLBatchOperation>,
+        configuration: Configuration,
+        authorization: Authorization
+    ) {
+        if (authorization is InvalidAuthorization) {
+            val message = authorization.errorMessage
+            operations.forEach { it.callback.onResult(null, BraintreeException(message)) }
+            return
+        }
+        if (isBatchingEnabled(configuration)) {
+            sendBatch(operations, configuration, authorization)
+        } else {
+            operations.forEach {
+                postNow(it.payload, configuration, authorization, null, it.callback)
+            }
+        }
+    }
+
+    /**
+     * Sends [payload] to the GraphQL API and decodes the `data` of the response with [dataDecoder]
+     * while it is read from the connection, without holding the body as a [String]. Persisted
+     * queries are used as in [post]. The payload is never batched, since a batched response holds
+     * the results of several operations.
+     */
+    fun <T> post(
+        payload: JsonPayload,
+        configuration: Configuration,
+        authorization: Authorization,
+        dataDecoder: JsonDecoder<T>,
+        callback: HttpResponseStreamCallback<T>
+    ) = post(payload, configuration, authorization, dataDecoder, null, callback)
+
+    /**
+     * Sends [payload] like the [JsonDecoder] variant of [post], aborting the request when
+     * [cancellationSignal] is canceled.
+     */
+    fun <T> post(
+        payload: JsonPayload,
+        configuration: Configuration,
+        authorization: Authorization,
+        dataDecoder: JsonDecoder<T>,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseStreamCallback<T>
+    ) {
+        if (authorization is InvalidAuthorization) {
+            val message = authorization.errorMessage
+            callback.onResult(null, BraintreeException(message))
+            return
+        }
+        val streamHandler = GraphQLResponseStreamHandler(dataDecoder)
+        if (payload is GraphQLPayload && shouldUsePersistedQuery(configuration)) {
+            val hashOnly = payload.toPersistedQueryPayload(includeQuery = false)
+            send(
+                hashOnly, configuration, authorization, streamHandler, cancellationSignal
+            ) { result, httpError ->
+                val fullQuery = onPersistedQueryResult(payload, httpError)
+                if (fullQuery != null) {
+                    send(
+                        fullQuery, configuration, authorization, streamHandler,
+                        cancellationSignal, callback
+                    )
+                } else {
+                    callback.onResult(result, httpError)
+                }
+            }
+        } else {
+            send(payload, configuration, authorization, streamHandler, cancellationSignal, callback)
+        }
+    }
+
+    private fun postNow(
+        payload: JsonPayload,
+        configuration: Configuration,
+        authorization: Authorization,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseCallback
+    ) {
+        if (payload is GraphQLPayload && shouldUsePersistedQuery(configuration)) {
+            postPersistedQuery(payload, configuration, authorization, cancellationSignal, callback)
+        } else {
+            send(payload, configuration, authorization, cancellationSignal, callback)
+        }
+    }
+
+    private fun isBatchingEnabled(configuration: Configuration) =
+        configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.BATCHING)
+
+    private fun enqueue(
+        operation: GraphQLBatchOperation,
+        configuration: Configuration,
+        authorization: Authorization
+    ) {
+        val readyBatches = mutableListOf<PendingBatch>()
+        synchronized(batchLock) {
+            var batch = pendingBatch
+            if (batch != null && !batch.accepts(configuration, authorization)) {
+                batchHandler.removeCallbacks(batch)
+                readyBatches.add(batch)
+                batch = null
+            }
+            if (batch == null) {
+                batch = PendingBatch(configuration, authorization)
+                batchHandler.postDelayed(batch, BATCH_WINDOW_MS)
+            }
+            batch.operations.add(operation)
+            pendingBatch = batch
+
+            if (batch.operations.size >= MAX_BATCH_SIZE) {
+                batchHandler.removeCallbacks(batch)
+                readyBatches.add(batch)
+                pendingBatch = null
+            }
+        }
+        readyBatches.forEach { sendBatch(it.operations, it.configuration, it.authorization) }
+    }
+
+    private fun flush(batch: PendingBatch) {
+        synchronized(batchLock) {
+            if (pendingBatch !== batch) return
+            pendingBatch = null
+        }
+        sendBatch(batch.operations, batch.configuration, batch.authorization)
+    }
+
+    private fun sendBatch(
+        operations: List<GraphQLBatchOperation>,
+        configuration: Configuration,
+        authorization: Authorization
+    ) {
+        if (operations.size == 1) {
+            val operation = operations[0]
+            postNow(operation.payload, configuration, authorization, null, operation.callback)
+            return
+        }
+
+        val request = try {
+            HttpRequest().method("POST").path("").data(operations.map { it.payload })
+        } catch (e: Exception) {
+            operations.forEach { it.callback.onResult(null, e) }
+            return
+        }
+        addHeaders(request, configuration, authorization)
+        httpClient.sendRequest(request, object : HttpResponseCallback {
+            override fun onResult(responseBody: String?, httpError: Exception?) {
+                if (responseBody == null) {
+                    operations.forEach { it.callback.onResult(null, httpError) }
+                } else {
+                    dispatchBatchResults(responseBody, operations)
+                }
+            }
+        })
+    }
+
+    private fun dispatchBatchResults(
+        responseBody: String,
+        operations: List<GraphQLBatchOperation>
+    ) {
+        val results = try {
+            JSONArray(responseBody).also {
+                if (it.length() != operations.size) {
+                    throw JSONException(
+                        "Expected ${operations.size} batched results but received ${it.length()}."
+                    )
+                }
+            }
+        } catch (e: JSONException) {
+            operations.forEach { it.callback.onResult(null, e) }
+            return
+        }
+
+        operations.forEachIndexed { i, operation ->
+            val result = try {
+                BraintreeGraphQLResponseParser.parseOperationResult(results.get(i).toString())
+            } catch (e: Exception) {
+                operation.callback.onResult(null, e)
+                return@forEachIndexed
+            }
+            operation.callback.onResult(result, null)
+        }
+    }
+
+    private fun shouldUsePersistedQuery(configuration: Configuration) = persistedQueriesSupported &&
+        configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.PERSISTED_QUERIES)
+
+    private fun postPersistedQuery(
+        payload: GraphQLPayload,
+        configuration: Configuration,
+        authorization: Authorization,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseCallback
+    ) {
+        val hashOnly = payload.toPersistedQueryPayload(includeQuery = false)
+        val hashOnlyCallback = object : HttpResponseCallback {
+            override fun onResult(responseBody: String?, httpError: Exception?) {
+                val fullQuery = onPersistedQueryResult(payload, httpError)
+                if (fullQuery != null) {
+                    send(fullQuery, configuration, authorization, cancellationSignal, callback)
+                } else {
+                    callback.onResult(responseBody, httpError)
+                }
+            }
+        }
+        send(hashOnly, configuration, authorization, cancellationSignal, hashOnlyCallback)
+    }
+
+    /**
+     * Counts whether the server resolved [payload] from the hash of its query alone.
+     *
+     * @return the payload to send again when it did not, or null
+     */
+    private fun onPersistedQueryResult(
+        payload: GraphQLPayload,
+        httpError: Exception?
+    ): JsonPayload? {
+        if (httpError is PersistedQueryException) {
+            persistedQueryMisses.incrementAndGet()
+            return if (httpError.isSupported) {
+                payload.toPersistedQueryPayload(includeQuery = true)
+            } else {
+                persistedQueriesSupported = false
+                payload
+            }
+        }
+        if (httpError == null || httpError is ErrorWithResponse) {
+            persistedQueryHits.incrementAndGet()
+        }
+        return null
+    }
+
+    private fun send(
+        payload: JsonPayload,
+        configuration: Configuration,
+        authorization: Authorization,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseCallback
+    ) {
+        val request = try {
+            HttpRequest().method("POST").path("").data(payload)
+        } catch (e: Exception) {
+            callback.onResult(null, e)
+            return
+        }
+        addHeaders(request, configuration, authorization)
+        if (cancellationSignal != null) {
+            httpClient.sendRequest(request, cancellationSignal, callback)
+        } else {
+            httpClient.sendRequest(request, callback)
+        }
+    }
+
+    private fun <T> send(
+        payload: JsonPayload,
+        configuration: Configuration,
+        authorization: Authorization,
+        streamHandler: HttpResponseStreamHandler<T>,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseStreamCallback<T>
+    ) {
+        val request = try {
+            HttpRequest().method("POST").path("").data(payload)
+        } catch (e: Exception) {
+            callback.onResult(null, e)
+            return
+        }
+        addHeaders(request, configuration, authorization)
+        if (cancellationSignal != null) {
+            httpClient.sendRequest(request, streamHandler, cancellationSignal, callback)
+        } else {
+            httpClient.sendRequest(request, streamHandler, callback)
+        }
+    }
+
+    private fun addHeaders(
+        request: HttpRequest,
+        configuration: Configuration,
+        authorization: Authorization
+    ) {
+        request.baseUrl(configuration.graphQLUrl)
+            .addHeader("User-Agent", "braintree/android/" + BuildConfig.VERSION_NAME)
+            .addHeader("Authorization",
+                String.format(Locale.US, "Bearer %s", authorization.bearer))
+            .addHeader("Braintree-Version", GraphQLConstants.Headers.API_VERSION)
+    }
+
     @Throws(Exception::class)
     fun post(
         path: String?,
@@ -76,11 +442,37 @@ internal class BraintreeGraphQLClient(
         return httpClient.sendRequest(request)
     }
 
+    private inner class PendingBatch(
+        val configuration: Configuration,
+        val authorization: Authorization
+    ) : Runnable {
+
+        val operations = mutableListOf<GraphQLBatchOperation>()
+
+        fun accepts(configuration: Configuration, authorization: Authorization) =
+            this.configuration.graphQLUrl == configuration.graphQLUrl &&
+                this.authorization.bearer == authorization.bearer
+
+        override fun run() = flush(this)
+    }
+
     companion object {
 
+        /**
+         * How long posted operations are held back so that operations started together can share
+         * a single request.
+         */
+        private const val BATCH_WINDOW_MS = 20L
+        private const val MAX_BATCH_SIZE = 10
+
         private fun createDefaultHttpClient(): HttpClient {
             val socketFactory = TLSSocketFactory(TLSCertificatePinning.certInputStream)
             return HttpClient(socketFactory, BraintreeGraphQLResponseParser())
         }
+
+        private fun createDefaultHttpClient(scheduler: Scheduler): HttpClient {
+            val socketFactory = TLSSocketFactory(TLSCertificatePinning.certInputStream)
+            return HttpClient(socketFactory, BraintreeGraphQLResponseParser(), scheduler)
+        }
     }
 }
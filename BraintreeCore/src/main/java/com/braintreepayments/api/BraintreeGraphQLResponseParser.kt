@@ -1,6 +1,7 @@
 package com.braintreepayments.api
 
 import androidx.annotation.VisibleForTesting
+import org.json.JSONArray
 import org.json.JSONObject
 import java.net.HttpURLConnection
 
@@ -14,6 +15,9 @@ internal class BraintreeGraphQLResponseParser @VisibleForTesting constructor(
     constructor() : this(BaseHttpResponseParser())
 
     /**
+     * Batched requests are answered with a JSON array holding one result per operation; those are
+     * returned as is and checked for errors per operation with [parseOperationResult].
+     *
      * @param responseCode the response code returned when the http request was made.
      * @param connection the connection through which the http request was made.
      * @return the body of the http response.
@@ -21,32 +25,95 @@ internal class BraintreeGraphQLResponseParser @VisibleForTesting constructor(
     @Throws(Exception::class)
     override fun parse(responseCode: Int, connection: HttpURLConnection): String {
         val response = baseParser.parse(responseCode, connection)
-        val errors = JSONObject(response).optJSONArray(GraphQLConstants.Keys.ERRORS)
-        if (errors == null) return response
-
-        for (i in 0 until errors.length()) {
-            val error = errors.getJSONObject(i)
-            val extensions = error.optJSONObject(GraphQLConstants.Keys.EXTENSIONS)
-            val message = Json.optString(
-                error,
-                GraphQLConstants.Keys.MESSAGE,
-                "An Unexpected Exception Occurred"
-            )
-            if (extensions == null) {
-                throw UnexpectedException(message)
-            }
+        if (response.trimStart().startsWith("[")) return response
+        return parseOperationResult(response)
+    }
+
+    /**
+     * GraphQL reports most errors inside of successful responses; [streamHandler] is expected to
+     * check for them while it reads the body, see [GraphQLResponseStreamHandler].
+     *
+     * @param responseCode the response code returned when the http request was made.
+     * @param connection the connection through which the http request was made.
+     * @param streamHandler consumes the body of a successful http response.
+     * @return the result produced by [streamHandler].
+     */
+    @Throws(Exception::class)
+    override fun <T> parse(
+        responseCode: Int,
+        connection: HttpURLConnection,
+        streamHandler: HttpResponseStreamHandler<T>
+    ): T = baseParser.parse(responseCode, connection, streamHandler)
 
-            val legacyCode =
-                Json.optString(extensions, GraphQLConstants.Keys.LEGACY_CODE, "")
-            val errorType =
-                Json.optString(extensions, GraphQLConstants.Keys.ERROR_TYPE, "")
+    companion object {
+
+        /**
+         * Checks the result of a single GraphQL operation for errors.
+         *
+         * @param response the JSON result of the operation.
+         * @return [response] when the operation succeeded.
+         */
+        @Throws(Exception::class)
+        fun parseOperationResult(response: String): String {
+            val errors = JSONObject(response).optJSONArray(GraphQLConstants.Keys.ERRORS)
+            if (errors == null) return response
+            throwOperationErrors(errors, response)
+        }
+
+        /**
+         * Throws the exception that best describes the `errors` of a GraphQL operation.
+         *
+         * @param errors the `errors` member of the operation result.
+         * @param response the operation result, kept as the original response of an
+         * [ErrorWithResponse]; defaults to a document holding only [errors].
+         */
+        @Throws(Exception::class)
+        fun throwOperationErrors(
+            errors: JSONArray,
+            response: String = JSONObject().put(GraphQLConstants.Keys.ERRORS, errors).toString()
+        ): Nothing {
+            for (i in 0 until errors.length()) {
+                val error = errors.getJSONObject(i)
+                val extensions = error.optJSONObject(GraphQLConstants.Keys.EXTENSIONS)
+                parsePersistedQueryError(error, extensions)?.let { throw it }
+                val message = Json.optString(
+                    error,
+                    GraphQLConstants.Keys.MESSAGE,
+                    "An Unexpected Exception Occurred"
+                )
+                if (extensions == null) {
+                    throw UnexpectedException(message)
+                }
+
+                val legacyCode =
+                    Json.optString(extensions, GraphQLConstants.Keys.LEGACY_CODE, "")
+                val errorType =
+                    Json.optString(extensions, GraphQLConstants.Keys.ERROR_TYPE, "")
+
+                if (legacyCode == GraphQLConstants.LegacyErrorCodes.VALIDATION_NOT_ALLOWED) {
+                    throw AuthorizationException(error.getString(GraphQLConstants.Keys.MESSAGE))
+                } else if (errorType != GraphQLConstants.ErrorTypes.USER) {
+                    throw UnexpectedException(message)
+                }
+            }
+            throw ErrorWithResponse.fromGraphQLJson(response)
+        }
 
-            if (legacyCode == GraphQLConstants.LegacyErrorCodes.VALIDATION_NOT_ALLOWED) {
-                throw AuthorizationException(error.getString(GraphQLConstants.Keys.MESSAGE))
-            } else if (errorType != GraphQLConstants.ErrorTypes.USER) {
-                throw UnexpectedException(message)
+        private fun parsePersistedQueryError(
+            error: JSONObject,
+            extensions: JSONObject?
+        ): PersistedQueryException? {
+            val message = Json.optString(error, GraphQLConstants.Keys.MESSAGE, "")
+            val code = Json.optString(extensions, GraphQLConstants.Keys.CODE, "")
+            return when {
+                code == GraphQLConstants.PersistedQueryErrors.NOT_FOUND ||
+                    message == GraphQLConstants.PersistedQueryErrors.NOT_FOUND_MESSAGE ->
+                    PersistedQueryException(message, isSupported = true)
+                code == GraphQLConstants.PersistedQueryErrors.NOT_SUPPORTED ||
+                    message == GraphQLConstants.PersistedQueryErrors.NOT_SUPPORTED_MESSAGE ->
+                    PersistedQueryException(message, isSupported = false)
+                else -> null
             }
         }
-        throw ErrorWithResponse.fromGraphQLJson(response)
     }
 }
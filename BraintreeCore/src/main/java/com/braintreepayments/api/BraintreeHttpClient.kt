@@ -1,6 +1,7 @@
 package com.braintreepayments.api
 
 import android.net.Uri
+import android.os.CancellationSignal
 import com.braintreepayments.api.HttpClient.RetryStrategy
 import org.json.JSONException
 import org.json.JSONObject
@@ -12,6 +13,8 @@ internal class BraintreeHttpClient(
     private val httpClient: HttpClient = createDefaultHttpClient()
 ) {
 
+    constructor(scheduler: Scheduler) : this(createDefaultHttpClient(scheduler))
+
     /**
      * Make a HTTP GET request to Braintree using the base url, path and authorization provided.
      * If the path is a full url, it will be used instead of the previously provided url.
@@ -89,6 +92,25 @@ internal class BraintreeHttpClient(
         configuration: Configuration?,
         authorization: Authorization?,
         callback: HttpResponseCallback
+    ) = post(path, data, configuration, authorization, null, callback)
+
+    /**
+     * Make a HTTP POST request to Braintree like [post], aborting it when [cancellationSignal] is
+     * canceled.
+     * @param path The path or url to request from the server via HTTP POST
+     * @param data The body of the POST request
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param cancellationSignal aborts the request when canceled
+     * @param callback [HttpResponseCallback]
+     */
+    fun post(
+        path: String,
+        data: String,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseCallback
     ) {
         if (authorization is InvalidAuthorization) {
             val message = authorization.errorMessage
@@ -124,7 +146,143 @@ internal class BraintreeHttpClient(
         if (authorization is TokenizationKey) {
             request.addHeader(CLIENT_KEY_HEADER, authorization.bearer)
         }
-        httpClient.sendRequest(request, callback)
+        if (cancellationSignal != null) {
+            httpClient.sendRequest(request, cancellationSignal, callback)
+        } else {
+            httpClient.sendRequest(request, callback)
+        }
+    }
+
+    /**
+     * Make a HTTP POST request to Braintree, serializing the body directly from a [JsonPayload].
+     * If the path is a full url, it will be used instead of the previously provided url.
+     * @param path The path or url to request from the server via HTTP POST
+     * @param payload The body of the POST request
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param callback [HttpResponseCallback]
+     */
+    fun post(
+        path: String,
+        payload: JsonPayload,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        callback: HttpResponseCallback
+    ) = post(path, payload, configuration, authorization, null, callback)
+
+    /**
+     * Make a HTTP POST request to Braintree like [post], aborting it when [cancellationSignal] is
+     * canceled.
+     * @param path The path or url to request from the server via HTTP POST
+     * @param payload The body of the POST request
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param cancellationSignal aborts the request when canceled
+     * @param callback [HttpResponseCallback]
+     */
+    fun post(
+        path: String,
+        payload: JsonPayload,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseCallback
+    ) {
+        val request = try {
+            createPostRequest(path, payload, configuration, authorization)
+        } catch (e: Exception) {
+            callback.onResult(null, e)
+            return
+        }
+        httpClient.sendRequest(request, cancellationSignal, callback)
+    }
+
+    /**
+     * Make a HTTP POST request to Braintree and decode the response body with [decoder] while it
+     * is read from the connection, without holding it as a [String].
+     * If the path is a full url, it will be used instead of the previously provided url.
+     * @param path The path or url to request from the server via HTTP POST
+     * @param payload The body of the POST request
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param decoder decodes the response body
+     * @param callback [HttpResponseStreamCallback]
+     */
+    fun <T> post(
+        path: String,
+        payload: JsonPayload,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        decoder: JsonDecoder<T>,
+        callback: HttpResponseStreamCallback<T>
+    ) = post(path, payload, configuration, authorization, decoder, null, callback)
+
+    /**
+     * Make a HTTP POST request to Braintree like the [JsonDecoder] variant of [post], aborting it
+     * when [cancellationSignal] is canceled.
+     * @param path The path or url to request from the server via HTTP POST
+     * @param payload The body of the POST request
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param decoder decodes the response body
+     * @param cancellationSignal aborts the request when canceled
+     * @param callback [HttpResponseStreamCallback]
+     */
+    fun <T> post(
+        path: String,
+        payload: JsonPayload,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        decoder: JsonDecoder<T>,
+        cancellationSignal: CancellationSignal?,
+        callback: HttpResponseStreamCallback<T>
+    ) {
+        val request = try {
+            createPostRequest(path, payload, configuration, authorization)
+        } catch (e: Exception) {
+            callback.onResult(null, e)
+            return
+        }
+        val streamHandler = HttpResponseStreamHandler { responseBody ->
+            Json.decode(responseBody, decoder)
+        }
+        httpClient.sendRequest(request, streamHandler, cancellationSignal, callback)
+    }
+
+    @Throws(Exception::class)
+    private fun createPostRequest(
+        path: String,
+        payload: JsonPayload,
+        configuration: Configuration?,
+        authorization: Authorization?
+    ): HttpRequest {
+        if (authorization is InvalidAuthorization) {
+            throw BraintreeException(authorization.errorMessage)
+        }
+        val isRelativeURL = !path.startsWith("http")
+        if (configuration == null && isRelativeURL) {
+            val message =
+                "Braintree HTTP POST request without configuration cannot have a relative path."
+            throw BraintreeException(message)
+        }
+        val requestPayload = if (authorization is ClientToken) {
+            JsonPayload { writer ->
+                payload.writeMembers(writer)
+                writer.name(AUTHORIZATION_FINGERPRINT_KEY)
+                    .value(authorization.authorizationFingerprint)
+            }
+        } else {
+            payload
+        }
+        val request = HttpRequest().method("POST").path(path).data(requestPayload)
+        request.addHeader(USER_AGENT_HEADER, "braintree/android/" + BuildConfig.VERSION_NAME)
+        if (isRelativeURL && configuration != null) {
+            request.baseUrl(configuration.clientApiUrl)
+        }
+        if (authorization is TokenizationKey) {
+            request.addHeader(CLIENT_KEY_HEADER, authorization.bearer)
+        }
+        return request
     }
 
     /**
@@ -178,5 +336,10 @@ internal class BraintreeHttpClient(
             val socketFactory = TLSSocketFactory(TLSCertificatePinning.certInputStream)
             return HttpClient(socketFactory, BraintreeHttpResponseParser())
         }
+
+        private fun createDefaultHttpClient(scheduler: Scheduler): HttpClient {
+            val socketFactory = TLSSocketFactory(TLSCertificatePinning.certInputStream)
+            return HttpClient(socketFactory, BraintreeHttpResponseParser(), scheduler)
+        }
     }
 }
@@ -15,9 +15,25 @@ internal class BraintreeHttpResponseParser(
      * @return the body of the http response.
      */
     @Throws(Exception::class)
+    override fun parse(responseCode: Int, connection: HttpURLConnection): String =
+        mapErrors { baseParser.parse(responseCode, connection) }
+
+    /**
+     * @param responseCode the response code returned when the http request was made.
+     * @param connection the connection through which the http request was made.
+     * @param streamHandler consumes the body of a successful http response.
+     * @return the result produced by [streamHandler].
+     */
+    @Throws(Exception::class)
+    override fun <T> parse(
+        responseCode: Int,
+        connection: HttpURLConnection,
+        streamHandler: HttpResponseStreamHandler<T>
+    ): T = mapErrors { baseParser.parse(responseCode, connection, streamHandler) }
+
     @Suppress("SwallowedException")
-    override fun parse(responseCode: Int, connection: HttpURLConnection): String = try {
-        baseParser.parse(responseCode, connection)
+    private inline fun <T> mapErrors(parse: () -> T): T = try {
+        parse()
     } catch (e: AuthorizationException) {
         val errorMessage = ErrorWithResponse(AUTH_ERROR_CODE, e.message).message
         throw AuthorizationException(errorMessage)
@@ -1,12 +1,28 @@
 package com.braintreepayments.api
 
 import android.content.Context
-import androidx.annotation.RestrictTo
+import java.util.concurrent.Executor
 
 /**
- * @suppress
+ * Options used to create a [BraintreeClient].
+ *
+ * By default the SDK runs network requests on its own thread pool, decodes tokenization responses
+ * on a shared worker pool and delivers callbacks on the main thread. Apps that already manage their
+ * own executors can pass them here to share them with the SDK.
+ *
+ * @property context Android Context
+ * @property returnUrlScheme a custom return url scheme to use for browser and app switching
+ * @property initialAuthString the tokenization key or client token to use
+ * @property clientTokenProvider a [ClientTokenProvider] to fetch a client token on demand
+ * @property networkExecutor the executor network requests run on
+ * @property parsingExecutor the executor that builds tokenization requests and decodes their
+ * responses
+ * @property callbackExecutor the executor callbacks are delivered on. It must run its tasks on the
+ * main thread when the app starts payment flows that switch to another app, a browser or an
+ * activity, such as PayPal, Venmo, Google Pay or 3D Secure, since those flows launch it from
+ * the SDK's callbacks. Callbacks that update the UI need a main thread executor too.
+ * @property analyticsDispatchStrategy how analytics events are stored and uploaded
  */
-@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 data class BraintreeOptions @JvmOverloads constructor(
     val context: Context,
     val sessionId: String? = null,
@@ -14,4 +30,8 @@ data class BraintreeOptions @JvmOverloads constructor(
     val initialAuthString: String? = null,
     val clientTokenProvider: ClientTokenProvider? = null,
     @IntegrationType.Integration val integrationType: String? = null,
+    val networkExecutor: Executor? = null,
+    val parsingExecutor: Executor? = null,
+    val callbackExecutor: Executor? = null,
+    val analyticsDispatchStrategy: AnalyticsDispatchStrategy = AnalyticsDispatchStrategy.WORK_MANAGER,
 )
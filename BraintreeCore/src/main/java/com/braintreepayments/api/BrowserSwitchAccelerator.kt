@@ -0,0 +1,114 @@
+package com.braintreepayments.api
+
+import android.content.ComponentCallbacks2
+import android.content.ComponentName
+import android.content.Context
+import android.content.res.Configuration
+import androidx.annotation.VisibleForTesting
+import androidx.browser.customtabs.CustomTabsClient
+import androidx.browser.customtabs.CustomTabsServiceConnection
+
+/**
+ * Keeps a connection to the default browser's Custom Tabs service so the browser process is
+ * already running by the time a browser switch starts.
+ *
+ * URLs are not preloaded: browser switch launches its own Custom Tab without a session, so a
+ * `mayLaunchUrl` hint on a session owned here would never be used.
+ *
+ * A single connection is shared by the whole process and bound to the application context. It is
+ * released once a browser switch result is delivered or the app's UI goes to the background, and
+ * bound again by the next [warmUp].
+ */
+internal class BrowserSwitchAccelerator @VisibleForTesting constructor(
+    private val customTabsPackageResolver: (Context) -> String?,
+    private val customTabsServiceBinder: (Context, String, CustomTabsServiceConnection) -> Boolean,
+    private val customTabsServiceUnbinder: (Context, CustomTabsServiceConnection) -> Unit
+) {
+
+    private constructor() : this(
+        { context -> CustomTabsClient.getPackageName(context, null) },
+        { context, packageName, connection ->
+            CustomTabsClient.bindCustomTabsService(context, packageName, connection)
+        },
+        { context, connection -> context.unbindService(connection) }
+    )
+
+    private var boundContext: Context? = null
+
+    private val connection = object : CustomTabsServiceConnection() {
+        override fun onCustomTabsServiceConnected(name: ComponentName, client: CustomTabsClient) {
+            onConnected(client)
+        }
+
+        // the binding stays in place and is reconnected by the system if the browser restarts,
+        // at which point onConnected warms it up again
+        override fun onServiceDisconnected(name: ComponentName?) = Unit
+    }
+
+    // the browser switch has either started or been abandoned once the app's UI is hidden, so the
+    // browser no longer needs to be kept warm
+    private val componentCallbacks = object : ComponentCallbacks2 {
+        override fun onTrimMemory(level: Int) {
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+                release()
+            }
+        }
+
+        override fun onConfigurationChanged(newConfig: Configuration) = Unit
+
+        override fun onLowMemory() = Unit
+    }
+
+    /**
+     * Binds to the Custom Tabs service of the default browser, if it has one, and asks it to
+     * start its process. Does nothing if a connection already exists.
+     */
+    @Synchronized
+    fun warmUp(context: Context) {
+        if (boundContext != null) {
+            return
+        }
+        val applicationContext = context.applicationContext
+        val packageName = customTabsPackageResolver(applicationContext) ?: return
+        val isBound = try {
+            customTabsServiceBinder(applicationContext, packageName, connection)
+        } catch (e: SecurityException) {
+            false
+        }
+        if (isBound) {
+            boundContext = applicationContext
+            applicationContext.registerComponentCallbacks(componentCallbacks)
+        }
+    }
+
+    /**
+     * Unbinds from the Custom Tabs service, if bound, so the browser process can be reclaimed.
+     * The next [warmUp] binds again.
+     */
+    @Synchronized
+    fun release() {
+        val context = boundContext ?: return
+        boundContext = null
+        context.unregisterComponentCallbacks(componentCallbacks)
+        try {
+            customTabsServiceUnbinder(context, connection)
+        } catch (e: IllegalArgumentException) {
+            // the service was already unbound by the system
+        }
+    }
+
+    @VisibleForTesting
+    fun onConnected(client: CustomTabsClient) {
+        client.warmup(0L)
+    }
+
+    companion object {
+
+        @Volatile
+        private var INSTANCE: BrowserSwitchAccelerator? = null
+        fun getInstance(): BrowserSwitchAccelerator =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: BrowserSwitchAccelerator().also { INSTANCE = it }
+            }
+    }
+}
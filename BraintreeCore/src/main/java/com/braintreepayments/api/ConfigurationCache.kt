@@ -2,36 +2,79 @@ package com.braintreepayments.api
 
 import android.content.Context
 import androidx.annotation.VisibleForTesting
+import org.json.JSONException
 import java.util.concurrent.TimeUnit
 
+/**
+ * Bounded, least recently used cache of configurations shared by all clients in the process, so
+ * apps that switch between several authorizations get each configuration back without a request.
+ *
+ * Configurations are persisted in shared preferences, which stay the source of truth, and the
+ * parsed [Configuration] of recently used keys is kept in memory. Both hold at most [maxEntries]
+ * configurations: memory evicts the least recently used key and shared preferences evict the least
+ * recently saved one. Entries written by versions that never evicted are removed once.
+ */
 internal class ConfigurationCache @VisibleForTesting constructor(
-        private val sharedPreferences: BraintreeSharedPreferences
-    ) {
+    private val sharedPreferences: BraintreeSharedPreferences,
+    private val maxEntries: Int = MAX_ENTRIES
+) {
+
+    private class Entry(val configuration: Configuration, val savedAt: Long)
+
+    private class Stats(var hitCount: Int = 0, var missCount: Int = 0)
+
+    private val entries = object : LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Entry>?) =
+            size > maxEntries
+    }
+
+    private val statsByMerchantId = object : LinkedHashMap<String, Stats>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Stats>?) =
+            size > MAX_TRACKED_MERCHANTS
+    }
 
-    fun getConfiguration(cacheKey: String): String? {
+    // persisted cache keys, least recently saved first
+    private var persistedKeys: MutableList<String>? = null
+
+    fun getConfiguration(cacheKey: String): Configuration? {
         return getConfiguration(cacheKey, System.currentTimeMillis())
     }
 
-    fun getConfiguration(cacheKey: String, currentTimeMillis: Long): String? {
+    @Synchronized
+    fun getConfiguration(cacheKey: String, currentTimeMillis: Long): Configuration? {
         val timestampKey = "${cacheKey}_timestamp"
-        if (sharedPreferences.containsKey(timestampKey)) {
-            val timeInCache = currentTimeMillis - sharedPreferences.getLong(timestampKey)
-            if (timeInCache < TIME_TO_LIVE) {
-                return sharedPreferences.getString(cacheKey, "")
-            }
+        if (!sharedPreferences.containsKey(timestampKey)) {
+            entries.remove(cacheKey)
+            return null
         }
-        return null
+        val savedAt = sharedPreferences.getLong(timestampKey)
+        if (currentTimeMillis - savedAt >= TIME_TO_LIVE) {
+            return null
+        }
+
+        // another process or an older client may have replaced the persisted configuration
+        val configuration = entries[cacheKey]?.takeIf { it.savedAt == savedAt }?.configuration
+            ?: parseConfiguration(sharedPreferences.getString(cacheKey, ""))?.also {
+                entries[cacheKey] = Entry(it, savedAt)
+            }
+        configuration?.let { stats(it).hitCount++ }
+        return configuration
     }
 
-    fun saveConfiguration(configuration: Configuration, cacheKey: String?) {
+    fun saveConfiguration(configuration: Configuration, cacheKey: String) {
         saveConfiguration(configuration, cacheKey, System.currentTimeMillis())
     }
 
+    @Synchronized
     fun saveConfiguration(
         configuration: Configuration,
-        cacheKey: String?,
+        cacheKey: String,
         currentTimeMillis: Long
     ) {
+        // configurations are only saved after a lookup found nothing usable
+        stats(configuration).missCount++
+        entries[cacheKey] = Entry(configuration, currentTimeMillis)
+
         val timestampKey = "${cacheKey}_timestamp"
         sharedPreferences.putStringAndLong(
             cacheKey,
@@ -39,10 +82,67 @@ internal class ConfigurationCache @VisibleForTesting constructor(
             timestampKey,
             currentTimeMillis
         )
+
+        val keys = loadPersistedKeys()
+        keys.remove(cacheKey)
+        keys.add(cacheKey)
+        val evictedKeys = keys.take((keys.size - maxEntries).coerceAtLeast(0))
+        keys.removeAll(evictedKeys)
+        sharedPreferences.putString(PERSISTED_KEYS_KEY, keys.joinToString(KEY_SEPARATOR))
+        if (evictedKeys.isNotEmpty()) {
+            evictedKeys.forEach { entries.remove(it) }
+            sharedPreferences.removeKeys(evictedKeys.flatMap { listOf(it, "${it}_timestamp") })
+        }
+    }
+
+    /**
+     * @return the hit and miss counts of the most recently used merchants
+     */
+    @Synchronized
+    fun getStats(): List<ConfigurationCacheStats> = statsByMerchantId.map { (merchantId, stats) ->
+        ConfigurationCacheStats(merchantId, stats.hitCount, stats.missCount)
+    }
+
+    private fun stats(configuration: Configuration) =
+        statsByMerchantId.getOrPut(configuration.merchantId) { Stats() }
+
+    private fun loadPersistedKeys(): MutableList<String> = persistedKeys ?: run {
+        val storedKeys = sharedPreferences.getString(PERSISTED_KEYS_KEY, null)
+        if (storedKeys == null) {
+            removeUnindexedEntries()
+        }
+        storedKeys.orEmpty()
+            .split(KEY_SEPARATOR)
+            .filter { it.isNotEmpty() }
+            .toMutableList()
+            .also { persistedKeys = it }
+    }
+
+    private fun removeUnindexedEntries() {
+        // earlier versions stored every configuration under a "<key>" and "<key>_timestamp" pair
+        // without ever removing it
+        val keys = sharedPreferences.getKeys()
+        val unindexedKeys = keys
+            .filter { it.endsWith("_timestamp") && it.removeSuffix("_timestamp") in keys }
+            .flatMap { listOf(it, it.removeSuffix("_timestamp")) }
+        if (unindexedKeys.isNotEmpty()) {
+            sharedPreferences.removeKeys(unindexedKeys)
+        }
+    }
+
+    private fun parseConfiguration(configurationJson: String?): Configuration? = try {
+        Configuration.fromJson(configurationJson)
+    } catch (e: JSONException) {
+        null
     }
 
     companion object {
         private val TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(5)
+        private const val MAX_ENTRIES = 8
+        private const val MAX_TRACKED_MERCHANTS = 32
+
+        private const val PERSISTED_KEYS_KEY = "com.braintreepayments.api.ConfigurationCache.keys"
+        private const val KEY_SEPARATOR = ","
 
         @Volatile
         private var INSTANCE: ConfigurationCache? = null
@@ -0,0 +1,22 @@
+package com.braintreepayments.api
+
+/**
+ * How often the configuration of a merchant was served from the configuration cache since the app
+ * process started.
+ *
+ * @property merchantId the merchant id of the configuration
+ * @property hitCount the number of times the configuration was served from the cache
+ * @property missCount the number of times the configuration had to be fetched
+ */
+class ConfigurationCacheStats internal constructor(
+    val merchantId: String,
+    val hitCount: Int,
+    val missCount: Int
+) {
+
+    /**
+     * The share of lookups served from the cache, between 0 and 1.
+     */
+    val hitRate: Double
+        get() = if (hitCount + missCount == 0) 0.0 else hitCount.toDouble() / (hitCount + missCount)
+}
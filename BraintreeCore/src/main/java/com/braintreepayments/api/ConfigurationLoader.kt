@@ -2,8 +2,9 @@ package com.braintreepayments.api
 
 import android.content.Context
 import android.net.Uri
-import android.util.Base64
+import androidx.annotation.VisibleForTesting
 import org.json.JSONException
+import java.security.MessageDigest
 
 internal class ConfigurationLoader internal constructor(
     private val httpClient: BraintreeHttpClient,
@@ -24,7 +25,8 @@ internal class ConfigurationLoader internal constructor(
             .appendQueryParameter("configVersion", "3")
             .build()
             .toString()
-        val cachedConfig = getCachedConfiguration(authorization, configUrl)
+        val cacheKey = createCacheKey(authorization, configUrl)
+        val cachedConfig = configurationCache.getConfiguration(cacheKey)
 
         cachedConfig?.let {
             callback.onResult(cachedConfig, null)
@@ -35,7 +37,7 @@ internal class ConfigurationLoader internal constructor(
                         responseBody?.let {
                             try {
                                 val configuration = Configuration.fromJson(it)
-                                saveConfigurationToCache(configuration, authorization, configUrl)
+                                configurationCache.saveConfiguration(configuration, cacheKey)
                                 callback.onResult(configuration, null)
                             } catch (jsonException: JSONException) {
                                 callback.onResult(null, jsonException)
@@ -51,28 +53,20 @@ internal class ConfigurationLoader internal constructor(
         }
     }
 
-    private fun saveConfigurationToCache(
-        configuration: Configuration,
-        authorization: Authorization,
-        configUrl: String
-    ) {
-        val cacheKey = createCacheKey(authorization, configUrl)
-        configurationCache.saveConfiguration(configuration, cacheKey)
-    }
-
-    private fun getCachedConfiguration(authorization: Authorization, configUrl: String): Configuration? {
-        val cacheKey = createCacheKey(authorization, configUrl)
-        val cachedConfigResponse = configurationCache.getConfiguration(cacheKey)
-        return try {
-            Configuration.fromJson(cachedConfigResponse)
-        } catch (e: JSONException) {
-            null
-        }
-    }
+    fun getCacheStats(): List<ConfigurationCacheStats> = configurationCache.getStats()
 
     companion object {
-        private fun createCacheKey(authorization: Authorization, configUrl: String): String {
-            return Base64.encodeToString("$configUrl${authorization.bearer}".toByteArray(), 0)
+        private const val CACHE_KEY_PREFIX = "configuration_"
+
+        /**
+         * A fixed length key for the configuration of [authorization]. The bearer is hashed so the
+         * key does not grow with it and does not store it in plain text a second time.
+         */
+        @VisibleForTesting
+        internal fun createCacheKey(authorization: Authorization, configUrl: String): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+                .digest("$configUrl${authorization.bearer}".toByteArray())
+            return CACHE_KEY_PREFIX + digest.take(16).joinToString("") { "%02x".format(it) }
         }
     }
 }
@@ -0,0 +1,16 @@
+package com.braintreepayments.api
+
+import androidx.annotation.MainThread
+import androidx.annotation.RestrictTo
+import org.json.JSONObject
+
+/**
+ * Callback for receiving the result of [BraintreeClient.restoreFlowState].
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface FlowStateCallback {
+    @MainThread
+    fun onResult(state: JSONObject?)
+}
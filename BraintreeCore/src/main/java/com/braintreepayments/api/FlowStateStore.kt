@@ -0,0 +1,173 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import androidx.annotation.VisibleForTesting
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Small file backed store for the state of payment flows that leave the app, so a flow can
+ * continue where it stopped after the process was killed.
+ *
+ * Entries are keyed by request code; starting a flow again replaces its previous state. Each entry
+ * records its owner, the merchant the flow was started for, and is only handed back to the same
+ * owner. Every entry expires after its time to live and expired entries are dropped whenever the
+ * file is read. The file is written to a temporary file first and then renamed, so a crash during
+ * a write leaves the previous contents intact.
+ *
+ * Every method reads or writes the file and syncs it to disk, so callers run them on [IO_EXECUTOR].
+ */
+internal class FlowStateStore @VisibleForTesting constructor(
+    private val fileProvider: () -> File,
+    private val currentTimeMillis: () -> Long = { System.currentTimeMillis() }
+) {
+
+    private class Entry(
+        val owner: String,
+        val state: String,
+        val expiresAt: Long,
+        val isFromPreviousProcess: Boolean
+    )
+
+    private var entries: MutableMap<Int, Entry>? = null
+
+    @Synchronized
+    fun put(
+        requestCode: Int,
+        owner: String,
+        state: String,
+        timeToLiveMs: Long = DEFAULT_TIME_TO_LIVE_MS
+    ) {
+        val entries = loadEntries()
+        entries[requestCode] = Entry(owner, state, currentTimeMillis() + timeToLiveMs, false)
+        write(entries)
+    }
+
+    /**
+     * Removes and returns the state a previous process stored for [requestCode] on behalf of
+     * [owner]. State stored by this process belongs to a flow that may still be running, and state
+     * stored for another owner must not be resumed by this one, so both are left in place.
+     */
+    @Synchronized
+    fun takeFromPreviousProcess(requestCode: Int, owner: String): String? {
+        val entries = loadEntries()
+        val entry = entries[requestCode]
+            ?.takeIf { it.isFromPreviousProcess && it.owner == owner } ?: return null
+        entries.remove(requestCode)
+        write(entries)
+        return entry.state
+    }
+
+    @Synchronized
+    fun remove(requestCode: Int) {
+        val entries = loadEntries()
+        if (entries.remove(requestCode) != null) {
+            write(entries)
+        }
+    }
+
+    private fun loadEntries(): MutableMap<Int, Entry> {
+        val now = currentTimeMillis()
+        val loaded = entries ?: read().also { entries = it }
+        if (loaded.values.removeAll { it.expiresAt <= now }) {
+            write(loaded)
+        }
+        return loaded
+    }
+
+    private fun read(): MutableMap<Int, Entry> {
+        val result = HashMap<Int, Entry>()
+        val file = fileProvider()
+        if (!file.exists()) {
+            return result
+        }
+        try {
+            DataInputStream(ByteArrayInputStream(file.readBytes())).use { input ->
+                if (input.readInt() != VERSION) {
+                    return result
+                }
+                repeat(input.readInt()) {
+                    val requestCode = input.readInt()
+                    val expiresAt = input.readLong()
+                    val owner = input.readUTF()
+                    val state = ByteArray(input.readInt()).also { input.readFully(it) }
+                    result[requestCode] =
+                        Entry(owner, String(state, Charsets.UTF_8), expiresAt, true)
+                }
+            }
+        } catch (e: Exception) {
+            // a truncated or corrupt file only loses the flows that were in progress
+            result.clear()
+            file.delete()
+        }
+        return result
+    }
+
+    private fun write(entries: Map<Int, Entry>) {
+        val file = fileProvider()
+        if (entries.isEmpty()) {
+            file.delete()
+            return
+        }
+
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { output ->
+            output.writeInt(VERSION)
+            output.writeInt(entries.size)
+            for ((requestCode, entry) in entries) {
+                val state = entry.state.toByteArray(Charsets.UTF_8)
+                output.writeInt(requestCode)
+                output.writeLong(entry.expiresAt)
+                output.writeUTF(entry.owner)
+                output.writeInt(state.size)
+                output.write(state)
+            }
+        }
+
+        val temporaryFile = File(file.path + ".tmp")
+        try {
+            FileOutputStream(temporaryFile).use { output ->
+                output.write(bytes.toByteArray())
+                output.fd.sync()
+            }
+            if (!temporaryFile.renameTo(file)) {
+                temporaryFile.delete()
+            }
+        } catch (e: IOException) {
+            // the state then only lives as long as this process
+            temporaryFile.delete()
+        }
+    }
+
+    companion object {
+
+        // files written by an older version have no owners and are discarded
+        private const val VERSION = 2
+        private const val FILE_NAME = "com.braintreepayments.api.flow-state"
+
+        val DEFAULT_TIME_TO_LIVE_MS = TimeUnit.HOURS.toMillis(1)
+
+        // a single thread keeps the file operations of all clients in the order they were issued,
+        // e.g. a flow's state is never saved again after it was cleared
+        val IO_EXECUTOR: Executor by lazy { Executors.newSingleThreadExecutor() }
+
+        @Volatile
+        private var INSTANCE: FlowStateStore? = null
+        fun getInstance(context: Context): FlowStateStore {
+            val applicationContext = context.applicationContext
+            return INSTANCE ?: synchronized(this) {
+                INSTANCE ?: FlowStateStore({
+                    File(applicationContext.noBackupFilesDir, FILE_NAME)
+                }).also { INSTANCE = it }
+            }
+        }
+    }
+}
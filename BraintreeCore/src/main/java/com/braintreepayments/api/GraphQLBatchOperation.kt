@@ -0,0 +1,15 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * A GraphQL operation sent as part of a batched request, together with the callback that
+ * receives its individual result.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class GraphQLBatchOperation(
+    val payload: JsonPayload,
+    val callback: HttpResponseCallback
+)
@@ -9,6 +9,7 @@ import androidx.annotation.RestrictTo
 object GraphQLConstants {
 
     object Keys {
+        const val DATA = "data"
         const val QUERY = "query"
         const val INPUT = "input"
         const val VARIABLES = "variables"
@@ -21,6 +22,10 @@ object GraphQLConstants {
         const val URL = "url"
         const val FEATURES = "features"
         const val OPERATION_NAME = "operationName"
+        const val PERSISTED_QUERY = "persistedQuery"
+        const val VERSION = "version"
+        const val SHA256_HASH = "sha256Hash"
+        const val CODE = "code"
     }
 
     object ErrorTypes {
@@ -32,6 +37,13 @@ object GraphQLConstants {
         const val USER = "Input is invalid."
     }
 
+    object PersistedQueryErrors {
+        const val NOT_FOUND = "PERSISTED_QUERY_NOT_FOUND"
+        const val NOT_SUPPORTED = "PERSISTED_QUERY_NOT_SUPPORTED"
+        const val NOT_FOUND_MESSAGE = "PersistedQueryNotFound"
+        const val NOT_SUPPORTED_MESSAGE = "PersistedQueryNotSupported"
+    }
+
     object LegacyErrorCodes {
         const val VALIDATION_NOT_ALLOWED = "50000"
     }
@@ -42,5 +54,7 @@ object GraphQLConstants {
 
     object Features {
         const val TOKENIZE_CREDIT_CARDS = "tokenize_credit_cards"
+        const val PERSISTED_QUERIES = "persisted_queries"
+        const val BATCHING = "batching"
     }
 }
@@ -0,0 +1,29 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * An immutable GraphQL operation. The query text, operation name and the SHA-256 hash of the
+ * query are fixed when the operation is created, so building a request does no work on the
+ * query text. Obtain instances from [GraphQLOperationRegistry].
+ *
+ * @property name the operation name, or null for an anonymous operation
+ * @property query the full query text
+ * @property sha256Hash lowercase hex SHA-256 hash of the UTF-8 encoded query text
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class GraphQLOperation internal constructor(
+    val name: String?,
+    val query: String,
+    val sha256Hash: String
+) {
+
+    override fun equals(other: Any?): Boolean =
+        other is GraphQLOperation && sha256Hash == other.sha256Hash && name == other.name
+
+    override fun hashCode(): Int = sha256Hash.hashCode()
+
+    override fun toString(): String = "GraphQLOperation(name=$name, sha256Hash=$sha256Hash)"
+}
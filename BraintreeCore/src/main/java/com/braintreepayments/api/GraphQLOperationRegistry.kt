@@ -0,0 +1,81 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import android.content.res.Resources
+import androidx.annotation.RestrictTo
+import androidx.annotation.VisibleForTesting
+import java.io.IOException
+import java.io.InputStream
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Central registry of the GraphQL operations sent by the SDK. Operations are registered once,
+ * typically as static constants next to the code that sends them, and raw `.graphql` resources
+ * are read and hashed only the first time they are requested.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+object GraphQLOperationRegistry {
+
+    private val HEX_DIGITS = "0123456789abcdef".toCharArray()
+    private val OPERATION_NAME_PATTERN = Regex("^\\s*(?:query|mutation|subscription)\\s+(\\w+)")
+
+    private val operationsByHash = ConcurrentHashMap<String, GraphQLOperation>()
+    private val operationsByResource = ConcurrentHashMap<Int, GraphQLOperation>()
+
+    /**
+     * Registers an operation with the given name and query text. Registering the same operation
+     * more than once returns the instance that was registered first.
+     */
+    @JvmStatic
+    fun register(name: String?, query: String): GraphQLOperation {
+        val operation = GraphQLOperation(name, query, sha256Hex(query))
+        val existing = operationsByHash.putIfAbsent(operation.sha256Hash, operation)
+        return if (existing != null && existing.name == name) existing else operation
+    }
+
+    /**
+     * Returns the operation stored in the given raw resource, reading and hashing the resource
+     * the first time it is requested. The operation name is taken from the query text.
+     */
+    @JvmStatic
+    @Throws(Resources.NotFoundException::class, IOException::class)
+    fun fromRawResource(context: Context, queryResource: Int): GraphQLOperation {
+        operationsByResource[queryResource]?.let { return it }
+
+        var inputStream: InputStream? = null
+        val query = try {
+            inputStream = context.resources.openRawResource(queryResource)
+            StreamHelper.getString(inputStream)
+        } finally {
+            inputStream?.close()
+        }
+        val operation = register(parseOperationName(query), query)
+        return operationsByResource.putIfAbsent(queryResource, operation) ?: operation
+    }
+
+    /**
+     * @return the registered operation with the given SHA-256 hash, or null if there is none
+     */
+    @JvmStatic
+    fun get(sha256Hash: String): GraphQLOperation? = operationsByHash[sha256Hash]
+
+    @VisibleForTesting
+    internal fun parseOperationName(query: String): String? =
+        OPERATION_NAME_PATTERN.find(query)?.groupValues?.get(1)
+
+    @VisibleForTesting
+    internal fun sha256Hex(query: String): String {
+        val digest = MessageDigest.getInstance("SHA-256")
+            .digest(query.toByteArray(StandardCharsets.UTF_8))
+        val hex = StringBuilder(digest.size * 2)
+        for (byte in digest) {
+            val value = byte.toInt() and 0xff
+            hex.append(HEX_DIGITS[value ushr 4]).append(HEX_DIGITS[value and 0x0f])
+        }
+        return hex.toString()
+    }
+}
@@ -0,0 +1,57 @@
+package com.braintreepayments.api
+
+import android.util.JsonWriter
+import androidx.annotation.RestrictTo
+import java.io.IOException
+
+/**
+ * A GraphQL request body for a registered [GraphQLOperation]. Written as a [JsonPayload] it
+ * carries the full query text; [BraintreeGraphQLClient] may instead send it as a persisted query
+ * that only references the operation by its SHA-256 hash.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+abstract class GraphQLPayload(val operation: GraphQLOperation) : JsonPayload {
+
+    /**
+     * Write the members of the request body other than the query text, operation name and
+     * extensions, such as `variables`.
+     */
+    @Throws(IOException::class)
+    abstract fun writeOperationMembers(writer: JsonWriter)
+
+    @Throws(IOException::class)
+    final override fun writeMembers(writer: JsonWriter) {
+        write(writer, includeQuery = true, persistedQuery = false)
+    }
+
+    /**
+     * @param includeQuery `true` to send the query text along with its hash so the server can
+     * register it, `false` to send the hash only.
+     */
+    internal fun toPersistedQueryPayload(includeQuery: Boolean) =
+        JsonPayload { writer -> write(writer, includeQuery, persistedQuery = true) }
+
+    @Throws(IOException::class)
+    private fun write(writer: JsonWriter, includeQuery: Boolean, persistedQuery: Boolean) {
+        if (includeQuery) {
+            writer.name(GraphQLConstants.Keys.QUERY).value(operation.query)
+        }
+        operation.name?.let { writer.name(GraphQLConstants.Keys.OPERATION_NAME).value(it) }
+        writeOperationMembers(writer)
+
+        if (persistedQuery) {
+            writer.name(GraphQLConstants.Keys.EXTENSIONS).beginObject()
+            writer.name(GraphQLConstants.Keys.PERSISTED_QUERY).beginObject()
+            writer.name(GraphQLConstants.Keys.VERSION).value(PERSISTED_QUERY_VERSION)
+            writer.name(GraphQLConstants.Keys.SHA256_HASH).value(operation.sha256Hash)
+            writer.endObject()
+            writer.endObject()
+        }
+    }
+
+    companion object {
+        private const val PERSISTED_QUERY_VERSION = 1L
+    }
+}
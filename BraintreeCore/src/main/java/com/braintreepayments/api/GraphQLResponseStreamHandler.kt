@@ -0,0 +1,65 @@
+package com.braintreepayments.api
+
+import android.util.JsonReader
+import android.util.JsonToken
+import android.util.MalformedJsonException
+import org.json.JSONArray
+import org.json.JSONException
+import java.io.Reader
+
+/**
+ * Reads a GraphQL response straight from the connection: the `data` member is handed to
+ * [dataDecoder] as it streams in, while the `errors` member, which is small, is collected and
+ * checked the same way [BraintreeGraphQLResponseParser.parseOperationResult] checks a buffered
+ * response. Errors take precedence over data, regardless of the order they appear in.
+ */
+internal class GraphQLResponseStreamHandler<T>(
+    private val dataDecoder: JsonDecoder<T>
+) : HttpResponseStreamHandler<T> {
+
+    @Throws(Exception::class)
+    override fun handle(responseBody: Reader): T {
+        val reader = JsonReader(responseBody)
+        // org.json tolerates the same relaxed syntax
+        reader.isLenient = true
+
+        var hasData = false
+        var data: T? = null
+        var dataError: JSONException? = null
+        var errors: JSONArray? = null
+        try {
+            reader.beginObject()
+            while (reader.hasNext()) {
+                when (reader.nextName()) {
+                    GraphQLConstants.Keys.DATA -> if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull()
+                    } else {
+                        hasData = true
+                        try {
+                            data = dataDecoder.decode(reader)
+                        } catch (e: JSONException) {
+                            dataError = e
+                        }
+                    }
+                    GraphQLConstants.Keys.ERRORS -> errors = Json.nextValue(reader) as? JSONArray
+                    else -> reader.skipValue()
+                }
+            }
+            reader.endObject()
+        } catch (e: MalformedJsonException) {
+            throw JSONException(e.message)
+        } catch (e: IllegalStateException) {
+            throw JSONException(e.message)
+        } catch (e: NumberFormatException) {
+            throw JSONException(e.message)
+        }
+
+        errors?.let { BraintreeGraphQLResponseParser.throwOperationErrors(it) }
+        dataError?.let { throw it }
+        if (!hasData) {
+            throw JSONException("No value for ${GraphQLConstants.Keys.DATA}")
+        }
+        @Suppress("UNCHECKED_CAST")
+        return data as T
+    }
+}
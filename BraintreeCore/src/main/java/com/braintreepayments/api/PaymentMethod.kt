@@ -1,9 +1,11 @@
 package com.braintreepayments.api
 
 import android.os.Parcel
+import android.util.JsonWriter
 import androidx.annotation.RestrictTo
 import org.json.JSONException
 import org.json.JSONObject
+import java.io.IOException
 
 /**
  * An abstract class to extend when creating a payment method. Contains logic and
@@ -89,6 +91,19 @@ abstract class PaymentMethod {
         return base
     }
 
+    /**
+     * Writes the members of the REST tokenization payload to a writer with an object open.
+     * Subclasses that build large payloads override this to stream them instead of building a
+     * [JSONObject] tree.
+     *
+     * @suppress
+     */
+    @Throws(IOException::class, JSONException::class)
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    open fun writeJSON(writer: JsonWriter) {
+        buildJSON()?.let { Json.writeMembers(writer, it) }
+    }
+
     protected constructor(parcel: Parcel) {
         _integration = parcel.readString()
         _source = parcel.readString()
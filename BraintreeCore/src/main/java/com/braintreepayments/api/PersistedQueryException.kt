@@ -0,0 +1,11 @@
+package com.braintreepayments.api
+
+/**
+ * Thrown by [BraintreeGraphQLResponseParser] when the server could not resolve a persisted query
+ * from its hash, either because it has not seen the query yet or because persisted queries are
+ * not supported.
+ */
+internal class PersistedQueryException(
+    message: String,
+    val isSupported: Boolean
+) : BraintreeException(message)
@@ -0,0 +1,21 @@
+package com.braintreepayments.api
+
+/**
+ * How often GraphQL operations sent as persisted queries by a [BraintreeClient] were resolved by
+ * the server from the hash of their query alone.
+ *
+ * @property hitCount the number of persisted queries the server resolved from their hash
+ * @property missCount the number of persisted queries that had to be resent with their full query
+ * text
+ */
+class PersistedQueryStats internal constructor(
+    val hitCount: Long,
+    val missCount: Long
+) {
+
+    /**
+     * The share of persisted queries resolved from their hash, between 0 and 1.
+     */
+    val hitRate: Double
+        get() = if (hitCount + missCount == 0L) 0.0 else hitCount.toDouble() / (hitCount + missCount)
+}
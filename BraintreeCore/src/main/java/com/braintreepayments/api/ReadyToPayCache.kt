@@ -0,0 +1,131 @@
+package com.braintreepayments.api
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import androidx.annotation.VisibleForTesting
+import java.util.concurrent.TimeUnit
+
+/**
+ * Bounded, least recently used cache of isReadyToPay results shared by all wallet clients in the
+ * process.
+ *
+ * A fresh result is returned as is. A result older than the time to live is still returned right
+ * away, and a refresh is started so the next caller gets an up to date value. Callers asking for
+ * a key that is being loaded share a single load. Only successful results are cached, and the
+ * whole cache is dropped when an app is installed, updated or removed since that can change the
+ * readiness of any wallet.
+ */
+internal class ReadyToPayCache @VisibleForTesting constructor(
+    private val timeToLiveMs: Long,
+    private val currentTimeMillis: () -> Long = { System.currentTimeMillis() }
+) {
+
+    private class Entry(val isReadyToPay: Boolean, val createdAt: Long)
+
+    private val pendingCallbacks = HashMap<String, MutableList<ReadyToPayResultCallback>>()
+    private val entries = object : LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Entry>?) =
+            size > MAX_SIZE
+    }
+
+    private var isWatchingPackageChanges = false
+
+    @VisibleForTesting
+    internal val packageChangeReceiver = object : BroadcastReceiver() {
+        override fun onReceive(context: Context?, intent: Intent?) {
+            clear()
+        }
+    }
+
+    fun load(key: String, loader: ReadyToPayLoader, callback: ReadyToPayResultCallback) {
+        val cached: Entry?
+        val shouldLoad: Boolean
+        synchronized(this) {
+            cached = entries[key]
+            val isFresh = cached != null && currentTimeMillis() - cached.createdAt < timeToLiveMs
+            shouldLoad = if (isFresh) {
+                false
+            } else {
+                val callbacks = pendingCallbacks[key]
+                if (callbacks == null) {
+                    pendingCallbacks[key] = mutableListOf<ReadyToPayResultCallback>().apply {
+                        if (cached == null) add(callback)
+                    }
+                    true
+                } else {
+                    if (cached == null) callbacks.add(callback)
+                    false
+                }
+            }
+        }
+
+        cached?.let { callback.onResult(it.isReadyToPay, null) }
+        if (shouldLoad) {
+            loader.load { isReadyToPay, error -> onLoaded(key, isReadyToPay, error) }
+        }
+    }
+
+    private fun onLoaded(key: String, isReadyToPay: Boolean, error: Exception?) {
+        val callbacks: List<ReadyToPayResultCallback>
+        synchronized(this) {
+            if (error == null) {
+                entries[key] = Entry(isReadyToPay, currentTimeMillis())
+            }
+            callbacks = pendingCallbacks.remove(key) ?: emptyList()
+        }
+        callbacks.forEach { it.onResult(isReadyToPay, error) }
+    }
+
+    /**
+     * Clears the cache whenever a package is added, changed or removed. Only the first call
+     * registers a receiver.
+     */
+    fun watchPackageChanges(context: Context) {
+        synchronized(this) {
+            if (isWatchingPackageChanges) {
+                return
+            }
+            isWatchingPackageChanges = true
+        }
+        val filter = IntentFilter().apply {
+            addAction(Intent.ACTION_PACKAGE_ADDED)
+            addAction(Intent.ACTION_PACKAGE_CHANGED)
+            addAction(Intent.ACTION_PACKAGE_REPLACED)
+            addAction(Intent.ACTION_PACKAGE_REMOVED)
+            addDataScheme("package")
+        }
+        try {
+            context.applicationContext.registerReceiver(packageChangeReceiver, filter)
+        } catch (e: RuntimeException) {
+            // results then only expire through their time to live
+        }
+    }
+
+    /**
+     * Drops every cached result whose key starts with [keyPrefix].
+     */
+    @Synchronized
+    fun invalidate(keyPrefix: String) {
+        entries.keys.removeAll { it.startsWith(keyPrefix) }
+    }
+
+    @Synchronized
+    fun clear() {
+        entries.clear()
+    }
+
+    companion object {
+
+        const val MAX_SIZE = 16
+        val DEFAULT_TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(5)
+
+        @Volatile
+        private var INSTANCE: ReadyToPayCache? = null
+        fun getInstance(): ReadyToPayCache =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: ReadyToPayCache(DEFAULT_TIME_TO_LIVE_MS).also { INSTANCE = it }
+            }
+    }
+}
@@ -0,0 +1,14 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * Computes whether a payment method is ready to pay when [BraintreeClient.loadReadyToPay] has no
+ * usable cached result.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface ReadyToPayLoader {
+    fun load(callback: ReadyToPayResultCallback)
+}
@@ -0,0 +1,13 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * Callback for receiving the result of [BraintreeClient.loadReadyToPay].
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface ReadyToPayResultCallback {
+    fun onResult(isReadyToPay: Boolean, error: Exception?)
+}
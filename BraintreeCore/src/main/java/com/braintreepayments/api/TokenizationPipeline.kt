@@ -0,0 +1,222 @@
+package com.braintreepayments.api
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import androidx.annotation.RestrictTo
+import java.util.concurrent.Executor
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs a tokenization described by a [TokenizationSpec] through the stages listed in
+ * [TokenizationStage]. Serializing and decoding run on a worker executor, the request goes through
+ * [BraintreeClient] and the result is published on the main executor. Each stage is timed on the
+ * returned [TokenizationTask]. A canceled task aborts its request and runs no further stages.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class TokenizationPipeline(
+    private val braintreeClient: BraintreeClient,
+    private val workerExecutor: Executor,
+    private val mainExecutor: Executor
+) {
+
+    constructor(braintreeClient: BraintreeClient) :
+        this(braintreeClient, WORKER_EXECUTOR, MAIN_EXECUTOR)
+
+    fun <T> execute(
+        spec: TokenizationSpec<T>,
+        callback: TokenizationPipelineCallback<T>
+    ): TokenizationTask {
+        val task = TokenizationTask()
+        spec.getAnalyticsEventPrefix()?.let { braintreeClient.sendAnalyticsEvent("$it.started") }
+        if (spec.requiresConfiguration()) {
+            resolve(spec, task, callback)
+        } else {
+            serialize(spec, null, task, callback)
+        }
+        return task
+    }
+
+    private fun <T> resolve(
+        spec: TokenizationSpec<T>,
+        task: TokenizationTask,
+        callback: TokenizationPipelineCallback<T>
+    ) {
+        val startedAt = SystemClock.elapsedRealtime()
+        braintreeClient.getConfiguration { configuration, error ->
+            task.recordStage(TokenizationStage.RESOLVE, SystemClock.elapsedRealtime() - startedAt)
+            if (configuration != null) {
+                serialize(spec, configuration, task, callback)
+            } else if (error != null) {
+                publish(spec, task, null, error, callback)
+            }
+        }
+    }
+
+    private fun <T> serialize(
+        spec: TokenizationSpec<T>,
+        configuration: Configuration?,
+        task: TokenizationTask,
+        callback: TokenizationPipelineCallback<T>
+    ) = runStage(workerExecutor, task) {
+        val startedAt = SystemClock.elapsedRealtime()
+        val payload = try {
+            spec.serialize(configuration)
+        } catch (e: Exception) {
+            publish(spec, task, null, e, callback)
+            return@runStage
+        }
+        task.recordStage(TokenizationStage.SERIALIZE, SystemClock.elapsedRealtime() - startedAt)
+        transport(spec, payload, task, callback)
+    }
+
+    private fun <T> transport(
+        spec: TokenizationSpec<T>,
+        payload: JsonPayload,
+        task: TokenizationTask,
+        callback: TokenizationPipelineCallback<T>
+    ) = when (spec) {
+        is StringTokenizationSpec -> transportThenDecode(spec, payload, task, callback)
+        is StreamingTokenizationSpec -> transportWhileDecoding(spec, payload, task, callback)
+    }
+
+    /**
+     * Sends the request and decodes the response body once it has been received in full.
+     */
+    private fun <T> transportThenDecode(
+        spec: StringTokenizationSpec<T>,
+        payload: JsonPayload,
+        task: TokenizationTask,
+        callback: TokenizationPipelineCallback<T>
+    ) {
+        val startedAt = SystemClock.elapsedRealtime()
+        val responseCallback = object : HttpResponseCallback {
+            override fun onResult(responseBody: String?, httpError: Exception?) {
+                val duration = SystemClock.elapsedRealtime() - startedAt
+                task.recordStage(TokenizationStage.TRANSPORT, duration)
+                if (responseBody != null) {
+                    decode(spec, responseBody, task, callback)
+                } else if (httpError != null) {
+                    publish(spec, task, null, httpError, callback)
+                }
+            }
+        }
+
+        val path = spec.getPath()
+        if (path != null) {
+            braintreeClient.sendPOST(path, payload, task.cancellationSignal, responseCallback)
+        } else {
+            braintreeClient.sendGraphQLPOST(payload, task.cancellationSignal, responseCallback)
+        }
+    }
+
+    /**
+     * Sends the request and decodes the response with the spec's decoder while it is received,
+     * so the response body is never held as a [String].
+     */
+    private fun <T> transportWhileDecoding(
+        spec: StreamingTokenizationSpec<T>,
+        payload: JsonPayload,
+        task: TokenizationTask,
+        callback: TokenizationPipelineCallback<T>
+    ) {
+        val decoder = spec.getDecoder()
+        val startedAt = SystemClock.elapsedRealtime()
+        val timedDecoder = JsonDecoder<T> { reader ->
+            val decodeStartedAt = SystemClock.elapsedRealtime()
+            decoder.decode(reader).also {
+                val duration = SystemClock.elapsedRealtime() - decodeStartedAt
+                task.recordStage(TokenizationStage.DECODE, duration)
+            }
+        }
+        val responseCallback = HttpResponseStreamCallback<T> { result, httpError ->
+            val duration = SystemClock.elapsedRealtime() - startedAt
+            task.recordStage(TokenizationStage.TRANSPORT, duration)
+            publish(spec, task, result, httpError, callback)
+        }
+
+        val path = spec.getPath()
+        if (path != null) {
+            braintreeClient.sendPOST(
+                path, payload, timedDecoder, task.cancellationSignal, responseCallback
+            )
+        } else {
+            braintreeClient.sendGraphQLPOST(
+                payload, timedDecoder, task.cancellationSignal, responseCallback
+            )
+        }
+    }
+
+    private fun <T> decode(
+        spec: StringTokenizationSpec<T>,
+        responseBody: String,
+        task: TokenizationTask,
+        callback: TokenizationPipelineCallback<T>
+    ) = runStage(workerExecutor, task) {
+        val startedAt = SystemClock.elapsedRealtime()
+        val result = try {
+            spec.decode(responseBody)
+        } catch (e: Exception) {
+            publish(spec, task, null, e, callback)
+            return@runStage
+        }
+        task.recordStage(TokenizationStage.DECODE, SystemClock.elapsedRealtime() - startedAt)
+        publish(spec, task, result, null, callback)
+    }
+
+    private fun <T> publish(
+        spec: TokenizationSpec<T>,
+        task: TokenizationTask,
+        result: T?,
+        error: Exception?,
+        callback: TokenizationPipelineCallback<T>
+    ) = runStage(mainExecutor, task) {
+        val startedAt = SystemClock.elapsedRealtime()
+        spec.getAnalyticsEventPrefix()?.let { prefix ->
+            val outcome = if (error == null) "success" else "failure"
+            braintreeClient.sendAnalyticsEvent("$prefix.$outcome")
+        }
+        callback.onResult(result, error)
+        task.recordStage(TokenizationStage.PUBLISH, SystemClock.elapsedRealtime() - startedAt)
+    }
+
+    private inline fun runStage(
+        executor: Executor,
+        task: TokenizationTask,
+        crossinline stage: () -> Unit
+    ) {
+        executor.execute {
+            if (!task.isCanceled) {
+                stage()
+            }
+        }
+    }
+
+    companion object {
+
+        /**
+         * Upper bound on the threads that serialize and decode tokenizations at the same time.
+         */
+        private const val MAX_WORKER_THREADS = 2
+        private const val WORKER_KEEP_ALIVE_SECONDS = 30L
+
+        internal val WORKER_EXECUTOR: Executor by lazy {
+            ThreadPoolExecutor(
+                MAX_WORKER_THREADS,
+                MAX_WORKER_THREADS,
+                WORKER_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                LinkedBlockingQueue()
+            ).apply { allowCoreThreadTimeOut(true) }
+        }
+
+        internal val MAIN_EXECUTOR: Executor by lazy {
+            val mainThreadHandler = Handler(Looper.getMainLooper())
+            Executor { mainThreadHandler.post(it) }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.braintreepayments.api
+
+import androidx.annotation.MainThread
+import androidx.annotation.RestrictTo
+
+/**
+ * Receives the result of a [TokenizationPipeline] on the main thread.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface TokenizationPipelineCallback<T> {
+
+    @MainThread
+    fun onResult(result: T?, error: Exception?)
+}
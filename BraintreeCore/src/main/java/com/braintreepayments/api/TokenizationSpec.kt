@@ -0,0 +1,71 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+import androidx.annotation.WorkerThread
+
+/**
+ * Describes one kind of tokenization for a [TokenizationPipeline]: how to build its request and
+ * how to read its response. Payment modules describe a tokenization instead of chaining
+ * authorization, configuration, HTTP and parsing by hand, extending [StringTokenizationSpec] to
+ * decode the whole response body or [StreamingTokenizationSpec] to decode the response while it
+ * is received.
+ *
+ * @param T the result of the tokenization, usually a [PaymentMethodNonce]
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+sealed class TokenizationSpec<T> {
+
+    /**
+     * @return the REST path to POST the payload to, or null to send it to the GraphQL API
+     */
+    abstract fun getPath(): String?
+
+    /**
+     * @return the prefix of the `started`, `success` and `failure` analytics events sent for this
+     * tokenization, or null to send none
+     */
+    open fun getAnalyticsEventPrefix(): String? = null
+
+    /**
+     * @return true if [serialize] needs the [Configuration]; when false the resolve stage is
+     * skipped and [serialize] receives null
+     */
+    open fun requiresConfiguration(): Boolean = false
+
+    @WorkerThread
+    @Throws(Exception::class)
+    abstract fun serialize(configuration: Configuration?): JsonPayload
+}
+
+/**
+ * A [TokenizationSpec] that receives the whole response body as a [String].
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+abstract class StringTokenizationSpec<T> : TokenizationSpec<T>() {
+
+    /**
+     * Turns the response body into a result.
+     */
+    @WorkerThread
+    @Throws(Exception::class)
+    abstract fun decode(responseBody: String): T
+}
+
+/**
+ * A [TokenizationSpec] that reads its result while the response is received, so the response
+ * body is never held as a [String].
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+abstract class StreamingTokenizationSpec<T> : TokenizationSpec<T>() {
+
+    /**
+     * @return the decoder that reads the result. For GraphQL requests the decoder reads the
+     * `data` of the response.
+     */
+    abstract fun getDecoder(): JsonDecoder<T>
+}
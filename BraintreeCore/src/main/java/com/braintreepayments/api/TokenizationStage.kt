@@ -0,0 +1,30 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * The stages a [TokenizationPipeline] runs a tokenization through, in order.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+enum class TokenizationStage {
+
+    /** Fetches authorization and configuration. Skipped when the payload does not need them. */
+    RESOLVE,
+
+    /** Builds the request payload, off the main thread. */
+    SERIALIZE,
+
+    /** Sends the request to the Braintree gateway or GraphQL API. */
+    TRANSPORT,
+
+    /**
+     * Turns the response body into a result, off the main thread. A response read with the
+     * decoder of the spec is decoded while it is received, so this stage is part of [TRANSPORT].
+     */
+    DECODE,
+
+    /** Sends analytics events and delivers the result on the main thread. */
+    PUBLISH
+}
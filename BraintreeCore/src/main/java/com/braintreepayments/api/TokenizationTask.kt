@@ -0,0 +1,49 @@
+package com.braintreepayments.api
+
+import android.os.CancellationSignal
+import androidx.annotation.RestrictTo
+import java.util.EnumMap
+
+/**
+ * A tokenization running through a [TokenizationPipeline].
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class TokenizationTask internal constructor() {
+
+    private val stageDurations = EnumMap<TokenizationStage, Long>(TokenizationStage::class.java)
+
+    /**
+     * True once [cancel] has been called.
+     */
+    @Volatile
+    var isCanceled = false
+        private set
+
+    /**
+     * Aborts the request of this tokenization while it is in flight.
+     */
+    internal val cancellationSignal = CancellationSignal()
+
+    /**
+     * Stops the tokenization before its next stage starts and aborts a request that is in flight.
+     * A request the server already received may still complete on its side, but its response is
+     * neither decoded nor delivered.
+     */
+    fun cancel() {
+        isCanceled = true
+        cancellationSignal.cancel()
+    }
+
+    /**
+     * @return how long [stage] took in milliseconds, or -1 if it has not completed
+     */
+    @Synchronized
+    fun getStageDurationMs(stage: TokenizationStage): Long = stageDurations[stage] ?: -1L
+
+    @Synchronized
+    internal fun recordStage(stage: TokenizationStage, durationMs: Long) {
+        stageDurations[stage] = durationMs
+    }
+}
@@ -17,6 +17,8 @@ import org.robolectric.RobolectricTestRunner
 import org.skyscreamer.jsonassert.JSONAssert
 import java.io.IOException
 import java.security.GeneralSecurityException
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
 
 @RunWith(RobolectricTestRunner::class)
 class AnalyticsClientUnitTest {
@@ -32,6 +34,10 @@ class AnalyticsClientUnitTest {
     private lateinit var analyticsDatabase: AnalyticsDatabase
     private lateinit var analyticsEventDao: AnalyticsEventDao
 
+    private lateinit var pendingTasks: MutableList<Runnable>
+    private lateinit var delayedTasks: MutableList<Runnable>
+    private lateinit var uploadDelayScheduler: ScheduledExecutorService
+
     private var timestamp: Long = 0
 
     @Before
@@ -50,6 +56,16 @@ class AnalyticsClientUnitTest {
         workManager = mockk(relaxed = true)
 
         every { analyticsDatabase.analyticsEventDao() } returns analyticsEventDao
+
+        pendingTasks = mutableListOf()
+        delayedTasks = mutableListOf()
+        uploadDelayScheduler = mockk()
+        every {
+            uploadDelayScheduler.schedule(any<Runnable>(), 2000L, TimeUnit.MILLISECONDS)
+        } answers {
+            delayedTasks.add(firstArg())
+            mockk()
+        }
     }
 
     @Test
@@ -100,6 +116,90 @@ class AnalyticsClientUnitTest {
         assertEquals("sample-integration", workSpec.input.getString("integration"))
     }
 
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_withExecutorStrategy_storesAndUploadsEventOnExecutorWithoutWorkManager() {
+        val events = listOf(AnalyticsEvent("android.sample-event-name", 123))
+        every { analyticsEventDao.getAllEvents() } returns events
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val sut = createExecutorAnalyticsClient()
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        sut.sendEvent(configuration, eventName, sessionId, integration, 123, authorization)
+
+        verify(exactly = 0) { analyticsEventDao.insertEvent(any()) }
+        pendingTasks.removeAt(0).run()
+
+        verify {
+            analyticsEventDao.insertEvent(match {
+                it.name == "android.sample-event-name" && it.timestamp == 123L
+            })
+        }
+        verify(exactly = 0) { httpClient.post(any(), any(), any(), any()) }
+
+        delayedTasks.single().run()
+        pendingTasks.single().run()
+
+        verify { httpClient.post(configuration.analyticsUrl!!, any(), any(), any()) }
+        verify { analyticsEventDao.deleteEvents(events) }
+        verify { workManager wasNot Called }
+    }
+
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_withExecutorStrategy_uploadsEventsOfABurstTogether() {
+        every { analyticsEventDao.getAllEvents() } returns listOf(AnalyticsEvent("event", 123))
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val sut = createExecutorAnalyticsClient()
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        sut.sendEvent(configuration, "first-event", sessionId, integration, 123, authorization)
+        sut.sendEvent(configuration, "second-event", sessionId, integration, 124, authorization)
+        pendingTasks.toList().forEach { it.run() }
+        pendingTasks.clear()
+
+        assertEquals(1, delayedTasks.size)
+        delayedTasks.single().run()
+        pendingTasks.single().run()
+
+        verify(exactly = 2) { analyticsEventDao.insertEvent(any()) }
+        verify(exactly = 1) { httpClient.post(any(), any(), any(), any()) }
+    }
+
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_withExecutorStrategy_uploadsEventsStoredDuringAnUploadAfterIt() {
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val sut = createExecutorAnalyticsClient()
+        every { analyticsEventDao.getAllEvents() } answers {
+            // an event stored while the upload reads and sends the stored events
+            sut.sendEvent(configuration, "late-event", sessionId, integration, 124, authorization)
+            pendingTasks.removeAt(pendingTasks.size - 1).run()
+            listOf(AnalyticsEvent("event", 123))
+        } andThen listOf(AnalyticsEvent("late-event", 124))
+
+        sut.sendEvent(configuration, eventName, sessionId, integration, 123, authorization)
+        pendingTasks.removeAt(0).run()
+        delayedTasks.removeAt(0).run()
+        pendingTasks.removeAt(0).run()
+
+        verify(exactly = 1) { httpClient.post(any(), any(), any(), any()) }
+        assertEquals(1, delayedTasks.size)
+
+        delayedTasks.removeAt(0).run()
+        pendingTasks.removeAt(0).run()
+
+        verify(exactly = 2) { httpClient.post(any(), any(), any(), any()) }
+        assertTrue(delayedTasks.isEmpty())
+    }
+
     @Test
     fun writeAnalytics_whenEventNameAndTimestampArePresent_returnsSuccess() {
         val inputData = Data.Builder()
@@ -410,6 +510,17 @@ class AnalyticsClientUnitTest {
         verify { httpClient wasNot Called }
     }
 
+    private fun createExecutorAnalyticsClient() = AnalyticsClient(
+        httpClient,
+        analyticsDatabase,
+        workManager,
+        deviceInspector,
+        AnalyticsDispatchStrategy.EXECUTOR,
+        { pendingTasks.add(it) },
+        context,
+        uploadDelayScheduler
+    )
+
     companion object {
         private fun createSampleDeviceMetadata() = DeviceMetadata(
                 integration = "sample-integration",
@@ -1,11 +1,14 @@
 package com.braintreepayments.api
 
 import android.content.Context
+import android.os.CancellationSignal
+import android.os.OperationCanceledException
 import androidx.test.core.app.ApplicationProvider
 import io.mockk.*
 import org.json.JSONException
 import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -38,8 +41,10 @@ class ApiClientUnitTest {
             .sessionId("session-id")
             .build()
 
-        val bodySlot = slot<String>()
-        every { braintreeClient.sendPOST(any(), capture(bodySlot), any()) } returns Unit
+        val bodySlot = slot<JsonPayload>()
+        every {
+            braintreeClient.sendPOST(any(), capture(bodySlot), any(), any<HttpResponseCallback>())
+        } returns Unit
 
         val sut = ApiClient(braintreeClient)
         val card = spyk(Card())
@@ -47,10 +52,10 @@ class ApiClientUnitTest {
 
         verifyOrder {
             card.setSessionId("session-id")
-            braintreeClient.sendPOST(any(), any(), any())
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), any<HttpResponseCallback>())
         }
 
-        val data = JSONObject(bodySlot.captured).getJSONObject("_meta")
+        val data = Json.toJSONObject(bodySlot.captured).getJSONObject("_meta")
         assertEquals("session-id", data.getString("sessionId"))
     }
 
@@ -62,15 +67,166 @@ class ApiClientUnitTest {
             .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
             .build()
 
-        val graphQLBodySlot = slot<String>()
-        every { braintreeClient.sendGraphQLPOST(capture(graphQLBodySlot), any()) } returns Unit
+        val graphQLBodySlot = slot<JsonPayload>()
+        every {
+            braintreeClient.sendGraphQLPOST(
+                capture(graphQLBodySlot), any(), any<HttpResponseCallback>()
+            )
+        } returns Unit
 
         val sut = ApiClient(braintreeClient)
         val card = Card()
         sut.tokenizeGraphQL(card.buildJSONForGraphQL(), tokenizeCallback)
 
-        verify(inverse = true) { braintreeClient.sendPOST(any(), any(), any()) }
-        assertEquals(card.buildJSONForGraphQL().toString(), graphQLBodySlot.captured)
+        verify(inverse = true) { braintreeClient.sendPOST(any(), any<String>(), any()) }
+        verify(inverse = true) {
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), any<HttpResponseCallback>())
+        }
+        assertEquals(
+            card.buildJSONForGraphQL().toString(),
+            Json.toJSONObject(graphQLBodySlot.captured).toString()
+        )
+    }
+
+    @Test
+    @Throws(BraintreeException::class, JSONException::class)
+    fun tokenizeGraphQL_withJsonPayload_tokenizesCardsWithGraphQL() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLEnabledConfig)
+            .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+            .build()
+
+        val graphQLBodySlot = slot<JsonPayload>()
+        every {
+            braintreeClient.sendGraphQLPOST(
+                capture(graphQLBodySlot), any(), any<HttpResponseCallback>()
+            )
+        } returns Unit
+
+        val sut = ApiClient(braintreeClient)
+        val card = Card()
+        sut.tokenizeGraphQL(card.buildGraphQLPayload(), tokenizeCallback)
+
+        verify { braintreeClient.sendAnalyticsEvent("card.graphql.tokenization.started") }
+        assertEquals(
+            card.buildJSONForGraphQL().toString(),
+            Json.toJSONObject(graphQLBodySlot.captured).toString()
+        )
+    }
+
+    @Test
+    fun tokenizeGraphQL_withDataDecoder_streamsResultAndSendsAnalytics() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLEnabledConfig)
+            .build()
+
+        val decoder = JsonDecoder { reader -> reader.nextString() }
+        val callbackSlot = slot<HttpResponseStreamCallback<String>>()
+        every {
+            braintreeClient.sendGraphQLPOST(
+                any(), any<JsonDecoder<String>>(), any(), capture(callbackSlot)
+            )
+        } returns Unit
+
+        val callback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+        val sut = ApiClient(braintreeClient)
+        sut.tokenizeGraphQL(JsonPayload { }, decoder, callback)
+        callbackSlot.captured.onResult("decoded", null)
+
+        verify { callback.onResult("decoded", null) }
+        verifyOrder {
+            braintreeClient.sendAnalyticsEvent("card.graphql.tokenization.started")
+            braintreeClient.sendAnalyticsEvent("card.graphql.tokenization.success")
+        }
+    }
+
+    @Test
+    fun tokenizeGraphQL_withPayloadList_sendsOneBatchAndDispatchesEachResult() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLEnabledConfig)
+            .build()
+
+        val operationsSlot = slot<List<GraphQLBatchOperation>>()
+        every { braintreeClient.sendGraphQLBatch(capture(operationsSlot)) } returns Unit
+
+        val firstPayload = JsonPayload { }
+        val secondPayload = JsonPayload { }
+        val firstCallback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+        val secondCallback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+
+        val sut = ApiClient(braintreeClient)
+        sut.tokenizeGraphQL(
+            listOf(firstPayload, secondPayload),
+            JsonDecoder { reader -> reader.nextString() },
+            listOf(firstCallback, secondCallback)
+        )
+
+        val operations = operationsSlot.captured
+        assertEquals(2, operations.size)
+        assertEquals(firstPayload, operations[0].payload)
+        assertEquals(secondPayload, operations[1].payload)
+
+        val error = Exception("error")
+        operations[0].callback.onResult("""{"data":"decoded"}""", null)
+        operations[1].callback.onResult(null, error)
+
+        verify { firstCallback.onResult("decoded", null) }
+        verify { secondCallback.onResult(null, error) }
+        verify(inverse = true) { braintreeClient.sendAnalyticsEvent(any()) }
+    }
+
+    @Test
+    fun tokenizeREST_withDecoder_postsToPaymentMethodPathAndSendsAnalytics() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLDisabledConfig)
+            .build()
+
+        val decoder = JsonDecoder { reader -> reader.nextString() }
+        val callbackSlot = slot<HttpResponseStreamCallback<String>>()
+        every {
+            braintreeClient.sendPOST(
+                "/v1/payment_methods/credit_cards",
+                any(),
+                any<JsonDecoder<String>>(),
+                any(),
+                capture(callbackSlot)
+            )
+        } returns Unit
+
+        val callback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+        val error = Exception("error")
+        val sut = ApiClient(braintreeClient)
+        sut.tokenizeREST(Card(), decoder, callback)
+        callbackSlot.captured.onResult(null, error)
+
+        verify { callback.onResult(null, error) }
+        verifyOrder {
+            braintreeClient.sendAnalyticsEvent("card.rest.tokenization.started")
+            braintreeClient.sendAnalyticsEvent("card.rest.tokenization.failure")
+        }
+    }
+
+    @Test
+    fun tokenizeREST_withoutAnalyticsEvents_doesNotSendAnalyticsEvents() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLDisabledConfig)
+            .build()
+
+        val decoder = JsonDecoder { reader -> reader.nextString() }
+        val callbackSlot = slot<HttpResponseStreamCallback<String>>()
+        every {
+            braintreeClient.sendPOST(
+                any(), any(), any<JsonDecoder<String>>(), any(), capture(callbackSlot)
+            )
+        } returns Unit
+
+        val callback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+        val sut = ApiClient(braintreeClient)
+        sut.tokenizeREST(Card(), false, decoder, callback)
+        callbackSlot.captured.onResult("decoded", null)
+
+        verify { callback.onResult("decoded", null) }
+        verify(inverse = true) { braintreeClient.sendAnalyticsEvent(any()) }
     }
 
     @Test
@@ -97,7 +253,12 @@ class ApiClientUnitTest {
         sut.tokenizeREST(UnionPayCard(), tokenizeCallback)
         sut.tokenizeREST(VenmoAccount(), tokenizeCallback)
 
-        verify(inverse = true) { braintreeClient.sendGraphQLPOST(any(), any()) }
+        verify(inverse = true) { braintreeClient.sendGraphQLPOST(any<String>(), any()) }
+        verify(inverse = true) {
+            braintreeClient.sendGraphQLPOST(
+                any<JsonPayload>(), any(), any<HttpResponseCallback>()
+            )
+        }
     }
 
     @Test
@@ -128,6 +289,55 @@ class ApiClientUnitTest {
         verify { braintreeClient.sendAnalyticsEvent("card.graphql.tokenization.failure") }
     }
 
+    @Test
+    fun tokenizeREST_whenResponseIsNotJSON_forwardsErrorAndSendsFailureEvent() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLDisabledConfig)
+            .build()
+
+        val callbackSlot = slot<HttpResponseCallback>()
+        every {
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), capture(callbackSlot))
+        } answers { callbackSlot.captured.onResult("not-json", null) }
+
+        val sut = ApiClient(braintreeClient)
+        sut.tokenizeREST(Card(), tokenizeCallback)
+
+        verify { tokenizeCallback.onResult(null, any<JSONException>()) }
+        verify { braintreeClient.sendAnalyticsEvent("card.rest.tokenization.failure") }
+    }
+
+    @Test
+    fun tokenizeREST_whenTaskIsCanceled_abortsRequestAndDropsResult() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLDisabledConfig)
+            .build()
+
+        val cancellationSignal = slot<CancellationSignal>()
+        val callbackSlot = slot<HttpResponseStreamCallback<String>>()
+        every {
+            braintreeClient.sendPOST(
+                any(),
+                any(),
+                any<JsonDecoder<String>>(),
+                capture(cancellationSignal),
+                capture(callbackSlot)
+            )
+        } returns Unit
+
+        val callback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+        val sut = ApiClient(braintreeClient)
+        val task = sut.tokenizeREST(Card(), JsonDecoder { reader -> reader.nextString() }, callback)
+        task.cancel()
+        callbackSlot.captured.onResult(null, OperationCanceledException())
+
+        assertTrue(cancellationSignal.captured.isCanceled)
+        verify(inverse = true) { callback.onResult(any(), any()) }
+        verify(inverse = true) {
+            braintreeClient.sendAnalyticsEvent("card.rest.tokenization.failure")
+        }
+    }
+
     @Test
     fun versionedPath_returnsv1Path() {
         assertEquals("/v1/test/path", ApiClient.versionedPath("test/path"))
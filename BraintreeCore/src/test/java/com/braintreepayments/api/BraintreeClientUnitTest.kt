@@ -4,7 +4,11 @@ import android.content.Context
 import android.content.Intent
 import android.content.pm.ActivityInfo
 import android.net.Uri
+import android.os.CancellationSignal
 import androidx.fragment.app.FragmentActivity
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleEventObserver
+import androidx.lifecycle.LifecycleObserver
 import androidx.test.core.app.ApplicationProvider
 import androidx.work.testing.WorkManagerTestInitHelper
 import io.mockk.*
@@ -16,6 +20,7 @@ import org.junit.Test
 import org.junit.runner.RunWith
 import org.mockito.Mockito.mock
 import org.robolectric.RobolectricTestRunner
+import java.util.concurrent.Executor
 
 @RunWith(RobolectricTestRunner::class)
 class BraintreeClientUnitTest {
@@ -30,6 +35,8 @@ class BraintreeClientUnitTest {
     private lateinit var analyticsClient: AnalyticsClient
     private lateinit var manifestValidator: ManifestValidator
     private lateinit var browserSwitchClient: BrowserSwitchClient
+    private lateinit var browserSwitchAccelerator: BrowserSwitchAccelerator
+    private lateinit var flowStateStore: FlowStateStore
 
     @Before
     fun beforeEach() {
@@ -45,6 +52,8 @@ class BraintreeClientUnitTest {
         analyticsClient = mockk(relaxed = true)
         manifestValidator = mockk(relaxed = true)
         browserSwitchClient = mockk(relaxed = true)
+        browserSwitchAccelerator = mockk(relaxed = true)
+        flowStateStore = mockk(relaxed = true)
 
         every { context.applicationContext } returns applicationContext
         WorkManagerTestInitHelper.initializeTestWorkManager(context)
@@ -120,6 +129,55 @@ class BraintreeClientUnitTest {
         verify { callback.onResult(null, configFetchError) }
     }
 
+    @Test
+    fun getConfigurationCacheStats_forwardsInvocationToConfigurationLoader() {
+        val stats = listOf(ConfigurationCacheStats("merchant-id", 3, 1))
+        every { configurationLoader.getCacheStats() } returns stats
+        val authorizationLoader = MockkAuthorizationLoaderBuilder().build()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        assertSame(stats, sut.getConfigurationCacheStats())
+    }
+
+    @Test
+    fun getPersistedQueryStats_forwardsInvocationToGraphQLClient() {
+        val stats = PersistedQueryStats(5L, 1L)
+        every { braintreeGraphQLClient.getPersistedQueryStats() } returns stats
+        val authorizationLoader = MockkAuthorizationLoaderBuilder().build()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        assertSame(stats, sut.getPersistedQueryStats())
+    }
+
+    @Test
+    fun tokenize_runsPipelineOnParsingAndCallbackExecutorsFromParams() {
+        val parsingTasks = mutableListOf<Runnable>()
+        val callbackTasks = mutableListOf<Runnable>()
+        val authorizationLoader = MockkAuthorizationLoaderBuilder().build()
+        val params = createDefaultParams(configurationLoader, authorizationLoader).copy(
+            parsingExecutor = { parsingTasks.add(it) },
+            callbackExecutor = { callbackTasks.add(it) }
+        )
+        val sut = BraintreeClient(params)
+
+        val spec = object : StringTokenizationSpec<String>() {
+            override fun getPath(): String? = "v1/payment_methods/test"
+
+            override fun serialize(configuration: Configuration?) =
+                JsonPayload { writer -> writer.name("key").value("value") }
+
+            override fun decode(responseBody: String) = responseBody
+        }
+        val callback = mockk<TokenizationPipelineCallback<String>>(relaxed = true)
+        sut.tokenize(spec, callback)
+
+        assertEquals(1, parsingTasks.size)
+        parsingTasks.removeAt(0).run()
+        assertTrue(callbackTasks.isEmpty())
+    }
+
     @Test
     fun authorization_forwardsInvocationToAuthorizationLoader() {
         val authorizationLoader = MockkAuthorizationLoaderBuilder().build()
@@ -229,6 +287,67 @@ class BraintreeClientUnitTest {
                 "{}",
                 configuration,
                 authorization,
+                null,
+                httpResponseCallback
+            )
+        }
+    }
+
+    @Test
+    fun sendPOST_withCancellationSignal_forwardsSignalToHttpClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val cancellationSignal = CancellationSignal()
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+        sut.sendPOST("sample-url", "{}", cancellationSignal, httpResponseCallback)
+
+        verify {
+            braintreeHttpClient.post(
+                "sample-url",
+                "{}",
+                configuration,
+                authorization,
+                cancellationSignal,
+                httpResponseCallback
+            )
+        }
+    }
+
+    @Test
+    fun sendPOST_withJsonPayload_onGetConfigurationSuccess_forwardsRequestToHttpClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val payload = JsonPayload { }
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+        sut.sendPOST("sample-url", payload, httpResponseCallback)
+
+        verify {
+            braintreeHttpClient.post(
+                "sample-url",
+                payload,
+                configuration,
+                authorization,
+                null,
                 httpResponseCallback
             )
         }
@@ -296,6 +415,67 @@ class BraintreeClientUnitTest {
         }
     }
 
+    @Test
+    fun sendGraphQLPOST_withJsonPayload_onGetConfigurationSuccess_forwardsRequestToHttpClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        val payload = JsonPayload { }
+        sut.sendGraphQLPOST(payload, httpResponseCallback)
+        verify {
+            braintreeGraphQLClient.post(
+                payload,
+                configuration,
+                authorization,
+                null,
+                httpResponseCallback
+            )
+        }
+    }
+
+    @Test
+    fun sendPOST_withDecoderAndCancellationSignal_forwardsSignalToHttpClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val payload = JsonPayload { }
+        val decoder = JsonDecoder { reader -> reader.nextString() }
+        val cancellationSignal = CancellationSignal()
+        val callback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+        sut.sendPOST("sample-url", payload, decoder, cancellationSignal, callback)
+
+        verify {
+            braintreeHttpClient.post(
+                "sample-url",
+                payload,
+                configuration,
+                authorization,
+                decoder,
+                cancellationSignal,
+                callback
+            )
+        }
+    }
+
     @Test
     fun sendGraphQLPOST_onAuthorizationFailure_forwardsErrorToCallback() {
         val authError = Exception("authorization error")
@@ -332,6 +512,52 @@ class BraintreeClientUnitTest {
         verify { httpResponseCallback.onResult(null, exception) }
     }
 
+    @Test
+    fun sendGraphQLBatch_onGetConfigurationSuccess_forwardsOperationsToGraphQLClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val operations = listOf(
+            GraphQLBatchOperation(JsonPayload { }, mockk(relaxed = true)),
+            GraphQLBatchOperation(JsonPayload { }, mockk(relaxed = true))
+        )
+        sut.sendGraphQLBatch(operations)
+        verify { braintreeGraphQLClient.postBatch(operations, configuration, authorization) }
+    }
+
+    @Test
+    fun sendGraphQLBatch_onAuthorizationFailure_forwardsErrorToEachCallback() {
+        val authError = Exception("authorization error")
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorizationError(authError)
+            .build()
+
+        val configurationLoader = MockkConfigurationLoaderBuilder().build()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val firstCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val secondCallback = mockk<HttpResponseCallback>(relaxed = true)
+        sut.sendGraphQLBatch(
+            listOf(
+                GraphQLBatchOperation(JsonPayload { }, firstCallback),
+                GraphQLBatchOperation(JsonPayload { }, secondCallback)
+            )
+        )
+
+        verify { firstCallback.onResult(null, authError) }
+        verify { secondCallback.onResult(null, authError) }
+    }
+
     @Test
     @Throws(JSONException::class)
     fun sendAnalyticsEvent_sendsEventToAnalyticsClient() {
@@ -416,6 +642,262 @@ class BraintreeClientUnitTest {
         verify { browserSwitchClient.start(activity, browserSwitchOptions) }
     }
 
+    @Test
+    @Throws(BrowserSwitchException::class)
+    fun startBrowserSwitch_whenHostActivityStops_sendsBrowserVisibleEvent() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val url = Uri.parse("https://www.example.com/approve")
+
+        val lifecycle = mockk<Lifecycle>(relaxed = true)
+        val observerSlot = slot<LifecycleObserver>()
+        every { lifecycle.addObserver(capture(observerSlot)) } returns Unit
+        val activity = mockk<FragmentActivity>(relaxed = true)
+        every { activity.lifecycle } returns lifecycle
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        sut.startBrowserSwitch(activity, BrowserSwitchOptions().url(url))
+
+        verify {
+            analyticsClient.sendEvent(
+                configuration, "browser-switch.started", "session-id", "custom", authorization
+            )
+        }
+        verify(exactly = 0) {
+            analyticsClient.sendEvent(
+                configuration, "browser-switch.visible", any(), any(), authorization
+            )
+        }
+
+        val observer = observerSlot.captured as LifecycleEventObserver
+        observer.onStateChanged(activity, Lifecycle.Event.ON_PAUSE)
+        observer.onStateChanged(activity, Lifecycle.Event.ON_STOP)
+
+        verify {
+            analyticsClient.sendEvent(
+                configuration,
+                "browser-switch.visible",
+                "session-id",
+                "custom",
+                authorization
+            )
+        }
+        verify { lifecycle.removeObserver(observer) }
+    }
+
+    @Test
+    @Throws(BrowserSwitchException::class)
+    fun startBrowserSwitch_offMainThread_observesActivityLifecycleOnMainExecutor() {
+        val lifecycle = mockk<Lifecycle>(relaxed = true)
+        val activity = mockk<FragmentActivity>(relaxed = true)
+        every { activity.lifecycle } returns lifecycle
+
+        val mainTasks = mutableListOf<Runnable>()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+            .copy(mainExecutor = Executor { mainTasks.add(it) })
+        val sut = BraintreeClient(params)
+
+        val callbackThread = Thread { sut.startBrowserSwitch(activity, BrowserSwitchOptions()) }
+        callbackThread.start()
+        callbackThread.join()
+
+        verify(exactly = 0) { lifecycle.addObserver(any()) }
+        assertEquals(1, mainTasks.size)
+
+        mainTasks[0].run()
+        verify { lifecycle.addObserver(any()) }
+    }
+
+    @Test
+    fun warmUpBrowserSwitch_forwardsInvocationToBrowserSwitchAccelerator() {
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        sut.warmUpBrowserSwitch()
+        verify { browserSwitchAccelerator.warmUp(applicationContext) }
+    }
+
+    @Test
+    fun loadReadyToPay_withSameConfigurationAndParameters_loadsOnce() {
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN)
+
+        var loadCount = 0
+        val loader = ReadyToPayLoader { callback ->
+            loadCount++
+            callback.onResult(true, null)
+        }
+        val results = mutableListOf<Boolean>()
+        sut.loadReadyToPay("venmo", configuration, null, loader) { isReadyToPay, _ ->
+            results.add(isReadyToPay)
+        }
+        sut.loadReadyToPay("venmo", configuration, null, loader) { isReadyToPay, _ ->
+            results.add(isReadyToPay)
+        }
+
+        assertEquals(1, loadCount)
+        assertEquals(listOf(true, true), results)
+    }
+
+    @Test
+    fun loadReadyToPay_whenConfigurationOrParametersChange_loadsAgain() {
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN)
+        val otherConfiguration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+
+        var loadCount = 0
+        val loader = ReadyToPayLoader { callback ->
+            loadCount++
+            callback.onResult(true, null)
+        }
+        sut.loadReadyToPay("google-pay", configuration, "false", loader) { _, _ -> }
+        sut.loadReadyToPay("google-pay", configuration, "true", loader) { _, _ -> }
+        sut.loadReadyToPay("google-pay", otherConfiguration, "true", loader) { _, _ -> }
+        sut.loadReadyToPay("venmo", otherConfiguration, "true", loader) { _, _ -> }
+
+        assertEquals(4, loadCount)
+    }
+
+    @Test
+    fun saveFlowState_storesStateUnderRequestCodeAndConfigUrl_onFlowStateExecutor() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        every { authorizationLoader.authorizationFromCache } returns authorization
+        val flowStateTasks = mutableListOf<Runnable>()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+            .copy(flowStateExecutor = Executor { flowStateTasks.add(it) })
+        val sut = BraintreeClient(params)
+
+        sut.saveFlowState(BraintreeRequestCodes.SEPA_DEBIT, JSONObject().put("customerId", "id"))
+        verify(exactly = 0) { flowStateStore.put(any(), any(), any(), any()) }
+
+        flowStateTasks.single().run()
+        verify {
+            flowStateStore.put(
+                BraintreeRequestCodes.SEPA_DEBIT,
+                "https://example.com/config",
+                "{\"customerId\":\"id\"}"
+            )
+        }
+    }
+
+    @Test
+    fun saveFlowState_beforeAuthorizationIsLoaded_doesNotStoreState() {
+        every { authorizationLoader.authorizationFromCache } returns null
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        sut.saveFlowState(BraintreeRequestCodes.SEPA_DEBIT, JSONObject().put("customerId", "id"))
+
+        verify(exactly = 0) { flowStateStore.put(any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun restoreFlowState_deliversStateFromPreviousProcessForConfigUrl() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+        every {
+            flowStateStore.takeFromPreviousProcess(
+                BraintreeRequestCodes.SEPA_DEBIT,
+                "https://example.com/config"
+            )
+        } returns "{\"customerId\":\"id\"}"
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val callback = mockk<FlowStateCallback>(relaxed = true)
+        sut.restoreFlowState(BraintreeRequestCodes.SEPA_DEBIT, callback)
+
+        val stateSlot = slot<JSONObject>()
+        verify { callback.onResult(capture(stateSlot)) }
+        assertEquals("id", stateSlot.captured.getString("customerId"))
+    }
+
+    @Test
+    fun restoreFlowState_withCallbackExecutor_deliversStateOnCallbackExecutor() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+        every {
+            flowStateStore.takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, any())
+        } returns "{\"customerId\":\"id\"}"
+        val mainTasks = mutableListOf<Runnable>()
+        val callbackTasks = mutableListOf<Runnable>()
+        val params = createDefaultParams(configurationLoader, authorizationLoader).copy(
+            mainExecutor = Executor { mainTasks.add(it) },
+            callbackExecutor = Executor { callbackTasks.add(it) }
+        )
+        val sut = BraintreeClient(params)
+
+        val callback = mockk<FlowStateCallback>(relaxed = true)
+        sut.restoreFlowState(BraintreeRequestCodes.SEPA_DEBIT, callback)
+
+        assertTrue(mainTasks.isEmpty())
+        assertEquals(1, callbackTasks.size)
+        verify(exactly = 0) { callback.onResult(any()) }
+
+        callbackTasks[0].run()
+        verify { callback.onResult(any()) }
+    }
+
+    @Test
+    fun restoreFlowState_whenStateIsNotJson_deliversNull() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+        every {
+            flowStateStore.takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, any())
+        } returns "not-json"
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val callback = mockk<FlowStateCallback>(relaxed = true)
+        sut.restoreFlowState(BraintreeRequestCodes.SEPA_DEBIT, callback)
+
+        verify { callback.onResult(null) }
+    }
+
+    @Test
+    fun restoreFlowState_whenAuthorizationFails_deliversNullWithoutReadingStore() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorizationError(Exception("error"))
+            .build()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val callback = mockk<FlowStateCallback>(relaxed = true)
+        sut.restoreFlowState(BraintreeRequestCodes.SEPA_DEBIT, callback)
+
+        verify { callback.onResult(null) }
+        verify(exactly = 0) { flowStateStore.takeFromPreviousProcess(any(), any()) }
+    }
+
+    @Test
+    fun clearFlowState_removesStateOfRequestCode_onFlowStateExecutor() {
+        val flowStateTasks = mutableListOf<Runnable>()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+            .copy(flowStateExecutor = Executor { flowStateTasks.add(it) })
+        val sut = BraintreeClient(params)
+
+        sut.clearFlowState(BraintreeRequestCodes.SEPA_DEBIT)
+        verify(exactly = 0) { flowStateStore.remove(any()) }
+
+        flowStateTasks.single().run()
+        verify { flowStateStore.remove(BraintreeRequestCodes.SEPA_DEBIT) }
+    }
+
     @Test
     fun browserSwitchResult_forwardsInvocationToBrowserSwitchClient() {
         val activity = mockk<FragmentActivity>(relaxed = true)
@@ -438,6 +920,30 @@ class BraintreeClientUnitTest {
         verify { browserSwitchClient.deliverResult(activity) }
     }
 
+    @Test
+    fun deliverBrowserSwitchResult_withResult_releasesBrowserSwitchAccelerator() {
+        val activity = mockk<FragmentActivity>(relaxed = true)
+        every { browserSwitchClient.deliverResult(activity) } returns createSuccessfulBrowserSwitchResult()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+
+        val sut = BraintreeClient(params)
+        sut.deliverBrowserSwitchResult(activity)
+
+        verify { browserSwitchAccelerator.release() }
+    }
+
+    @Test
+    fun deliverBrowserSwitchResult_withoutResult_keepsBrowserSwitchAcceleratorBound() {
+        val activity = mockk<FragmentActivity>(relaxed = true)
+        every { browserSwitchClient.deliverResult(activity) } returns null
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+
+        val sut = BraintreeClient(params)
+        sut.deliverBrowserSwitchResult(activity)
+
+        verify(exactly = 0) { browserSwitchAccelerator.release() }
+    }
+
     @Test
     fun deliverBrowserSwitchResultFromNewTask_forwardsInvocationToBrowserSwitchClient() {
         val context = mockk<Context>(relaxed = true)
@@ -634,6 +1140,16 @@ class BraintreeClientUnitTest {
         assertEquals("dropin", sut.integrationType)
     }
 
+    @Test
+    fun getCachedAuthorization_returnsAuthorizationFromCache() {
+        every { authorizationLoader.authorizationFromCache } returns authorization
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        assertSame(authorization, sut.getCachedAuthorization())
+    }
+
     @Test
     @Throws(JSONException::class)
     fun reportCrash_reportsCrashViaAnalyticsClient() {
@@ -670,9 +1186,14 @@ class BraintreeClientUnitTest {
             graphQLClient = braintreeGraphQLClient,
             analyticsClient = analyticsClient,
             browserSwitchClient = browserSwitchClient,
+            browserSwitchAccelerator = browserSwitchAccelerator,
+            readyToPayCache = ReadyToPayCache(ReadyToPayCache.DEFAULT_TIME_TO_LIVE_MS),
+            flowStateStore = flowStateStore,
             manifestValidator = manifestValidator,
             configurationLoader = configurationLoader,
-            integrationType = IntegrationType.CUSTOM
+            integrationType = IntegrationType.CUSTOM,
+            flowStateExecutor = Executor { it.run() },
+            mainExecutor = Executor { it.run() }
         )
 
     companion object {
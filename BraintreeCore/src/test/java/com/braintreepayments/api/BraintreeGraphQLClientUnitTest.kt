@@ -1,10 +1,19 @@
 package com.braintreepayments.api
 
+import android.os.CancellationSignal
+import android.os.Handler
+import android.util.JsonWriter
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.slot
+import io.mockk.verify
+import org.json.JSONArray
 import org.json.JSONException
+import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -75,6 +84,32 @@ class BraintreeGraphQLClientUnitTest {
         assertEquals("2018-03-06", headers["Braintree-Version"])
     }
 
+    @Test
+    @Throws(MalformedURLException::class, URISyntaxException::class)
+    fun post_withJsonPayloadAndConfigurationAndCallback_sendsHttpRequest() {
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), httpResponseCallback)
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        val payload = JsonPayload { writer -> writer.name("query").value("data") }
+        sut.post(payload, configuration, authorization, httpResponseCallback)
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(URL("https://example-graphql.com/graphql"), httpRequest.url)
+        assertEquals(
+            """{"query":"data"}""",
+            String(httpRequest.jsonBody.toByteArray(), StandardCharsets.UTF_8)
+        )
+        assertEquals("POST", httpRequest.method)
+
+        val headers = httpRequest.headers
+        assertEquals("braintree/android/" + BuildConfig.VERSION_NAME, headers["User-Agent"])
+        assertEquals("Bearer encoded_auth_fingerprint", headers["Authorization"])
+        assertEquals("2018-03-06", headers["Braintree-Version"])
+    }
+
     @Test
     @Throws(Exception::class)
     fun post_withPathAndDataAndConfiguration_sendsHttpRequest() {
@@ -139,4 +174,368 @@ class BraintreeGraphQLClientUnitTest {
             assertEquals("token invalid", e.message)
         }
     }
+
+    @Test
+    fun post_withGraphQLPayload_whenPersistedQueriesAreDisabled_sendsFullQuery() {
+        val requests = mutableListOf<HttpRequest>()
+        every { httpClient.sendRequest(capture(requests), any<HttpResponseCallback>()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(graphQLPayload(), configuration, authorization, httpResponseCallback)
+
+        assertEquals(1, requests.size)
+        val body = jsonBody(requests[0])
+        assertEquals(PERSISTED_QUERY_OPERATION.query, body.getString("query"))
+        assertEquals("PersistedQueryTest", body.getString("operationName"))
+        assertEquals("value", body.getJSONObject("variables").getString("key"))
+        assertFalse(body.has("extensions"))
+    }
+
+    @Test
+    fun post_withGraphQLPayload_whenPersistedQueryIsKnown_sendsHashOnlyAndCountsHit() {
+        val requests = mutableListOf<HttpRequest>()
+        val callbacks = mutableListOf<HttpResponseCallback>()
+        every {
+            httpClient.sendRequest(capture(requests), capture(callbacks))
+        } returns Unit
+        every { httpResponseCallback.onResult("response", null) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(graphQLPayload(), persistedQueriesConfiguration(), authorization, httpResponseCallback)
+
+        val body = jsonBody(requests[0])
+        assertFalse(body.has("query"))
+        assertEquals("PersistedQueryTest", body.getString("operationName"))
+        assertEquals("value", body.getJSONObject("variables").getString("key"))
+        val persistedQuery = body.getJSONObject("extensions").getJSONObject("persistedQuery")
+        assertEquals(1, persistedQuery.getInt("version"))
+        assertEquals(PERSISTED_QUERY_OPERATION.sha256Hash, persistedQuery.getString("sha256Hash"))
+
+        callbacks[0].onResult("response", null)
+
+        assertEquals(1, requests.size)
+        verify { httpResponseCallback.onResult("response", null) }
+        assertEquals(1L, sut.persistedQueryHitCount)
+        assertEquals(0L, sut.persistedQueryMissCount)
+    }
+
+    @Test
+    fun post_withGraphQLPayload_whenPersistedQueryIsNotFound_resendsWithQueryOnceAndCountsMiss() {
+        val requests = mutableListOf<HttpRequest>()
+        val callbacks = mutableListOf<HttpResponseCallback>()
+        every {
+            httpClient.sendRequest(capture(requests), capture(callbacks))
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(graphQLPayload(), persistedQueriesConfiguration(), authorization, httpResponseCallback)
+        callbacks[0].onResult(null, PersistedQueryException("PersistedQueryNotFound", true))
+
+        assertEquals(2, requests.size)
+        val body = jsonBody(requests[1])
+        assertEquals(PERSISTED_QUERY_OPERATION.query, body.getString("query"))
+        assertEquals(
+            PERSISTED_QUERY_OPERATION.sha256Hash,
+            body.getJSONObject("extensions").getJSONObject("persistedQuery").getString("sha256Hash")
+        )
+        assertSame(httpResponseCallback, callbacks[1])
+        assertEquals(0L, sut.persistedQueryHitCount)
+        assertEquals(1L, sut.persistedQueryMissCount)
+        val stats = sut.getPersistedQueryStats()
+        assertEquals(0L, stats.hitCount)
+        assertEquals(1L, stats.missCount)
+        assertEquals(0.0, stats.hitRate, 0.0)
+    }
+
+    @Test
+    fun post_withGraphQLPayload_whenPersistedQueriesAreNotSupported_stopsSendingHashes() {
+        val requests = mutableListOf<HttpRequest>()
+        val callbacks = mutableListOf<HttpResponseCallback>()
+        every {
+            httpClient.sendRequest(capture(requests), capture(callbacks))
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        val configuration = persistedQueriesConfiguration()
+        sut.post(graphQLPayload(), configuration, authorization, httpResponseCallback)
+        callbacks[0].onResult(null, PersistedQueryException("PersistedQueryNotSupported", false))
+
+        assertEquals(2, requests.size)
+        val retryBody = jsonBody(requests[1])
+        assertEquals(PERSISTED_QUERY_OPERATION.query, retryBody.getString("query"))
+        assertFalse(retryBody.has("extensions"))
+
+        sut.post(graphQLPayload(), configuration, authorization, httpResponseCallback)
+
+        assertEquals(3, requests.size)
+        assertEquals(PERSISTED_QUERY_OPERATION.query, jsonBody(requests[2]).getString("query"))
+        assertSame(httpResponseCallback, callbacks[2])
+    }
+
+    @Test
+    fun post_whenBatchingIsEnabled_sendsOperationsPostedWithinWindowAsOneRequest() {
+        val handler = mockk<Handler>(relaxed = true)
+        val flush = slot<Runnable>()
+        every { handler.postDelayed(capture(flush), any()) } returns true
+
+        val requests = mutableListOf<HttpRequest>()
+        every { httpClient.sendRequest(capture(requests), any<HttpResponseCallback>()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, handler)
+        val configuration = configurationWithFeatures("batching")
+        sut.post(payload("first"), configuration, authorization, mockk(relaxed = true))
+        sut.post(payload("second"), configuration, authorization, mockk(relaxed = true))
+
+        assertEquals(0, requests.size)
+        verify(exactly = 1) { handler.postDelayed(any(), any()) }
+
+        flush.captured.run()
+
+        assertEquals(1, requests.size)
+        val body = JSONArray(String(requests[0].jsonBody.toByteArray(), StandardCharsets.UTF_8))
+        assertEquals(2, body.length())
+        assertEquals("first", body.getJSONObject(0).getString("query"))
+        assertEquals("second", body.getJSONObject(1).getString("query"))
+    }
+
+    @Test
+    fun post_whenBatchingIsEnabled_andOnlyOneOperationIsPosted_sendsItOnItsOwn() {
+        val handler = mockk<Handler>(relaxed = true)
+        val flush = slot<Runnable>()
+        every { handler.postDelayed(capture(flush), any()) } returns true
+
+        val requests = mutableListOf<HttpRequest>()
+        every { httpClient.sendRequest(capture(requests), httpResponseCallback) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, handler)
+        sut.post(payload("only"), configurationWithFeatures("batching"), authorization, httpResponseCallback)
+        flush.captured.run()
+
+        assertEquals(1, requests.size)
+        assertEquals("only", jsonBody(requests[0]).getString("query"))
+    }
+
+    @Test
+    fun postBatch_dispatchesEachResultToItsOwnCallback() {
+        val batchCallback = slot<HttpResponseCallback>()
+        every { httpClient.sendRequest(any(), capture(batchCallback)) } returns Unit
+
+        val first = mockk<HttpResponseCallback>(relaxed = true)
+        val second = mockk<HttpResponseCallback>(relaxed = true)
+        val sut = BraintreeGraphQLClient(httpClient, mockk(relaxed = true))
+        sut.postBatch(
+            listOf(
+                GraphQLBatchOperation(payload("first"), first),
+                GraphQLBatchOperation(payload("second"), second)
+            ),
+            configurationWithFeatures("batching"),
+            authorization
+        )
+
+        batchCallback.captured.onResult(
+            "[{\"data\":{\"ok\":true}},{\"errors\":[{\"message\":\"boom\"}]}]",
+            null
+        )
+
+        verify { first.onResult("{\"data\":{\"ok\":true}}", null) }
+        val error = slot<Exception>()
+        verify { second.onResult(null, capture(error)) }
+        assertTrue(error.captured is UnexpectedException)
+        assertEquals("boom", error.captured.message)
+    }
+
+    @Test
+    fun postBatch_whenRequestFails_forwardsErrorToEveryCallback() {
+        val batchCallback = slot<HttpResponseCallback>()
+        every { httpClient.sendRequest(any(), capture(batchCallback)) } returns Unit
+
+        val first = mockk<HttpResponseCallback>(relaxed = true)
+        val second = mockk<HttpResponseCallback>(relaxed = true)
+        val sut = BraintreeGraphQLClient(httpClient, mockk(relaxed = true))
+        sut.postBatch(
+            listOf(
+                GraphQLBatchOperation(payload("first"), first),
+                GraphQLBatchOperation(payload("second"), second)
+            ),
+            configurationWithFeatures("batching"),
+            authorization
+        )
+
+        val exception = Exception("network error")
+        batchCallback.captured.onResult(null, exception)
+
+        verify { first.onResult(null, exception) }
+        verify { second.onResult(null, exception) }
+    }
+
+    @Test
+    fun postBatch_whenResultCountDoesNotMatch_forwardsJSONExceptionToEveryCallback() {
+        val batchCallback = slot<HttpResponseCallback>()
+        every { httpClient.sendRequest(any(), capture(batchCallback)) } returns Unit
+
+        val first = mockk<HttpResponseCallback>(relaxed = true)
+        val second = mockk<HttpResponseCallback>(relaxed = true)
+        val sut = BraintreeGraphQLClient(httpClient, mockk(relaxed = true))
+        sut.postBatch(
+            listOf(
+                GraphQLBatchOperation(payload("first"), first),
+                GraphQLBatchOperation(payload("second"), second)
+            ),
+            configurationWithFeatures("batching"),
+            authorization
+        )
+
+        batchCallback.captured.onResult("[{\"data\":{}}]", null)
+
+        verify { first.onResult(null, any<JSONException>()) }
+        verify { second.onResult(null, any<JSONException>()) }
+    }
+
+    @Test
+    fun postBatch_whenBatchingIsDisabled_sendsOperationsOneByOne() {
+        val requests = mutableListOf<HttpRequest>()
+        every { httpClient.sendRequest(capture(requests), any<HttpResponseCallback>()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, mockk(relaxed = true))
+        sut.postBatch(
+            listOf(
+                GraphQLBatchOperation(payload("first"), mockk(relaxed = true)),
+                GraphQLBatchOperation(payload("second"), mockk(relaxed = true))
+            ),
+            configuration,
+            authorization
+        )
+
+        assertEquals(2, requests.size)
+        assertEquals("first", jsonBody(requests[0]).getString("query"))
+        assertEquals("second", jsonBody(requests[1]).getString("query"))
+    }
+
+    @Test
+    fun post_withDataDecoder_streamsResponseThroughGraphQLStreamHandler() {
+        val requests = mutableListOf<HttpRequest>()
+        val streamHandlers = mutableListOf<HttpResponseStreamHandler<String>>()
+        val callbacks = mutableListOf<HttpResponseStreamCallback<String>>()
+        every {
+            httpClient.sendRequest(capture(requests), capture(streamHandlers), capture(callbacks))
+        } returns Unit
+        val callback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(payload("query"), configuration, authorization, { it.nextString() }, callback)
+
+        assertEquals(1, requests.size)
+        assertEquals("query", jsonBody(requests[0]).getString("query"))
+        assertTrue(streamHandlers[0] is GraphQLResponseStreamHandler)
+        assertEquals("decoded", streamHandlers[0].handle("""{"data": "decoded"}""".reader()))
+        assertSame(callback, callbacks[0])
+        verify(exactly = 0) { httpClient.sendRequest(any(), any<HttpResponseCallback>()) }
+    }
+
+    @Test
+    fun post_withDataDecoder_whenPersistedQueryIsNotFound_resendsWithQueryAndCountsMiss() {
+        val requests = mutableListOf<HttpRequest>()
+        val callbacks = mutableListOf<HttpResponseStreamCallback<String>>()
+        every {
+            httpClient.sendRequest(capture(requests), any<HttpResponseStreamHandler<String>>(),
+                capture(callbacks))
+        } returns Unit
+        val callback = mockk<HttpResponseStreamCallback<String>>(relaxed = true)
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(graphQLPayload(), persistedQueriesConfiguration(), authorization,
+            { it.nextString() }, callback)
+        assertFalse(jsonBody(requests[0]).has("query"))
+        callbacks[0].onResult(null, PersistedQueryException("PersistedQueryNotFound", true))
+
+        assertEquals(2, requests.size)
+        assertEquals(PERSISTED_QUERY_OPERATION.query, jsonBody(requests[1]).getString("query"))
+        assertSame(callback, callbacks[1])
+        assertEquals(1L, sut.persistedQueryMissCount)
+    }
+
+    @Test
+    fun post_withDataDecoder_whenBatchingIsEnabled_sendsOperationOnItsOwn() {
+        val requests = mutableListOf<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(requests), any<HttpResponseStreamHandler<String>>(),
+                any<HttpResponseStreamCallback<String>>())
+        } returns Unit
+        val handler = mockk<Handler>(relaxed = true)
+
+        val sut = BraintreeGraphQLClient(httpClient, handler)
+        sut.post(payload("query"), configurationWithFeatures("batching"), authorization,
+            { it.nextString() }, mockk(relaxed = true))
+
+        assertEquals(1, requests.size)
+        verify(exactly = 0) { handler.postDelayed(any(), any()) }
+    }
+
+    @Test
+    fun post_withCancellationSignal_passesSignalToHttpClient() {
+        val cancellationSignal = CancellationSignal()
+        every {
+            httpClient.sendRequest(any(), cancellationSignal, httpResponseCallback)
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(payload("query"), configuration, authorization, cancellationSignal,
+            httpResponseCallback)
+
+        verify { httpClient.sendRequest(any(), cancellationSignal, httpResponseCallback) }
+        verify(exactly = 0) { httpClient.sendRequest(any(), any<HttpResponseCallback>()) }
+    }
+
+    @Test
+    fun post_withDataDecoderAndCancellationSignal_passesSignalToHttpClient() {
+        val cancellationSignal = CancellationSignal()
+        every {
+            httpClient.sendRequest(any(), any<HttpResponseStreamHandler<String>>(),
+                cancellationSignal, any<HttpResponseStreamCallback<String>>())
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(payload("query"), configuration, authorization, { it.nextString() },
+            cancellationSignal, mockk(relaxed = true))
+
+        verify {
+            httpClient.sendRequest(any(), any<HttpResponseStreamHandler<String>>(),
+                cancellationSignal, any<HttpResponseStreamCallback<String>>())
+        }
+    }
+
+    private fun payload(query: String) = JsonPayload { writer -> writer.name("query").value(query) }
+
+    private fun configurationWithFeatures(vararg features: String) = Configuration.fromJson(
+        """
+        {
+          "clientApiUrl": "client_api_url",
+          "environment": "test",
+          "merchantId": "integration_merchant_id",
+          "graphQL": {
+            "url": "https://example-graphql.com/graphql",
+            "features": ${JSONArray(features.toList())}
+          }
+        }
+        """
+    )
+
+    private fun graphQLPayload() = object : GraphQLPayload(PERSISTED_QUERY_OPERATION) {
+        override fun writeOperationMembers(writer: JsonWriter) {
+            writer.name("variables").beginObject().name("key").value("value").endObject()
+        }
+    }
+
+    private fun persistedQueriesConfiguration() =
+        configurationWithFeatures("tokenize_credit_cards", "persisted_queries")
+
+    private fun jsonBody(request: HttpRequest) =
+        JSONObject(String(request.jsonBody.toByteArray(), StandardCharsets.UTF_8))
+
+    companion object {
+        private val PERSISTED_QUERY_OPERATION = GraphQLOperationRegistry.register(
+            "PersistedQueryTest",
+            "query PersistedQueryTest(\$key: String!) { ping(key: \$key) }"
+        )
+    }
 }
@@ -2,6 +2,7 @@ package com.braintreepayments.api
 
 import io.mockk.every
 import io.mockk.mockk
+import io.mockk.verify
 import org.junit.Assert.*
 import org.junit.Before
 import org.junit.Test
@@ -110,4 +111,64 @@ class BraintreeGraphQLResponseParserUnitTest {
             assertEquals("An Unexpected Exception Occurred", e.message)
         }
     }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_onPersistedQueryNotFound_throwsSupportedPersistedQueryException() {
+        val response = """
+            {
+              "errors": [{
+                "message": "PersistedQueryNotFound",
+                "extensions": { "code": "PERSISTED_QUERY_NOT_FOUND" }
+              }]
+            }
+        """
+        every { baseParser.parse(123, urlConnection) } returns response
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parse(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: PersistedQueryException) {
+            assertEquals("PersistedQueryNotFound", e.message)
+            assertTrue(e.isSupported)
+        }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_onPersistedQueryNotSupported_throwsUnsupportedPersistedQueryException() {
+        val response = """{ "errors": [{ "message": "PersistedQueryNotSupported" }] }"""
+        every { baseParser.parse(123, urlConnection) } returns response
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parse(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: PersistedQueryException) {
+            assertFalse(e.isSupported)
+        }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_withBatchedResponse_returnsResponseForPerOperationParsing() {
+        val response = """[{ "data": {} }, { "errors": [{ "message": "error" }] }]"""
+        every { baseParser.parse(123, urlConnection) } returns response
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        assertEquals(response, sut.parse(123, urlConnection))
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_withStreamHandler_delegatesToBaseParserWithoutBufferingBody() {
+        val streamHandler = HttpResponseStreamHandler { it.readText() }
+        every { baseParser.parse(123, urlConnection, streamHandler) } returns "streamed"
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        val result = sut.parse(123, urlConnection, streamHandler)
+        assertEquals("streamed", result)
+        verify(exactly = 0) { baseParser.parse(123, urlConnection) }
+    }
 }
@@ -1,14 +1,17 @@
 package com.braintreepayments.api
 
+import android.os.CancellationSignal
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.slot
+import io.mockk.verify
 import org.json.JSONException
 import org.junit.Assert.*
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
+import java.io.IOException
 import java.net.MalformedURLException
 import java.net.URISyntaxException
 import java.net.URL
@@ -367,4 +370,140 @@ class BraintreeHttpClientUnitTest {
         val exception = exceptionSlot.captured
         assertEquals("token invalid", exception.message)
     }
+
+    @Test
+    @Throws(MalformedURLException::class, URISyntaxException::class)
+    fun postAsync_withJsonPayloadAndClientToken_appendsAuthorizationFingerprint() {
+        val clientToken = Authorization.fromString(
+            FixturesHelper.base64Encode(Fixtures.CLIENT_TOKEN)
+        ) as ClientToken
+
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), null, callback) } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        val payload = JsonPayload { writer -> writer.name("key").value("value") }
+        sut.post("sample/path", payload, configuration, clientToken, callback)
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(URL("https://example.com/sample/path"), httpRequest.url)
+        assertEquals("POST", httpRequest.method)
+        assertNull(httpRequest.data)
+        val expectedData =
+            """{"key":"value","authorizationFingerprint":"${clientToken.authorizationFingerprint}"}"""
+        assertEquals(
+            expectedData,
+            String(httpRequest.jsonBody.toByteArray(), StandardCharsets.UTF_8)
+        )
+    }
+
+    @Test
+    fun postAsync_withJsonPayloadAndTokenizationKey_setsClientKeyHeader() {
+        val tokenizationKey: Authorization = TokenizationKey(Fixtures.TOKENIZATION_KEY)
+
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), null, callback) } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        val payload = JsonPayload { writer -> writer.name("key").value("value") }
+        sut.post("sample/path", payload, configuration, tokenizationKey, callback)
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(Fixtures.TOKENIZATION_KEY, httpRequest.headers["Client-Key"])
+        assertEquals(
+            """{"key":"value"}""",
+            String(httpRequest.jsonBody.toByteArray(), StandardCharsets.UTF_8)
+        )
+    }
+
+    @Test
+    fun postAsync_withJsonPayload_whenPayloadFailsToSerialize_postsCallbackError() {
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val clientToken =
+            Authorization.fromString(FixturesHelper.base64Encode(Fixtures.CLIENT_TOKEN))
+
+        val error = IOException("serialization failed")
+        val callback = mockk<HttpResponseCallback>(relaxed = true)
+
+        val sut = BraintreeHttpClient(httpClient)
+        val payload = JsonPayload { throw error }
+        sut.post("sample/path", payload, configuration, clientToken, callback)
+
+        verify { callback.onResult(null, error) }
+    }
+
+    @Test
+    fun postAsync_withJsonPayload_withNullConfiguration_andRelativeUrl_postsCallbackError() {
+        val clientToken =
+            Authorization.fromString(FixturesHelper.base64Encode(Fixtures.CLIENT_TOKEN))
+
+        val exceptionSlot = slot<Exception>()
+        val callback = mockk<HttpResponseCallback>()
+        every { callback.onResult(null, capture(exceptionSlot)) } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        val payload = JsonPayload { writer -> writer.name("key").value("value") }
+        sut.post("sample/path", payload, null, clientToken, callback)
+
+        assertEquals(
+            "Braintree HTTP POST request without configuration cannot have a relative path.",
+            exceptionSlot.captured.message
+        )
+    }
+
+    @Test
+    fun postAsync_withDecoder_decodesResponseBodyAsItIsRead() {
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val httpRequestSlot = slot<HttpRequest>()
+        val streamHandlerSlot = slot<HttpResponseStreamHandler<String>>()
+        val callback = mockk<HttpResponseStreamCallback<String>>()
+        every {
+            httpClient.sendRequest(
+                capture(httpRequestSlot), capture(streamHandlerSlot), null, callback
+            )
+        } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        val payload = JsonPayload { writer -> writer.name("key").value("value") }
+        val decoder = JsonDecoder { reader ->
+            reader.beginObject()
+            reader.nextName()
+            reader.nextString().also { reader.endObject() }
+        }
+        sut.post("sample/path", payload, configuration, TokenizationKey(Fixtures.TOKENIZATION_KEY),
+            decoder, callback)
+
+        assertEquals(URL("https://example.com/sample/path"), httpRequestSlot.captured.url)
+        assertEquals(Fixtures.TOKENIZATION_KEY, httpRequestSlot.captured.headers["Client-Key"])
+        assertEquals("decoded", streamHandlerSlot.captured.handle("""{"nonce": "decoded"}""".reader()))
+    }
+
+    @Test
+    fun postAsync_withJsonPayloadAndCancellationSignal_passesSignalToHttpClient() {
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val cancellationSignal = CancellationSignal()
+        every { httpClient.sendRequest(any(), cancellationSignal, callback) } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        val payload = JsonPayload { writer -> writer.name("key").value("value") }
+        sut.post("sample/path", payload, configuration, TokenizationKey(Fixtures.TOKENIZATION_KEY),
+            cancellationSignal, callback)
+
+        verify { httpClient.sendRequest(any(), cancellationSignal, callback) }
+    }
 }
@@ -74,4 +74,33 @@ class BraintreeHttpResponseParserUnitTest {
             assertEquals("There was an error", actualException.message)
         }
     }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_withStreamHandler_forwardsResultByDefault() {
+        val streamHandler = mockk<HttpResponseStreamHandler<Int>>()
+        every { baseParser.parse(123, urlConnection, streamHandler) } returns 42
+
+        val sut = BraintreeHttpResponseParser(baseParser)
+        val result = sut.parse(123, urlConnection, streamHandler)
+        assertEquals(42, result)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_withStreamHandler_whenBaseParserThrowsUnprocessibleEntityException_throwsErrorWithResponseException() {
+        val streamHandler = mockk<HttpResponseStreamHandler<Int>>()
+        val unprocessableEntityException = UnprocessableEntityException(Fixtures.ERROR_RESPONSE)
+        every {
+            baseParser.parse(123, urlConnection, streamHandler)
+        } throws unprocessableEntityException
+
+        val sut = BraintreeHttpResponseParser(baseParser)
+        try {
+            sut.parse(123, urlConnection, streamHandler)
+            fail("should not get here")
+        } catch (actualException: ErrorWithResponse) {
+            assertEquals("There was an error", actualException.message)
+        }
+    }
 }
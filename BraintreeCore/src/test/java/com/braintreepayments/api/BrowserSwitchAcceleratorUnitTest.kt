@@ -0,0 +1,113 @@
+package com.braintreepayments.api
+
+import android.content.ComponentCallbacks
+import android.content.ComponentCallbacks2
+import android.content.Context
+import androidx.browser.customtabs.CustomTabsClient
+import androidx.browser.customtabs.CustomTabsServiceConnection
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class BrowserSwitchAcceleratorUnitTest {
+
+    private lateinit var context: Context
+    private lateinit var customTabsClient: CustomTabsClient
+
+    private var bindCount = 0
+    private var unbindCount = 0
+    private var resolvedPackageName: String? = "com.android.chrome"
+
+    @Before
+    fun beforeEach() {
+        context = mockk(relaxed = true)
+        every { context.applicationContext } returns context
+
+        customTabsClient = mockk(relaxed = true)
+    }
+
+    private fun createAccelerator() = BrowserSwitchAccelerator(
+        { resolvedPackageName },
+        { _: Context, _: String, _: CustomTabsServiceConnection ->
+            bindCount++
+            true
+        },
+        { _: Context, _: CustomTabsServiceConnection -> unbindCount++ }
+    )
+
+    @Test
+    fun warmUp_bindsCustomTabsServiceOnce() {
+        val sut = createAccelerator()
+
+        sut.warmUp(context)
+        sut.warmUp(context)
+
+        assertEquals(1, bindCount)
+    }
+
+    @Test
+    fun warmUp_withoutCustomTabsBrowser_doesNotBind() {
+        resolvedPackageName = null
+        val sut = createAccelerator()
+
+        sut.warmUp(context)
+
+        assertEquals(0, bindCount)
+    }
+
+    @Test
+    fun onConnected_warmsUpBrowser() {
+        val sut = createAccelerator()
+        sut.warmUp(context)
+
+        sut.onConnected(customTabsClient)
+
+        verify { customTabsClient.warmup(0L) }
+        verify(exactly = 0) { customTabsClient.newSession(any()) }
+    }
+
+    @Test
+    fun release_unbindsAndNextWarmUpBindsAgain() {
+        val sut = createAccelerator()
+        sut.warmUp(context)
+
+        sut.release()
+        sut.release()
+        assertEquals(1, unbindCount)
+
+        sut.warmUp(context)
+        assertEquals(2, bindCount)
+    }
+
+    @Test
+    fun release_withoutWarmUp_doesNotUnbind() {
+        val sut = createAccelerator()
+
+        sut.release()
+
+        assertEquals(0, unbindCount)
+    }
+
+    @Test
+    fun warmUp_whenUiIsHidden_unbinds() {
+        val componentCallbacks = slot<ComponentCallbacks>()
+        every { context.registerComponentCallbacks(capture(componentCallbacks)) } returns Unit
+        val sut = createAccelerator()
+        sut.warmUp(context)
+
+        val callbacks = componentCallbacks.captured as ComponentCallbacks2
+        callbacks.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)
+        assertEquals(0, unbindCount)
+
+        callbacks.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+        assertEquals(1, unbindCount)
+        verify { context.unregisterComponentCallbacks(callbacks) }
+    }
+}
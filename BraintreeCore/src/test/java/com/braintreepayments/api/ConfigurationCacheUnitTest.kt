@@ -1,10 +1,16 @@
 package com.braintreepayments.api
 
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
 import com.braintreepayments.api.Configuration.Companion.fromJson
 import org.robolectric.RobolectricTestRunner
 import io.mockk.*
+import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
 import org.junit.Test
 import org.junit.runner.RunWith
 import java.util.concurrent.TimeUnit
@@ -41,7 +47,7 @@ class ConfigurationCacheUnitTest {
 
         assertEquals(
             configuration.toJson(),
-            sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5) - 1)
+            sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5) - 1)?.toJson()
         )
     }
 
@@ -57,4 +63,100 @@ class ConfigurationCacheUnitTest {
 
         assertNull(sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(20)))
     }
+
+    @Test
+    fun getConfiguration_whenPersistedConfigurationUnchanged_returnsSameParsedConfiguration() {
+        val sut = ConfigurationCache(createSharedPreferences())
+        sut.saveConfiguration(createConfiguration("merchant-a"), "key-a", 0L)
+
+        val first = sut.getConfiguration("key-a", 1L)
+
+        assertSame(first, sut.getConfiguration("key-a", 2L))
+    }
+
+    @Test
+    fun getConfiguration_whenAnotherCacheReplacedConfiguration_returnsPersistedConfiguration() {
+        val sharedPreferences = createSharedPreferences()
+        val sut = ConfigurationCache(sharedPreferences)
+        sut.saveConfiguration(createConfiguration("merchant-a"), "key-a", 0L)
+
+        ConfigurationCache(sharedPreferences)
+            .saveConfiguration(createConfiguration("merchant-b"), "key-a", 1L)
+
+        assertEquals("merchant-b", sut.getConfiguration("key-a", 2L)?.merchantId)
+    }
+
+    @Test
+    fun saveConfiguration_whenFull_evictsLeastRecentlySavedPersistedEntry() {
+        val sharedPreferences = createSharedPreferences()
+        val sut = ConfigurationCache(sharedPreferences, 2)
+        sut.saveConfiguration(createConfiguration("merchant-a"), "key-a", 0L)
+        sut.saveConfiguration(createConfiguration("merchant-b"), "key-b", 0L)
+        sut.saveConfiguration(createConfiguration("merchant-c"), "key-c", 0L)
+
+        assertFalse(sharedPreferences.containsKey("key-a"))
+        assertFalse(sharedPreferences.containsKey("key-a_timestamp"))
+        assertNull(sut.getConfiguration("key-a", 1L))
+        assertEquals("merchant-b", sut.getConfiguration("key-b", 1L)?.merchantId)
+        assertEquals("merchant-c", sut.getConfiguration("key-c", 1L)?.merchantId)
+    }
+
+    @Test
+    fun saveConfiguration_whenFull_keepsEntryThatWasSavedAgain() {
+        val sut = ConfigurationCache(createSharedPreferences(), 2)
+        sut.saveConfiguration(createConfiguration("merchant-a"), "key-a", 0L)
+        sut.saveConfiguration(createConfiguration("merchant-b"), "key-b", 0L)
+        sut.saveConfiguration(createConfiguration("merchant-a"), "key-a", 1L)
+        sut.saveConfiguration(createConfiguration("merchant-c"), "key-c", 1L)
+
+        assertEquals("merchant-a", sut.getConfiguration("key-a", 2L)?.merchantId)
+        assertNull(sut.getConfiguration("key-b", 2L))
+    }
+
+    @Test
+    fun saveConfiguration_removesEntriesWrittenWithoutEviction_once() {
+        val sharedPreferences = createSharedPreferences()
+        sharedPreferences.putStringAndLong("legacy-key", "{}", "legacy-key_timestamp", 0L)
+        sharedPreferences.putString("unrelated-key", "value")
+
+        ConfigurationCache(sharedPreferences)
+            .saveConfiguration(createConfiguration("merchant-a"), "key-a", 0L)
+
+        assertFalse(sharedPreferences.containsKey("legacy-key"))
+        assertFalse(sharedPreferences.containsKey("legacy-key_timestamp"))
+        assertTrue(sharedPreferences.containsKey("unrelated-key"))
+        assertTrue(sharedPreferences.containsKey("key-a"))
+    }
+
+    @Test
+    fun getStats_countsHitsAndMissesPerMerchant() {
+        val sut = ConfigurationCache(createSharedPreferences())
+        sut.saveConfiguration(createConfiguration("merchant-a"), "key-a", 0L)
+        sut.getConfiguration("key-a", 1L)
+        sut.getConfiguration("key-a", 2L)
+        sut.getConfiguration("key-a", 3L)
+        sut.saveConfiguration(createConfiguration("merchant-b"), "key-b", 0L)
+
+        val stats = sut.getStats().associateBy { it.merchantId }
+
+        assertEquals(3, stats.getValue("merchant-a").hitCount)
+        assertEquals(1, stats.getValue("merchant-a").missCount)
+        assertEquals(0.75, stats.getValue("merchant-a").hitRate, 0.0)
+        assertEquals(0, stats.getValue("merchant-b").hitCount)
+        assertEquals(0.0, stats.getValue("merchant-b").hitRate, 0.0)
+    }
+
+    private fun createSharedPreferences(): BraintreeSharedPreferences {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        val sharedPreferences =
+            context.getSharedPreferences("configuration-cache-test", Context.MODE_PRIVATE)
+        sharedPreferences.edit().clear().commit()
+        return BraintreeSharedPreferences(sharedPreferences)
+    }
+
+    private fun createConfiguration(merchantId: String) = fromJson(
+        JSONObject(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+            .put("merchantId", merchantId)
+            .toString()
+    )
 }
@@ -1,10 +1,10 @@
 package com.braintreepayments.api
 
-import android.util.Base64
 import io.mockk.*
 import org.robolectric.RobolectricTestRunner
 import org.json.JSONException
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
 import org.junit.Test
 import org.junit.runner.RunWith
 import java.lang.Exception
@@ -64,9 +64,9 @@ class ConfigurationLoaderUnitTest {
 
         val httpResponseCallback = callbackSlot.captured
         httpResponseCallback.onResult(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN, null)
-        val cacheKey = Base64.encodeToString(
-            "https://example.com/config?configVersion=3bearer".toByteArray(),
-            0
+        val cacheKey = ConfigurationLoader.createCacheKey(
+            authorization,
+            "https://example.com/config?configVersion=3"
         )
 
         verify {
@@ -146,13 +146,14 @@ class ConfigurationLoaderUnitTest {
 
     @Test
     fun loadConfiguration_whenCachedConfigurationAvailable_loadsConfigurationFromCache() {
-        val cacheKey = Base64.encodeToString(
-            "https://example.com/config?configVersion=3bearer".toByteArray(),
-            0
-        )
         every { authorization.configUrl } returns "https://example.com/config"
         every { authorization.bearer } returns "bearer"
-        every { configurationCache.getConfiguration(cacheKey) } returns Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN
+        val cacheKey = ConfigurationLoader.createCacheKey(
+            authorization,
+            "https://example.com/config?configVersion=3"
+        )
+        every { configurationCache.getConfiguration(cacheKey) } returns
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN)
 
         val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
         sut.loadConfiguration(authorization, callback)
@@ -168,4 +169,18 @@ class ConfigurationLoaderUnitTest {
         }
         verify { callback.onResult(ofType(Configuration::class), null) }
     }
+
+    @Test
+    fun createCacheKey_hasFixedLength_andDiffersPerBearer() {
+        val otherAuthorization = mockk<Authorization>()
+        every { authorization.bearer } returns "bearer"
+        every { otherAuthorization.bearer } returns "other-bearer".repeat(100)
+
+        val cacheKey = ConfigurationLoader.createCacheKey(authorization, "https://example.com/config")
+        val otherCacheKey =
+            ConfigurationLoader.createCacheKey(otherAuthorization, "https://example.com/config")
+
+        assertEquals(cacheKey.length, otherCacheKey.length)
+        assertNotEquals(cacheKey, otherCacheKey)
+    }
 }
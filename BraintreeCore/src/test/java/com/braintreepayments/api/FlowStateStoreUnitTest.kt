@@ -0,0 +1,132 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class FlowStateStoreUnitTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private var now = 0L
+    private lateinit var file: File
+
+    @Before
+    fun beforeEach() {
+        now = 0L
+        file = File(temporaryFolder.root, "flow-state")
+    }
+
+    // a store reading the file for the first time behaves like one created by a new process
+    private fun createStore() = FlowStateStore({ file }, { now })
+
+    @Test
+    fun takeFromPreviousProcess_returnsStateWrittenByAnotherStore_andRemovesIt() {
+        createStore().put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "{\"customerId\":\"customer-id\"}", 1000L)
+
+        val sut = createStore()
+
+        assertEquals(
+            "{\"customerId\":\"customer-id\"}",
+            sut.takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER)
+        )
+        assertNull(sut.takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+        assertNull(createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+    }
+
+    @Test
+    fun takeFromPreviousProcess_doesNotReturnStateWrittenByThisStore() {
+        val sut = createStore()
+        sut.put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "state", 1000L)
+
+        assertNull(sut.takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+        assertEquals("state", createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+    }
+
+    @Test
+    fun takeFromPreviousProcess_keepsEntriesOfOtherRequestCodes() {
+        val writer = createStore()
+        writer.put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "sepa-state", 1000L)
+        writer.put(BraintreeRequestCodes.PAYPAL, OWNER, "paypal-state", 1000L)
+
+        createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER)
+
+        assertEquals("paypal-state", createStore().takeFromPreviousProcess(BraintreeRequestCodes.PAYPAL, OWNER))
+    }
+
+    @Test
+    fun put_replacesPreviousStateOfRequestCode() {
+        val writer = createStore()
+        writer.put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "first", 1000L)
+        writer.put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "second", 1000L)
+
+        assertEquals("second", createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+    }
+
+    @Test
+    fun takeFromPreviousProcess_whenStateExpired_returnsNull_andDeletesFile() {
+        createStore().put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "state", 1000L)
+
+        now = 1000L
+        val sut = createStore()
+
+        assertNull(sut.takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+        assertFalse(file.exists())
+    }
+
+    @Test
+    fun remove_deletesFileWhenNoStateRemains() {
+        val sut = createStore()
+        sut.put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "state", 1000L)
+
+        sut.remove(BraintreeRequestCodes.SEPA_DEBIT)
+
+        assertFalse(file.exists())
+        assertNull(createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+    }
+
+    @Test
+    fun takeFromPreviousProcess_whenFileIsCorrupt_returnsNull_andDeletesFile() {
+        file.writeBytes(byteArrayOf(0, 0, 0, 2, 0, 0, 0, 3, 1))
+
+        assertNull(createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+        assertFalse(file.exists())
+    }
+
+    @Test
+    fun put_doesNotLeaveTemporaryFileBehind() {
+        createStore().put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "state", 1000L)
+
+        assertEquals(listOf("flow-state"), temporaryFolder.root.list()?.toList())
+    }
+
+    @Test
+    fun takeFromPreviousProcess_whenStateBelongsToAnotherOwner_returnsNull_andKeepsIt() {
+        createStore().put(BraintreeRequestCodes.SEPA_DEBIT, OWNER, "state", 1000L)
+
+        assertNull(
+            createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, "other-owner")
+        )
+        assertEquals(
+            "state",
+            createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER)
+        )
+    }
+
+    @Test
+    fun takeFromPreviousProcess_whenFileHasOlderVersion_returnsNull() {
+        file.writeBytes(byteArrayOf(0, 0, 0, 1, 0, 0, 0, 0))
+
+        assertNull(createStore().takeFromPreviousProcess(BraintreeRequestCodes.SEPA_DEBIT, OWNER))
+    }
+
+    companion object {
+        private const val OWNER = "https://example.com/merchants/merchant-id/configuration"
+    }
+}
@@ -0,0 +1,96 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import android.content.res.Resources
+import androidx.test.core.app.ApplicationProvider
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class GraphQLOperationRegistryUnitTest {
+
+    @Test
+    fun sha256Hex_returnsLowercaseHexDigest() {
+        assertEquals(
+            "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+            GraphQLOperationRegistry.sha256Hex("abc")
+        )
+    }
+
+    @Test
+    fun register_precomputesNameQueryAndHash() {
+        val query = "query RegistryTest { clientConfiguration { environment } }"
+        val operation = GraphQLOperationRegistry.register("RegistryTest", query)
+
+        assertEquals("RegistryTest", operation.name)
+        assertEquals(query, operation.query)
+        assertEquals(GraphQLOperationRegistry.sha256Hex(query), operation.sha256Hash)
+        assertSame(operation, GraphQLOperationRegistry.get(operation.sha256Hash))
+    }
+
+    @Test
+    fun register_whenAlreadyRegistered_returnsExistingOperation() {
+        val query = "mutation RegistryTestTwice { ping }"
+        val first = GraphQLOperationRegistry.register("RegistryTestTwice", query)
+        val second = GraphQLOperationRegistry.register("RegistryTestTwice", query)
+
+        assertSame(first, second)
+    }
+
+    @Test
+    fun register_whenSameQueryHasDifferentName_doesNotReplaceRegisteredOperation() {
+        val query = "mutation RegistryTestRenamed { ping }"
+        val first = GraphQLOperationRegistry.register("RegistryTestRenamed", query)
+        val renamed = GraphQLOperationRegistry.register("OtherName", query)
+
+        assertNotSame(first, renamed)
+        assertEquals("OtherName", renamed.name)
+        assertSame(first, GraphQLOperationRegistry.get(first.sha256Hash))
+    }
+
+    @Test
+    fun get_whenHashIsUnknown_returnsNull() {
+        assertNull(GraphQLOperationRegistry.get("not-a-hash"))
+    }
+
+    @Test
+    fun parseOperationName_readsNameFromQueryText() {
+        assertEquals("Foo", GraphQLOperationRegistry.parseOperationName("  query Foo(\$id: ID!) { a }"))
+        assertEquals("Bar", GraphQLOperationRegistry.parseOperationName("mutation Bar { a }"))
+        assertNull(GraphQLOperationRegistry.parseOperationName("{ a }"))
+    }
+
+    @Test
+    fun fromRawResource_readsResourceOnceAndReturnsCachedOperation() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        val operation = GraphQLOperationRegistry.fromRawResource(
+            context, R.raw.delete_payment_method_mutation
+        )
+
+        assertEquals("DeletePaymentMethodFromSingleUseToken", operation.name)
+        assertEquals(
+            StreamHelper.getString(
+                context.resources.openRawResource(R.raw.delete_payment_method_mutation)
+            ),
+            operation.query
+        )
+        assertSame(
+            operation,
+            GraphQLOperationRegistry.fromRawResource(context, R.raw.delete_payment_method_mutation)
+        )
+        assertEquals(
+            operation.query,
+            GraphQLQueryHelper.getQuery(context, R.raw.delete_payment_method_mutation)
+        )
+    }
+
+    @Test(expected = Resources.NotFoundException::class)
+    fun fromRawResource_whenResourceIsMissing_throwsNotFoundException() {
+        GraphQLOperationRegistry.fromRawResource(ApplicationProvider.getApplicationContext(), -1)
+    }
+}
@@ -0,0 +1,75 @@
+package com.braintreepayments.api
+
+import org.json.JSONException
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.io.StringReader
+
+@RunWith(RobolectricTestRunner::class)
+class GraphQLResponseStreamHandlerUnitTest {
+
+    private val tokenDecoder = JsonDecoder { reader ->
+        var token: String? = null
+        reader.beginObject()
+        while (reader.hasNext()) {
+            if (reader.nextName() != "tokenizeCreditCard") {
+                reader.skipValue()
+            } else if (Json.peekObject(reader)) {
+                reader.beginObject()
+                while (reader.hasNext()) {
+                    if (reader.nextName() == "token") token = reader.nextString() else reader.skipValue()
+                }
+                reader.endObject()
+            }
+        }
+        reader.endObject()
+        token ?: throw JSONException("No value for token")
+    }
+
+    @Test
+    fun handle_decodesDataMember() {
+        val sut = GraphQLResponseStreamHandler(tokenDecoder)
+        val result = sut.handle(StringReader(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD))
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", result)
+    }
+
+    @Test(expected = ErrorWithResponse::class)
+    fun handle_whenErrorsFollowData_throwsErrorsInsteadOfData() {
+        val response = """
+            {
+              "data": {"tokenizeCreditCard": {"token": "a-token"}},
+              "errors": [{"message": "Invalid", "extensions": {"errorType": "user_error"}}]
+            }
+        """
+        GraphQLResponseStreamHandler(tokenDecoder).handle(StringReader(response))
+    }
+
+    @Test(expected = AuthorizationException::class)
+    fun handle_whenValidationNotAllowed_throwsAuthorizationException() {
+        GraphQLResponseStreamHandler(tokenDecoder)
+            .handle(StringReader(Fixtures.ERRORS_GRAPHQL_VALIDATION_NOT_ALLOWED_ERROR))
+    }
+
+    @Test
+    fun handle_whenPersistedQueryNotFound_throwsPersistedQueryException() {
+        val response = """{"data": null, "errors": [{"message": "PersistedQueryNotFound"}]}"""
+        val error = runCatching {
+            GraphQLResponseStreamHandler(tokenDecoder).handle(StringReader(response))
+        }.exceptionOrNull()
+        assertTrue(error is PersistedQueryException)
+    }
+
+    @Test(expected = JSONException::class)
+    fun handle_whenDataIsMissing_throwsJSONException() {
+        GraphQLResponseStreamHandler(tokenDecoder).handle(StringReader("{}"))
+    }
+
+    @Test(expected = JSONException::class)
+    fun handle_whenDataCannotBeDecoded_throwsDecoderError() {
+        GraphQLResponseStreamHandler(tokenDecoder)
+            .handle(StringReader("""{"data": {"tokenizeCreditCard": {}}}"""))
+    }
+}
@@ -0,0 +1,167 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import android.content.Intent
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class ReadyToPayCacheUnitTest {
+
+    private var now = 0L
+    private var loadCount = 0
+    private var pendingLoad: ReadyToPayResultCallback? = null
+
+    private lateinit var sut: ReadyToPayCache
+
+    private val deferredLoader = ReadyToPayLoader { callback ->
+        loadCount++
+        pendingLoad = callback
+    }
+
+    private fun immediateLoader(isReadyToPay: Boolean, error: Exception? = null) =
+        ReadyToPayLoader { callback ->
+            loadCount++
+            callback.onResult(isReadyToPay, error)
+        }
+
+    @Before
+    fun beforeEach() {
+        now = 0L
+        loadCount = 0
+        pendingLoad = null
+        sut = ReadyToPayCache(1000L) { now }
+    }
+
+    @Test
+    fun load_whenNothingCached_forwardsLoaderResult() {
+        val results = mutableListOf<Boolean>()
+        sut.load("key", immediateLoader(true)) { isReadyToPay, _ -> results.add(isReadyToPay) }
+
+        assertEquals(listOf(true), results)
+        assertEquals(1, loadCount)
+    }
+
+    @Test
+    fun load_whenFreshResultCached_returnsItWithoutLoading() {
+        sut.load("key", immediateLoader(true)) { _, _ -> }
+
+        now = 999L
+        val results = mutableListOf<Boolean>()
+        sut.load("key", immediateLoader(false)) { isReadyToPay, _ -> results.add(isReadyToPay) }
+
+        assertEquals(listOf(true), results)
+        assertEquals(1, loadCount)
+    }
+
+    @Test
+    fun load_whenExpiredResultCached_returnsItImmediatelyAndRefreshes() {
+        sut.load("key", immediateLoader(true)) { _, _ -> }
+
+        now = 1000L
+        val results = mutableListOf<Boolean>()
+        sut.load("key", deferredLoader) { isReadyToPay, _ -> results.add(isReadyToPay) }
+
+        assertEquals(listOf(true), results)
+        assertEquals(2, loadCount)
+
+        // the refreshed value is cached but not delivered to the caller that was already served
+        pendingLoad!!.onResult(false, null)
+        assertEquals(listOf(true), results)
+
+        sut.load("key", immediateLoader(true)) { isReadyToPay, _ -> results.add(isReadyToPay) }
+        assertEquals(listOf(true, false), results)
+        assertEquals(2, loadCount)
+    }
+
+    @Test
+    fun load_whileLoadInFlight_sharesSingleLoad() {
+        val results = mutableListOf<Boolean>()
+        sut.load("key", deferredLoader) { isReadyToPay, _ -> results.add(isReadyToPay) }
+        sut.load("key", deferredLoader) { isReadyToPay, _ -> results.add(isReadyToPay) }
+
+        assertEquals(1, loadCount)
+        assertTrue(results.isEmpty())
+
+        pendingLoad!!.onResult(true, null)
+        assertEquals(listOf(true, true), results)
+    }
+
+    @Test
+    fun load_withDifferentKeys_loadsEach() {
+        sut.load("key-1", immediateLoader(true)) { _, _ -> }
+        sut.load("key-2", immediateLoader(false)) { _, _ -> }
+
+        assertEquals(2, loadCount)
+    }
+
+    @Test
+    fun load_onError_forwardsErrorAndDoesNotCache() {
+        val error = Exception("error")
+        var receivedError: Exception? = null
+        sut.load("key", immediateLoader(false, error)) { _, e -> receivedError = e }
+        assertEquals(error, receivedError)
+
+        receivedError = null
+        sut.load("key", immediateLoader(true)) { _, e -> receivedError = e }
+        assertNull(receivedError)
+        assertEquals(2, loadCount)
+    }
+
+    @Test
+    fun load_evictsLeastRecentlyUsedEntryWhenFull() {
+        for (i in 0..ReadyToPayCache.MAX_SIZE) {
+            sut.load("key-$i", immediateLoader(true)) { _, _ -> }
+        }
+
+        sut.load("key-0", immediateLoader(true)) { _, _ -> }
+        assertEquals(ReadyToPayCache.MAX_SIZE + 2, loadCount)
+    }
+
+    @Test
+    fun invalidate_dropsOnlyEntriesWithPrefix() {
+        sut.load("samsung-pay:1:", immediateLoader(true)) { _, _ -> }
+        sut.load("venmo:1:", immediateLoader(true)) { _, _ -> }
+
+        sut.invalidate("samsung-pay:")
+        sut.load("samsung-pay:1:", immediateLoader(true)) { _, _ -> }
+        sut.load("venmo:1:", immediateLoader(true)) { _, _ -> }
+
+        assertEquals(3, loadCount)
+    }
+
+    @Test
+    fun packageChange_clearsCache() {
+        sut.load("key", immediateLoader(true)) { _, _ -> }
+
+        sut.packageChangeReceiver.onReceive(mockk(), Intent(Intent.ACTION_PACKAGE_ADDED))
+
+        var result = true
+        sut.load("key", immediateLoader(false)) { isReadyToPay, _ -> result = isReadyToPay }
+        assertFalse(result)
+        assertEquals(2, loadCount)
+    }
+
+    @Test
+    fun watchPackageChanges_registersReceiverOnce() {
+        val context = mockk<Context>(relaxed = true)
+        val applicationContext = mockk<Context>(relaxed = true)
+        every { context.applicationContext } returns applicationContext
+
+        sut.watchPackageChanges(context)
+        sut.watchPackageChanges(context)
+
+        verify(exactly = 1) {
+            applicationContext.registerReceiver(sut.packageChangeReceiver, any())
+        }
+    }
+}
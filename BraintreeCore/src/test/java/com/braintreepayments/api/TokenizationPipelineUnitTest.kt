@@ -0,0 +1,368 @@
+package com.braintreepayments.api
+
+import android.os.CancellationSignal
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import io.mockk.verify
+import org.json.JSONException
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.util.concurrent.Executor
+
+@RunWith(RobolectricTestRunner::class)
+class TokenizationPipelineUnitTest {
+
+    private lateinit var braintreeClient: BraintreeClient
+    private lateinit var workerExecutor: QueueExecutor
+    private lateinit var mainExecutor: QueueExecutor
+    private lateinit var sut: TokenizationPipeline
+
+    private var result: String? = null
+    private var error: Exception? = null
+    private var callbackCount = 0
+    private val callback = TokenizationPipelineCallback<String> { result, error ->
+        callbackCount++
+        this.result = result
+        this.error = error
+    }
+
+    private val payload = JsonPayload { writer -> writer.name("key").value("value") }
+
+    // holds submitted stages until the test runs them, so the lane of every stage can be checked
+    private class QueueExecutor : Executor {
+        val pending = ArrayDeque<Runnable>()
+
+        override fun execute(command: Runnable) {
+            pending.add(command)
+        }
+
+        fun runNext() = pending.removeFirst().run()
+    }
+
+    private open inner class TestSpec(
+        private val path: String? = "v1/payment_methods/test",
+        private val analyticsEventPrefix: String? = null,
+        private val requiresConfiguration: Boolean = false
+    ) : StringTokenizationSpec<String>() {
+
+        var serializedConfiguration: Configuration? = null
+
+        override fun getPath() = path
+
+        override fun getAnalyticsEventPrefix() = analyticsEventPrefix
+
+        override fun requiresConfiguration() = requiresConfiguration
+
+        override fun serialize(configuration: Configuration?): JsonPayload {
+            serializedConfiguration = configuration
+            return payload
+        }
+
+        override fun decode(responseBody: String): String =
+            JSONObject(responseBody).getString("nonce")
+    }
+
+    private inner class StreamingTestSpec(
+        private val path: String?,
+        private val decoder: JsonDecoder<String>
+    ) : StreamingTokenizationSpec<String>() {
+
+        override fun getPath() = path
+
+        override fun serialize(configuration: Configuration?) = payload
+
+        override fun getDecoder() = decoder
+    }
+
+    @Before
+    fun beforeEach() {
+        braintreeClient = mockk(relaxed = true)
+        workerExecutor = QueueExecutor()
+        mainExecutor = QueueExecutor()
+        sut = TokenizationPipeline(braintreeClient, workerExecutor, mainExecutor)
+
+        result = null
+        error = null
+        callbackCount = 0
+    }
+
+    private fun respondToPOST(responseBody: String?, httpError: Exception?) {
+        val callbackSlot = slot<HttpResponseCallback>()
+        every {
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), capture(callbackSlot))
+        } answers { callbackSlot.captured.onResult(responseBody, httpError) }
+    }
+
+    @Test
+    fun execute_runsSerializeAndDecodeOnWorker_andPublishesOnMain() {
+        respondToPOST("{\"nonce\":\"fake-nonce\"}", null)
+
+        sut.execute(TestSpec(), callback)
+
+        verify(inverse = true) {
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), any<HttpResponseCallback>())
+        }
+        workerExecutor.runNext()
+        verify {
+            braintreeClient.sendPOST(
+                "v1/payment_methods/test", payload, any(), any<HttpResponseCallback>()
+            )
+        }
+
+        assertTrue(mainExecutor.pending.isEmpty())
+        workerExecutor.runNext()
+        assertEquals(0, callbackCount)
+
+        mainExecutor.runNext()
+        assertEquals(1, callbackCount)
+        assertEquals("fake-nonce", result)
+        assertNull(error)
+    }
+
+    @Test
+    fun execute_whenPathIsNull_sendsPayloadToGraphQL() {
+        sut.execute(TestSpec(path = null), callback)
+        workerExecutor.runNext()
+
+        verify { braintreeClient.sendGraphQLPOST(payload, any(), any<HttpResponseCallback>()) }
+        verify(inverse = true) {
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), any<HttpResponseCallback>())
+        }
+    }
+
+    @Test
+    fun execute_whenConfigurationRequired_resolvesConfigurationBeforeSerializing() {
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN)
+        val configurationCallback = slot<ConfigurationCallback>()
+        every { braintreeClient.getConfiguration(capture(configurationCallback)) } returns Unit
+
+        val spec = TestSpec(requiresConfiguration = true)
+        sut.execute(spec, callback)
+        assertTrue(workerExecutor.pending.isEmpty())
+
+        configurationCallback.captured.onResult(configuration, null)
+        workerExecutor.runNext()
+
+        assertSame(configuration, spec.serializedConfiguration)
+    }
+
+    @Test
+    fun execute_whenConfigurationNotRequired_doesNotResolveConfiguration() {
+        sut.execute(TestSpec(), callback)
+
+        verify(inverse = true) { braintreeClient.getConfiguration(any()) }
+    }
+
+    @Test
+    fun execute_whenConfigurationFails_publishesError() {
+        val configurationError = Exception("configuration error")
+        val configurationCallback = slot<ConfigurationCallback>()
+        every { braintreeClient.getConfiguration(capture(configurationCallback)) } returns Unit
+
+        sut.execute(TestSpec(requiresConfiguration = true), callback)
+        configurationCallback.captured.onResult(null, configurationError)
+        mainExecutor.runNext()
+
+        assertSame(configurationError, error)
+        assertTrue(workerExecutor.pending.isEmpty())
+    }
+
+    @Test
+    fun execute_whenSerializeFails_publishesErrorWithoutSendingRequest() {
+        val serializeError = JSONException("serialize error")
+        val spec = object : TestSpec() {
+            override fun serialize(configuration: Configuration?): JsonPayload {
+                throw serializeError
+            }
+        }
+
+        sut.execute(spec, callback)
+        workerExecutor.runNext()
+        mainExecutor.runNext()
+
+        assertSame(serializeError, error)
+        verify(inverse = true) {
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), any<HttpResponseCallback>())
+        }
+    }
+
+    @Test
+    fun execute_whenTransportFails_publishesHttpError() {
+        val httpError = Exception("http error")
+        respondToPOST(null, httpError)
+
+        sut.execute(TestSpec(), callback)
+        workerExecutor.runNext()
+        mainExecutor.runNext()
+
+        assertSame(httpError, error)
+        assertTrue(workerExecutor.pending.isEmpty())
+    }
+
+    @Test
+    fun execute_whenDecodeFails_publishesDecodeError() {
+        respondToPOST("not-json", null)
+
+        sut.execute(TestSpec(), callback)
+        workerExecutor.runNext()
+        workerExecutor.runNext()
+        mainExecutor.runNext()
+
+        assertNull(result)
+        assertTrue(error is JSONException)
+    }
+
+    @Test
+    fun execute_withAnalyticsEventPrefix_sendsStartedAndSuccessEvents() {
+        respondToPOST("{\"nonce\":\"fake-nonce\"}", null)
+
+        sut.execute(TestSpec(analyticsEventPrefix = "test.tokenize"), callback)
+        workerExecutor.runNext()
+        workerExecutor.runNext()
+        mainExecutor.runNext()
+
+        verify { braintreeClient.sendAnalyticsEvent("test.tokenize.started") }
+        verify { braintreeClient.sendAnalyticsEvent("test.tokenize.success") }
+    }
+
+    @Test
+    fun execute_withAnalyticsEventPrefix_onError_sendsFailureEvent() {
+        respondToPOST(null, Exception("http error"))
+
+        sut.execute(TestSpec(analyticsEventPrefix = "test.tokenize"), callback)
+        workerExecutor.runNext()
+        mainExecutor.runNext()
+
+        verify { braintreeClient.sendAnalyticsEvent("test.tokenize.failure") }
+    }
+
+    @Test
+    fun execute_withoutAnalyticsEventPrefix_sendsNoAnalyticsEvents() {
+        respondToPOST("{\"nonce\":\"fake-nonce\"}", null)
+
+        sut.execute(TestSpec(), callback)
+        workerExecutor.runNext()
+        workerExecutor.runNext()
+        mainExecutor.runNext()
+
+        verify(inverse = true) { braintreeClient.sendAnalyticsEvent(any()) }
+    }
+
+    @Test
+    fun execute_recordsDurationOfEachStageThatRan() {
+        respondToPOST("{\"nonce\":\"fake-nonce\"}", null)
+
+        val task = sut.execute(TestSpec(), callback)
+        workerExecutor.runNext()
+        workerExecutor.runNext()
+        mainExecutor.runNext()
+
+        assertEquals(-1L, task.getStageDurationMs(TokenizationStage.RESOLVE))
+        assertTrue(task.getStageDurationMs(TokenizationStage.SERIALIZE) >= 0)
+        assertTrue(task.getStageDurationMs(TokenizationStage.TRANSPORT) >= 0)
+        assertTrue(task.getStageDurationMs(TokenizationStage.DECODE) >= 0)
+        assertTrue(task.getStageDurationMs(TokenizationStage.PUBLISH) >= 0)
+    }
+
+    @Test
+    fun cancel_beforeSerialize_sendsNoRequest() {
+        val task = sut.execute(TestSpec(), callback)
+        task.cancel()
+        workerExecutor.runNext()
+
+        verify(inverse = true) {
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), any<HttpResponseCallback>())
+        }
+        assertTrue(mainExecutor.pending.isEmpty())
+        assertEquals(0, callbackCount)
+    }
+
+    @Test
+    fun cancel_whileRequestInFlight_neitherDecodesNorPublishes() {
+        val task = sut.execute(TestSpec(), callback)
+        workerExecutor.runNext()
+        task.cancel()
+
+        val httpCallback = slot<HttpResponseCallback>()
+        verify {
+            braintreeClient.sendPOST(any(), any<JsonPayload>(), any(), capture(httpCallback))
+        }
+        httpCallback.captured.onResult("{\"nonce\":\"fake-nonce\"}", null)
+        workerExecutor.runNext()
+
+        assertTrue(mainExecutor.pending.isEmpty())
+        assertEquals(0, callbackCount)
+        assertEquals(-1L, task.getStageDurationMs(TokenizationStage.DECODE))
+    }
+
+    @Test
+    fun cancel_whileRequestInFlight_abortsRequest() {
+        val task = sut.execute(TestSpec(), callback)
+        workerExecutor.runNext()
+
+        val cancellationSignal = slot<CancellationSignal>()
+        verify {
+            braintreeClient.sendPOST(
+                any(), any<JsonPayload>(), capture(cancellationSignal), any<HttpResponseCallback>()
+            )
+        }
+        assertFalse(cancellationSignal.captured.isCanceled)
+
+        task.cancel()
+        assertTrue(cancellationSignal.captured.isCanceled)
+    }
+
+    @Test
+    fun execute_withDecoder_decodesWhileResponseIsReceived_andPublishesOnMain() {
+        val decoder = JsonDecoder { reader ->
+            reader.beginObject()
+            reader.nextName()
+            reader.nextString().also { reader.endObject() }
+        }
+        val spec = StreamingTestSpec("v1/payment_methods/test", decoder)
+        val decoderSlot = slot<JsonDecoder<String>>()
+        val callbackSlot = slot<HttpResponseStreamCallback<String>>()
+        every {
+            braintreeClient.sendPOST(
+                any(), any(), capture(decoderSlot), any(), capture(callbackSlot)
+            )
+        } answers {
+            val decoded = Json.decode("{\"nonce\":\"fake-nonce\"}", decoderSlot.captured)
+            callbackSlot.captured.onResult(decoded, null)
+        }
+
+        val task = sut.execute(spec, callback)
+        workerExecutor.runNext()
+
+        assertTrue(workerExecutor.pending.isEmpty())
+        mainExecutor.runNext()
+
+        assertEquals("fake-nonce", result)
+        assertNull(error)
+        assertTrue(task.getStageDurationMs(TokenizationStage.DECODE) >= 0)
+        assertTrue(task.getStageDurationMs(TokenizationStage.TRANSPORT) >= 0)
+    }
+
+    @Test
+    fun execute_withDecoder_whenPathIsNull_sendsPayloadToGraphQL() {
+        val spec = StreamingTestSpec(null, JsonDecoder { reader -> reader.nextString() })
+
+        sut.execute(spec, callback)
+        workerExecutor.runNext()
+
+        verify {
+            braintreeClient.sendGraphQLPOST(
+                payload, any<JsonDecoder<String>>(), any(), any<HttpResponseStreamCallback<String>>()
+            )
+        }
+    }
+}
@@ -0,0 +1,47 @@
+@file:JvmName("CardClientCoroutines")
+
+package com.braintreepayments.api
+
+import android.os.CancellationSignal
+import kotlinx.coroutines.suspendCancellableCoroutine
+
+/**
+ * Tokenizes a [Card], suspending until the [CardNonce] is available.
+ *
+ * Canceling the calling coroutine aborts the tokenization request. The result is delivered on the
+ * main thread, so a caller on an immediate main dispatcher resumes without a further thread hop.
+ *
+ * @param card the [Card] to tokenize
+ * @return the [CardNonce] of the tokenized card
+ * @throws Exception the error that caused tokenization to fail
+ */
+suspend fun CardClient.tokenize(card: Card): CardNonce =
+    suspendCancellableCoroutine { continuation ->
+        val cancellationSignal = CancellationSignal()
+        continuation.invokeOnCancellation { cancellationSignal.cancel() }
+        tokenize(card, cancellationSignal) { cardNonce, error ->
+            continuation.resumeWithResult(cardNonce, error)
+        }
+    }
+
+/**
+ * Tokenizes several cards at once, suspending until every card has a result.
+ *
+ * Canceling the calling coroutine stops waiting for the results; requests that were already sent
+ * still complete, because the cards in flight may share one batched request.
+ *
+ * @param cards the cards to tokenize
+ * @return a [CardTokenizeAllResult] holding a nonce or an error for each card
+ */
+suspend fun CardClient.tokenizeAll(cards: List<Card>): CardTokenizeAllResult =
+    suspendCancellableCoroutine { continuation ->
+        tokenizeAll(cards, object : CardTokenizeAllCallback {
+            override fun onCardResult(index: Int, cardNonce: CardNonce?, error: Exception?) {
+                // results are read from the CardTokenizeAllResult once all cards completed
+            }
+
+            override fun onComplete(result: CardTokenizeAllResult) {
+                continuation.resumeWithResult(result, null)
+            }
+        })
+    }
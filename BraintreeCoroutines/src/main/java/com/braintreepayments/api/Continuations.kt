@@ -0,0 +1,33 @@
+package com.braintreepayments.api
+
+import kotlinx.coroutines.CancellableContinuation
+import kotlinx.coroutines.channels.ProducerScope
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Resumes with [result] if present, otherwise with [error]. The SDK's callbacks deliver exactly one
+ * of the two, so a missing pair is reported as an unexpected error. A continuation that was
+ * canceled while the SDK was working ignores the result.
+ */
+internal fun <T : Any> CancellableContinuation<T>.resumeWithResult(result: T?, error: Exception?) {
+    if (!isActive) {
+        return
+    }
+    when {
+        result != null -> resume(result)
+        else -> resumeWithException(error ?: BraintreeException("An unexpected error occurred."))
+    }
+}
+
+/**
+ * Sends the outcome of one run of a listener based payment flow without closing the flow, so the
+ * same collector receives the results of later attempts too.
+ */
+internal fun <T> ProducerScope<Result<T>>.sendSuccess(result: T) {
+    trySend(Result.success(result))
+}
+
+internal fun <T> ProducerScope<Result<T>>.sendFailure(error: Exception) {
+    trySend(Result.failure(error))
+}
@@ -0,0 +1,27 @@
+@file:JvmName("DataCollectorCoroutines")
+
+package com.braintreepayments.api
+
+import android.content.Context
+import android.os.CancellationSignal
+import kotlinx.coroutines.suspendCancellableCoroutine
+
+/**
+ * Collects device data, suspending until it is available. Run this concurrently with
+ * tokenization, e.g. with `async`, so that neither waits for the other.
+ *
+ * Canceling the calling coroutine skips the collection if it has not started yet. A collection
+ * that is already running cannot be aborted; its result is cached for the next call.
+ *
+ * @param context Android Context
+ * @return the device data to pass to your server
+ * @throws Exception the error that caused device data collection to fail
+ */
+suspend fun DataCollector.collectDeviceData(context: Context): String =
+    suspendCancellableCoroutine { continuation ->
+        val cancellationSignal = CancellationSignal()
+        continuation.invokeOnCancellation { cancellationSignal.cancel() }
+        collectDeviceData(context, null, cancellationSignal) { deviceData, error ->
+            continuation.resumeWithResult(deviceData, error)
+        }
+    }
@@ -0,0 +1,45 @@
+@file:JvmName("GooglePayClientCoroutines")
+
+package com.braintreepayments.api
+
+import androidx.fragment.app.FragmentActivity
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.suspendCancellableCoroutine
+
+/**
+ * Checks whether Google Pay is ready, suspending until the answer is available.
+ *
+ * Canceling the calling coroutine stops waiting for the answer; the configuration request and the
+ * Google Play Services readiness check cannot be aborted.
+ *
+ * @param activity Android FragmentActivity
+ * @param request an optional [ReadyForGooglePayRequest]
+ * @return true if the customer can pay with Google Pay
+ * @throws Exception the error that prevented the check
+ */
+suspend fun GooglePayClient.isReadyToPay(
+    activity: FragmentActivity,
+    request: ReadyForGooglePayRequest? = null
+): Boolean = suspendCancellableCoroutine { continuation ->
+    isReadyToPay(activity, request) { isReadyToPay, error ->
+        continuation.resumeWithResult(isReadyToPay.takeIf { error == null }, error)
+    }
+}
+
+/**
+ * Emits the outcome of every Google Pay flow while collected. Collecting sets the
+ * [GooglePayListener] of this client, and the listener is removed when collection stops.
+ *
+ * @return a [Flow] of the [PaymentMethodNonce] or error of each Google Pay flow
+ */
+fun GooglePayClient.results(): Flow<Result<PaymentMethodNonce>> = callbackFlow {
+    setListener(object : GooglePayListener {
+        override fun onGooglePaySuccess(paymentMethodNonce: PaymentMethodNonce) =
+            sendSuccess(paymentMethodNonce)
+
+        override fun onGooglePayFailure(error: Exception) = sendFailure(error)
+    })
+    awaitClose { setListener(null) }
+}
@@ -0,0 +1,44 @@
+@file:JvmName("LocalPaymentClientCoroutines")
+
+package com.braintreepayments.api
+
+import android.os.CancellationSignal
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.suspendCancellableCoroutine
+
+/**
+ * Creates a local payment, suspending until the [LocalPaymentResult] needed to approve it is
+ * available.
+ *
+ * Canceling the calling coroutine aborts the request that creates the payment.
+ *
+ * @param request a [LocalPaymentRequest]
+ * @return the [LocalPaymentResult] to pass to [LocalPaymentClient.approveLocalPayment]
+ * @throws Exception the error that caused the payment to fail
+ */
+suspend fun LocalPaymentClient.startPayment(request: LocalPaymentRequest): LocalPaymentResult =
+    suspendCancellableCoroutine { continuation ->
+        val cancellationSignal = CancellationSignal()
+        continuation.invokeOnCancellation { cancellationSignal.cancel() }
+        startPayment(request, cancellationSignal) { localPaymentResult, error ->
+            continuation.resumeWithResult(localPaymentResult, error)
+        }
+    }
+
+/**
+ * Emits the outcome of every local payment flow while collected. Collecting sets the
+ * [LocalPaymentListener] of this client, and the listener is removed when collection stops.
+ *
+ * @return a [Flow] of the [LocalPaymentNonce] or error of each local payment flow
+ */
+fun LocalPaymentClient.results(): Flow<Result<LocalPaymentNonce>> = callbackFlow {
+    setListener(object : LocalPaymentListener {
+        override fun onLocalPaymentSuccess(localPaymentNonce: LocalPaymentNonce) =
+            sendSuccess(localPaymentNonce)
+
+        override fun onLocalPaymentFailure(error: Exception) = sendFailure(error)
+    })
+    awaitClose { setListener(null) }
+}
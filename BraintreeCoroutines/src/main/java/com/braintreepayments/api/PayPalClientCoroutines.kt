@@ -0,0 +1,24 @@
+@file:JvmName("PayPalClientCoroutines")
+
+package com.braintreepayments.api
+
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+
+/**
+ * Emits the outcome of every PayPal flow while collected. Collecting sets the [PayPalListener] of
+ * this client, which also delivers a result that arrived while nothing was collecting, and the
+ * listener is removed when collection stops.
+ *
+ * @return a [Flow] of the [PayPalAccountNonce] or error of each PayPal flow
+ */
+fun PayPalClient.results(): Flow<Result<PayPalAccountNonce>> = callbackFlow {
+    setListener(object : PayPalListener {
+        override fun onPayPalSuccess(payPalAccountNonce: PayPalAccountNonce) =
+            sendSuccess(payPalAccountNonce)
+
+        override fun onPayPalFailure(error: Exception) = sendFailure(error)
+    })
+    awaitClose { setListener(null) }
+}
@@ -0,0 +1,23 @@
+@file:JvmName("SEPADirectDebitClientCoroutines")
+
+package com.braintreepayments.api
+
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+
+/**
+ * Emits the outcome of every SEPA Direct Debit flow while collected. Collecting sets the
+ * [SEPADirectDebitListener] of this client, and the listener is removed when collection stops.
+ *
+ * @return a [Flow] of the [SEPADirectDebitNonce] or error of each SEPA Direct Debit flow
+ */
+fun SEPADirectDebitClient.results(): Flow<Result<SEPADirectDebitNonce>> = callbackFlow {
+    setListener(object : SEPADirectDebitListener {
+        override fun onSEPADirectDebitSuccess(sepaDirectDebitNonce: SEPADirectDebitNonce) =
+            sendSuccess(sepaDirectDebitNonce)
+
+        override fun onSEPADirectDebitFailure(error: Exception) = sendFailure(error)
+    })
+    awaitClose { setListener(null) }
+}
@@ -0,0 +1,72 @@
+@file:JvmName("ThreeDSecureClientCoroutines")
+
+package com.braintreepayments.api
+
+import android.content.Context
+import android.os.CancellationSignal
+import androidx.fragment.app.FragmentActivity
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.suspendCancellableCoroutine
+
+/**
+ * Performs the 3D Secure lookup, suspending until its [ThreeDSecureResult] is available. Pass the
+ * result to [ThreeDSecureClient.continuePerformVerification] if a challenge is required, and
+ * collect [results] to receive the outcome of the challenge.
+ *
+ * Canceling the calling coroutine aborts the lookup request. The Cardinal setup that precedes it
+ * cannot be aborted, but the lookup is not sent once the coroutine is canceled.
+ *
+ * @param activity Android FragmentActivity
+ * @param request the [ThreeDSecureRequest] with information used for authentication
+ * @return the [ThreeDSecureResult] of the lookup
+ * @throws Exception the error that caused the lookup to fail
+ */
+suspend fun ThreeDSecureClient.performVerification(
+    activity: FragmentActivity,
+    request: ThreeDSecureRequest
+): ThreeDSecureResult = suspendCancellableCoroutine { continuation ->
+    val cancellationSignal = CancellationSignal()
+    continuation.invokeOnCancellation { cancellationSignal.cancel() }
+    performVerification(activity, request, cancellationSignal) { threeDSecureResult, error ->
+        continuation.resumeWithResult(threeDSecureResult, error)
+    }
+}
+
+/**
+ * Prepares the payload for a 3D Secure lookup performed on your server, suspending until it is
+ * available.
+ *
+ * No Braintree request is sent. Canceling the calling coroutine stops waiting for the result, but
+ * the Cardinal setup that produces it cannot be aborted.
+ *
+ * @param context Android Context
+ * @param request the [ThreeDSecureRequest] with information used for authentication
+ * @return the client data to send to your server
+ * @throws Exception the error that caused the preparation to fail
+ */
+suspend fun ThreeDSecureClient.prepareLookup(
+    context: Context,
+    request: ThreeDSecureRequest
+): String = suspendCancellableCoroutine { continuation ->
+    prepareLookup(context, request) { _, clientData, error ->
+        continuation.resumeWithResult(clientData, error)
+    }
+}
+
+/**
+ * Emits the outcome of every 3D Secure challenge while collected. Collecting sets the
+ * [ThreeDSecureListener] of this client, and the listener is removed when collection stops.
+ *
+ * @return a [Flow] of the [ThreeDSecureResult] or error of each challenge
+ */
+fun ThreeDSecureClient.results(): Flow<Result<ThreeDSecureResult>> = callbackFlow {
+    setListener(object : ThreeDSecureListener {
+        override fun onThreeDSecureSuccess(threeDSecureResult: ThreeDSecureResult) =
+            sendSuccess(threeDSecureResult)
+
+        override fun onThreeDSecureFailure(error: Exception) = sendFailure(error)
+    })
+    awaitClose { setListener(null) }
+}
@@ -0,0 +1,42 @@
+@file:JvmName("VenmoClientCoroutines")
+
+package com.braintreepayments.api
+
+import android.content.Context
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.suspendCancellableCoroutine
+
+/**
+ * Checks whether Venmo is ready, suspending until the answer is available.
+ *
+ * Canceling the calling coroutine stops waiting for the answer; the configuration request and the
+ * Venmo app check cannot be aborted.
+ *
+ * @param context Android Context
+ * @return true if the customer can pay with Venmo
+ * @throws Exception the error that prevented the check
+ */
+suspend fun VenmoClient.isReadyToPay(context: Context): Boolean =
+    suspendCancellableCoroutine { continuation ->
+        isReadyToPay(context) { isReadyToPay, error ->
+            continuation.resumeWithResult(isReadyToPay.takeIf { error == null }, error)
+        }
+    }
+
+/**
+ * Emits the outcome of every Venmo flow while collected. Collecting sets the [VenmoListener] of
+ * this client, and the listener is removed when collection stops.
+ *
+ * @return a [Flow] of the [VenmoAccountNonce] or error of each Venmo flow
+ */
+fun VenmoClient.results(): Flow<Result<VenmoAccountNonce>> = callbackFlow {
+    setListener(object : VenmoListener {
+        override fun onVenmoSuccess(venmoAccountNonce: VenmoAccountNonce) =
+            sendSuccess(venmoAccountNonce)
+
+        override fun onVenmoFailure(error: Exception) = sendFailure(error)
+    })
+    awaitClose { setListener(null) }
+}
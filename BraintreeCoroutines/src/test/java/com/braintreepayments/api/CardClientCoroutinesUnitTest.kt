@@ -0,0 +1,187 @@
+package com.braintreepayments.api
+
+import android.os.CancellationSignal
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.withContext
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.coroutines.CoroutineContext
+
+@RunWith(RobolectricTestRunner::class)
+class CardClientCoroutinesUnitTest {
+
+    private lateinit var cardClient: CardClient
+    private lateinit var card: Card
+
+    private lateinit var mainThread: Thread
+    private lateinit var mainExecutor: ExecutorService
+    private lateinit var mainHops: AtomicInteger
+
+    @Before
+    fun beforeEach() {
+        cardClient = mockk(relaxed = true)
+        card = Card()
+
+        mainHops = AtomicInteger()
+        mainExecutor = Executors.newSingleThreadExecutor { runnable ->
+            Thread(runnable, "main").also { mainThread = it }
+        }
+        mainExecutor.submit {}.get()
+    }
+
+    @After
+    fun afterEach() {
+        mainExecutor.shutdownNow()
+    }
+
+    @Test
+    fun tokenize_onSuccess_returnsCardNonce() = runBlocking {
+        val cardNonce = mockk<CardNonce>()
+        val callback = slot<CardTokenizeCallback>()
+        every { cardClient.tokenize(card, any<CancellationSignal>(), capture(callback)) } answers {
+            callback.captured.onResult(cardNonce, null)
+        }
+
+        assertSame(cardNonce, cardClient.tokenize(card))
+    }
+
+    @Test
+    fun tokenize_onError_throwsError() = runBlocking {
+        val error = BraintreeException("tokenize error")
+        val callback = slot<CardTokenizeCallback>()
+        every { cardClient.tokenize(card, any<CancellationSignal>(), capture(callback)) } answers {
+            callback.captured.onResult(null, error)
+        }
+
+        try {
+            cardClient.tokenize(card)
+            fail("Expected the tokenize error to be thrown")
+        } catch (e: BraintreeException) {
+            assertEquals("tokenize error", e.message)
+        }
+    }
+
+    @Test
+    fun tokenize_whenCanceled_ignoresLateResult() = runBlocking {
+        val callback = slot<CardTokenizeCallback>()
+        every { cardClient.tokenize(card, any<CancellationSignal>(), capture(callback)) } returns Unit
+
+        val deferred = async(Dispatchers.Unconfined, CoroutineStart.UNDISPATCHED) {
+            cardClient.tokenize(card)
+        }
+        deferred.cancel()
+        callback.captured.onResult(mockk(), null)
+
+        assertTrue(deferred.isCancelled)
+    }
+
+    @Test
+    fun tokenize_whenCanceled_cancelsTokenization() = runBlocking {
+        val cancellationSignal = slot<CancellationSignal>()
+        every { cardClient.tokenize(card, capture(cancellationSignal), any()) } returns Unit
+
+        val deferred = async(Dispatchers.Unconfined, CoroutineStart.UNDISPATCHED) {
+            cardClient.tokenize(card)
+        }
+        assertFalse(cancellationSignal.captured.isCanceled)
+
+        deferred.cancel()
+
+        assertTrue(cancellationSignal.captured.isCanceled)
+    }
+
+    @Test
+    fun tokenize_onImmediateMainDispatcher_takesFewerThreadHopsThanHandRolledWrapper() {
+        every { cardClient.tokenize(card, any<CancellationSignal>(), any()) } answers {
+            val callback = thirdArg<CardTokenizeCallback>()
+            // the SDK delivers results on the main thread
+            postToMain { callback.onResult(mockk(), null) }
+        }
+
+        val callbackHops = AtomicInteger()
+        val callbackDone = CountDownLatch(1)
+        postToMain {
+            val hopsBefore = mainHops.get()
+            cardClient.tokenize(card, null) { _, _ ->
+                callbackHops.set(mainHops.get() - hopsBefore)
+                callbackDone.countDown()
+            }
+        }
+        assertTrue(callbackDone.await(5, TimeUnit.SECONDS))
+
+        val coroutineHops = countMainHops { cardClient.tokenize(card) }
+        // a typical wrapper written without the extension, switching to a dispatching main
+        // dispatcher before calling the SDK
+        val handRolledHops = countMainHops {
+            withContext(MainDispatcher()) {
+                suspendCancellableCoroutine<CardNonce> { continuation ->
+                    cardClient.tokenize(card, null) { cardNonce, error ->
+                        continuation.resumeWithResult(cardNonce, error)
+                    }
+                }
+            }
+        }
+
+        assertEquals(1, callbackHops.get())
+        assertEquals(callbackHops.get(), coroutineHops)
+        assertTrue(
+            "expected fewer than $handRolledHops hops, took $coroutineHops",
+            coroutineHops < handRolledHops
+        )
+    }
+
+    private fun countMainHops(block: suspend () -> Unit): Int = runBlocking {
+        withContext(ImmediateMainDispatcher()) {
+            val hopsBefore = mainHops.get()
+            block()
+            mainHops.get() - hopsBefore
+        }
+    }
+
+    private fun postToMain(block: () -> Unit) {
+        mainExecutor.execute {
+            mainHops.incrementAndGet()
+            block()
+        }
+    }
+
+    /**
+     * Runs on the single main thread and, like `Dispatchers.Main.immediate`, does not dispatch
+     * when it is already there.
+     */
+    private inner class ImmediateMainDispatcher : CoroutineDispatcher() {
+
+        override fun isDispatchNeeded(context: CoroutineContext) = Thread.currentThread() != mainThread
+
+        override fun dispatch(context: CoroutineContext, block: Runnable) = postToMain { block.run() }
+    }
+
+    /**
+     * Runs on the single main thread and, like `Dispatchers.Main`, always dispatches.
+     */
+    private inner class MainDispatcher : CoroutineDispatcher() {
+
+        override fun dispatch(context: CoroutineContext, block: Runnable) = postToMain { block.run() }
+    }
+}
@@ -0,0 +1,57 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import android.os.CancellationSignal
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class DataCollectorCoroutinesUnitTest {
+
+    @Test
+    fun collectDeviceData_returnsDeviceData() = runBlocking {
+        val context = mockk<Context>()
+        val dataCollector = mockk<DataCollector>()
+        val callback = slot<DataCollectorCallback>()
+        every {
+            dataCollector.collectDeviceData(context, isNull(), any<CancellationSignal>(), capture(callback))
+        } answers {
+            callback.captured.onResult("{\"device_session_id\":\"session-id\"}", null)
+        }
+
+        assertEquals(
+            "{\"device_session_id\":\"session-id\"}",
+            dataCollector.collectDeviceData(context)
+        )
+    }
+
+    @Test
+    fun collectDeviceData_whenCanceled_cancelsCollection() = runBlocking {
+        val context = mockk<Context>()
+        val dataCollector = mockk<DataCollector>()
+        val cancellationSignal = slot<CancellationSignal>()
+        every {
+            dataCollector.collectDeviceData(context, isNull(), capture(cancellationSignal), any())
+        } returns Unit
+
+        val deferred = async(Dispatchers.Unconfined, CoroutineStart.UNDISPATCHED) {
+            dataCollector.collectDeviceData(context)
+        }
+        assertFalse(cancellationSignal.captured.isCanceled)
+
+        deferred.cancel()
+
+        assertTrue(cancellationSignal.captured.isCanceled)
+    }
+}
@@ -0,0 +1,53 @@
+package com.braintreepayments.api
+
+import android.os.CancellationSignal
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class LocalPaymentClientCoroutinesUnitTest {
+
+    private val request = LocalPaymentRequest()
+    private val localPaymentClient = mockk<LocalPaymentClient>()
+
+    @Test
+    fun startPayment_returnsLocalPaymentResult() = runBlocking {
+        val localPaymentResult = mockk<LocalPaymentResult>()
+        val callback = slot<LocalPaymentStartCallback>()
+        every {
+            localPaymentClient.startPayment(request, any<CancellationSignal>(), capture(callback))
+        } answers {
+            callback.captured.onResult(localPaymentResult, null)
+        }
+
+        assertSame(localPaymentResult, localPaymentClient.startPayment(request))
+    }
+
+    @Test
+    fun startPayment_whenCanceled_cancelsPaymentCreation() = runBlocking {
+        val cancellationSignal = slot<CancellationSignal>()
+        every {
+            localPaymentClient.startPayment(request, capture(cancellationSignal), any())
+        } returns Unit
+
+        val deferred = async(Dispatchers.Unconfined, CoroutineStart.UNDISPATCHED) {
+            localPaymentClient.startPayment(request)
+        }
+        assertFalse(cancellationSignal.captured.isCanceled)
+
+        deferred.cancel()
+
+        assertTrue(cancellationSignal.captured.isCanceled)
+    }
+}
@@ -0,0 +1,42 @@
+package com.braintreepayments.api
+
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class PayPalClientCoroutinesUnitTest {
+
+    @Test
+    fun results_emitsEveryResult_andRemovesListenerWhenCollectionStops() = runBlocking {
+        val payPalClient = mockk<PayPalClient>(relaxed = true)
+        var listener: PayPalListener? = null
+        every { payPalClient.setListener(any()) } answers {
+            firstArg<PayPalListener?>()?.let { listener = it }
+        }
+
+        val nonce = mockk<PayPalAccountNonce>()
+        val error = BraintreeException("canceled")
+        var results: List<Result<PayPalAccountNonce>> = emptyList()
+        val job = launch(Dispatchers.Unconfined, CoroutineStart.UNDISPATCHED) {
+            results = payPalClient.results().take(2).toList()
+        }
+
+        listener!!.onPayPalFailure(error)
+        listener!!.onPayPalSuccess(nonce)
+        job.join()
+
+        assertEquals(2, results.size)
+        assertSame(error, results[0].exceptionOrNull())
+        assertSame(nonce, results[1].getOrNull())
+        verify { payPalClient.setListener(null) }
+    }
+}
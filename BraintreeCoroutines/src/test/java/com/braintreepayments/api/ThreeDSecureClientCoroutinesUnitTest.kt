@@ -0,0 +1,55 @@
+package com.braintreepayments.api
+
+import android.os.CancellationSignal
+import androidx.fragment.app.FragmentActivity
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class ThreeDSecureClientCoroutinesUnitTest {
+
+    private val activity = mockk<FragmentActivity>()
+    private val request = ThreeDSecureRequest()
+    private val threeDSecureClient = mockk<ThreeDSecureClient>()
+
+    @Test
+    fun performVerification_returnsThreeDSecureResult() = runBlocking {
+        val threeDSecureResult = mockk<ThreeDSecureResult>()
+        val callback = slot<ThreeDSecureResultCallback>()
+        every {
+            threeDSecureClient.performVerification(activity, request, any<CancellationSignal>(), capture(callback))
+        } answers {
+            callback.captured.onResult(threeDSecureResult, null)
+        }
+
+        assertSame(threeDSecureResult, threeDSecureClient.performVerification(activity, request))
+    }
+
+    @Test
+    fun performVerification_whenCanceled_cancelsLookup() = runBlocking {
+        val cancellationSignal = slot<CancellationSignal>()
+        every {
+            threeDSecureClient.performVerification(activity, request, capture(cancellationSignal), any())
+        } returns Unit
+
+        val deferred = async(Dispatchers.Unconfined, CoroutineStart.UNDISPATCHED) {
+            threeDSecureClient.performVerification(activity, request)
+        }
+        assertFalse(cancellationSignal.captured.isCanceled)
+
+        deferred.cancel()
+
+        assertTrue(cancellationSignal.captured.isCanceled)
+    }
+}
@@ -1,32 +1,26 @@
 package com.braintreepayments.api;
 
 import android.content.Context;
-import android.text.TextUtils;
+import android.os.CancellationSignal;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 /**
  * DataCollector is used to collect device information to aid in fraud detection and prevention.
  */
 public class DataCollector {
 
-    private static final String CORRELATION_ID_KEY = "correlation_id";
-
-    private final BraintreeClient braintreeClient;
     private final PayPalDataCollector payPalDataCollector;
 
     public DataCollector(@NonNull BraintreeClient braintreeClient) {
-        this(braintreeClient, new PayPalDataCollector(braintreeClient));
+        this(new PayPalDataCollector(braintreeClient));
     }
 
     @VisibleForTesting
-    DataCollector(BraintreeClient braintreeClient, PayPalDataCollector payPalDataCollector) {
-        this.braintreeClient = braintreeClient;
+    DataCollector(PayPalDataCollector payPalDataCollector) {
         this.payPalDataCollector = payPalDataCollector;
     }
 
@@ -55,39 +49,41 @@ public class DataCollector {
      */
     @Deprecated
     public void collectDeviceData(@NonNull final Context context, @Nullable final String merchantId, @NonNull final DataCollectorCallback callback) {
-        final Context appContext = context.getApplicationContext();
-        braintreeClient.getConfiguration(new ConfigurationCallback() {
+        collectDeviceData(context, merchantId, null, callback);
+    }
+
+    /**
+     * Same as {@link #collectDeviceData(Context, String, DataCollectorCallback)}, but once
+     * {@code cancellationSignal} is canceled {@code callback} is no longer invoked. See
+     * {@link PayPalDataCollector#collectDeviceData(Context, String, CancellationSignal, PayPalDataCollectorCallback)}
+     * for which parts of the collection are skipped.
+     *
+     * @param context            Android Context
+     * @param merchantId         Optional - Custom Kount merchant id. Leave blank to use the default.
+     * @param cancellationSignal cancels the collection, or {@code null}
+     * @param callback           {@link DataCollectorCallback}
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void collectDeviceData(@NonNull final Context context, @Nullable final String merchantId,
+                                  @Nullable final CancellationSignal cancellationSignal,
+                                  @NonNull final DataCollectorCallback callback) {
+        payPalDataCollector.collectDeviceData(context.getApplicationContext(), null, cancellationSignal, new PayPalDataCollectorCallback() {
             @Override
-            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
-                if (configuration != null) {
-                    final JSONObject deviceData = new JSONObject();
-                    try {
-                        String clientMetadataId = getPayPalClientMetadataId(appContext, configuration);
-                        if (!TextUtils.isEmpty(clientMetadataId)) {
-                            deviceData.put(CORRELATION_ID_KEY, clientMetadataId);
-                        }
-                    } catch (JSONException ignored) {
-                    }
-                    callback.onResult(deviceData.toString(), null);
-                } else {
-                    callback.onResult(null, error);
-                }
+            public void onResult(@Nullable String deviceData, @Nullable Exception error) {
+                callback.onResult(deviceData, error);
             }
         });
     }
 
     /**
-     * Collect device information for fraud identification purposes from PayPal only.
+     * Starts collecting device information in the background so it is ready by the time
+     * {@link #collectDeviceData(Context, DataCollectorCallback)} is called, e.g. right after
+     * creating this client when the customer enters checkout.
      *
      * @param context Android Context
-     * @param configuration the merchant configuration
-     * @return The client metadata id associated with the collected data.
      */
-    private String getPayPalClientMetadataId(Context context, Configuration configuration) {
-        try {
-            return payPalDataCollector.getClientMetadataId(context, configuration);
-        } catch (NoClassDefFoundError ignored) {
-        }
-        return "";
+    public void prefetchDeviceData(@NonNull Context context) {
+        payPalDataCollector.prefetchDeviceData(context.getApplicationContext());
     }
 }
@@ -1,12 +1,17 @@
 package com.braintreepayments.api;
 
 import static junit.framework.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.os.CancellationSignal;
 
 import androidx.test.core.app.ApplicationProvider;
 
@@ -16,6 +21,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 
 @RunWith(RobolectricTestRunner.class)
@@ -25,13 +32,10 @@ public class DataCollectorUnitTest {
 
     private PayPalDataCollector payPalDataCollector;
 
-    private Configuration configuration;
     private UUIDHelper uuidHelper;
 
     @Before
     public void beforeEach() throws JSONException {
-        configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN);
-
         context = ApplicationProvider.getApplicationContext();
         payPalDataCollector = mock(PayPalDataCollector.class);
         uuidHelper = mock(UUIDHelper.class);
@@ -46,8 +50,8 @@ public class DataCollectorUnitTest {
                 .configurationError(configError)
                 .build();
 
-        DataCollector sut = new DataCollector(
-                braintreeClient, payPalDataCollector);
+        DataCollector sut = new DataCollector(new PayPalDataCollector(
+                braintreeClient, mock(MagnesInternalClient.class), uuidHelper));
 
         DataCollectorCallback callback = mock(DataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -57,14 +61,17 @@ public class DataCollectorUnitTest {
 
     @Test
     public void collectDeviceData_getsDeviceDataJSONWithCorrelationIdFromPayPal() throws Exception {
-        when(payPalDataCollector.getClientMetadataId(context, configuration)).thenReturn("sample_correlation_id");
-
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .configuration(configuration)
-                .build();
-
-        DataCollector sut = new DataCollector(
-                braintreeClient, payPalDataCollector);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                PayPalDataCollectorCallback callback = (PayPalDataCollectorCallback) invocation.getArguments()[3];
+                callback.onResult("{\"correlation_id\":\"sample_correlation_id\"}", null);
+                return null;
+            }
+        }).when(payPalDataCollector).collectDeviceData(same(context), (String) isNull(),
+                nullable(CancellationSignal.class), any(PayPalDataCollectorCallback.class));
+
+        DataCollector sut = new DataCollector(payPalDataCollector);
 
         DataCollectorCallback callback = mock(DataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -76,4 +83,23 @@ public class DataCollectorUnitTest {
         JSONObject json = new JSONObject(deviceData);
         assertEquals("sample_correlation_id", json.getString("correlation_id"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void collectDeviceData_withCancellationSignal_forwardsSignalToPayPalDataCollector() {
+        DataCollector sut = new DataCollector(payPalDataCollector);
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        sut.collectDeviceData(context, null, cancellationSignal, mock(DataCollectorCallback.class));
+
+        verify(payPalDataCollector).collectDeviceData(same(context), (String) isNull(),
+                same(cancellationSignal), any(PayPalDataCollectorCallback.class));
+    }
+
+    @Test
+    public void prefetchDeviceData_startsPayPalDeviceDataCollection() {
+        DataCollector sut = new DataCollector(payPalDataCollector);
+        sut.prefetchDeviceData(context);
+
+        verify(payPalDataCollector).prefetchDeviceData(same(context));
+    }
+}
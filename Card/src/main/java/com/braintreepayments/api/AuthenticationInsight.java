@@ -2,11 +2,14 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
 
 import androidx.annotation.NonNull;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Information pertaining to the regulatory environment for a credit card if authentication insight
  * is requested during tokenization.
@@ -29,12 +32,44 @@ public class AuthenticationInsight implements Parcelable {
             regulationEnv = Json.optString(json, REST_REGULATION_ENVIRONMENT_KEY, "");
         }
 
+        return new AuthenticationInsight(normalizeRegulationEnvironment(regulationEnv));
+    }
+
+    /**
+     * Decodes {@link AuthenticationInsight} from a reader positioned at a JSON object, preferring
+     * the GraphQL regulation environment key like {@link #fromJson(JSONObject)}.
+     */
+    static AuthenticationInsight fromJson(JsonReader reader) throws IOException {
+        boolean hasGraphQLRegulationEnv = false;
+        String graphQLRegulationEnv = null;
+        String restRegulationEnv = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case GRAPHQL_REGULATION_ENVIRONMENT_KEY:
+                    hasGraphQLRegulationEnv = true;
+                    graphQLRegulationEnv = Json.nextOptString(reader);
+                    break;
+                case REST_REGULATION_ENVIRONMENT_KEY:
+                    restRegulationEnv = Json.nextOptString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        String regulationEnv = hasGraphQLRegulationEnv ? graphQLRegulationEnv : restRegulationEnv;
+        return new AuthenticationInsight(
+                normalizeRegulationEnvironment(regulationEnv != null ? regulationEnv : ""));
+    }
+
+    private static String normalizeRegulationEnvironment(String regulationEnv) {
         if ("psdtwo".equalsIgnoreCase(regulationEnv)) {
             regulationEnv = "psd2";
         }
-        regulationEnv = regulationEnv.toLowerCase();
-
-        return new AuthenticationInsight(regulationEnv);
+        return regulationEnv.toLowerCase();
     }
 
     AuthenticationInsight(String regulationEnvironment) {
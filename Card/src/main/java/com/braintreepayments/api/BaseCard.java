@@ -3,13 +3,17 @@ package com.braintreepayments.api;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Base class used to build various types of cards
  */
@@ -348,35 +352,66 @@ abstract class BaseCard extends PaymentMethod implements Parcelable {
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public JSONObject buildJSON() throws JSONException {
-        JSONObject json = super.buildJSON();
-
-        JSONObject paymentMethodNonceJson = new JSONObject();
-        paymentMethodNonceJson.put(NUMBER_KEY, number);
-        paymentMethodNonceJson.put(CVV_KEY, cvv);
-        paymentMethodNonceJson.put(EXPIRATION_MONTH_KEY, expirationMonth);
-        paymentMethodNonceJson.put(EXPIRATION_YEAR_KEY, expirationYear);
-
-        paymentMethodNonceJson.put(CARDHOLDER_NAME_KEY, cardholderName);
-
-        JSONObject billingAddressJson = new JSONObject();
-        billingAddressJson.put(FIRST_NAME_KEY, firstName);
-        billingAddressJson.put(LAST_NAME_KEY, lastName);
-        billingAddressJson.put(COMPANY_KEY, company);
-        billingAddressJson.put(LOCALITY_KEY, locality);
-        billingAddressJson.put(POSTAL_CODE_KEY, postalCode);
-        billingAddressJson.put(REGION_KEY, region);
-        billingAddressJson.put(STREET_ADDRESS_KEY, streetAddress);
-        billingAddressJson.put(EXTENDED_ADDRESS_KEY, extendedAddress);
-
-        if (countryCode != null) {
-            billingAddressJson.put(COUNTRY_CODE_ALPHA3_KEY, countryCode);
-        }
+        return Json.toJSONObject(new JsonPayload() {
+            @Override
+            public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                writeJSON(writer);
+            }
+        });
+    }
 
-        if (billingAddressJson.length() > 0) {
-            paymentMethodNonceJson.put(BILLING_ADDRESS_KEY, billingAddressJson);
+    /**
+     * @hide
+     */
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void writeJSON(@NonNull JsonWriter writer) throws IOException {
+        writer.name(MetadataBuilder.META_KEY).beginObject();
+        Json.writeMembers(writer, buildMetadataJSON());
+        writer.endObject();
+
+        writer.name(CREDIT_CARD_KEY).beginObject();
+        Json.writeOpt(writer, NUMBER_KEY, number);
+        Json.writeOpt(writer, CVV_KEY, cvv);
+        Json.writeOpt(writer, EXPIRATION_MONTH_KEY, expirationMonth);
+        Json.writeOpt(writer, EXPIRATION_YEAR_KEY, expirationYear);
+        Json.writeOpt(writer, CARDHOLDER_NAME_KEY, cardholderName);
+
+        if (hasBillingAddress()) {
+            writer.name(BILLING_ADDRESS_KEY).beginObject();
+            Json.writeOpt(writer, FIRST_NAME_KEY, firstName);
+            Json.writeOpt(writer, LAST_NAME_KEY, lastName);
+            Json.writeOpt(writer, COMPANY_KEY, company);
+            Json.writeOpt(writer, LOCALITY_KEY, locality);
+            Json.writeOpt(writer, POSTAL_CODE_KEY, postalCode);
+            Json.writeOpt(writer, REGION_KEY, region);
+            Json.writeOpt(writer, STREET_ADDRESS_KEY, streetAddress);
+            Json.writeOpt(writer, EXTENDED_ADDRESS_KEY, extendedAddress);
+            Json.writeOpt(writer, COUNTRY_CODE_ALPHA3_KEY, countryCode);
+            writer.endObject();
         }
-        json.put(CREDIT_CARD_KEY, paymentMethodNonceJson);
-        return json;
+        writeCreditCardOptions(writer);
+        writer.endObject();
+
+        writeAdditionalMembers(writer);
+    }
+
+    /**
+     * Writes the {@code options} member of the credit card object, if any.
+     */
+    void writeCreditCardOptions(JsonWriter writer) throws IOException {
+    }
+
+    /**
+     * Writes members that follow the credit card object in the REST payload, if any.
+     */
+    void writeAdditionalMembers(JsonWriter writer) throws IOException {
+    }
+
+    boolean hasBillingAddress() {
+        return firstName != null || lastName != null || company != null || locality != null
+                || postalCode != null || region != null || streetAddress != null
+                || extendedAddress != null || countryCode != null;
     }
 
     /**
@@ -2,12 +2,16 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
+import android.util.JsonToken;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.StringDef;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
@@ -65,6 +69,78 @@ public class BinData implements Parcelable {
         return binData;
     }
 
+    JSONObject toJson() throws JSONException {
+        return new JSONObject()
+                .put(PREPAID_KEY, prepaid)
+                .put(HEALTHCARE_KEY, healthcare)
+                .put(DEBIT_KEY, debit)
+                .put(DURBIN_REGULATED_KEY, durbinRegulated)
+                .put(COMMERCIAL_KEY, commercial)
+                .put(PAYROLL_KEY, payroll)
+                .put(ISSUING_BANK_KEY, issuingBank)
+                .put(COUNTRY_OF_ISSUANCE_KEY, countryOfIssuance)
+                .put(PRODUCT_ID_KEY, productId);
+    }
+
+    /**
+     * Decodes {@link BinData} from a reader positioned at a JSON object, with the same defaults as
+     * {@link #fromJson(JSONObject)}.
+     */
+    static BinData fromJson(JsonReader reader) throws IOException {
+        BinData binData = fromJson((JSONObject) null);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case PREPAID_KEY:
+                    binData.prepaid = nextOptString(reader, UNKNOWN);
+                    break;
+                case HEALTHCARE_KEY:
+                    binData.healthcare = nextOptString(reader, UNKNOWN);
+                    break;
+                case DEBIT_KEY:
+                    binData.debit = nextOptString(reader, UNKNOWN);
+                    break;
+                case DURBIN_REGULATED_KEY:
+                    binData.durbinRegulated = nextOptString(reader, UNKNOWN);
+                    break;
+                case COMMERCIAL_KEY:
+                    binData.commercial = nextOptString(reader, UNKNOWN);
+                    break;
+                case PAYROLL_KEY:
+                    binData.payroll = nextOptString(reader, UNKNOWN);
+                    break;
+                case ISSUING_BANK_KEY:
+                    binData.issuingBank = nextNullAsUnknown(reader);
+                    break;
+                case COUNTRY_OF_ISSUANCE_KEY:
+                    binData.countryOfIssuance = nextNullAsUnknown(reader);
+                    break;
+                case PRODUCT_ID_KEY:
+                    binData.productId = nextNullAsUnknown(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return binData;
+    }
+
+    private static String nextOptString(JsonReader reader, String fallback) throws IOException {
+        String value = Json.nextOptString(reader);
+        return (value != null) ? value : fallback;
+    }
+
+    private static String nextNullAsUnknown(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return UNKNOWN;
+        }
+        return nextOptString(reader, "");
+    }
+
     private static String convertNullToUnknown(JSONObject json, String key) {
         if (json.has(key) && json.isNull(key)) {
             return UNKNOWN;
@@ -0,0 +1,330 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, least recently used cache of the {@link BinData} returned by successful card
+ * tokenizations, keyed by BIN. Lets an integration look up the attributes of a card, such as
+ * whether it is prepaid or debit, as soon as the user has typed the first digits of a number
+ * from an issuer they have used before.
+ * <p>
+ * Entries expire after a fixed time to live. The cache lives in memory unless it is created with
+ * a {@link BinDataStore}, which is written on a background thread.
+ */
+public class BinDataCache {
+
+    public static final int DEFAULT_MAX_SIZE = 100;
+    public static final long DEFAULT_TIME_TO_LIVE_MS = TimeUnit.DAYS.toMillis(1);
+
+    private static final int SHORT_BIN_LENGTH = 6;
+    private static final int LONG_BIN_LENGTH = 8;
+
+    private static final String BIN_KEY = "bin";
+    private static final String CREATED_AT_KEY = "createdAt";
+
+    private static volatile BinDataCache INSTANCE;
+
+    static BinDataCache getInstance() {
+        if (INSTANCE == null) {
+            synchronized (BinDataCache.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new BinDataCache(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE_MS, null);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final int maxSize;
+    private final long timeToLiveMs;
+    private final BinDataStore store;
+    private final Executor saveExecutor;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private boolean loaded;
+    private boolean isSavePending;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expirationCount;
+
+    /**
+     * Creates an in memory cache.
+     *
+     * @param maxSize the maximum number of BINs to keep
+     * @param timeToLiveMs how long an entry is returned after it was stored
+     */
+    public BinDataCache(int maxSize, long timeToLiveMs) {
+        this(maxSize, timeToLiveMs, null);
+    }
+
+    /**
+     * @param maxSize the maximum number of BINs to keep
+     * @param timeToLiveMs how long an entry is returned after it was stored
+     * @param store optional {@link BinDataStore} that keeps entries across app launches
+     */
+    public BinDataCache(int maxSize, long timeToLiveMs, @Nullable BinDataStore store) {
+        this(maxSize, timeToLiveMs, store, null);
+    }
+
+    @VisibleForTesting
+    BinDataCache(int maxSize, long timeToLiveMs, @Nullable BinDataStore store,
+                 @Nullable Executor saveExecutor) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than 0.");
+        }
+        this.maxSize = maxSize;
+        this.timeToLiveMs = timeToLiveMs;
+        this.store = store;
+        this.saveExecutor = saveExecutor;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > BinDataCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param cardNumber a full or partial card number. Spaces and dashes are ignored.
+     * @return the {@link BinData} stored for the 8 or 6 digit BIN of {@code cardNumber}, or
+     * {@code null} if there is none or it has expired.
+     */
+    @Nullable
+    public BinData get(@Nullable CharSequence cardNumber) {
+        return get(cardNumber, System.currentTimeMillis());
+    }
+
+    @VisibleForTesting
+    synchronized BinData get(CharSequence cardNumber, long currentTimeMillis) {
+        String digits = leadingDigits(cardNumber);
+        if (digits == null || digits.length() < SHORT_BIN_LENGTH) {
+            return null;
+        }
+        loadIfNeeded(currentTimeMillis);
+
+        BinData binData = null;
+        if (digits.length() == LONG_BIN_LENGTH) {
+            binData = getUnexpired(digits, currentTimeMillis);
+        }
+        if (binData == null) {
+            binData = getUnexpired(digits.substring(0, SHORT_BIN_LENGTH), currentTimeMillis);
+        }
+
+        if (binData != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return binData;
+    }
+
+    void put(@NonNull CardNonce cardNonce) {
+        put(cardNonce.getBin(), cardNonce.getBinData(), System.currentTimeMillis());
+    }
+
+    @VisibleForTesting
+    synchronized void put(String bin, BinData binData, long currentTimeMillis) {
+        if (binData == null || !isBin(bin)) {
+            return;
+        }
+        loadIfNeeded(currentTimeMillis);
+        entries.put(bin, new Entry(binData, currentTimeMillis));
+        save();
+    }
+
+    /**
+     * Removes every entry, including persisted ones.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        loaded = true;
+        save();
+    }
+
+    /**
+     * @return the number of BINs currently held, including expired entries that have not been
+     * looked up since they expired.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of lookups that returned {@link BinData}.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of lookups with at least 6 digits that returned nothing.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of entries removed to stay within the maximum size.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of entries removed because their time to live had passed.
+     */
+    public synchronized long getExpirationCount() {
+        return expirationCount;
+    }
+
+    private BinData getUnexpired(String bin, long currentTimeMillis) {
+        Entry entry = entries.get(bin);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, currentTimeMillis)) {
+            entries.remove(bin);
+            expirationCount++;
+            return null;
+        }
+        return entry.binData;
+    }
+
+    private boolean isExpired(Entry entry, long currentTimeMillis) {
+        return currentTimeMillis - entry.createdAt >= timeToLiveMs;
+    }
+
+    private void loadIfNeeded(long currentTimeMillis) {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (store == null) {
+            return;
+        }
+
+        String serializedEntries = store.load();
+        if (serializedEntries == null) {
+            return;
+        }
+        try {
+            // entries are saved least recently used first, so inserting in order restores the LRU order
+            JSONArray array = new JSONArray(serializedEntries);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject json = array.getJSONObject(i);
+                String bin = json.getString(BIN_KEY);
+                Entry entry = new Entry(
+                        BinData.fromJson(json.optJSONObject(BinData.BIN_DATA_KEY)),
+                        json.getLong(CREATED_AT_KEY));
+                if (isBin(bin) && !isExpired(entry, currentTimeMillis)) {
+                    entries.put(bin, entry);
+                }
+            }
+        } catch (JSONException ignored) {
+            // a corrupt store is treated as empty and overwritten on the next save
+            entries.clear();
+        }
+    }
+
+    /**
+     * Writes the entries to the store in the background. Changes made before the write starts
+     * are saved together, so a burst of tokenizations costs a single write.
+     */
+    private void save() {
+        if (store == null || isSavePending) {
+            return;
+        }
+        isSavePending = true;
+        Executor executor = (saveExecutor != null) ? saveExecutor : SaveExecutorHolder.INSTANCE;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                store.save(serializeEntries());
+            }
+        });
+    }
+
+    private synchronized String serializeEntries() {
+        isSavePending = false;
+        JSONArray array = new JSONArray();
+        try {
+            for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+                array.put(new JSONObject()
+                        .put(BIN_KEY, mapEntry.getKey())
+                        .put(CREATED_AT_KEY, mapEntry.getValue().createdAt)
+                        .put(BinData.BIN_DATA_KEY, mapEntry.getValue().binData.toJson()));
+            }
+        } catch (JSONException ignored) {
+            // not reachable, keys are non-null and values are strings or longs
+        }
+        return array.toString();
+    }
+
+    private static boolean isBin(String bin) {
+        if (bin == null || (bin.length() != SHORT_BIN_LENGTH && bin.length() != LONG_BIN_LENGTH)) {
+            return false;
+        }
+        for (int i = 0; i < bin.length(); i++) {
+            char c = bin.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return up to the first 8 digits of {@code cardNumber} without spaces and dashes, or
+     * {@code null} if it contains any other character before them.
+     */
+    private static String leadingDigits(CharSequence cardNumber) {
+        if (cardNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(LONG_BIN_LENGTH);
+        for (int i = 0; i < cardNumber.length() && digits.length() < LONG_BIN_LENGTH; i++) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c != ' ' && c != '-') {
+                return null;
+            }
+        }
+        return digits.toString();
+    }
+
+    // a single thread keeps the writes of all caches in the order they were made; it is only
+    // started once a cache with a store is written
+    private static class SaveExecutorHolder {
+        static final Executor INSTANCE = Executors.newSingleThreadExecutor();
+    }
+
+    private static class Entry {
+
+        final BinData binData;
+        final long createdAt;
+
+        Entry(BinData binData, long createdAt) {
+            this.binData = binData;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Persistent storage for a {@link BinDataCache}. The cache hands its entries to the store as a
+ * single serialized string and reads them back the first time it is used.
+ * <p>
+ * Cached entries describe the cards a user has entered, such as the issuing bank and country of
+ * issuance, so implementations should keep the value encrypted at rest, for example with
+ * {@code androidx.security.crypto.EncryptedSharedPreferences}.
+ */
+public interface BinDataStore {
+
+    /**
+     * @return the value last passed to {@link #save(String)}, or {@code null} if nothing has
+     * been saved.
+     */
+    @Nullable
+    String load();
+
+    /**
+     * @param serializedEntries the current entries of the cache
+     */
+    void save(@NonNull String serializedEntries);
+}
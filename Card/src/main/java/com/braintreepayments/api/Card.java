@@ -3,15 +3,18 @@ package com.braintreepayments.api;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.annotation.RestrictTo;
 
 import com.braintreepayments.api.GraphQLConstants.Keys;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Use to construct a card tokenization request.
  */
@@ -23,60 +26,79 @@ public class Card extends BaseCard implements Parcelable {
     private static final String AUTHENTICATION_INSIGHT_REQUESTED_KEY = "authenticationInsight";
     private static final String AUTHENTICATION_INSIGHT_INPUT_KEY = "authenticationInsightInput";
 
+    private static final String TOKENIZE_CREDIT_CARD_OPERATION_NAME = "TokenizeCreditCard";
+    private static final GraphQLOperation TOKENIZE_CREDIT_CARD =
+            GraphQLOperationRegistry.register(TOKENIZE_CREDIT_CARD_OPERATION_NAME,
+                    buildTokenizeCreditCardMutation(false));
+    private static final GraphQLOperation TOKENIZE_CREDIT_CARD_WITH_AUTHENTICATION_INSIGHT =
+            GraphQLOperationRegistry.register(TOKENIZE_CREDIT_CARD_OPERATION_NAME,
+                    buildTokenizeCreditCardMutation(true));
+
     private String merchantAccountId;
     private boolean authenticationInsightRequested;
 
     private boolean shouldValidate;
 
     JSONObject buildJSONForGraphQL() throws BraintreeException, JSONException {
-        JSONObject base = new JSONObject();
-        JSONObject input = new JSONObject();
-        JSONObject variables = new JSONObject();
-
-        base.put(GRAPHQL_CLIENT_SDK_METADATA_KEY, buildMetadataJSON());
-
-        JSONObject optionsJson = new JSONObject();
-        optionsJson.put(VALIDATE_KEY, shouldValidate);
-        input.put(OPTIONS_KEY, optionsJson);
-        variables.put(Keys.INPUT, input);
+        return Json.toJSONObject(buildGraphQLPayload());
+    }
 
+    /**
+     * Validates the card for GraphQL tokenization and returns a payload that streams the
+     * tokenization mutation and its variables.
+     */
+    GraphQLPayload buildGraphQLPayload() throws BraintreeException {
         if (TextUtils.isEmpty(merchantAccountId) && authenticationInsightRequested) {
             throw new BraintreeException("A merchant account ID is required when authenticationInsightRequested is true.");
         }
 
-        if (authenticationInsightRequested) {
-            variables.put(AUTHENTICATION_INSIGHT_INPUT_KEY, new JSONObject().put(MERCHANT_ACCOUNT_ID_KEY, merchantAccountId));
-        }
+        return new GraphQLPayload(getTokenizeCreditCardOperation()) {
+            @Override
+            public void writeOperationMembers(@NonNull JsonWriter writer) throws IOException {
+                writer.name(GRAPHQL_CLIENT_SDK_METADATA_KEY).beginObject();
+                Json.writeMembers(writer, buildMetadataJSON());
+                writer.endObject();
+
+                writer.name(Keys.VARIABLES).beginObject();
+                writer.name(Keys.INPUT).beginObject();
+                writer.name(OPTIONS_KEY).beginObject();
+                writer.name(VALIDATE_KEY).value(shouldValidate);
+                writer.endObject();
+                writeGraphQLCreditCard(writer);
+                writer.endObject();
+
+                if (authenticationInsightRequested) {
+                    writer.name(AUTHENTICATION_INSIGHT_INPUT_KEY).beginObject();
+                    writer.name(MERCHANT_ACCOUNT_ID_KEY).value(merchantAccountId);
+                    writer.endObject();
+                }
+                writer.endObject();
+            }
+        };
+    }
 
-        base.put(Keys.QUERY, getCardTokenizationGraphQLMutation());
-        base.put(OPERATION_NAME_KEY, "TokenizeCreditCard");
-
-        JSONObject creditCard = new JSONObject()
-                .put(NUMBER_KEY, getNumber())
-                .put(EXPIRATION_MONTH_KEY, getExpirationMonth())
-                .put(EXPIRATION_YEAR_KEY, getExpirationYear())
-                .put(CVV_KEY, getCvv())
-                .put(CARDHOLDER_NAME_KEY, getCardholderName());
-
-        JSONObject billingAddress = new JSONObject()
-                .put(FIRST_NAME_KEY, getFirstName())
-                .put(LAST_NAME_KEY, getLastName())
-                .put(COMPANY_KEY, getCompany())
-                .put(COUNTRY_CODE_KEY, getCountryCode())
-                .put(LOCALITY_KEY, getLocality())
-                .put(POSTAL_CODE_KEY, getPostalCode())
-                .put(REGION_KEY, getRegion())
-                .put(STREET_ADDRESS_KEY, getStreetAddress())
-                .put(EXTENDED_ADDRESS_KEY, getExtendedAddress());
-
-        if (billingAddress.length() > 0) {
-            creditCard.put(BILLING_ADDRESS_KEY, billingAddress);
+    private void writeGraphQLCreditCard(JsonWriter writer) throws IOException {
+        writer.name(CREDIT_CARD_KEY).beginObject();
+        Json.writeOpt(writer, NUMBER_KEY, getNumber());
+        Json.writeOpt(writer, EXPIRATION_MONTH_KEY, getExpirationMonth());
+        Json.writeOpt(writer, EXPIRATION_YEAR_KEY, getExpirationYear());
+        Json.writeOpt(writer, CVV_KEY, getCvv());
+        Json.writeOpt(writer, CARDHOLDER_NAME_KEY, getCardholderName());
+
+        if (hasBillingAddress()) {
+            writer.name(BILLING_ADDRESS_KEY).beginObject();
+            Json.writeOpt(writer, FIRST_NAME_KEY, getFirstName());
+            Json.writeOpt(writer, LAST_NAME_KEY, getLastName());
+            Json.writeOpt(writer, COMPANY_KEY, getCompany());
+            Json.writeOpt(writer, COUNTRY_CODE_KEY, getCountryCode());
+            Json.writeOpt(writer, LOCALITY_KEY, getLocality());
+            Json.writeOpt(writer, POSTAL_CODE_KEY, getPostalCode());
+            Json.writeOpt(writer, REGION_KEY, getRegion());
+            Json.writeOpt(writer, STREET_ADDRESS_KEY, getStreetAddress());
+            Json.writeOpt(writer, EXTENDED_ADDRESS_KEY, getExtendedAddress());
+            writer.endObject();
         }
-
-        input.put(CREDIT_CARD_KEY, creditCard);
-        base.put(Keys.VARIABLES, variables);
-
-        return base;
+        writer.endObject();
     }
 
     public Card() {
@@ -128,24 +150,19 @@ public class Card extends BaseCard implements Parcelable {
         return shouldValidate;
     }
 
-    /**
-     * @hide
-     */
     @Override
-    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    public JSONObject buildJSON() throws JSONException {
-        JSONObject json = super.buildJSON();
-
-        JSONObject paymentMethodNonceJson = json.getJSONObject(CREDIT_CARD_KEY);
-        JSONObject optionsJson = new JSONObject();
-        optionsJson.put(VALIDATE_KEY, shouldValidate);
-        paymentMethodNonceJson.put(OPTIONS_KEY, optionsJson);
+    void writeCreditCardOptions(JsonWriter writer) throws IOException {
+        writer.name(OPTIONS_KEY).beginObject();
+        writer.name(VALIDATE_KEY).value(shouldValidate);
+        writer.endObject();
+    }
 
+    @Override
+    void writeAdditionalMembers(JsonWriter writer) throws IOException {
         if (authenticationInsightRequested) {
-            json.put(MERCHANT_ACCOUNT_ID_KEY, merchantAccountId);
-            json.put(AUTHENTICATION_INSIGHT_REQUESTED_KEY, authenticationInsightRequested);
+            Json.writeOpt(writer, MERCHANT_ACCOUNT_ID_KEY, merchantAccountId);
+            writer.name(AUTHENTICATION_INSIGHT_REQUESTED_KEY).value(true);
         }
-        return json;
     }
 
     @Override
@@ -175,7 +192,12 @@ public class Card extends BaseCard implements Parcelable {
         }
     };
 
-    private String getCardTokenizationGraphQLMutation() {
+    GraphQLOperation getTokenizeCreditCardOperation() {
+        return authenticationInsightRequested
+                ? TOKENIZE_CREDIT_CARD_WITH_AUTHENTICATION_INSIGHT : TOKENIZE_CREDIT_CARD;
+    }
+
+    private static String buildTokenizeCreditCardMutation(boolean authenticationInsightRequested) {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append("mutation TokenizeCreditCard($input: TokenizeCreditCardInput!");
 
@@ -1,11 +1,14 @@
 package com.braintreepayments.api;
 
+import android.os.CancellationSignal;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Used to tokenize credit or debit cards using a {@link Card}. For more information see the
@@ -13,17 +16,40 @@ import org.json.JSONObject;
  */
 public class CardClient {
 
+    /**
+     * Maximum number of cards {@link #tokenizeAll(List, CardTokenizeAllCallback)} has in flight
+     * at once. On the GraphQL path the cards in flight are sent together as one batch.
+     */
+    static final int MAX_CARDS_IN_FLIGHT = 5;
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
+    private final BinDataCache binDataCache;
 
     public CardClient(@NonNull BraintreeClient braintreeClient) {
-        this(braintreeClient, new ApiClient(braintreeClient));
+        this(braintreeClient, BinDataCache.getInstance());
+    }
+
+    /**
+     * @param braintreeClient {@link BraintreeClient}
+     * @param binDataCache {@link BinDataCache} that stores the {@link BinData} of tokenized cards,
+     * e.g. one created with a {@link BinDataStore} to keep entries across app launches.
+     */
+    public CardClient(@NonNull BraintreeClient braintreeClient, @NonNull BinDataCache binDataCache) {
+        this(braintreeClient, new ApiClient(braintreeClient), binDataCache);
     }
 
     @VisibleForTesting
     CardClient(BraintreeClient braintreeClient, ApiClient apiClient) {
+        this(braintreeClient, apiClient, new BinDataCache(BinDataCache.DEFAULT_MAX_SIZE,
+                BinDataCache.DEFAULT_TIME_TO_LIVE_MS));
+    }
+
+    @VisibleForTesting
+    CardClient(BraintreeClient braintreeClient, ApiClient apiClient, BinDataCache binDataCache) {
         this.braintreeClient = braintreeClient;
         this.apiClient = apiClient;
+        this.binDataCache = binDataCache;
     }
 
     /**
@@ -47,57 +73,284 @@ public class CardClient {
      * @param callback {@link CardTokenizeCallback}
      */
     public void tokenize(@NonNull final Card card, @NonNull final CardTokenizeCallback callback) {
+        tokenize(card, null, callback);
+    }
+
+    /**
+     * Same as {@link #tokenize(Card, CardTokenizeCallback)}, but canceling
+     * {@code cancellationSignal} aborts the tokenization request, after which {@code callback} is
+     * no longer invoked.
+     *
+     * @param card {@link Card}
+     * @param cancellationSignal cancels the tokenization, or {@code null}
+     * @param callback {@link CardTokenizeCallback}
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void tokenize(@NonNull final Card card, @Nullable final CancellationSignal cancellationSignal,
+                         @NonNull final CardTokenizeCallback callback) {
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (cancellationSignal != null && cancellationSignal.isCanceled()) {
+                    return;
+                }
+
                 if (error != null) {
                     callback.onResult(null, error);
                     return;
                 }
 
+                BraintreeException unsupportedCardType = checkCardTypeSupported(card, configuration);
+                if (unsupportedCardType != null) {
+                    callback.onResult(null, unsupportedCardType);
+                    braintreeClient.sendAnalyticsEvent("card.nonce-failed");
+                    return;
+                }
+
                 boolean shouldTokenizeViaGraphQL =
                     configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.TOKENIZE_CREDIT_CARDS);
 
                 if (shouldTokenizeViaGraphQL) {
                     card.setSessionId(braintreeClient.getSessionId());
                     try {
-                        JSONObject tokenizePayload = card.buildJSONForGraphQL();
-                        apiClient.tokenizeGraphQL(tokenizePayload, new TokenizeCallback() {
-                            @Override
-                            public void onResult(JSONObject tokenizationResponse, Exception exception) {
-                                handleTokenizeResponse(tokenizationResponse, exception, callback);
-                            }
-                        });
-                    } catch (BraintreeException | JSONException e) {
+                        JsonPayload tokenizePayload = card.buildGraphQLPayload();
+                        TokenizationTask task = apiClient.tokenizeGraphQL(tokenizePayload,
+                                CardNonce.GRAPHQL_DATA_DECODER,
+                                new HttpResponseStreamCallback<CardNonce>() {
+                                    @Override
+                                    public void onResult(CardNonce cardNonce, Exception exception) {
+                                        handleTokenizeResult(cardNonce, exception, callback);
+                                    }
+                                });
+                        cancelWith(task, cancellationSignal);
+                    } catch (BraintreeException e) {
                         callback.onResult(null, e);
                     }
                 } else {
-                    apiClient.tokenizeREST(card, new TokenizeCallback() {
-                        @Override
-                        public void onResult(JSONObject tokenizationResponse, Exception exception) {
-                            handleTokenizeResponse(tokenizationResponse, exception, callback);
-                        }
-                    });
+                    TokenizationTask task = apiClient.tokenizeREST(card, CardNonce.DECODER,
+                            new HttpResponseStreamCallback<CardNonce>() {
+                                @Override
+                                public void onResult(CardNonce cardNonce, Exception exception) {
+                                    handleTokenizeResult(cardNonce, exception, callback);
+                                }
+                            });
+                    cancelWith(task, cancellationSignal);
                 }
             }
         });
     }
 
-    private void handleTokenizeResponse(JSONObject tokenizationResponse, Exception exception, CardTokenizeCallback callback) {
-        if (tokenizationResponse != null) {
-            try {
-                CardNonce cardNonce = CardNonce.fromJSON(tokenizationResponse);
+    /**
+     * Create a {@link CardNonce} for each {@link Card} in {@code cards}.
+     * <p>
+     * Configuration and authorization are resolved once for all cards, and at most
+     * {@value #MAX_CARDS_IN_FLIGHT} cards are tokenized at the same time. When tokenizing through
+     * GraphQL, the cards in flight share a single batched request where the merchant
+     * configuration allows it.
+     *
+     * <p>
+     * The result of each card is delivered as soon as it is known via
+     * {@link CardTokenizeAllCallback#onCardResult(int, CardNonce, Exception)}. A card that fails
+     * does not affect the others. Once every card has a result,
+     * {@link CardTokenizeAllCallback#onComplete(CardTokenizeAllResult)} is invoked with all of
+     * them.
+     *
+     * @param cards the cards to tokenize
+     * @param callback {@link CardTokenizeAllCallback}
+     */
+    public void tokenizeAll(@NonNull List<Card> cards, @NonNull final CardTokenizeAllCallback callback) {
+        final List<Card> cardsToTokenize = new ArrayList<>(cards);
+        if (cardsToTokenize.isEmpty()) {
+            callback.onComplete(new CardTokenizeAllResult(0));
+            return;
+        }
 
-                callback.onResult(cardNonce, null);
-                braintreeClient.sendAnalyticsEvent("card.nonce-received");
+        braintreeClient.sendAnalyticsEvent("card.tokenize-all.started");
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                BulkTokenization tokenization = new BulkTokenization(cardsToTokenize, callback);
+                if (error != null) {
+                    tokenization.failAll(error);
+                    return;
+                }
+                tokenization.configuration = configuration;
+                tokenization.tokenizeViaGraphQL =
+                    configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.TOKENIZE_CREDIT_CARDS);
+                tokenization.dispatch();
+            }
+        });
+    }
+
+    /**
+     * Look up the {@link BinData} of a card from an issuer that has been tokenized before, without
+     * a network request. Only cards tokenized by a {@link CardClient} sharing the same
+     * {@link BinDataCache} are known.
+     *
+     * @param cardNumber a full or partial card number with at least 6 digits
+     * @return the cached {@link BinData} for the BIN of {@code cardNumber}, or {@code null}
+     */
+    @Nullable
+    public BinData getCachedBinData(@NonNull CharSequence cardNumber) {
+        return binDataCache.get(cardNumber);
+    }
+
+    /**
+     * @return an error if the merchant lists the card types it accepts and the brand detected for
+     * {@code card} is not one of them, so the card can be rejected without a network request.
+     */
+    private static BraintreeException checkCardTypeSupported(Card card, Configuration configuration) {
+        CardType cardType = CardValidator.detectCardType(card.getNumber());
+        if (CardValidator.isCardTypeSupported(cardType, configuration)) {
+            return null;
+        }
+        return new BraintreeException("Card type " + cardType.getGatewayName()
+                + " is not supported by this merchant account.");
+    }
 
-            } catch (JSONException e) {
-                callback.onResult(null, e);
-                braintreeClient.sendAnalyticsEvent("card.nonce-failed");
+    /**
+     * Cancels {@code task} together with {@code cancellationSignal}, right away if the signal was
+     * canceled while the request was being built.
+     */
+    private static void cancelWith(@Nullable final TokenizationTask task,
+                                   @Nullable CancellationSignal cancellationSignal) {
+        if (task == null || cancellationSignal == null) {
+            return;
+        }
+        cancellationSignal.setOnCancelListener(new CancellationSignal.OnCancelListener() {
+            @Override
+            public void onCancel() {
+                task.cancel();
             }
+        });
+    }
+
+    private void handleTokenizeResult(CardNonce cardNonce, Exception exception, CardTokenizeCallback callback) {
+        if (cardNonce != null) {
+            binDataCache.put(cardNonce);
+
+            callback.onResult(cardNonce, null);
+            braintreeClient.sendAnalyticsEvent("card.nonce-received");
         } else {
             callback.onResult(null, exception);
             braintreeClient.sendAnalyticsEvent("card.nonce-failed");
         }
     }
+
+    /**
+     * Tracks a single {@link #tokenizeAll(List, CardTokenizeAllCallback)} call. Results arrive on
+     * the main thread; a card may also report synchronously while the next cards are dispatched.
+     */
+    private class BulkTokenization {
+
+        private final List<Card> cards;
+        private final CardTokenizeAllCallback callback;
+        private final CardTokenizeAllResult result;
+
+        private Configuration configuration;
+        private boolean tokenizeViaGraphQL;
+        private int nextIndex;
+        private int inFlight;
+        private int completed;
+
+        BulkTokenization(List<Card> cards, CardTokenizeAllCallback callback) {
+            this.cards = cards;
+            this.callback = callback;
+            this.result = new CardTokenizeAllResult(cards.size());
+        }
+
+        void failAll(Exception error) {
+            while (nextIndex < cards.size()) {
+                recordResult(nextIndex++, null, error);
+            }
+        }
+
+        void dispatch() {
+            while (inFlight < MAX_CARDS_IN_FLIGHT && nextIndex < cards.size()) {
+                if (tokenizeViaGraphQL) {
+                    dispatchGraphQLBatch();
+                } else {
+                    int index = nextIndex++;
+                    BraintreeException unsupportedCardType =
+                        checkCardTypeSupported(cards.get(index), configuration);
+                    if (unsupportedCardType != null) {
+                        recordResult(index, null, unsupportedCardType);
+                    } else {
+                        dispatchREST(index);
+                    }
+                }
+            }
+        }
+
+        private void dispatchREST(final int index) {
+            inFlight++;
+            apiClient.tokenizeREST(cards.get(index), false, CardNonce.DECODER,
+                    new HttpResponseStreamCallback<CardNonce>() {
+                        @Override
+                        public void onResult(CardNonce cardNonce, Exception exception) {
+                            onTokenizeResult(index, cardNonce, exception);
+                        }
+                    });
+        }
+
+        private void dispatchGraphQLBatch() {
+            List<JsonPayload> payloads = new ArrayList<>();
+            List<HttpResponseStreamCallback<CardNonce>> callbacks = new ArrayList<>();
+            while (inFlight + payloads.size() < MAX_CARDS_IN_FLIGHT && nextIndex < cards.size()) {
+                final int index = nextIndex++;
+                Card card = cards.get(index);
+                BraintreeException unsupportedCardType = checkCardTypeSupported(card, configuration);
+                if (unsupportedCardType != null) {
+                    recordResult(index, null, unsupportedCardType);
+                    continue;
+                }
+                card.setSessionId(braintreeClient.getSessionId());
+                try {
+                    payloads.add(card.buildGraphQLPayload());
+                } catch (BraintreeException e) {
+                    recordResult(index, null, e);
+                    continue;
+                }
+                callbacks.add(new HttpResponseStreamCallback<CardNonce>() {
+                    @Override
+                    public void onResult(CardNonce cardNonce, Exception exception) {
+                        onTokenizeResult(index, cardNonce, exception);
+                    }
+                });
+            }
+
+            if (!payloads.isEmpty()) {
+                inFlight += payloads.size();
+                apiClient.tokenizeGraphQL(payloads, CardNonce.GRAPHQL_DATA_DECODER, callbacks);
+            }
+        }
+
+        private void onTokenizeResult(int index, CardNonce cardNonce, Exception exception) {
+            inFlight--;
+            if (cardNonce != null) {
+                binDataCache.put(cardNonce);
+            }
+            recordResult(index, cardNonce, exception);
+            dispatch();
+        }
+
+        private void recordResult(int index, CardNonce cardNonce, Exception error) {
+            result.setResult(index, cardNonce, error);
+            completed++;
+            callback.onCardResult(index, cardNonce, error);
+
+            if (completed == cards.size()) {
+                int failures = result.getFailureCount();
+                if (failures == 0) {
+                    braintreeClient.sendAnalyticsEvent("card.tokenize-all.succeeded");
+                } else if (failures == cards.size()) {
+                    braintreeClient.sendAnalyticsEvent("card.tokenize-all.failed");
+                } else {
+                    braintreeClient.sendAnalyticsEvent("card.tokenize-all.partially-failed");
+                }
+                callback.onComplete(result);
+            }
+        }
+    }
 }
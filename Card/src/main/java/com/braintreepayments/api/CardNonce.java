@@ -1,6 +1,8 @@
 package com.braintreepayments.api;
 
 import android.os.Parcel;
+import android.util.JsonReader;
+import android.util.JsonToken;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -8,6 +10,8 @@ import androidx.annotation.Nullable;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 import static com.braintreepayments.api.BinData.BIN_DATA_KEY;
 
 /**
@@ -38,6 +42,27 @@ public class CardNonce extends PaymentMethodNonce {
     private static final String EXPIRATION_YEAR_KEY = "expirationYear";
     private static final String CARDHOLDER_NAME_KEY = "cardholderName";
 
+    /**
+     * Decodes a whole tokenization response, see {@link #fromJSON(JsonReader)}.
+     */
+    static final JsonDecoder<CardNonce> DECODER = new JsonDecoder<CardNonce>() {
+        @Override
+        public CardNonce decode(JsonReader reader) throws IOException, JSONException {
+            return fromJSON(reader);
+        }
+    };
+
+    /**
+     * Decodes the {@code data} member of a GraphQL tokenization response, see
+     * {@link #fromGraphQLData(JsonReader)}.
+     */
+    static final JsonDecoder<CardNonce> GRAPHQL_DATA_DECODER = new JsonDecoder<CardNonce>() {
+        @Override
+        public CardNonce decode(JsonReader reader) throws IOException, JSONException {
+            return fromGraphQLData(reader);
+        }
+    };
+
     private final String cardType;
     private final String lastTwo;
     private final String lastFour;
@@ -145,6 +170,360 @@ public class CardNonce extends PaymentMethodNonce {
         }
     }
 
+    /**
+     * Parse card nonce from a JSON string in a single pass, without building a {@link JSONObject}
+     * tree. Accepts the same GraphQL, RESTful and plain payloads as {@link #fromJSON(JSONObject)}.
+     * @param jsonString JSON response
+     * @return {@link CardNonce}
+     * @throws JSONException if nonce could not be parsed successfully
+     */
+    @NonNull
+    static CardNonce fromJSON(String jsonString) throws JSONException {
+        return Json.decode(jsonString, DECODER);
+    }
+
+    /**
+     * Parse card nonce from a reader positioned at a JSON object. A GraphQL {@code data} member
+     * takes precedence over a RESTful {@code creditCards} member, which takes precedence over the
+     * plain members of the object, regardless of the order they appear in.
+     * @param reader JSON reader
+     * @return {@link CardNonce}
+     * @throws JSONException if nonce could not be parsed successfully
+     */
+    @NonNull
+    static CardNonce fromJSON(JsonReader reader) throws IOException, JSONException {
+        boolean hasGraphQLData = false;
+        CardNonce graphQLNonce = null;
+        boolean hasRESTResource = false;
+        CardNonce restNonce = null;
+        JSONException restError = null;
+        PlainFields plainFields = new PlainFields();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (DATA_KEY.equals(name)) {
+                hasGraphQLData = true;
+                graphQLNonce = readGraphQLData(reader);
+            } else if (API_RESOURCE_KEY.equals(name)) {
+                hasRESTResource = true;
+                try {
+                    restNonce = readRESTResource(reader);
+                    restError = null;
+                } catch (JSONException e) {
+                    restNonce = null;
+                    restError = e;
+                }
+            } else {
+                plainFields.read(name, reader);
+            }
+        }
+        reader.endObject();
+
+        if (hasGraphQLData) {
+            return graphQLNonce;
+        } else if (hasRESTResource) {
+            if (restError != null) {
+                throw restError;
+            }
+            return restNonce;
+        } else {
+            return plainFields.toCardNonce();
+        }
+    }
+
+    /**
+     * Parse card nonce from a reader positioned at the {@code data} member of a GraphQL
+     * tokenization response, e.g. one handed over by a GraphQL response stream.
+     * @param reader JSON reader
+     * @return {@link CardNonce}
+     * @throws JSONException if nonce could not be parsed successfully
+     */
+    @NonNull
+    static CardNonce fromGraphQLData(JsonReader reader) throws IOException, JSONException {
+        return readGraphQLData(reader);
+    }
+
+    private static CardNonce readRESTResource(JsonReader reader) throws IOException, JSONException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            throw new JSONException("Value at " + API_RESOURCE_KEY + " is not a JSONArray");
+        }
+
+        CardNonce nonce = null;
+        JSONException error = null;
+        reader.beginArray();
+        if (!reader.hasNext()) {
+            error = new JSONException("Index 0 out of range [0..0)");
+        } else if (Json.peekObject(reader)) {
+            PlainFields plainFields = new PlainFields();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                plainFields.read(reader.nextName(), reader);
+            }
+            reader.endObject();
+            try {
+                nonce = plainFields.toCardNonce();
+            } catch (JSONException e) {
+                error = e;
+            }
+        } else {
+            error = new JSONException("Value at 0 is not a JSONObject");
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+
+        if (error != null) {
+            throw error;
+        }
+        return nonce;
+    }
+
+    private static CardNonce readGraphQLData(JsonReader reader) throws IOException, JSONException {
+        // peekObject skips a value that is not an object, so the value is consumed either way
+        if (!Json.peekObject(reader)) {
+            throw new JSONException("Value at " + DATA_KEY + " is not a JSONObject");
+        }
+
+        boolean hasPayload = false;
+        CardNonce nonce = null;
+        JSONException error = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (GRAPHQL_TOKENIZE_CREDIT_CARD_KEY.equals(reader.nextName())) {
+                hasPayload = true;
+                try {
+                    nonce = readGraphQLPayload(reader);
+                } catch (JSONException e) {
+                    // finish reading the data object so the error leaves the reader after it
+                    error = e;
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (error != null) {
+            throw error;
+        }
+        if (!hasPayload) {
+            throw new JSONException("Failed to parse GraphQL response JSON");
+        }
+        return nonce;
+    }
+
+    /**
+     * Reads the whole {@code tokenizeCreditCard} value before throwing, like every
+     * {@link JsonDecoder}.
+     */
+    private static CardNonce readGraphQLPayload(JsonReader reader) throws IOException, JSONException {
+        if (!Json.peekObject(reader)) {
+            throw new JSONException("Value at " + GRAPHQL_TOKENIZE_CREDIT_CARD_KEY + " is not a JSONObject");
+        }
+
+        String nonce = null;
+        boolean hasCreditCard = false;
+        String lastFour = "";
+        String cardType = "Unknown";
+        String bin = "";
+        BinData binData = BinData.fromJson((JSONObject) null);
+        String expirationMonth = "";
+        String expirationYear = "";
+        String cardholderName = "";
+        AuthenticationInsight authenticationInsight = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case TOKEN_KEY:
+                    nonce = Json.nextString(reader);
+                    break;
+                case GRAPHQL_CREDIT_CARD_KEY:
+                    hasCreditCard = Json.peekObject(reader);
+                    if (!hasCreditCard) {
+                        break;
+                    }
+                    lastFour = "";
+                    cardType = "Unknown";
+                    bin = "";
+                    binData = BinData.fromJson((JSONObject) null);
+                    expirationMonth = "";
+                    expirationYear = "";
+                    cardholderName = "";
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case GRAPHQL_LAST_FOUR_KEY:
+                                lastFour = optString(reader, "");
+                                break;
+                            case GRAPHQL_BRAND_KEY:
+                                cardType = optString(reader, "Unknown");
+                                break;
+                            case BIN_KEY:
+                                bin = optString(reader, "");
+                                break;
+                            case BIN_DATA_KEY:
+                                binData = Json.peekObject(reader)
+                                        ? BinData.fromJson(reader) : BinData.fromJson((JSONObject) null);
+                                break;
+                            case EXPIRATION_MONTH_KEY:
+                                expirationMonth = optString(reader, "");
+                                break;
+                            case EXPIRATION_YEAR_KEY:
+                                expirationYear = optString(reader, "");
+                                break;
+                            case CARDHOLDER_NAME_KEY:
+                                cardholderName = optString(reader, "");
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case AUTHENTICATION_INSIGHT_KEY:
+                    authenticationInsight = Json.peekObject(reader)
+                            ? AuthenticationInsight.fromJson(reader) : null;
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!hasCreditCard) {
+            throw new JSONException("No value for " + GRAPHQL_CREDIT_CARD_KEY);
+        }
+        if (nonce == null) {
+            throw new JSONException("No value for " + TOKEN_KEY);
+        }
+
+        String lastTwo = lastFour.length() < 4 ? "" : lastFour.substring(2);
+        ThreeDSecureInfo threeDSecureInfo = ThreeDSecureInfo.fromJson((JSONObject) null);
+        return new CardNonce(cardType, lastTwo, lastFour, threeDSecureInfo, bin, binData, authenticationInsight, expirationMonth, expirationYear, cardholderName, nonce, false);
+    }
+
+    private static String optString(JsonReader reader, String fallback) throws IOException {
+        String value = Json.nextOptString(reader);
+        return (value != null) ? value : fallback;
+    }
+
+    /**
+     * Members of a plain card nonce object, collected while streaming so that they can be
+     * validated once the enclosing object has been read.
+     */
+    private static class PlainFields {
+
+        private String nonce;
+        private boolean isDefault;
+        private boolean hasDetails;
+        private String lastTwo;
+        private String lastFour;
+        private String cardType;
+        private String bin = "";
+        private String expirationMonth = "";
+        private String expirationYear = "";
+        private String cardholderName = "";
+        private ThreeDSecureInfo threeDSecureInfo = ThreeDSecureInfo.fromJson((JSONObject) null);
+        private BinData binData = BinData.fromJson((JSONObject) null);
+        private AuthenticationInsight authenticationInsight;
+
+        void read(String name, JsonReader reader) throws IOException {
+            switch (name) {
+                case PAYMENT_METHOD_NONCE_KEY:
+                    nonce = Json.nextString(reader);
+                    break;
+                case PAYMENT_METHOD_DEFAULT_KEY:
+                    isDefault = Json.nextOptBoolean(reader, false);
+                    break;
+                case CARD_DETAILS_KEY:
+                    readDetails(reader);
+                    break;
+                case THREE_D_SECURE_INFO_KEY:
+                    threeDSecureInfo = Json.peekObject(reader)
+                            ? ThreeDSecureInfo.fromJson(reader) : ThreeDSecureInfo.fromJson((JSONObject) null);
+                    break;
+                case BIN_DATA_KEY:
+                    binData = Json.peekObject(reader)
+                            ? BinData.fromJson(reader) : BinData.fromJson((JSONObject) null);
+                    break;
+                case AUTHENTICATION_INSIGHT_KEY:
+                    authenticationInsight = Json.peekObject(reader)
+                            ? AuthenticationInsight.fromJson(reader) : null;
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        private void readDetails(JsonReader reader) throws IOException {
+            hasDetails = Json.peekObject(reader);
+            lastTwo = null;
+            lastFour = null;
+            cardType = null;
+            bin = "";
+            expirationMonth = "";
+            expirationYear = "";
+            cardholderName = "";
+            if (!hasDetails) {
+                return;
+            }
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case LAST_TWO_KEY:
+                        lastTwo = Json.nextString(reader);
+                        break;
+                    case LAST_FOUR_KEY:
+                        lastFour = Json.nextString(reader);
+                        break;
+                    case CARD_TYPE_KEY:
+                        cardType = Json.nextString(reader);
+                        break;
+                    case BIN_KEY:
+                        bin = optString(reader, "");
+                        break;
+                    case EXPIRATION_MONTH_KEY:
+                        expirationMonth = optString(reader, "");
+                        break;
+                    case EXPIRATION_YEAR_KEY:
+                        expirationYear = optString(reader, "");
+                        break;
+                    case CARDHOLDER_NAME_KEY:
+                        cardholderName = optString(reader, "");
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        CardNonce toCardNonce() throws JSONException {
+            if (nonce == null) {
+                throw new JSONException("No value for " + PAYMENT_METHOD_NONCE_KEY);
+            }
+            if (!hasDetails) {
+                throw new JSONException("No value for " + CARD_DETAILS_KEY);
+            }
+            if (lastTwo == null) {
+                throw new JSONException("No value for " + LAST_TWO_KEY);
+            }
+            if (lastFour == null) {
+                throw new JSONException("No value for " + LAST_FOUR_KEY);
+            }
+            if (cardType == null) {
+                throw new JSONException("No value for " + CARD_TYPE_KEY);
+            }
+            return new CardNonce(cardType, lastTwo, lastFour, threeDSecureInfo, bin, binData, authenticationInsight, expirationMonth, expirationYear, cardholderName, nonce, isDefault);
+        }
+    }
+
     private CardNonce(String cardType, String lastTwo, String lastFour, ThreeDSecureInfo threeDSecureInfo, String bin, BinData binData, AuthenticationInsight authenticationInsight, String expirationMonth, String expirationYear, String cardholderName, String nonce, boolean isDefault) {
         super(nonce, isDefault);
         this.cardType = cardType;
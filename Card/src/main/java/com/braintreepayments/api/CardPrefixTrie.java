@@ -0,0 +1,93 @@
+package com.braintreepayments.api;
+
+import java.util.Arrays;
+
+/**
+ * Digit trie mapping issuer identification number (IIN) prefixes to a {@link CardType}. Nodes
+ * are stored in flat arrays; the trie is built once and lookups do not allocate.
+ */
+class CardPrefixTrie {
+
+    private static final int RADIX = 10;
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    // children[node * RADIX + digit] is the index of the child node, or 0 for none
+    private int[] children = new int[RADIX * 64];
+    // cardTypes[node] is the ordinal of the card type + 1, or 0 when no prefix ends at the node
+    private byte[] cardTypes = new byte[64];
+    private int nodeCount = 1;
+
+    /**
+     * Adds every prefix of {@code digits} digits from {@code low} to {@code high} inclusive,
+     * collapsing runs that cover a whole decade into their shorter prefix.
+     */
+    void addRange(int low, int high, int digits, CardType cardType) {
+        int prefix = low;
+        while (prefix <= high) {
+            int span = 1;
+            int length = digits;
+            while (prefix % (span * RADIX) == 0 && prefix + span * RADIX - 1 <= high && length > 1) {
+                span *= RADIX;
+                length--;
+            }
+            add(prefix / span, length, cardType);
+            prefix += span;
+        }
+    }
+
+    void add(int prefix, int digits, CardType cardType) {
+        int node = 0;
+        for (int divisor = pow10(digits - 1); divisor > 0; divisor /= RADIX) {
+            int digit = (prefix / divisor) % RADIX;
+            int slot = node * RADIX + digit;
+            if (children[slot] == 0) {
+                children[slot] = newNode();
+            }
+            node = children[slot];
+        }
+        cardTypes[node] = (byte) (cardType.ordinal() + 1);
+    }
+
+    /**
+     * @return the card type of the longest prefix of {@code number} in the trie, or
+     * {@link CardType#UNKNOWN}. Spaces and dashes are ignored; any other non digit character
+     * makes the number unknown.
+     */
+    CardType lookup(CharSequence number) {
+        int node = 0;
+        int match = 0;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c == ' ' || c == '-') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return CardType.UNKNOWN;
+            }
+            node = children[node * RADIX + (c - '0')];
+            if (node == 0) {
+                break;
+            }
+            if (cardTypes[node] != 0) {
+                match = cardTypes[node];
+            }
+        }
+        return match == 0 ? CardType.UNKNOWN : CARD_TYPES[match - 1];
+    }
+
+    private int newNode() {
+        if (nodeCount == cardTypes.length) {
+            cardTypes = Arrays.copyOf(cardTypes, nodeCount * 2);
+            children = Arrays.copyOf(children, nodeCount * 2 * RADIX);
+        }
+        return nodeCount++;
+    }
+
+    private static int pow10(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= RADIX;
+        }
+        return result;
+    }
+}
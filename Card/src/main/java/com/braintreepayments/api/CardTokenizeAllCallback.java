@@ -0,0 +1,28 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Callback for receiving results of
+ * {@link CardClient#tokenizeAll(java.util.List, CardTokenizeAllCallback)}.
+ */
+public interface CardTokenizeAllCallback {
+
+    /**
+     * Called as soon as the card at {@code index} has been tokenized or has failed.
+     *
+     * @param index position of the card in the list passed to
+     *              {@link CardClient#tokenizeAll(java.util.List, CardTokenizeAllCallback)}
+     * @param cardNonce {@link CardNonce}
+     * @param error an exception that occurred while tokenizing the card
+     */
+    void onCardResult(int index, @Nullable CardNonce cardNonce, @Nullable Exception error);
+
+    /**
+     * Called once after every card has reported its result.
+     *
+     * @param result {@link CardTokenizeAllResult} holding the result of every card
+     */
+    void onComplete(@NonNull CardTokenizeAllResult result);
+}
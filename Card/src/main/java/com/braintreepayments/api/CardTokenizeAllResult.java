@@ -0,0 +1,87 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of {@link CardClient#tokenizeAll(List, CardTokenizeAllCallback)}. Results are indexed
+ * by the position of the card in the list that was tokenized; each card has either a
+ * {@link CardNonce} or an error.
+ */
+public class CardTokenizeAllResult {
+
+    private final CardNonce[] cardNonces;
+    private final Exception[] errors;
+
+    CardTokenizeAllResult(int size) {
+        cardNonces = new CardNonce[size];
+        errors = new Exception[size];
+    }
+
+    void setResult(int index, @Nullable CardNonce cardNonce, @Nullable Exception error) {
+        cardNonces[index] = cardNonce;
+        errors[index] = error;
+    }
+
+    /**
+     * @return the number of cards that were tokenized.
+     */
+    public int size() {
+        return cardNonces.length;
+    }
+
+    /**
+     * @param index position of the card in the list that was tokenized
+     * @return the {@link CardNonce} for the card, or {@code null} if the card failed.
+     */
+    @Nullable
+    public CardNonce getCardNonce(int index) {
+        return cardNonces[index];
+    }
+
+    /**
+     * @param index position of the card in the list that was tokenized
+     * @return the error for the card, or {@code null} if the card was tokenized.
+     */
+    @Nullable
+    public Exception getError(int index) {
+        return errors[index];
+    }
+
+    /**
+     * @return the nonces of all cards that were tokenized, in the order of the cards.
+     */
+    @NonNull
+    public List<CardNonce> getCardNonces() {
+        List<CardNonce> result = new ArrayList<>(cardNonces.length);
+        for (CardNonce cardNonce : cardNonces) {
+            if (cardNonce != null) {
+                result.add(cardNonce);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of cards that failed to tokenize.
+     */
+    public int getFailureCount() {
+        int failures = 0;
+        for (CardNonce cardNonce : cardNonces) {
+            if (cardNonce == null) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * @return {@code true} if at least one card failed to tokenize.
+     */
+    public boolean hasFailures() {
+        return getFailureCount() > 0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Card brands recognized by {@link CardValidator}, with the number lengths and CVV length of
+ * each brand.
+ */
+public enum CardType {
+
+    VISA("Visa", 3, 13, 16, 19),
+    MASTERCARD("MasterCard", 3, 16),
+    AMEX("American Express", 4, 15),
+    DISCOVER("Discover", 3, 16, 17, 18, 19),
+    DINERS_CLUB("Diners Club", 3, 14, 15, 16, 17, 18, 19),
+    JCB("JCB", 3, 16, 17, 18, 19),
+    MAESTRO("Maestro", 3, 12, 13, 14, 15, 16, 17, 18, 19),
+    UNIONPAY("UnionPay", 3, 16, 17, 18, 19),
+    UNKNOWN("Unknown", 0, 12, 13, 14, 15, 16, 17, 18, 19);
+
+    private final String gatewayName;
+    private final int cvvLength;
+    private final int numberLengths;
+
+    CardType(String gatewayName, int cvvLength, int... numberLengths) {
+        this.gatewayName = gatewayName;
+        this.cvvLength = cvvLength;
+
+        int lengths = 0;
+        for (int length : numberLengths) {
+            lengths |= 1 << length;
+        }
+        this.numberLengths = lengths;
+    }
+
+    /**
+     * @return the name of the brand as used in {@link Configuration#getSupportedCardTypes()}.
+     */
+    @NonNull
+    public String getGatewayName() {
+        return gatewayName;
+    }
+
+    /**
+     * @return the number of digits in the security code of this brand, or 0 if the brand is
+     * {@link #UNKNOWN}, in which case both 3 and 4 digit codes are accepted.
+     */
+    public int getCvvLength() {
+        return cvvLength;
+    }
+
+    /**
+     * @param length number of digits in a card number
+     * @return {@code true} if card numbers of this brand may have {@code length} digits.
+     */
+    public boolean isValidNumberLength(int length) {
+        return length > 0 && length < Integer.SIZE && (numberLengths & (1 << length)) != 0;
+    }
+
+    /**
+     * Compares {@code name} with the gateway name of this brand, ignoring case and any
+     * characters other than letters, so that "American Express" matches "americanexpress".
+     */
+    boolean matchesGatewayName(@Nullable String name) {
+        if (name == null) {
+            return false;
+        }
+        int i = 0;
+        int j = 0;
+        while (true) {
+            while (i < name.length() && !Character.isLetter(name.charAt(i))) {
+                i++;
+            }
+            while (j < gatewayName.length() && !Character.isLetter(gatewayName.charAt(j))) {
+                j++;
+            }
+            if (i == name.length() || j == gatewayName.length()) {
+                return i == name.length() && j == gatewayName.length();
+            }
+            if (Character.toLowerCase(name.charAt(i)) != Character.toLowerCase(gatewayName.charAt(j))) {
+                return false;
+            }
+            i++;
+            j++;
+        }
+    }
+}
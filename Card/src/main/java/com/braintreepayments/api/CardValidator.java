@@ -0,0 +1,264 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * On device validation of card input. Detects the {@link CardType} of a card number and checks
+ * numbers, security codes and expiration dates so that input which the gateway would reject can
+ * be flagged while the user types, without a network round trip.
+ * <p>
+ * All checks work on {@link CharSequence}s and do not allocate, so they are cheap enough to run
+ * on every keystroke. Spaces and dashes in card numbers are ignored.
+ */
+public final class CardValidator {
+
+    private static final int MAX_YEARS_IN_FUTURE = 20;
+    private static final long CLOCK_REFRESH_INTERVAL_MS = 60 * 1000;
+
+    private static final CardPrefixTrie PREFIXES = new CardPrefixTrie();
+
+    static {
+        PREFIXES.add(4, 1, CardType.VISA);
+
+        PREFIXES.addRange(51, 55, 2, CardType.MASTERCARD);
+        PREFIXES.addRange(2221, 2720, 4, CardType.MASTERCARD);
+
+        PREFIXES.add(34, 2, CardType.AMEX);
+        PREFIXES.add(37, 2, CardType.AMEX);
+
+        PREFIXES.add(6011, 4, CardType.DISCOVER);
+        PREFIXES.addRange(644, 649, 3, CardType.DISCOVER);
+        PREFIXES.add(65, 2, CardType.DISCOVER);
+
+        PREFIXES.addRange(300, 305, 3, CardType.DINERS_CLUB);
+        PREFIXES.add(309, 3, CardType.DINERS_CLUB);
+        PREFIXES.add(36, 2, CardType.DINERS_CLUB);
+        PREFIXES.addRange(38, 39, 2, CardType.DINERS_CLUB);
+
+        PREFIXES.addRange(3528, 3589, 4, CardType.JCB);
+
+        PREFIXES.add(5018, 4, CardType.MAESTRO);
+        PREFIXES.add(5020, 4, CardType.MAESTRO);
+        PREFIXES.add(5038, 4, CardType.MAESTRO);
+        PREFIXES.addRange(56, 59, 2, CardType.MAESTRO);
+        PREFIXES.add(6020, 4, CardType.MAESTRO);
+        PREFIXES.add(6304, 4, CardType.MAESTRO);
+        PREFIXES.add(6703, 4, CardType.MAESTRO);
+        PREFIXES.add(6759, 4, CardType.MAESTRO);
+        PREFIXES.addRange(6761, 6763, 4, CardType.MAESTRO);
+
+        PREFIXES.add(62, 2, CardType.UNIONPAY);
+    }
+
+    // current year * 12 + zero based month, refreshed at most once per CLOCK_REFRESH_INTERVAL_MS
+    private static volatile int currentYearMonth;
+    private static volatile long clockRefreshAt;
+
+    private CardValidator() {
+    }
+
+    /**
+     * @param number a full or partial card number
+     * @return the {@link CardType} of the longest known prefix of {@code number}, or
+     * {@link CardType#UNKNOWN}.
+     */
+    @NonNull
+    public static CardType detectCardType(@Nullable CharSequence number) {
+        if (number == null) {
+            return CardType.UNKNOWN;
+        }
+        return PREFIXES.lookup(number);
+    }
+
+    /**
+     * @param number a card number
+     * @return {@code true} if {@code number} has at least two digits, no characters other than
+     * digits, spaces and dashes, and passes the Luhn checksum.
+     */
+    public static boolean isLuhnValid(@Nullable CharSequence number) {
+        if (number == null) {
+            return false;
+        }
+        int sum = 0;
+        int digits = 0;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            char c = number.charAt(i);
+            if (c == ' ' || c == '-') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            int digit = c - '0';
+            if ((digits & 1) == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            digits++;
+        }
+        return digits > 1 && sum % 10 == 0;
+    }
+
+    /**
+     * @param number a card number
+     * @return {@code true} if {@code number} belongs to a known brand, has a length that is valid
+     * for that brand and passes the Luhn checksum.
+     */
+    public static boolean isNumberValid(@Nullable CharSequence number) {
+        CardType cardType = detectCardType(number);
+        return cardType != CardType.UNKNOWN
+                && cardType.isValidNumberLength(countDigits(number))
+                && isLuhnValid(number);
+    }
+
+    /**
+     * @param cvv a card security code
+     * @param cardType the {@link CardType} of the card
+     * @return {@code true} if {@code cvv} consists of as many digits as {@code cardType} expects,
+     * or of 3 or 4 digits when the card type is {@link CardType#UNKNOWN}.
+     */
+    public static boolean isCvvValid(@Nullable CharSequence cvv, @NonNull CardType cardType) {
+        if (cvv == null) {
+            return false;
+        }
+        int length = cvv.length();
+        for (int i = 0; i < length; i++) {
+            char c = cvv.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        int expected = cardType.getCvvLength();
+        return (expected == 0) ? (length == 3 || length == 4) : length == expected;
+    }
+
+    /**
+     * @param expirationDate an expiration date formatted as MM/YY or MM/YYYY
+     * @return {@code true} if the date is well formed, not in the past and no more than 20 years
+     * in the future.
+     */
+    public static boolean isExpirationDateValid(@Nullable CharSequence expirationDate) {
+        if (expirationDate == null) {
+            return false;
+        }
+        int separator = -1;
+        for (int i = 0; i < expirationDate.length(); i++) {
+            if (expirationDate.charAt(i) == '/') {
+                separator = i;
+                break;
+            }
+        }
+        if (separator < 0) {
+            return false;
+        }
+        int month = parseDigits(expirationDate, 0, separator);
+        int yearDigits = expirationDate.length() - separator - 1;
+        int year = parseDigits(expirationDate, separator + 1, expirationDate.length());
+        return isExpirationDateValid(month, separator, year, yearDigits, currentYearMonth());
+    }
+
+    /**
+     * @param month an expiration month, 1 or 2 digits
+     * @param year an expiration year, 2 or 4 digits
+     * @return {@code true} if the date is well formed, not in the past and no more than 20 years
+     * in the future.
+     */
+    public static boolean isExpirationDateValid(@Nullable CharSequence month, @Nullable CharSequence year) {
+        if (month == null || year == null) {
+            return false;
+        }
+        return isExpirationDateValid(
+                parseDigits(month, 0, month.length()), month.length(),
+                parseDigits(year, 0, year.length()), year.length(),
+                currentYearMonth());
+    }
+
+    /**
+     * @param cardType the {@link CardType} of a card
+     * @param configuration the merchant {@link Configuration}
+     * @return {@code false} if the merchant lists the card types it supports and
+     * {@code cardType} is not one of them. Unknown card types are left to the gateway to decide.
+     */
+    public static boolean isCardTypeSupported(@NonNull CardType cardType, @NonNull Configuration configuration) {
+        List<String> supportedCardTypes = configuration.getSupportedCardTypes();
+        if (cardType == CardType.UNKNOWN || supportedCardTypes.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < supportedCardTypes.size(); i++) {
+            if (cardType.matchesGatewayName(supportedCardTypes.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @VisibleForTesting
+    static boolean isExpirationDateValid(int month, int monthDigits, int year, int yearDigits,
+                                         int currentYearMonth) {
+        if (month < 1 || month > 12 || monthDigits < 1 || monthDigits > 2) {
+            return false;
+        }
+        int currentYear = currentYearMonth / 12;
+        if (yearDigits == 2) {
+            year += (currentYear / 100) * 100;
+            if (year < currentYear - 1) {
+                // a two digit year just after the turn of the century
+                year += 100;
+            }
+        } else if (yearDigits != 4) {
+            return false;
+        }
+
+        int expirationYearMonth = year * 12 + (month - 1);
+        return expirationYearMonth >= currentYearMonth
+                && year <= currentYear + MAX_YEARS_IN_FUTURE;
+    }
+
+    private static int currentYearMonth() {
+        long now = System.currentTimeMillis();
+        if (now >= clockRefreshAt) {
+            Calendar calendar = Calendar.getInstance();
+            currentYearMonth = calendar.get(Calendar.YEAR) * 12 + calendar.get(Calendar.MONTH);
+            clockRefreshAt = now + CLOCK_REFRESH_INTERVAL_MS;
+        }
+        return currentYearMonth;
+    }
+
+    private static int countDigits(CharSequence number) {
+        int digits = 0;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * @return the value of the digits in {@code [start, end)}, or -1 if the range is empty, too
+     * long or contains a non digit character.
+     */
+    private static int parseDigits(CharSequence value, int start, int end) {
+        if (start >= end || end - start > 4) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
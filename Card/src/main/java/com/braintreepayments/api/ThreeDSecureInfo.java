@@ -2,11 +2,14 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
 
 import androidx.annotation.Nullable;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * A class to contain 3D Secure information about the current
  * {@link CardNonce}
@@ -86,6 +89,111 @@ public class ThreeDSecureInfo implements Parcelable {
         return threeDSecureInfo;
     }
 
+    /**
+     * Decodes {@link ThreeDSecureInfo} from a reader positioned at a JSON object, with the same
+     * defaults as {@link #fromJson(JSONObject)}.
+     */
+    static ThreeDSecureInfo fromJson(JsonReader reader) throws IOException {
+        ThreeDSecureInfo threeDSecureInfo = fromJson((JSONObject) null);
+        boolean hasLiabilityShifted = false;
+        boolean hasLiabilityShiftPossible = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case CAVV_KEY:
+                    threeDSecureInfo.cavv = nextString(reader);
+                    break;
+                case DS_TRANSACTION_ID_KEY:
+                    threeDSecureInfo.dsTransactionId = nextString(reader);
+                    break;
+                case ECI_FLAG_KEY:
+                    threeDSecureInfo.eciFlag = nextString(reader);
+                    break;
+                case ENROLLED_KEY:
+                    threeDSecureInfo.enrolled = nextString(reader);
+                    break;
+                case LIABILITY_SHIFTED_KEY:
+                    hasLiabilityShifted = true;
+                    threeDSecureInfo.liabilityShifted = Json.nextOptBoolean(reader, false);
+                    break;
+                case LIABILITY_SHIFT_POSSIBLE_KEY:
+                    hasLiabilityShiftPossible = true;
+                    threeDSecureInfo.liabilityShiftPossible = Json.nextOptBoolean(reader, false);
+                    break;
+                case STATUS_KEY:
+                    threeDSecureInfo.status = nextString(reader);
+                    break;
+                case THREE_D_SECURE_VERSION_KEY:
+                    threeDSecureInfo.threeDSecureVersion = nextString(reader);
+                    break;
+                case XID_KEY:
+                    threeDSecureInfo.xid = nextString(reader);
+                    break;
+                case ACS_TRANSACTION_ID_KEY:
+                    threeDSecureInfo.acsTransactionId = nextString(reader);
+                    break;
+                case THREE_D_SECURE_AUTHENTICATION_ID_KEY:
+                    threeDSecureInfo.threeDSecureAuthenticationId = nextString(reader);
+                    break;
+                case THREE_D_SECURE_SERVER_TRANSACTION_ID_KEY:
+                    threeDSecureInfo.threeDSecureServerTransactionId = nextString(reader);
+                    break;
+                case PARES_STATUS_KEY:
+                    threeDSecureInfo.paresStatus = nextString(reader);
+                    break;
+                case AUTHENTICATION_KEY:
+                    String[] authentication = nextTransactionStatus(reader);
+                    threeDSecureInfo.authenticationTransactionStatus = authentication[0];
+                    threeDSecureInfo.authenticationTransactionStatusReason = authentication[1];
+                    break;
+                case LOOKUP_KEY:
+                    String[] lookup = nextTransactionStatus(reader);
+                    threeDSecureInfo.lookupTransactionStatus = lookup[0];
+                    threeDSecureInfo.lookupTransactionStatusReason = lookup[1];
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        threeDSecureInfo.wasVerified = hasLiabilityShifted && hasLiabilityShiftPossible;
+        return threeDSecureInfo;
+    }
+
+    // reads JSONObject#optString(String) semantics, where a JSON null reads as "null"
+    private static String nextString(JsonReader reader) throws IOException {
+        String value = Json.nextString(reader);
+        return (value != null) ? value : "";
+    }
+
+    // reads {transStatus, transStatusReason}, or nulls when the value is not an object
+    private static String[] nextTransactionStatus(JsonReader reader) throws IOException {
+        String[] status = new String[2];
+        if (!Json.peekObject(reader)) {
+            return status;
+        }
+
+        status[0] = "";
+        status[1] = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case TRANS_STATUS_KEY:
+                    status[0] = nextString(reader);
+                    break;
+                case TRANS_STATUS_REASON_KEY:
+                    status[1] = nextString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return status;
+    }
+
     /**
      * @return Cardholder authentication verification value or "CAVV" is the main encrypted message issuers and card networks use to verify authentication has occured. Mastercard uses an "AVV" message which will also be returned in the cavv parameter.
      */
@@ -0,0 +1,216 @@
+package com.braintreepayments.api;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+@RunWith(RobolectricTestRunner.class)
+public class BinDataCacheUnitTest {
+
+    private static final long TTL = 1000;
+
+    private BinData debitBinData;
+    private BinData prepaidBinData;
+    private Executor directExecutor;
+
+    @Before
+    public void beforeEach() throws JSONException {
+        debitBinData = BinData.fromJson(new JSONObject()
+                .put("debit", BinData.YES)
+                .put("issuingBank", "Some Bank"));
+        prepaidBinData = BinData.fromJson(new JSONObject().put("prepaid", BinData.YES));
+        directExecutor = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                runnable.run();
+            }
+        };
+    }
+
+    @Test
+    public void get_returnsBinDataStoredForTheFirstSixDigits() {
+        BinDataCache sut = new BinDataCache(10, TTL);
+        sut.put("411111", debitBinData, 0);
+
+        assertSame(debitBinData, sut.get("4111 1111 1111 1111", 10));
+        assertSame(debitBinData, sut.get("411111", 10));
+        assertEquals(2, sut.getHitCount());
+    }
+
+    @Test
+    public void get_prefersEightDigitBin() {
+        BinDataCache sut = new BinDataCache(10, TTL);
+        sut.put("411111", debitBinData, 0);
+        sut.put("41111122", prepaidBinData, 0);
+
+        assertSame(prepaidBinData, sut.get("4111112233334444", 10));
+        assertSame(debitBinData, sut.get("4111119933334444", 10));
+    }
+
+    @Test
+    public void get_withFewerThanSixDigits_returnsNullWithoutCountingAMiss() {
+        BinDataCache sut = new BinDataCache(10, TTL);
+        sut.put("411111", debitBinData, 0);
+
+        assertNull(sut.get("41111", 10));
+        assertNull(sut.get(null, 10));
+        assertEquals(0, sut.getMissCount());
+    }
+
+    @Test
+    public void get_withUnknownBin_countsAMiss() {
+        BinDataCache sut = new BinDataCache(10, TTL);
+
+        assertNull(sut.get("5555555555554444", 10));
+        assertEquals(1, sut.getMissCount());
+        assertEquals(0, sut.getHitCount());
+    }
+
+    @Test
+    public void get_whenEntryHasExpired_removesIt() {
+        BinDataCache sut = new BinDataCache(10, TTL);
+        sut.put("411111", debitBinData, 0);
+
+        assertNull(sut.get("411111", TTL));
+        assertEquals(1, sut.getExpirationCount());
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void put_whenFull_evictsLeastRecentlyUsedBin() {
+        BinDataCache sut = new BinDataCache(2, TTL);
+        sut.put("411111", debitBinData, 0);
+        sut.put("555555", debitBinData, 0);
+        sut.get("411111", 1);
+
+        sut.put("378282", prepaidBinData, 2);
+
+        assertEquals(2, sut.size());
+        assertEquals(1, sut.getEvictionCount());
+        assertNotNull(sut.get("411111", 3));
+        assertNull(sut.get("555555", 3));
+        assertNotNull(sut.get("378282", 3));
+    }
+
+    @Test
+    public void put_ignoresValuesThatAreNotBins() {
+        BinDataCache sut = new BinDataCache(10, TTL);
+        sut.put("", debitBinData, 0);
+        sut.put("4111", debitBinData, 0);
+        sut.put("41111a", debitBinData, 0);
+        sut.put("411111", null, 0);
+
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void put_withStore_persistsEntriesForANewCache() {
+        InMemoryBinDataStore store = new InMemoryBinDataStore();
+        BinDataCache first = new BinDataCache(10, TTL, store, directExecutor);
+        first.put("411111", debitBinData, 0);
+
+        BinDataCache second = new BinDataCache(10, TTL, store, directExecutor);
+        BinData binData = second.get("411111", 10);
+
+        assertNotNull(binData);
+        assertEquals(BinData.YES, binData.getDebit());
+        assertEquals("Some Bank", binData.getIssuingBank());
+        assertEquals(BinData.UNKNOWN, binData.getPrepaid());
+    }
+
+    @Test
+    public void get_withStore_skipsExpiredPersistedEntries() {
+        InMemoryBinDataStore store = new InMemoryBinDataStore();
+        new BinDataCache(10, TTL, store, directExecutor).put("411111", debitBinData, 0);
+
+        BinDataCache sut = new BinDataCache(10, TTL, store, directExecutor);
+
+        assertNull(sut.get("411111", TTL));
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void get_withCorruptStore_treatsCacheAsEmpty() {
+        InMemoryBinDataStore store = new InMemoryBinDataStore();
+        store.save("not json");
+
+        BinDataCache sut = new BinDataCache(10, TTL, store, directExecutor);
+
+        assertNull(sut.get("411111", 0));
+        sut.put("411111", debitBinData, 0);
+        assertNotNull(new BinDataCache(10, TTL, store, directExecutor).get("411111", 0));
+    }
+
+    @Test
+    public void clear_removesPersistedEntries() {
+        InMemoryBinDataStore store = new InMemoryBinDataStore();
+        BinDataCache sut = new BinDataCache(10, TTL, store, directExecutor);
+        sut.put("411111", debitBinData, 0);
+
+        sut.clear();
+
+        assertEquals(0, sut.size());
+        assertNull(new BinDataCache(10, TTL, store, directExecutor).get("411111", 0));
+    }
+
+    @Test
+    public void put_withStore_savesInBackgroundAndCoalescesWrites() {
+        final List<Runnable> saves = new ArrayList<>();
+        InMemoryBinDataStore store = new InMemoryBinDataStore();
+        BinDataCache sut = new BinDataCache(10, TTL, store, new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                saves.add(runnable);
+            }
+        });
+
+        sut.put("411111", debitBinData, 0);
+        sut.put("555555", prepaidBinData, 0);
+
+        assertEquals(0, store.saveCount);
+        assertEquals(1, saves.size());
+
+        saves.get(0).run();
+        assertEquals(1, store.saveCount);
+        BinDataCache restored = new BinDataCache(10, TTL, store, directExecutor);
+        assertNotNull(restored.get("411111", 0));
+        assertNotNull(restored.get("555555", 0));
+
+        sut.put("400000", debitBinData, 0);
+        assertEquals(2, saves.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_withMaxSizeLessThanOne_throws() {
+        new BinDataCache(0, TTL);
+    }
+
+    private static class InMemoryBinDataStore implements BinDataStore {
+
+        private String value;
+        private int saveCount;
+
+        @Override
+        public String load() {
+            return value;
+        }
+
+        @Override
+        public void save(String serializedEntries) {
+            value = serializedEntries;
+            saveCount++;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.braintreepayments.api;
 
 import android.os.Parcel;
+import android.util.JsonReader;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -8,6 +9,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.IOException;
+import java.io.StringReader;
+
 import static com.braintreepayments.api.BinData.UNKNOWN;
 import static com.braintreepayments.api.Assertions.assertBinDataEqual;
 import static junit.framework.Assert.assertEquals;
@@ -72,4 +76,19 @@ public class BinDataUnitTest {
 
         assertBinDataEqual(binData, parceled);
     }
+
+    @Test
+    public void fromJson_withJsonReader_matchesJSONObjectParsing() throws JSONException, IOException {
+        String[] responses = new String[]{
+                "{}",
+                Fixtures.BIN_DATA,
+                "{\"prepaid\": null, \"debit\": true, \"issuingBank\": null, \"productId\": 123, \"unknown\": [{}]}"
+        };
+
+        for (String response : responses) {
+            BinData expected = BinData.fromJson(new JSONObject(response));
+            BinData actual = BinData.fromJson(new JsonReader(new StringReader(response)));
+            assertBinDataEqual(expected, actual);
+        }
+    }
 }
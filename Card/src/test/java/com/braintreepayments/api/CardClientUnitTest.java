@@ -1,14 +1,24 @@
 package com.braintreepayments.api;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.os.CancellationSignal;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -16,10 +26,15 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 @RunWith(RobolectricTestRunner.class)
 public class CardClientUnitTest {
 
@@ -58,7 +73,8 @@ public class CardClientUnitTest {
 
         InOrder inOrder = Mockito.inOrder(card, apiClient);
         inOrder.verify(card).setSessionId("session-id");
-        inOrder.verify(apiClient).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
+        inOrder.verify(apiClient).tokenizeGraphQL(any(JsonPayload.class), any(JsonDecoder.class),
+                any(HttpResponseStreamCallback.class));
     }
 
     @Test
@@ -169,6 +185,41 @@ public class CardClientUnitTest {
         verify(cardTokenizeCallback).onResult(null, error);
     }
 
+    @Test
+    public void tokenize_withCancellationSignal_cancelsTokenizationTaskOnCancel() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+
+        TokenizationTask task = new TokenizationTask();
+        when(apiClient.tokenizeREST(same(card), same(CardNonce.DECODER),
+                any(HttpResponseStreamCallback.class))).thenReturn(task);
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenize(card, cancellationSignal, cardTokenizeCallback);
+
+        assertFalse(task.isCanceled());
+        cancellationSignal.cancel();
+        assertTrue(task.isCanceled());
+    }
+
+    @Test
+    public void tokenize_whenCanceledBeforeConfigurationIsReady_doesNotTokenize() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        cancellationSignal.cancel();
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenize(card, cancellationSignal, cardTokenizeCallback);
+
+        verify(apiClient, never()).tokenizeREST(any(PaymentMethod.class), any(JsonDecoder.class),
+                any(HttpResponseStreamCallback.class));
+        verify(cardTokenizeCallback, never()).onResult(nullable(CardNonce.class), nullable(Exception.class));
+    }
+
     @Test
     public void tokenize_whenGraphQLEnabled_sendsAnalyticsEventOnFailure() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -215,4 +266,239 @@ public class CardClientUnitTest {
 
         verify(cardTokenizeCallback).onResult(null, configError);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void tokenize_whenCardTypeIsNotSupportedByMerchant_failsWithoutTokenizing() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SUPPORTED_CARD_TYPES))
+                .build();
+        card.setNumber(CardNumber.UNIONPAY_CREDIT);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenize(card, cardTokenizeCallback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(cardTokenizeCallback).onResult((CardNonce) isNull(), captor.capture());
+        assertTrue(captor.getValue() instanceof BraintreeException);
+        assertEquals("Card type UnionPay is not supported by this merchant account.",
+                captor.getValue().getMessage());
+        verify(apiClient, never()).tokenizeREST(any(Card.class), any(JsonDecoder.class),
+                any(HttpResponseStreamCallback.class));
+        verify(braintreeClient).sendAnalyticsEvent("card.nonce-failed");
+    }
+
+    @Test
+    public void tokenize_whenCardTypeIsSupportedByMerchant_tokenizes() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SUPPORTED_CARD_TYPES))
+                .build();
+        card.setNumber(CardNumber.VISA);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenize(card, cardTokenizeCallback);
+
+        verify(apiClient).tokenizeREST(same(card), same(CardNonce.DECODER),
+                any(HttpResponseStreamCallback.class));
+    }
+
+    @Test
+    public void tokenize_onSuccess_cachesBinDataOfCard() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+        apiClient = new MockApiClientBuilder()
+                .tokenizeRESTSuccess(new JSONObject(Fixtures.TOKENIZE_CARD_SUCCESS_RESPONSE))
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        assertNull(sut.getCachedBinData("4111 11"));
+
+        sut.tokenize(card, cardTokenizeCallback);
+
+        assertNotNull(sut.getCachedBinData("4111 11"));
+    }
+
+    @Test
+    public void tokenizeAll_withEmptyList_completesWithoutFetchingConfiguration() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(Collections.<Card>emptyList(), callback);
+
+        ArgumentCaptor<CardTokenizeAllResult> captor =
+                ArgumentCaptor.forClass(CardTokenizeAllResult.class);
+        verify(callback).onComplete(captor.capture());
+        assertEquals(0, captor.getValue().size());
+        verify(braintreeClient, never()).getConfiguration(any(ConfigurationCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void tokenizeAll_whenGraphQLEnabled_sendsCardsInFlightAsOneBatch() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(7), mock(CardTokenizeAllCallback.class));
+
+        ArgumentCaptor<List<JsonPayload>> captor = ArgumentCaptor.forClass(List.class);
+        verify(apiClient, times(1)).tokenizeGraphQL(captor.capture(), same(CardNonce.GRAPHQL_DATA_DECODER),
+                ArgumentMatchers.<HttpResponseStreamCallback<CardNonce>>anyList());
+        assertEquals(CardClient.MAX_CARDS_IN_FLIGHT, captor.getValue().size());
+        verify(apiClient, never()).tokenizeGraphQL(any(JsonPayload.class), any(JsonDecoder.class),
+                any(HttpResponseStreamCallback.class));
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLEnabled_streamsEveryResultAndSendsAggregatedAnalytics()
+            throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+        apiClient = new MockApiClientBuilder()
+                .tokenizeGraphQLSuccess(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD))
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(7), callback);
+
+        for (int i = 0; i < 7; i++) {
+            verify(callback).onCardResult(eq(i), any(CardNonce.class), (Exception) isNull());
+        }
+        ArgumentCaptor<CardTokenizeAllResult> captor =
+                ArgumentCaptor.forClass(CardTokenizeAllResult.class);
+        verify(callback).onComplete(captor.capture());
+        assertEquals(7, captor.getValue().getCardNonces().size());
+        assertFalse(captor.getValue().hasFailures());
+
+        verify(braintreeClient).sendAnalyticsEvent("card.tokenize-all.started");
+        verify(braintreeClient).sendAnalyticsEvent("card.tokenize-all.succeeded");
+        verify(braintreeClient, never()).sendAnalyticsEvent("card.nonce-received");
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLEnabled_andCardIsInvalid_reportsPartialFailure()
+            throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+        apiClient = new MockApiClientBuilder()
+                .tokenizeGraphQLSuccess(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD))
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        List<Card> cards = createCards(3);
+        cards.get(1).setAuthenticationInsightRequested(true);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(cards, callback);
+
+        verify(callback).onCardResult(eq(1), (CardNonce) isNull(), any(BraintreeException.class));
+        ArgumentCaptor<CardTokenizeAllResult> captor =
+                ArgumentCaptor.forClass(CardTokenizeAllResult.class);
+        verify(callback).onComplete(captor.capture());
+
+        CardTokenizeAllResult result = captor.getValue();
+        assertEquals(1, result.getFailureCount());
+        assertNotNull(result.getCardNonce(0));
+        assertNull(result.getCardNonce(1));
+        assertTrue(result.getError(1) instanceof BraintreeException);
+        assertNotNull(result.getCardNonce(2));
+        verify(braintreeClient).sendAnalyticsEvent("card.tokenize-all.partially-failed");
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLDisabled_boundsCardsInFlight() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(7), mock(CardTokenizeAllCallback.class));
+
+        verify(apiClient, times(CardClient.MAX_CARDS_IN_FLIGHT))
+                .tokenizeREST(any(Card.class), eq(false), same(CardNonce.DECODER),
+                        any(HttpResponseStreamCallback.class));
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLDisabled_tokenizesEveryCardWithREST() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+        apiClient = new MockApiClientBuilder()
+                .tokenizeRESTSuccess(new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD))
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(7), callback);
+
+        verify(apiClient, times(7))
+                .tokenizeREST(any(Card.class), eq(false), same(CardNonce.DECODER),
+                        any(HttpResponseStreamCallback.class));
+        ArgumentCaptor<CardTokenizeAllResult> captor =
+                ArgumentCaptor.forClass(CardTokenizeAllResult.class);
+        verify(callback).onComplete(captor.capture());
+        assertEquals(7, captor.getValue().getCardNonces().size());
+    }
+
+    @Test
+    public void tokenizeAll_onConfigurationError_failsEveryCard() {
+        Exception configError = new Exception("no config");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configurationError(configError)
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(2), callback);
+
+        verify(callback).onCardResult(0, null, configError);
+        verify(callback).onCardResult(1, null, configError);
+        ArgumentCaptor<CardTokenizeAllResult> captor =
+                ArgumentCaptor.forClass(CardTokenizeAllResult.class);
+        verify(callback).onComplete(captor.capture());
+        assertEquals(2, captor.getValue().getFailureCount());
+        verify(braintreeClient).sendAnalyticsEvent("card.tokenize-all.failed");
+    }
+
+    @Test
+    public void tokenizeAll_whenCardTypeIsNotSupportedByMerchant_failsOnlyThatCard() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SUPPORTED_CARD_TYPES))
+                .build();
+        apiClient = new MockApiClientBuilder()
+                .tokenizeRESTSuccess(new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD))
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+        List<Card> cards = createCards(3);
+        cards.get(1).setNumber(CardNumber.UNIONPAY_CREDIT);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(cards, callback);
+
+        verify(apiClient, times(2))
+                .tokenizeREST(any(Card.class), eq(false), same(CardNonce.DECODER),
+                        any(HttpResponseStreamCallback.class));
+        verify(callback).onCardResult(eq(1), (CardNonce) isNull(), any(BraintreeException.class));
+        ArgumentCaptor<CardTokenizeAllResult> captor =
+                ArgumentCaptor.forClass(CardTokenizeAllResult.class);
+        verify(callback).onComplete(captor.capture());
+        assertEquals(1, captor.getValue().getFailureCount());
+        verify(braintreeClient).sendAnalyticsEvent("card.tokenize-all.partially-failed");
+    }
+
+    private static List<Card> createCards(int count) {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Card card = new Card();
+            card.setNumber(CardNumber.VISA);
+            cards.add(card);
+        }
+        return cards;
+    }
+}
@@ -1,6 +1,7 @@
 package com.braintreepayments.api;
 
 import android.os.Parcel;
+import android.util.JsonReader;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -8,14 +9,18 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.StringReader;
+
 import static com.braintreepayments.api.BinData.NO;
 import static com.braintreepayments.api.BinData.UNKNOWN;
 import static com.braintreepayments.api.BinData.YES;
 import static com.braintreepayments.api.Assertions.assertBinDataEqual;
+import static com.braintreepayments.api.Assertions.assertCardNonceEqual;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
 import static org.junit.Assert.assertNull;
 
 @RunWith(RobolectricTestRunner.class)
@@ -154,4 +159,74 @@ public class CardNonceUnitTest {
         assertEquals(cardNonce.getAuthenticationInsight().getRegulationEnvironment(),
                 parceled.getAuthenticationInsight().getRegulationEnvironment());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fromJSON_withString_matchesJSONObjectParsing() throws JSONException {
+        String[] responses = new String[]{
+                Fixtures.PAYMENT_METHOD_CARD,
+                Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD,
+                Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD,
+                Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_MISSING_VALUES,
+                Fixtures.GRAPHQL_RESPONSE_UNKNOWN_CREDIT_CARD,
+                // GraphQL data takes precedence regardless of member order
+                "{\"creditCards\": \"ignored\", \"data\": {\"tokenizeCreditCard\": {\"token\": \"graphql-nonce\", \"creditCard\": {\"last4\": \"1111\", \"brand\": null}}}}",
+                // coerced scalars, nulls and unknown nested members
+                "{\"nonce\": \"plain-nonce\", \"default\": \"TRUE\", \"unknown\": {\"nested\": [1, {\"a\": null}]}, \"details\": {\"lastTwo\": 11, \"lastFour\": \"1111\", \"cardType\": \"Visa\", \"bin\": null, \"expirationYear\": 2030}, \"threeDSecureInfo\": {\"cavv\": null, \"liabilityShifted\": \"true\", \"lookup\": \"not-an-object\"}, \"binData\": {\"issuingBank\": null, \"prepaid\": null}, \"authenticationInsight\": {\"regulationEnvironment\": \"PSDTWO\"}}"
+        };
+
+        for (String response : responses) {
+            CardNonce expected = CardNonce.fromJSON(new JSONObject(response));
+            CardNonce actual = CardNonce.fromJSON(response);
+            assertCardNonceEqual(expected, actual);
+        }
+    }
+
+    @Test
+    public void fromJSON_withString_throwsJSONExceptionWhereJSONObjectParsingDoes() {
+        String[] responses = new String[]{
+                "{}",
+                "not json",
+                "[]",
+                "{\"data\": {}}",
+                "{\"data\": null, \"nonce\": \"plain-nonce\"}",
+                "{\"data\": {\"tokenizeCreditCard\": {\"token\": \"nonce\"}}}",
+                "{\"creditCards\": []}",
+                "{\"nonce\": \"plain-nonce\", \"details\": {\"lastTwo\": \"11\", \"lastFour\": \"1111\"}}"
+        };
+
+        for (String response : responses) {
+            assertThrowsJSONException(response, true);
+            assertThrowsJSONException(response, false);
+        }
+    }
+
+    private static void assertThrowsJSONException(String response, boolean useJSONObject) {
+        try {
+            if (useJSONObject) {
+                CardNonce.fromJSON(new JSONObject(response));
+            } else {
+                CardNonce.fromJSON(response);
+            }
+            fail("Expected JSONException for " + response);
+        } catch (JSONException ignored) {
+            // expected
+        }
+    }
+
+    @Test
+    public void graphQLDataDecoder_whenPayloadIsInvalid_consumesDataBeforeThrowing() throws Exception {
+        JsonReader reader = new JsonReader(new StringReader("[{\"tokenizeCreditCard\": "
+                + "{\"creditCard\": {\"last4\": \"1111\"}}, \"other\": 1}, \"next\"]"));
+        reader.beginArray();
+
+        try {
+            CardNonce.GRAPHQL_DATA_DECODER.decode(reader);
+            fail("Expected the missing token to be reported");
+        } catch (JSONException e) {
+            assertEquals("No value for token", e.getMessage());
+        }
+
+        assertEquals("next", reader.nextString());
+        reader.endArray();
+    }
+}
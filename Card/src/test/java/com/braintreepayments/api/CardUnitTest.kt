@@ -286,6 +286,24 @@ class CardUnitTest {
         assertFalse(json?.has("authenticationInsight") == true)
     }
 
+    @Test
+    fun getTokenizeCreditCardOperation_returnsPrecompiledOperationForEachVariant() {
+        val card = Card()
+        val operation = card.tokenizeCreditCardOperation
+
+        assertEquals("TokenizeCreditCard", operation.name)
+        assertEquals(GRAPH_QL_MUTATION, operation.query)
+        assertTrue(operation === Card().tokenizeCreditCardOperation)
+
+        card.merchantAccountId = "merchant-account-id"
+        card.isAuthenticationInsightRequested = true
+        val authInsightOperation = card.tokenizeCreditCardOperation
+
+        assertEquals("TokenizeCreditCard", authInsightOperation.name)
+        assertEquals(GRAPH_QL_MUTATION_WITH_AUTH_INSIGHT_REQUESTED, authInsightOperation.query)
+        assertFalse(operation.sha256Hash == authInsightOperation.sha256Hash)
+    }
+
     @Test
     @Throws(Exception::class)
     fun buildJSONForGraphQL_correctlyBuildsACardTokenization() {
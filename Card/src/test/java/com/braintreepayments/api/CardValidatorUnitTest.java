@@ -0,0 +1,304 @@
+package com.braintreepayments.api;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@RunWith(RobolectricTestRunner.class)
+public class CardValidatorUnitTest {
+
+    // March 2024
+    private static final int CURRENT_YEAR_MONTH = 2024 * 12 + 2;
+
+    @Test
+    public void detectCardType_detectsKnownBrands() {
+        assertEquals(CardType.VISA, CardValidator.detectCardType(CardNumber.VISA));
+        assertEquals(CardType.AMEX, CardValidator.detectCardType(CardNumber.AMEX));
+        assertEquals(CardType.MASTERCARD, CardValidator.detectCardType("5555555555554444"));
+        assertEquals(CardType.MASTERCARD, CardValidator.detectCardType("2221000000000009"));
+        assertEquals(CardType.MASTERCARD, CardValidator.detectCardType("2720990000000007"));
+        assertEquals(CardType.DISCOVER, CardValidator.detectCardType("6011111111111117"));
+        assertEquals(CardType.DISCOVER, CardValidator.detectCardType("6445644564456445"));
+        assertEquals(CardType.DINERS_CLUB, CardValidator.detectCardType("30569309025904"));
+        assertEquals(CardType.DINERS_CLUB, CardValidator.detectCardType("38520000023237"));
+        assertEquals(CardType.JCB, CardValidator.detectCardType("3530111333300000"));
+        assertEquals(CardType.MAESTRO, CardValidator.detectCardType("6304000000000000"));
+        assertEquals(CardType.MAESTRO, CardValidator.detectCardType("5018000000000009"));
+        assertEquals(CardType.UNIONPAY, CardValidator.detectCardType(CardNumber.UNIONPAY_CREDIT));
+    }
+
+    @Test
+    public void detectCardType_usesLongestPrefix() {
+        assertEquals(CardType.MASTERCARD, CardValidator.detectCardType("2221"));
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType("2220"));
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType("2721"));
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType("3527"));
+        assertEquals(CardType.JCB, CardValidator.detectCardType("3528"));
+        assertEquals(CardType.DISCOVER, CardValidator.detectCardType("6011"));
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType("6012"));
+    }
+
+    @Test
+    public void detectCardType_withPartialNumber_detectsBrandFromFirstDigits() {
+        assertEquals(CardType.VISA, CardValidator.detectCardType("4"));
+        assertEquals(CardType.AMEX, CardValidator.detectCardType("37"));
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType("3"));
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType(""));
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType(null));
+    }
+
+    @Test
+    public void detectCardType_ignoresSpacesAndDashes() {
+        assertEquals(CardType.MASTERCARD, CardValidator.detectCardType("5 5"));
+        assertEquals(CardType.AMEX, CardValidator.detectCardType("3-7"));
+        assertEquals(CardType.VISA, CardValidator.detectCardType("4111 1111 1111 1111"));
+    }
+
+    @Test
+    public void detectCardType_withNonDigitCharacters_returnsUnknown() {
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType("4a11"));
+        assertEquals(CardType.UNKNOWN, CardValidator.detectCardType("a411"));
+    }
+
+    @Test
+    public void isLuhnValid() {
+        assertTrue(CardValidator.isLuhnValid(CardNumber.VISA));
+        assertTrue(CardValidator.isLuhnValid(CardNumber.AMEX));
+        assertTrue(CardValidator.isLuhnValid("4111 1111-1111 1111"));
+        assertFalse(CardValidator.isLuhnValid(CardNumber.INVALID_VISA));
+        assertFalse(CardValidator.isLuhnValid(CardNumber.INVALID_AMEX));
+        assertFalse(CardValidator.isLuhnValid("411111111111111a"));
+        assertFalse(CardValidator.isLuhnValid("0"));
+        assertFalse(CardValidator.isLuhnValid(""));
+        assertFalse(CardValidator.isLuhnValid(null));
+    }
+
+    @Test
+    public void isNumberValid_checksBrandLengthAndLuhn() {
+        assertTrue(CardValidator.isNumberValid(CardNumber.VISA));
+        assertTrue(CardValidator.isNumberValid(CardNumber.AMEX));
+        assertTrue(CardValidator.isNumberValid("4111 1111 1111 1111"));
+
+        // fails Luhn
+        assertFalse(CardValidator.isNumberValid(CardNumber.INVALID_VISA));
+        // 16 digit amex
+        assertFalse(CardValidator.isNumberValid("3782822463100005"));
+        // passes Luhn, unknown brand
+        assertFalse(CardValidator.isNumberValid("1234567812345670"));
+        assertFalse(CardValidator.isNumberValid(null));
+    }
+
+    @Test
+    public void isCvvValid_usesLengthOfBrand() {
+        assertTrue(CardValidator.isCvvValid("123", CardType.VISA));
+        assertFalse(CardValidator.isCvvValid("1234", CardType.VISA));
+        assertTrue(CardValidator.isCvvValid("1234", CardType.AMEX));
+        assertFalse(CardValidator.isCvvValid("123", CardType.AMEX));
+    }
+
+    @Test
+    public void isCvvValid_whenBrandIsUnknown_accepts3Or4Digits() {
+        assertTrue(CardValidator.isCvvValid("123", CardType.UNKNOWN));
+        assertTrue(CardValidator.isCvvValid("1234", CardType.UNKNOWN));
+        assertFalse(CardValidator.isCvvValid("12", CardType.UNKNOWN));
+        assertFalse(CardValidator.isCvvValid("12345", CardType.UNKNOWN));
+    }
+
+    @Test
+    public void isCvvValid_withNonDigits_returnsFalse() {
+        assertFalse(CardValidator.isCvvValid("12a", CardType.VISA));
+        assertFalse(CardValidator.isCvvValid(null, CardType.VISA));
+    }
+
+    @Test
+    public void isExpirationDateValid_acceptsCurrentAndFutureMonths() {
+        assertTrue(CardValidator.isExpirationDateValid(3, 2, 24, 2, CURRENT_YEAR_MONTH));
+        assertTrue(CardValidator.isExpirationDateValid(4, 1, 2024, 4, CURRENT_YEAR_MONTH));
+        assertTrue(CardValidator.isExpirationDateValid(12, 2, 44, 2, CURRENT_YEAR_MONTH));
+    }
+
+    @Test
+    public void isExpirationDateValid_rejectsPastMonths() {
+        assertFalse(CardValidator.isExpirationDateValid(2, 2, 24, 2, CURRENT_YEAR_MONTH));
+        assertFalse(CardValidator.isExpirationDateValid(12, 2, 2023, 4, CURRENT_YEAR_MONTH));
+    }
+
+    @Test
+    public void isExpirationDateValid_rejectsDatesMoreThan20YearsAhead() {
+        assertFalse(CardValidator.isExpirationDateValid(1, 2, 2045, 4, CURRENT_YEAR_MONTH));
+    }
+
+    @Test
+    public void isExpirationDateValid_rejectsMalformedValues() {
+        assertFalse(CardValidator.isExpirationDateValid(0, 2, 24, 2, CURRENT_YEAR_MONTH));
+        assertFalse(CardValidator.isExpirationDateValid(13, 2, 24, 2, CURRENT_YEAR_MONTH));
+        assertFalse(CardValidator.isExpirationDateValid(4, 2, 224, 3, CURRENT_YEAR_MONTH));
+        assertFalse(CardValidator.isExpirationDateValid(-1, 0, 24, 2, CURRENT_YEAR_MONTH));
+    }
+
+    @Test
+    public void isExpirationDateValid_withTwoDigitYearAfterTurnOfCentury_rollsOver() {
+        int december2099 = 2099 * 12 + 11;
+        assertTrue(CardValidator.isExpirationDateValid(1, 2, 0, 2, december2099));
+        assertFalse(CardValidator.isExpirationDateValid(11, 2, 99, 2, december2099));
+    }
+
+    @Test
+    public void isExpirationDateValid_parsesMonthAndYearStrings() {
+        assertTrue(CardValidator.isExpirationDateValid("12", "2099"));
+        assertFalse(CardValidator.isExpirationDateValid("12", "2000"));
+        assertFalse(CardValidator.isExpirationDateValid("1a", "2099"));
+        assertFalse(CardValidator.isExpirationDateValid(null, "2099"));
+    }
+
+    @Test
+    public void isExpirationDateValid_parsesSlashSeparatedDate() {
+        assertTrue(CardValidator.isExpirationDateValid("12/2099"));
+        assertFalse(CardValidator.isExpirationDateValid("12/00"));
+        assertFalse(CardValidator.isExpirationDateValid("122099"));
+        assertFalse(CardValidator.isExpirationDateValid("12/"));
+        assertFalse(CardValidator.isExpirationDateValid(null));
+    }
+
+    @Test
+    public void isCardTypeSupported_checksMerchantSupportedCardTypes() throws JSONException {
+        Configuration configuration =
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SUPPORTED_CARD_TYPES);
+
+        assertTrue(CardValidator.isCardTypeSupported(CardType.VISA, configuration));
+        assertTrue(CardValidator.isCardTypeSupported(CardType.AMEX, configuration));
+        assertFalse(CardValidator.isCardTypeSupported(CardType.UNIONPAY, configuration));
+        assertTrue(CardValidator.isCardTypeSupported(CardType.UNKNOWN, configuration));
+    }
+
+    @Test
+    public void isCardTypeSupported_whenMerchantListsNoCardTypes_returnsTrue() throws JSONException {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL);
+
+        assertTrue(CardValidator.isCardTypeSupported(CardType.UNIONPAY, configuration));
+    }
+
+    @Test
+    public void matchesGatewayName_ignoresCaseAndNonLetters() {
+        assertTrue(CardType.AMEX.matchesGatewayName("American Express"));
+        assertTrue(CardType.AMEX.matchesGatewayName("americanexpress"));
+        assertTrue(CardType.MASTERCARD.matchesGatewayName("Master-Card"));
+        assertFalse(CardType.MASTERCARD.matchesGatewayName("Master"));
+        assertFalse(CardType.VISA.matchesGatewayName(null));
+    }
+
+    @Test
+    public void keystrokeValidation_costsLessThanRegexBrandDetection() {
+        String[] keystrokes = typedPrefixes("4111 1111 1111 1111", "5555-5555-5555-4444",
+                "3782 822463 10005", "6011 1111 1111 1117", "6304 0000 0000 0000");
+
+        // warm up both paths so the comparison measures compiled code
+        for (int i = 0; i < 20_000; i++) {
+            validateKeystrokes(keystrokes);
+            RegexCardValidator.validateKeystrokes(keystrokes);
+        }
+
+        long trieNanos = Long.MAX_VALUE;
+        long regexNanos = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 10_000; i++) {
+                validateKeystrokes(keystrokes);
+            }
+            trieNanos = Math.min(trieNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < 10_000; i++) {
+                RegexCardValidator.validateKeystrokes(keystrokes);
+            }
+            regexNanos = Math.min(regexNanos, System.nanoTime() - start);
+        }
+
+        long calls = 10_000L * keystrokes.length;
+        System.out.println("CardValidator keystroke check: " + (trieNanos / calls)
+                + " ns, regex brand detection: " + (regexNanos / calls) + " ns");
+        assertTrue("trie " + trieNanos + " ns, regex " + regexNanos + " ns", trieNanos < regexNanos);
+    }
+
+    private static String[] typedPrefixes(String... numbers) {
+        List<String> prefixes = new ArrayList<>();
+        for (String number : numbers) {
+            for (int length = 1; length <= number.length(); length++) {
+                prefixes.add(number.substring(0, length));
+            }
+        }
+        return prefixes.toArray(new String[0]);
+    }
+
+    private static int validateKeystrokes(String[] keystrokes) {
+        int valid = 0;
+        for (String keystroke : keystrokes) {
+            if (CardValidator.detectCardType(keystroke) != CardType.UNKNOWN
+                    && CardValidator.isNumberValid(keystroke)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * The usual way of checking card input before {@link CardValidator}: strip separators, try
+     * one regular expression per brand, then run Luhn over the stripped string.
+     */
+    private static final class RegexCardValidator {
+
+        private static final Pattern[] PATTERNS = {
+                Pattern.compile("^4\\d*"),
+                Pattern.compile("^(5[1-5]|222[1-9]|22[3-9]|2[3-6]|27[01]|2720)\\d*"),
+                Pattern.compile("^3[47]\\d*"),
+                Pattern.compile("^(6011|65|64[4-9])\\d*"),
+                Pattern.compile("^(30[0-5]|309|36|3[89])\\d*"),
+                Pattern.compile("^35(2[89]|[3-8]\\d)\\d*"),
+                Pattern.compile("^(5018|5020|5038|5[6-9]|6020|6304|6703|6759|676[1-3])\\d*"),
+                Pattern.compile("^62\\d*")
+        };
+        private static final int[] MIN_LENGTHS = {16, 16, 15, 16, 14, 16, 12, 16};
+        private static final int[] MAX_LENGTHS = {19, 16, 15, 19, 19, 19, 19, 19};
+
+        static int validateKeystrokes(String[] keystrokes) {
+            int valid = 0;
+            for (String keystroke : keystrokes) {
+                String digits = keystroke.replaceAll("[\\s-]", "");
+                for (int brand = 0; brand < PATTERNS.length; brand++) {
+                    if (PATTERNS[brand].matcher(digits).matches()) {
+                        if (digits.length() >= MIN_LENGTHS[brand]
+                                && digits.length() <= MAX_LENGTHS[brand] && isLuhnValid(digits)) {
+                            valid++;
+                        }
+                        break;
+                    }
+                }
+            }
+            return valid;
+        }
+
+        private static boolean isLuhnValid(String digits) {
+            int sum = 0;
+            for (int i = digits.length() - 1, position = 0; i >= 0; i--, position++) {
+                int digit = digits.charAt(i) - '0';
+                if ((position & 1) == 1) {
+                    digit *= 2;
+                    if (digit > 9) {
+                        digit -= 9;
+                    }
+                }
+                sum += digit;
+            }
+            return sum % 10 == 0;
+        }
+    }
+}
@@ -50,6 +50,7 @@ public class GooglePayClient {
     private final BraintreeClient braintreeClient;
     private final GooglePayInternalClient internalGooglePayClient;
     private GooglePayListener listener;
+    private GooglePayRequestTemplates requestTemplates;
     @VisibleForTesting
     GooglePayLifecycleObserver observer;
 
@@ -125,6 +126,9 @@ public class GooglePayClient {
      * Google Pay API is supported and set up on the device. When the callback is called with
      * {@code true}, show the Google Pay button. When it is called with {@code false}, display other
      * checkout options.
+     * <p>
+     * The result is cached for a few minutes and refreshed whenever an app is installed, updated
+     * or removed, so it is safe to call this every time your checkout screen resumes.
      *
      * @param activity Android FragmentActivity
      * @param request  {@link ReadyForGooglePayRequest}
@@ -157,30 +161,48 @@ public class GooglePayClient {
                     return;
                 }
 
-                JSONObject json = new JSONObject();
-                JSONArray allowedCardNetworks = buildCardNetworks(configuration);
-
-                try {
-                    json
-                            .put("apiVersion", 2)
-                            .put("apiVersionMinor", 0)
-                            .put("allowedPaymentMethods", new JSONArray()
-                                    .put(new JSONObject()
-                                            .put("type", "CARD")
-                                            .put("parameters", new JSONObject()
-                                                    .put("allowedAuthMethods", new JSONArray()
-                                                            .put("PAN_ONLY")
-                                                            .put("CRYPTOGRAM_3DS"))
-                                                    .put("allowedCardNetworks", allowedCardNetworks))));
-
-                    if (request != null) {
-                        json.put("existingPaymentMethodRequired", request.isExistingPaymentMethodRequired());
-                    }
+                String parameters = (request != null)
+                        ? String.valueOf(request.isExistingPaymentMethodRequired()) : null;
+                braintreeClient.loadReadyToPay("google-pay", configuration, parameters, new ReadyToPayLoader() {
+                    @Override
+                    public void load(@NonNull final ReadyToPayResultCallback loaderCallback) {
+                        JSONObject json = new JSONObject();
+                        JSONArray allowedCardNetworks =
+                                getRequestTemplates(configuration).getAllowedCardNetworks();
+
+                        try {
+                            json
+                                    .put("apiVersion", 2)
+                                    .put("apiVersionMinor", 0)
+                                    .put("allowedPaymentMethods", new JSONArray()
+                                            .put(new JSONObject()
+                                                    .put("type", "CARD")
+                                                    .put("parameters", new JSONObject()
+                                                            .put("allowedAuthMethods", new JSONArray()
+                                                                    .put("PAN_ONLY")
+                                                                    .put("CRYPTOGRAM_3DS"))
+                                                            .put("allowedCardNetworks", allowedCardNetworks))));
+
+                            if (request != null) {
+                                json.put("existingPaymentMethodRequired", request.isExistingPaymentMethodRequired());
+                            }
 
-                } catch (JSONException ignored) {
-                }
-                IsReadyToPayRequest request = IsReadyToPayRequest.fromJson(json.toString());
-                internalGooglePayClient.isReadyToPay(activity, configuration, request, callback);
+                        } catch (JSONException ignored) {
+                        }
+                        IsReadyToPayRequest request = IsReadyToPayRequest.fromJson(json.toString());
+                        internalGooglePayClient.isReadyToPay(activity, configuration, request, new GooglePayIsReadyToPayCallback() {
+                            @Override
+                            public void onResult(boolean isReadyToPay, @Nullable Exception error) {
+                                loaderCallback.onResult(isReadyToPay, error);
+                            }
+                        });
+                    }
+                }, new ReadyToPayResultCallback() {
+                    @Override
+                    public void onResult(boolean isReadyToPay, @Nullable Exception error) {
+                        callback.onResult(isReadyToPay, error);
+                    }
+                });
             }
         });
     }
@@ -487,7 +509,8 @@ public class GooglePayClient {
 
         try {
             if (request.getAllowedCardNetworksForType(CARD_PAYMENT_TYPE) == null) {
-                JSONArray cardNetworkStrings = buildCardNetworks(configuration);
+                JSONArray cardNetworkStrings =
+                        getRequestTemplates(configuration).getAllowedCardNetworks();
 
                 if (request.getAllowedAuthMethodsForType(CARD_PAYMENT_TYPE) == null) {
                     request.setAllowedAuthMethods(CARD_PAYMENT_TYPE,
@@ -543,8 +566,7 @@ public class GooglePayClient {
 
     }
 
-    private JSONObject buildCardTokenizationSpecification(Configuration configuration, Authorization authorization) {
-        JSONObject cardJson = new JSONObject();
+    private JSONObject buildCardTokenizationParameters(Configuration configuration) {
         JSONObject parameters = new JSONObject();
         String googlePayVersion = com.braintreepayments.api.googlepay.BuildConfig.VERSION_NAME;
 
@@ -560,7 +582,17 @@ public class GooglePayClient {
                             .put("sessionId", braintreeClient.getSessionId())
                             .put("version", googlePayVersion)
                             .put("platform", "android")).toString());
+        } catch (JSONException ignored) {
+        }
+
+        return parameters;
+    }
+
+    private JSONObject buildCardTokenizationSpecification(Configuration configuration, Authorization authorization) {
+        JSONObject cardJson = new JSONObject();
+        JSONObject parameters = getRequestTemplates(configuration).getCardTokenizationParameters();
 
+        try {
             if (authorization instanceof TokenizationKey) {
                 parameters
                         .put("braintree:clientKey", authorization.toString());
@@ -624,19 +656,31 @@ public class GooglePayClient {
         if (googlePayCanProcessPayPal) {
             if (request.getAllowedPaymentMethod("PAYPAL") == null) {
                 request.setAllowedPaymentMethod(PAYPAL_PAYMENT_TYPE,
-                        buildPayPalPaymentMethodParameters(configuration));
+                        getRequestTemplates(configuration).getPayPalPaymentMethodParameters());
             }
 
 
             if (request.getTokenizationSpecificationForType(PAYPAL_PAYMENT_TYPE) == null) {
                 request.setTokenizationSpecificationForType("PAYPAL",
-                        buildPayPalTokenizationSpecification(configuration));
+                        getRequestTemplates(configuration).getPayPalTokenizationSpecification());
             }
         }
 
         request.setEnvironment(configuration.getGooglePayEnvironment());
     }
 
+    @VisibleForTesting
+    synchronized GooglePayRequestTemplates getRequestTemplates(Configuration configuration) {
+        if (requestTemplates == null || !requestTemplates.isFor(configuration)) {
+            requestTemplates = new GooglePayRequestTemplates(configuration,
+                    buildCardNetworks(configuration),
+                    buildCardTokenizationParameters(configuration),
+                    buildPayPalPaymentMethodParameters(configuration),
+                    buildPayPalTokenizationSpecification(configuration));
+        }
+        return requestTemplates;
+    }
+
     private boolean validateManifest() {
         ActivityInfo activityInfo = braintreeClient.getManifestActivityInfo(GooglePayActivity.class);
         return activityInfo != null && activityInfo.getThemeResource() == R.style.bt_transparent_activity;
@@ -1,7 +1,15 @@
 package com.braintreepayments.api;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.FragmentActivity;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
 
 import com.google.android.gms.common.api.ApiException;
 import com.google.android.gms.tasks.OnCompleteListener;
@@ -13,11 +21,36 @@ import com.google.android.gms.wallet.WalletConstants;
 
 class GooglePayInternalClient {
 
+    // a PaymentsClient is bound to the activity it was created with; it is reused for as long as
+    // that activity is alive and the Google Pay environment stays the same
+    private PaymentsClient paymentsClient;
+    private FragmentActivity paymentsClientActivity;
+    private int paymentsClientEnvironment;
+
+    private final Handler mainThreadHandler;
+
+    private final LifecycleEventObserver paymentsClientReleaser = new LifecycleEventObserver() {
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            if (event == Lifecycle.Event.ON_DESTROY) {
+                source.getLifecycle().removeObserver(this);
+                releasePaymentsClient(source);
+            }
+        }
+    };
+
+    GooglePayInternalClient() {
+        this(new Handler(Looper.getMainLooper()));
+    }
+
+    @VisibleForTesting
+    GooglePayInternalClient(Handler mainThreadHandler) {
+        this.mainThreadHandler = mainThreadHandler;
+    }
+
     void isReadyToPay(FragmentActivity activity, Configuration configuration, IsReadyToPayRequest isReadyToPayRequest, final GooglePayIsReadyToPayCallback callback) {
-        PaymentsClient paymentsClient = Wallet.getPaymentsClient(activity,
-                new Wallet.WalletOptions.Builder()
-                        .setEnvironment(getGooglePayEnvironment(configuration))
-                        .build());
+        PaymentsClient paymentsClient =
+                getPaymentsClient(activity, getGooglePayEnvironment(configuration));
         paymentsClient.isReadyToPay(isReadyToPayRequest).addOnCompleteListener(new OnCompleteListener<Boolean>() {
             @Override
             public void onComplete(@NonNull Task<Boolean> task) {
@@ -30,6 +63,59 @@ class GooglePayInternalClient {
         });
     }
 
+    @VisibleForTesting
+    synchronized PaymentsClient getPaymentsClient(FragmentActivity activity, int environment) {
+        if (paymentsClient != null && paymentsClientActivity == activity
+                && paymentsClientEnvironment == environment) {
+            return paymentsClient;
+        }
+
+        PaymentsClient createdPaymentsClient = Wallet.getPaymentsClient(activity,
+                new Wallet.WalletOptions.Builder()
+                        .setEnvironment(environment)
+                        .build());
+        FragmentActivity previousActivity = paymentsClientActivity;
+        paymentsClient = createdPaymentsClient;
+        paymentsClientActivity = activity;
+        paymentsClientEnvironment = environment;
+
+        if (previousActivity != activity) {
+            observeActivity(previousActivity, activity);
+        }
+        return createdPaymentsClient;
+    }
+
+    // lifecycle observers may only be added and removed on the main thread, but isReadyToPay can
+    // be reached from a callback executor supplied by the host application
+    private void observeActivity(@Nullable final FragmentActivity previousActivity, final FragmentActivity activity) {
+        Runnable observe = new Runnable() {
+            @Override
+            public void run() {
+                if (previousActivity != null) {
+                    previousActivity.getLifecycle().removeObserver(paymentsClientReleaser);
+                }
+                if (activity.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                    // the activity went away before the observer could be added
+                    releasePaymentsClient(activity);
+                } else {
+                    activity.getLifecycle().addObserver(paymentsClientReleaser);
+                }
+            }
+        };
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            observe.run();
+        } else {
+            mainThreadHandler.post(observe);
+        }
+    }
+
+    private synchronized void releasePaymentsClient(LifecycleOwner owner) {
+        if (paymentsClientActivity == owner) {
+            paymentsClient = null;
+            paymentsClientActivity = null;
+        }
+    }
+
     int getGooglePayEnvironment(Configuration configuration) {
         if ("production".equals(configuration.getGooglePayEnvironment())) {
             return WalletConstants.ENVIRONMENT_PRODUCTION;
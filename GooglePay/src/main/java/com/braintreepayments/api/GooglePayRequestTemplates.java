@@ -0,0 +1,90 @@
+package com.braintreepayments.api;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+
+/**
+ * The parts of a Google Pay request that only depend on a {@link Configuration}: allowed card
+ * networks, card tokenization parameters and the PayPal payment method. They are built once per
+ * configuration and every request receives its own copy, so merchants changing a request never
+ * change the templates.
+ */
+class GooglePayRequestTemplates {
+
+    private final String configurationJson;
+    private final JSONArray allowedCardNetworks;
+    private final JSONObject cardTokenizationParameters;
+    private final JSONObject payPalPaymentMethodParameters;
+    private final JSONObject payPalTokenizationSpecification;
+
+    GooglePayRequestTemplates(Configuration configuration, JSONArray allowedCardNetworks,
+                              JSONObject cardTokenizationParameters,
+                              JSONObject payPalPaymentMethodParameters,
+                              JSONObject payPalTokenizationSpecification) {
+        // the templates take ownership of the given structures and only ever hand out copies
+        this.configurationJson = configuration.toJson();
+        this.allowedCardNetworks = allowedCardNetworks;
+        this.cardTokenizationParameters = cardTokenizationParameters;
+        this.payPalPaymentMethodParameters = payPalPaymentMethodParameters;
+        this.payPalTokenizationSpecification = payPalTokenizationSpecification;
+    }
+
+    /**
+     * @return true if these templates were built from {@code configuration}
+     */
+    boolean isFor(Configuration configuration) {
+        return configurationJson.equals(configuration.toJson());
+    }
+
+    JSONArray getAllowedCardNetworks() {
+        return copy(allowedCardNetworks);
+    }
+
+    JSONObject getCardTokenizationParameters() {
+        return copy(cardTokenizationParameters);
+    }
+
+    JSONObject getPayPalPaymentMethodParameters() {
+        return copy(payPalPaymentMethodParameters);
+    }
+
+    JSONObject getPayPalTokenizationSpecification() {
+        return copy(payPalTokenizationSpecification);
+    }
+
+    // walks the parsed structure instead of serializing and re-parsing it; strings, numbers,
+    // booleans and JSONObject.NULL are immutable and are shared between copies
+    private static JSONObject copy(JSONObject json) {
+        JSONObject copy = new JSONObject();
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            try {
+                copy.put(key, copyValue(json.opt(key)));
+            } catch (JSONException ignored) {
+                // keys are non-null and values were already accepted by the source object
+            }
+        }
+        return copy;
+    }
+
+    private static JSONArray copy(JSONArray json) {
+        JSONArray copy = new JSONArray();
+        for (int i = 0; i < json.length(); i++) {
+            copy.put(copyValue(json.opt(i)));
+        }
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof JSONObject) {
+            return copy((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            return copy((JSONArray) value);
+        }
+        return value;
+    }
+}
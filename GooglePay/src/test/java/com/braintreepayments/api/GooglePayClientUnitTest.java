@@ -8,6 +8,7 @@ import static com.braintreepayments.api.GooglePayClient.EXTRA_PAYMENT_DATA_REQUE
 import static junit.framework.TestCase.assertSame;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -17,6 +18,7 @@ import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -190,6 +192,33 @@ public class GooglePayClientUnitTest {
                 Fixtures.READY_TO_PAY_REQUEST_WITH_EXISTING_PAYMENT_METHOD, actualJson, false);
     }
 
+    @Test
+    public void isReadyToPay_keysCachedResultByExistingPaymentMethodRequired() {
+        ReadyForGooglePayRequest readyForGooglePayRequest = new ReadyForGooglePayRequest();
+        readyForGooglePayRequest.setExistingPaymentMethodRequired(true);
+
+        Configuration configuration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .supportedNetworks(new String[]{"amex", "visa"})
+                        .enabled(true))
+                .buildConfiguration();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+
+        GooglePayInternalClient internalGooglePayClient = new MockGooglePayInternalClientBuilder().build();
+
+        GooglePayClient sut = new GooglePayClient(activity, lifecycle, braintreeClient, internalGooglePayClient);
+        sut.isReadyToPay(activity, null, readyToPayCallback);
+        sut.isReadyToPay(activity, readyForGooglePayRequest, readyToPayCallback);
+
+        verify(braintreeClient).loadReadyToPay(eq("google-pay"), same(configuration), isNull(),
+                any(ReadyToPayLoader.class), any(ReadyToPayResultCallback.class));
+        verify(braintreeClient).loadReadyToPay(eq("google-pay"), same(configuration), eq("true"),
+                any(ReadyToPayLoader.class), any(ReadyToPayResultCallback.class));
+    }
+
     @Test
     public void isReadyToPay_returnsFalseWhenGooglePayIsNotEnabled() {
         Configuration configuration = new TestConfigurationBuilder()
@@ -521,6 +550,99 @@ public class GooglePayClientUnitTest {
         assertEquals("sandbox_tokenization_string", cardTokenizationSpecificationParams.getString("braintree:clientKey"));
     }
 
+    @Test
+    public void getRequestTemplates_reusesTemplatesForTheSameConfiguration() {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+
+        GooglePayClient sut = new GooglePayClient(activity, lifecycle, braintreeClient, new MockGooglePayInternalClientBuilder().build());
+        GooglePayRequestTemplates templates = sut.getRequestTemplates(configuration);
+
+        assertSame(templates, sut.getRequestTemplates(configuration));
+        assertSame(templates, sut.getRequestTemplates(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)));
+    }
+
+    @Test
+    public void getRequestTemplates_rebuildsTemplatesWhenConfigurationChanges() {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+
+        GooglePayClient sut = new GooglePayClient(activity, lifecycle, braintreeClient, new MockGooglePayInternalClientBuilder().build());
+        GooglePayRequestTemplates templates = sut.getRequestTemplates(configuration);
+
+        Configuration productionConfiguration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_PRODUCTION);
+        assertNotSame(templates, sut.getRequestTemplates(productionConfiguration));
+    }
+
+    @Test
+    public void getRequestTemplates_returnsCopiesThatCanBeChangedIndependently() throws JSONException {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+
+        GooglePayClient sut = new GooglePayClient(activity, lifecycle, braintreeClient, new MockGooglePayInternalClientBuilder().build());
+        GooglePayRequestTemplates templates = sut.getRequestTemplates(configuration);
+
+        JSONArray allowedCardNetworks = templates.getAllowedCardNetworks();
+        int networkCount = allowedCardNetworks.length();
+        allowedCardNetworks.put("JCB");
+        templates.getCardTokenizationParameters().put("braintree:clientKey", "client-key");
+        templates.getPayPalTokenizationSpecification().getJSONObject("parameters").put("gateway", "other");
+
+        assertEquals(networkCount, templates.getAllowedCardNetworks().length());
+        assertFalse(templates.getCardTokenizationParameters().has("braintree:clientKey"));
+        assertEquals("braintree", templates.getPayPalTokenizationSpecification().getJSONObject("parameters").getString("gateway"));
+    }
+
+    @Test
+    public void requestPayment_reusesTemplatesAcrossRequests() throws JSONException {
+        Configuration configuration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .environment("sandbox")
+                        .googleAuthorizationFingerprint("google-auth-fingerprint")
+                        .supportedNetworks(new String[]{"visa", "amex"})
+                        .enabled(true))
+                .buildConfiguration();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .activityInfo(activityInfo)
+                .build();
+
+        GooglePayInternalClient internalGooglePayClient = new MockGooglePayInternalClientBuilder().build();
+
+        GooglePayClient sut = new GooglePayClient(activity, lifecycle, braintreeClient, internalGooglePayClient);
+        sut.observer = mock(GooglePayLifecycleObserver.class);
+
+        for (int i = 0; i < 2; i++) {
+            GooglePayRequest googlePayRequest = new GooglePayRequest();
+            googlePayRequest.setTransactionInfo(TransactionInfo.newBuilder()
+                    .setTotalPrice("1.00")
+                    .setTotalPriceStatus(WalletConstants.TOTAL_PRICE_STATUS_FINAL)
+                    .setCurrencyCode("USD")
+                    .build());
+            sut.requestPayment(activity, googlePayRequest);
+        }
+
+        ArgumentCaptor<GooglePayIntentData> captor = ArgumentCaptor.forClass(GooglePayIntentData.class);
+        verify(sut.observer, times(2)).launch(captor.capture());
+
+        for (GooglePayIntentData intent : captor.getAllValues()) {
+            JSONObject card = new JSONObject(intent.getPaymentDataRequest().toJson())
+                    .getJSONArray("allowedPaymentMethods").getJSONObject(0);
+            JSONAssert.assertEquals(new JSONArray().put("VISA").put("AMEX"),
+                    card.getJSONObject("parameters").getJSONArray("allowedCardNetworks"), false);
+            assertEquals(Fixtures.TOKENIZATION_KEY, card.getJSONObject("tokenizationSpecification")
+                    .getJSONObject("parameters").get("braintree:clientKey"));
+        }
+    }
+
     @Test
     public void requestPayment_includesATokenizationKeyWhenPresent() throws JSONException {
         Configuration configuration = new TestConfigurationBuilder()
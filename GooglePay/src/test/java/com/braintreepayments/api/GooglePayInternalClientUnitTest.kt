@@ -1,7 +1,10 @@
 package com.braintreepayments.api
 
 import android.app.Activity
+import android.os.Handler
 import androidx.fragment.app.FragmentActivity
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleEventObserver
 import com.google.android.gms.common.api.ApiException
 import com.google.android.gms.common.api.Status
 import com.google.android.gms.tasks.*
@@ -13,6 +16,7 @@ import io.mockk.every
 import io.mockk.mockk
 import io.mockk.mockkStatic
 import io.mockk.slot
+import io.mockk.verify
 import junit.framework.TestCase.*
 import org.junit.Before
 import org.junit.Test
@@ -66,6 +70,7 @@ class GooglePayInternalClientUnitTest {
     }
 
     private lateinit var activity: FragmentActivity
+    private lateinit var lifecycle: Lifecycle
     private lateinit var isReadyToPayCallback: GooglePayIsReadyToPayCallback
     private lateinit var paymentsClient: PaymentsClient
     private lateinit var isReadyToPayRequest: IsReadyToPayRequest
@@ -74,6 +79,9 @@ class GooglePayInternalClientUnitTest {
     fun beforeEach() {
         mockkStatic(Wallet::class)
         activity = mockk(relaxed = true)
+        lifecycle = mockk(relaxed = true)
+        every { lifecycle.currentState } returns Lifecycle.State.RESUMED
+        every { activity.lifecycle } returns lifecycle
         isReadyToPayCallback = mockk(relaxed = true)
         paymentsClient = mockk()
         isReadyToPayRequest = IsReadyToPayRequest.fromJson("{}")
@@ -143,4 +151,77 @@ class GooglePayInternalClientUnitTest {
         }
         countDownLatch.await()
     }
+
+    @Test
+    fun `getPaymentsClient reuses PaymentsClient for the same activity and environment`() {
+        every { Wallet.getPaymentsClient(any<Activity>(), any()) } returns paymentsClient
+
+        val sut = GooglePayInternalClient()
+        val first = sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_TEST)
+        val second = sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_TEST)
+
+        assertSame(first, second)
+        verify(exactly = 1) { Wallet.getPaymentsClient(any<Activity>(), any()) }
+    }
+
+    @Test
+    fun `getPaymentsClient creates a new PaymentsClient when the environment changes`() {
+        val productionPaymentsClient = mockk<PaymentsClient>()
+        every { Wallet.getPaymentsClient(any<Activity>(), any()) } returnsMany
+            listOf(paymentsClient, productionPaymentsClient)
+
+        val sut = GooglePayInternalClient()
+        sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_TEST)
+
+        assertSame(
+            productionPaymentsClient,
+            sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_PRODUCTION)
+        )
+    }
+
+    @Test
+    fun `getPaymentsClient creates a new PaymentsClient after the activity is destroyed`() {
+        val observerSlot = slot<LifecycleEventObserver>()
+        every { lifecycle.addObserver(capture(observerSlot)) } returns Unit
+        every { Wallet.getPaymentsClient(any<Activity>(), any()) } returns paymentsClient
+
+        val sut = GooglePayInternalClient()
+        sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_TEST)
+        observerSlot.captured.onStateChanged(activity, Lifecycle.Event.ON_DESTROY)
+        sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_TEST)
+
+        verify { lifecycle.removeObserver(observerSlot.captured) }
+        verify(exactly = 2) { Wallet.getPaymentsClient(any<Activity>(), any()) }
+    }
+
+    @Test
+    fun `getPaymentsClient off the main thread observes the activity lifecycle on the main thread`() {
+        val mainThreadHandler = mockk<Handler>()
+        val postedSlot = slot<Runnable>()
+        every { mainThreadHandler.post(capture(postedSlot)) } returns true
+        every { Wallet.getPaymentsClient(any<Activity>(), any()) } returns paymentsClient
+
+        val sut = GooglePayInternalClient(mainThreadHandler)
+        val thread = Thread { sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_TEST) }
+        thread.start()
+        thread.join()
+
+        verify(exactly = 0) { lifecycle.addObserver(any()) }
+
+        postedSlot.captured.run()
+        verify { lifecycle.addObserver(any()) }
+    }
+
+    @Test
+    fun `getPaymentsClient releases the PaymentsClient when the activity is destroyed before it is observed`() {
+        every { lifecycle.currentState } returns Lifecycle.State.DESTROYED
+        every { Wallet.getPaymentsClient(any<Activity>(), any()) } returns paymentsClient
+
+        val sut = GooglePayInternalClient()
+        sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_TEST)
+        sut.getPaymentsClient(activity, WalletConstants.ENVIRONMENT_TEST)
+
+        verify(exactly = 0) { lifecycle.addObserver(any()) }
+        verify(exactly = 2) { Wallet.getPaymentsClient(any<Activity>(), any()) }
+    }
 }
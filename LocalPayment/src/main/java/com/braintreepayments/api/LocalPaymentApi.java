@@ -3,6 +3,8 @@ package com.braintreepayments.api;
 import static com.braintreepayments.api.LocalPaymentClient.LOCAL_PAYMENT_CANCEL;
 import static com.braintreepayments.api.LocalPaymentClient.LOCAL_PAYMENT_SUCCESS;
 
+import android.os.CancellationSignal;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -14,12 +16,12 @@ class LocalPaymentApi {
         this.braintreeClient = braintreeClient;
     }
 
-    void createPaymentMethod(final LocalPaymentRequest request, final LocalPaymentStartCallback callback) {
+    void createPaymentMethod(final LocalPaymentRequest request, CancellationSignal cancellationSignal, final LocalPaymentStartCallback callback) {
         String returnUrl = braintreeClient.getReturnUrlScheme() + "://" + LOCAL_PAYMENT_SUCCESS;
         String cancel = braintreeClient.getReturnUrlScheme() + "://" + LOCAL_PAYMENT_CANCEL;
 
         String url = "/v1/local_payments/create";
-        braintreeClient.sendPOST(url, request.build(returnUrl, cancel), new HttpResponseCallback() {
+        braintreeClient.sendPOST(url, request.build(returnUrl, cancel), cancellationSignal, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
@@ -3,9 +3,11 @@ package com.braintreepayments.api;
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
+import android.os.CancellationSignal;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
@@ -93,6 +95,23 @@ public class LocalPaymentClient {
      * @param callback {@link LocalPaymentStartCallback}
      */
     public void startPayment(@NonNull final LocalPaymentRequest request, @NonNull final LocalPaymentStartCallback callback) {
+        startPayment(request, null, callback);
+    }
+
+    /**
+     * Same as {@link #startPayment(LocalPaymentRequest, LocalPaymentStartCallback)}, but canceling
+     * {@code cancellationSignal} aborts the request that creates the payment. Once canceled before
+     * the request is sent, {@code callback} is no longer invoked.
+     *
+     * @param request            {@link LocalPaymentRequest} with the payment details.
+     * @param cancellationSignal cancels the request, or {@code null}
+     * @param callback           {@link LocalPaymentStartCallback}
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void startPayment(@NonNull final LocalPaymentRequest request,
+                             @Nullable final CancellationSignal cancellationSignal,
+                             @NonNull final LocalPaymentStartCallback callback) {
         Exception exception = null;
 
         //noinspection ConstantConditions
@@ -114,6 +133,9 @@ public class LocalPaymentClient {
             braintreeClient.getConfiguration(new ConfigurationCallback() {
                 @Override
                 public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                    if (cancellationSignal != null && cancellationSignal.isCanceled()) {
+                        return;
+                    }
                     if (configuration != null) {
                         if (!configuration.isPayPalEnabled()) {
                             callback.onResult(null, new ConfigurationException("Local payments are not enabled for this merchant."));
@@ -121,8 +143,9 @@ public class LocalPaymentClient {
                         }
 
                         sendAnalyticsEvent(request.getPaymentType(), "local-payment.start-payment.selected");
+                        braintreeClient.warmUpBrowserSwitch();
 
-                        localPaymentApi.createPaymentMethod(request, new LocalPaymentStartCallback() {
+                        localPaymentApi.createPaymentMethod(request, cancellationSignal, new LocalPaymentStartCallback() {
                             @Override
                             public void onResult(@Nullable LocalPaymentResult localPaymentResult, @Nullable Exception error) {
                                 if (localPaymentResult != null) {
@@ -7,11 +7,13 @@ import static junit.framework.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 import android.net.Uri;
+import android.os.CancellationSignal;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -41,11 +43,11 @@ public class LocalPaymentApiUnitTest {
                 .build();
 
         LocalPaymentApi sut = new LocalPaymentApi(braintreeClient);
-        sut.createPaymentMethod(getIdealLocalPaymentRequest(), localPaymentStartCallback);
+        sut.createPaymentMethod(getIdealLocalPaymentRequest(), null, localPaymentStartCallback);
 
         String expectedPath = "/v1/local_payments/create";
         ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(eq(expectedPath), bodyCaptor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendPOST(eq(expectedPath), bodyCaptor.capture(), nullable(CancellationSignal.class), any(HttpResponseCallback.class));
 
         String requestBody = bodyCaptor.getValue();
         JSONObject json = new JSONObject(requestBody);
@@ -80,7 +82,7 @@ public class LocalPaymentApiUnitTest {
                 .build();
 
         LocalPaymentApi sut = new LocalPaymentApi(braintreeClient);
-        sut.createPaymentMethod(getIdealLocalPaymentRequest(), localPaymentStartCallback);
+        sut.createPaymentMethod(getIdealLocalPaymentRequest(), null, localPaymentStartCallback);
 
         verify(localPaymentStartCallback).onResult((LocalPaymentResult) isNull(), same(error));
 
@@ -93,7 +95,7 @@ public class LocalPaymentApiUnitTest {
                 .build();
 
         LocalPaymentApi sut = new LocalPaymentApi(braintreeClient);
-        sut.createPaymentMethod(getIdealLocalPaymentRequest(), localPaymentStartCallback);
+        sut.createPaymentMethod(getIdealLocalPaymentRequest(), null, localPaymentStartCallback);
 
         ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
         verify(localPaymentStartCallback).onResult((LocalPaymentResult) isNull(), captor.capture());
@@ -109,7 +111,7 @@ public class LocalPaymentApiUnitTest {
 
         LocalPaymentApi sut = new LocalPaymentApi(braintreeClient);
         LocalPaymentRequest request = getIdealLocalPaymentRequest();
-        sut.createPaymentMethod(request, localPaymentStartCallback);
+        sut.createPaymentMethod(request, null, localPaymentStartCallback);
 
         ArgumentCaptor<LocalPaymentResult> captor = ArgumentCaptor.forClass(LocalPaymentResult.class);
         verify(localPaymentStartCallback).onResult(captor.capture(), (Exception) isNull());
@@ -9,16 +9,19 @@ import static junit.framework.TestCase.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
+import android.os.CancellationSignal;
 
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
@@ -179,7 +182,38 @@ public class LocalPaymentClientUnitTest {
         LocalPaymentRequest request = getIdealLocalPaymentRequest();
         sut.startPayment(request, localPaymentStartCallback);
 
-        verify(localPaymentApi).createPaymentMethod(same(request), any(LocalPaymentStartCallback.class));
+        verify(localPaymentApi).createPaymentMethod(same(request), nullable(CancellationSignal.class), any(LocalPaymentStartCallback.class));
+    }
+
+    @Test
+    public void startPayment_withCancellationSignal_forwardsSignalToLocalPaymentApi() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(payPalEnabledConfig)
+                .build();
+        LocalPaymentApi localPaymentApi = new MockLocalPaymentApiBuilder().build();
+        CancellationSignal cancellationSignal = new CancellationSignal();
+
+        LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
+        LocalPaymentRequest request = getIdealLocalPaymentRequest();
+        sut.startPayment(request, cancellationSignal, localPaymentStartCallback);
+
+        verify(localPaymentApi).createPaymentMethod(same(request), same(cancellationSignal), any(LocalPaymentStartCallback.class));
+    }
+
+    @Test
+    public void startPayment_whenCanceledBeforeConfigurationLoads_doesNotCreatePaymentMethod() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(payPalEnabledConfig)
+                .build();
+        LocalPaymentApi localPaymentApi = new MockLocalPaymentApiBuilder().build();
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        cancellationSignal.cancel();
+
+        LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
+        sut.startPayment(getIdealLocalPaymentRequest(), cancellationSignal, localPaymentStartCallback);
+
+        verify(localPaymentApi, never()).createPaymentMethod(any(LocalPaymentRequest.class), nullable(CancellationSignal.class), any(LocalPaymentStartCallback.class));
+        verifyNoInteractions(localPaymentStartCallback);
     }
 
     @Test
@@ -217,6 +251,24 @@ public class LocalPaymentClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent("ideal.local-payment.create.succeeded");
     }
 
+    @Test
+    public void startPayment_warmsUpBrowser() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(payPalEnabledConfig)
+                .build();
+
+        LocalPaymentResult localPaymentResult = mock(LocalPaymentResult.class);
+        when(localPaymentResult.getApprovalUrl()).thenReturn("https://example.com/approval");
+        LocalPaymentApi localPaymentApi = new MockLocalPaymentApiBuilder()
+                .createPaymentMethodSuccess(localPaymentResult)
+                .build();
+
+        LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
+        sut.startPayment(getIdealLocalPaymentRequest(), localPaymentStartCallback);
+
+        verify(braintreeClient).warmUpBrowserSwitch();
+    }
+
     @Test
     public void startPayment_configurationFetchError_forwardsErrorToCallback() {
         Exception configException = new Exception(("Configuration not fetched"));
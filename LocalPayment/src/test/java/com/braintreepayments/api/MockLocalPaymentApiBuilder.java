@@ -2,9 +2,12 @@ package com.braintreepayments.api;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 
+import android.os.CancellationSignal;
+
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
@@ -54,7 +57,7 @@ public class MockLocalPaymentApiBuilder {
         doAnswer(new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
-                LocalPaymentStartCallback callback = (LocalPaymentStartCallback) invocation.getArguments()[1];
+                LocalPaymentStartCallback callback = (LocalPaymentStartCallback) invocation.getArguments()[2];
                 if (createPaymentMethodSuccess != null) {
                     callback.onResult(createPaymentMethodSuccess, null);
                 } else if (createPaymentMethodError != null) {
@@ -62,7 +65,8 @@ public class MockLocalPaymentApiBuilder {
                 }
                 return null;
             }
-        }).when(localPaymentAPI).createPaymentMethod(any(LocalPaymentRequest.class), any(LocalPaymentStartCallback.class));
+        }).when(localPaymentAPI).createPaymentMethod(any(LocalPaymentRequest.class), nullable(CancellationSignal.class),
+                any(LocalPaymentStartCallback.class));
 
         return localPaymentAPI;
     }
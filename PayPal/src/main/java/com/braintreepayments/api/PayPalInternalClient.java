@@ -2,7 +2,9 @@ package com.braintreepayments.api;
 
 import android.content.Context;
 import android.net.Uri;
+import android.os.CancellationSignal;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
@@ -48,46 +50,52 @@ class PayPalInternalClient {
                                 return;
                             }
                             try {
-                                final boolean isBillingAgreement = payPalRequest instanceof PayPalVaultRequest;
+                                boolean isBillingAgreement = payPalRequest instanceof PayPalVaultRequest;
                                 String endpoint = isBillingAgreement
                                         ? SETUP_BILLING_AGREEMENT_ENDPOINT : CREATE_SINGLE_PAYMENT_ENDPOINT;
                                 String url = String.format("/v1/%s", endpoint);
 
                                 String requestBody = payPalRequest.createRequestBody(configuration, authorization, successUrl, cancelUrl);
 
+                                // collect the client metadata ID in parallel with the POST instead of
+                                // blocking the main thread on Magnes once the response arrives; the
+                                // collection is canceled if the response has no use for it
+                                final CancellationSignal clientMetadataIdSignal = new CancellationSignal();
+                                final PendingClientMetadataId pendingClientMetadataId =
+                                        new PendingClientMetadataId(payPalRequest.getRiskCorrelationId());
+                                if (payPalRequest.getRiskCorrelationId() == null) {
+                                    payPalDataCollector.getClientMetadataId(context, configuration, clientMetadataIdSignal, pendingClientMetadataId);
+                                }
+
                                 braintreeClient.sendPOST(url, requestBody, new HttpResponseCallback() {
 
                                     @Override
-                                    public void onResult(String responseBody, Exception httpError) {
+                                    public void onResult(final String responseBody, Exception httpError) {
                                         if (responseBody != null) {
+                                            final PayPalPaymentResource paymentResource;
                                             try {
-                                                PayPalResponse payPalResponse = new PayPalResponse(payPalRequest)
-                                                        .successUrl(successUrl);
-
-                                                PayPalPaymentResource paypalPaymentResource = PayPalPaymentResource.fromJson(responseBody);
-                                                String redirectUrl = paypalPaymentResource.getRedirectUrl();
-                                                if (redirectUrl != null) {
-                                                    Uri parsedRedirectUri = Uri.parse(redirectUrl);
-
-                                                    String pairingIdKey = isBillingAgreement ? "ba_token" : "token";
-                                                    String pairingId = parsedRedirectUri.getQueryParameter(pairingIdKey);
-                                                    String clientMetadataId = payPalRequest.getRiskCorrelationId() != null
-                                                            ? payPalRequest.getRiskCorrelationId() : payPalDataCollector.getClientMetadataId(context, configuration);
-
-                                                    if (pairingId != null) {
-                                                        payPalResponse
-                                                                .pairingId(pairingId)
-                                                                .clientMetadataId(clientMetadataId);
-                                                    }
-
-                                                    payPalResponse.approvalUrl(parsedRedirectUri.toString());
-                                                }
-                                                callback.onResult(payPalResponse, null);
-
+                                                paymentResource = PayPalPaymentResource.fromJson(responseBody);
                                             } catch (JSONException exception) {
+                                                clientMetadataIdSignal.cancel();
                                                 callback.onResult(null, exception);
+                                                return;
                                             }
+
+                                            // the client metadata ID is only returned alongside a pairing ID
+                                            if (getPairingId(payPalRequest, paymentResource) == null) {
+                                                clientMetadataIdSignal.cancel();
+                                                callback.onResult(createResponse(payPalRequest, paymentResource, null), null);
+                                                return;
+                                            }
+
+                                            pendingClientMetadataId.await(new PayPalClientMetadataIdCallback() {
+                                                @Override
+                                                public void onResult(@NonNull String clientMetadataId) {
+                                                    callback.onResult(createResponse(payPalRequest, paymentResource, clientMetadataId), null);
+                                                }
+                                            });
                                         } else {
+                                            clientMetadataIdSignal.cancel();
                                             callback.onResult(null, httpError);
                                         }
                                     }
@@ -104,6 +112,36 @@ class PayPalInternalClient {
         });
     }
 
+    private PayPalResponse createResponse(PayPalRequest payPalRequest, PayPalPaymentResource paymentResource, String clientMetadataId) {
+        PayPalResponse payPalResponse = new PayPalResponse(payPalRequest)
+                .successUrl(successUrl);
+
+        String redirectUrl = paymentResource.getRedirectUrl();
+        if (redirectUrl != null) {
+            Uri parsedRedirectUri = Uri.parse(redirectUrl);
+            String pairingId = getPairingId(payPalRequest, paymentResource);
+
+            if (pairingId != null) {
+                payPalResponse
+                        .pairingId(pairingId)
+                        .clientMetadataId(clientMetadataId);
+            }
+
+            payPalResponse.approvalUrl(parsedRedirectUri.toString());
+        }
+        return payPalResponse;
+    }
+
+    @Nullable
+    private static String getPairingId(PayPalRequest payPalRequest, PayPalPaymentResource paymentResource) {
+        String redirectUrl = paymentResource.getRedirectUrl();
+        if (redirectUrl == null) {
+            return null;
+        }
+        String pairingIdKey = (payPalRequest instanceof PayPalVaultRequest) ? "ba_token" : "token";
+        return Uri.parse(redirectUrl).getQueryParameter(pairingIdKey);
+    }
+
     void tokenize(PayPalAccount payPalAccount, final PayPalBrowserSwitchResultCallback callback) {
         apiClient.tokenizeREST(payPalAccount, new TokenizeCallback() {
             @Override
@@ -122,4 +160,44 @@ class PayPalInternalClient {
             }
         });
     }
+
+    /**
+     * Joins a client metadata ID that is being collected in the background with the
+     * create payment resource response. Both sides are delivered on the main thread.
+     */
+    private static class PendingClientMetadataId implements PayPalClientMetadataIdCallback {
+
+        private String clientMetadataId;
+        private PayPalClientMetadataIdCallback waiter;
+
+        PendingClientMetadataId(String riskCorrelationId) {
+            this.clientMetadataId = riskCorrelationId;
+        }
+
+        @Override
+        public void onResult(@NonNull String clientMetadataId) {
+            PayPalClientMetadataIdCallback pendingWaiter;
+            synchronized (this) {
+                this.clientMetadataId = clientMetadataId;
+                pendingWaiter = waiter;
+                waiter = null;
+            }
+            if (pendingWaiter != null) {
+                pendingWaiter.onResult(clientMetadataId);
+            }
+        }
+
+        void await(PayPalClientMetadataIdCallback callback) {
+            String result;
+            synchronized (this) {
+                result = clientMetadataId;
+                if (result == null) {
+                    waiter = callback;
+                }
+            }
+            if (result != null) {
+                callback.onResult(result);
+            }
+        }
+    }
 }
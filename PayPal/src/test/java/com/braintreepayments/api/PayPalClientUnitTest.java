@@ -8,6 +8,7 @@ import static junit.framework.TestCase.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -26,6 +27,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 
@@ -241,6 +243,23 @@ public class PayPalClientUnitTest {
         assertEquals("paypal-browser", metadata.get("source"));
     }
 
+    @Test
+    public void tokenizePayPalAccount_warmsUpBrowserBeforeSendingRequest() {
+        PayPalVaultRequest payPalVaultRequest = new PayPalVaultRequest();
+        PayPalInternalClient payPalInternalClient = new MockPayPalInternalClientBuilder().build();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(payPalEnabledConfig)
+                .build();
+
+        PayPalClient sut = new PayPalClient(activity, lifecycle, braintreeClient, payPalInternalClient);
+        sut.tokenizePayPalAccount(activity, payPalVaultRequest);
+
+        InOrder inOrder = inOrder(braintreeClient, payPalInternalClient);
+        inOrder.verify(braintreeClient).warmUpBrowserSwitch();
+        inOrder.verify(payPalInternalClient).sendRequest(same(activity), same(payPalVaultRequest), any(PayPalInternalClientCallback.class));
+    }
+
     @Test
     public void tokenizePayPalAccount_whenLaunchesBrowserSwitchAsNewTaskEnabled_startsBrowserAsSingleTask() throws JSONException, BrowserSwitchException {
         PayPalVaultRequest payPalVaultRequest = new PayPalVaultRequest();
@@ -9,11 +9,17 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.os.CancellationSignal;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -22,6 +28,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 
@@ -52,6 +61,18 @@ public class PayPalInternalClientUnitTest {
         payPalDataCollector = mock(PayPalDataCollector.class);
         apiClient = mock(ApiClient.class);
         payPalInternalClientCallback = mock(PayPalInternalClientCallback.class);
+        stubClientMetadataId("");
+    }
+
+    private void stubClientMetadataId(final String clientMetadataId) {
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                PayPalClientMetadataIdCallback callback = (PayPalClientMetadataIdCallback) invocation.getArguments()[3];
+                callback.onResult(clientMetadataId);
+                return null;
+            }
+        }).when(payPalDataCollector).getClientMetadataId(any(Context.class), any(Configuration.class), any(CancellationSignal.class), any(PayPalClientMetadataIdCallback.class));
     }
 
     @Test
@@ -409,7 +430,7 @@ public class PayPalInternalClientUnitTest {
 
     @Test
     public void sendRequest_whenRiskCorrelationIdNotNull_setsClientMetadataIdToRiskCorrelationId() {
-        when(payPalDataCollector.getClientMetadataId(context, configuration)).thenReturn("sample-client-metadata-id");
+        stubClientMetadataId("sample-client-metadata-id");
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(configuration)
@@ -433,7 +454,7 @@ public class PayPalInternalClientUnitTest {
 
     @Test
     public void sendRequest_whenRiskCorrelationIdNull_setsClientMetadataIdFromPayPalDataCollector() {
-        when(payPalDataCollector.getClientMetadataId(context, configuration)).thenReturn("sample-client-metadata-id");
+        stubClientMetadataId("sample-client-metadata-id");
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(configuration)
@@ -455,6 +476,128 @@ public class PayPalInternalClientUnitTest {
         assertEquals("sample-client-metadata-id", payPalResponse.getClientMetadataId());
     }
 
+    @Test
+    public void sendRequest_whenRiskCorrelationIdNotNull_doesNotCollectClientMetadataId() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+
+        PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
+        payPalRequest.setRiskCorrelationId("risk-correlation-id");
+
+        sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
+
+        verify(payPalDataCollector, never()).getClientMetadataId(any(Context.class), any(Configuration.class), any(CancellationSignal.class), any(PayPalClientMetadataIdCallback.class));
+        verify(payPalDataCollector, never()).getClientMetadataId(any(Context.class), any(Configuration.class));
+    }
+
+    @Test
+    public void sendRequest_startsClientMetadataIdCollectionBeforeSendingPOST() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+        sut.sendRequest(context, new PayPalCheckoutRequest("1.00"), payPalInternalClientCallback);
+
+        InOrder inOrder = inOrder(payPalDataCollector, braintreeClient);
+        inOrder.verify(payPalDataCollector).getClientMetadataId(same(context), same(configuration), any(CancellationSignal.class), any(PayPalClientMetadataIdCallback.class));
+        inOrder.verify(braintreeClient).sendPOST(anyString(), anyString(), any(HttpResponseCallback.class));
+        verify(payPalDataCollector, never()).getClientMetadataId(any(Context.class), any(Configuration.class));
+    }
+
+    @Test
+    public void sendRequest_whenResponseArrivesBeforeClientMetadataId_waitsForClientMetadataId() {
+        doNothing().when(payPalDataCollector).getClientMetadataId(any(Context.class), any(Configuration.class), any(CancellationSignal.class), any(PayPalClientMetadataIdCallback.class));
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(Fixtures.PAYPAL_HERMES_RESPONSE)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+        sut.sendRequest(context, new PayPalCheckoutRequest("1.00"), payPalInternalClientCallback);
+
+        ArgumentCaptor<PayPalClientMetadataIdCallback> clientMetadataIdCaptor =
+                ArgumentCaptor.forClass(PayPalClientMetadataIdCallback.class);
+        verify(payPalDataCollector).getClientMetadataId(same(context), same(configuration), any(CancellationSignal.class), clientMetadataIdCaptor.capture());
+        verifyNoInteractions(payPalInternalClientCallback);
+
+        clientMetadataIdCaptor.getValue().onResult("late-client-metadata-id");
+
+        ArgumentCaptor<PayPalResponse> captor = ArgumentCaptor.forClass(PayPalResponse.class);
+        verify(payPalInternalClientCallback).onResult(captor.capture(), (Exception) isNull());
+        assertEquals("late-client-metadata-id", captor.getValue().getClientMetadataId());
+    }
+
+    @Test
+    public void sendRequest_whenHttpErrorArrivesBeforeClientMetadataId_forwardsErrorImmediately() {
+        doNothing().when(payPalDataCollector).getClientMetadataId(any(Context.class), any(Configuration.class), any(CancellationSignal.class), any(PayPalClientMetadataIdCallback.class));
+
+        Exception httpError = new Exception("http error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTErrorResponse(httpError)
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+        sut.sendRequest(context, new PayPalCheckoutRequest("1.00"), payPalInternalClientCallback);
+
+        verify(payPalInternalClientCallback).onResult(null, httpError);
+    }
+
+    @Test
+    public void sendRequest_whenHttpError_cancelsClientMetadataIdCollection() {
+        doNothing().when(payPalDataCollector).getClientMetadataId(any(Context.class), any(Configuration.class), any(CancellationSignal.class), any(PayPalClientMetadataIdCallback.class));
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTErrorResponse(new Exception("http error"))
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+        sut.sendRequest(context, new PayPalCheckoutRequest("1.00"), payPalInternalClientCallback);
+
+        ArgumentCaptor<CancellationSignal> captor = ArgumentCaptor.forClass(CancellationSignal.class);
+        verify(payPalDataCollector).getClientMetadataId(same(context), same(configuration), captor.capture(), any(PayPalClientMetadataIdCallback.class));
+        assertTrue(captor.getValue().isCanceled());
+    }
+
+    @Test
+    public void sendRequest_whenResponseHasNoPairingId_cancelsClientMetadataIdCollectionAndForwardsResponse() throws JSONException {
+        doNothing().when(payPalDataCollector).getClientMetadataId(any(Context.class), any(Configuration.class), any(CancellationSignal.class), any(PayPalClientMetadataIdCallback.class));
+
+        JSONObject response = new JSONObject()
+                .put("paymentResource", new JSONObject().put("redirectUrl", "https://example.com/checkout"));
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(clientToken)
+                .sendPOSTSuccessfulResponse(response.toString())
+                .build();
+
+        PayPalInternalClient sut = new PayPalInternalClient(braintreeClient, payPalDataCollector, apiClient);
+        sut.sendRequest(context, new PayPalCheckoutRequest("1.00"), payPalInternalClientCallback);
+
+        ArgumentCaptor<CancellationSignal> signalCaptor = ArgumentCaptor.forClass(CancellationSignal.class);
+        verify(payPalDataCollector).getClientMetadataId(same(context), same(configuration), signalCaptor.capture(), any(PayPalClientMetadataIdCallback.class));
+        assertTrue(signalCaptor.getValue().isCanceled());
+
+        ArgumentCaptor<PayPalResponse> captor = ArgumentCaptor.forClass(PayPalResponse.class);
+        verify(payPalInternalClientCallback).onResult(captor.capture(), (Exception) isNull());
+        assertNull(captor.getValue().getPairingId());
+        assertNull(captor.getValue().getClientMetadataId());
+        assertEquals("https://example.com/checkout", captor.getValue().getApprovalUrl());
+    }
+
     @Test
     public void sendRequest_withPayPalCheckoutRequest_whenRequestBillingAgreementFalse_andBillingAgreementDescriptionSet_doesNotSettBillingAgreementDescription() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -481,7 +624,7 @@ public class PayPalInternalClientUnitTest {
 
     @Test
     public void sendRequest_withPayPalVaultRequest_callsBackPayPalResponseOnSuccess() {
-        when(payPalDataCollector.getClientMetadataId(context, configuration)).thenReturn("sample-client-metadata-id");
+        stubClientMetadataId("sample-client-metadata-id");
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(configuration)
@@ -512,7 +655,7 @@ public class PayPalInternalClientUnitTest {
 
     @Test
     public void sendRequest_withPayPalCheckoutRequest_callsBackPayPalResponseOnSuccess() {
-        when(payPalDataCollector.getClientMetadataId(context, configuration)).thenReturn("sample-client-metadata-id");
+        stubClientMetadataId("sample-client-metadata-id");
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(configuration)
@@ -3,7 +3,6 @@ package com.braintreepayments.api;
 import android.content.Context;
 import android.util.Log;
 
-import androidx.annotation.MainThread;
 import androidx.annotation.VisibleForTesting;
 
 import lib.android.paypal.com.magnessdk.Environment;
@@ -26,7 +25,6 @@ class MagnesInternalClient {
         this.magnesSDK = magnesSDK;
     }
 
-    @MainThread
     String getClientMetadataId(Context context, Configuration configuration, PayPalDataCollectorRequest request) {
         if (context == null) {
             return "";
@@ -0,0 +1,17 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Callback for receiving result of
+ * {@link PayPalDataCollector#getClientMetadataId(Context, Configuration, PayPalClientMetadataIdCallback)}
+ */
+interface PayPalClientMetadataIdCallback {
+
+    /**
+     * @param clientMetadataId the client metadata ID, or an empty string if Magnes failed to produce one
+     */
+    void onResult(@NonNull String clientMetadataId);
+}
@@ -1,16 +1,22 @@
 package com.braintreepayments.api;
 
 import android.content.Context;
+import android.os.CancellationSignal;
 import android.text.TextUtils;
 
-import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * PayPalDataCollector is used to collect PayPal specific device information to aid in fraud detection and prevention.
  */
@@ -18,9 +24,17 @@ public class PayPalDataCollector {
 
     private static final String CORRELATION_ID_KEY = "correlation_id";
 
+    // Magnes is a process-wide singleton that is set up before every collection, so collections
+    // run one at a time to keep setUp/collectAndSubmit pairs together
+    private static final Object MAGNES_LOCK = new Object();
+    private static ExecutorService magnesExecutor;
+    private static Scheduler magnesScheduler;
+
     private final MagnesInternalClient magnesInternalClient;
     private final UUIDHelper uuidHelper;
     private final BraintreeClient braintreeClient;
+    private final Scheduler scheduler;
+    private final PayPalDeviceDataCache deviceDataCache;
 
     public PayPalDataCollector(@NonNull BraintreeClient braintreeClient) {
         this(braintreeClient, new MagnesInternalClient(), new UUIDHelper());
@@ -28,9 +42,40 @@ public class PayPalDataCollector {
 
     @VisibleForTesting
     PayPalDataCollector(BraintreeClient braintreeClient, MagnesInternalClient magnesInternalClient, UUIDHelper uuidHelper) {
+        this(braintreeClient, magnesInternalClient, uuidHelper,
+                getMagnesScheduler(braintreeClient.getNetworkExecutor(), braintreeClient.getCallbackExecutor()),
+                PayPalDeviceDataCache.getInstance());
+    }
+
+    @VisibleForTesting
+    PayPalDataCollector(BraintreeClient braintreeClient, MagnesInternalClient magnesInternalClient, UUIDHelper uuidHelper, Scheduler scheduler, PayPalDeviceDataCache deviceDataCache) {
         this.braintreeClient = braintreeClient;
         this.magnesInternalClient = magnesInternalClient;
         this.uuidHelper = uuidHelper;
+        this.scheduler = scheduler;
+        this.deviceDataCache = deviceDataCache;
+    }
+
+    /**
+     * @return a {@link Scheduler} that runs collections one at a time on {@code networkExecutor},
+     * or on a thread of its own if the app did not supply a network executor, and delivers results
+     * on {@code callbackExecutor}, or on the main thread if the app did not supply one
+     */
+    @VisibleForTesting
+    static synchronized Scheduler getMagnesScheduler(@Nullable Executor networkExecutor, @Nullable Executor callbackExecutor) {
+        if (networkExecutor != null) {
+            return new ExecutorScheduler(new SerialExecutor(networkExecutor), callbackExecutor);
+        }
+        if (magnesExecutor == null) {
+            magnesExecutor = Executors.newSingleThreadExecutor();
+        }
+        if (callbackExecutor != null) {
+            return new ExecutorScheduler(magnesExecutor, callbackExecutor);
+        }
+        if (magnesScheduler == null) {
+            magnesScheduler = new ThreadScheduler(magnesExecutor);
+        }
+        return magnesScheduler;
     }
 
     String getPayPalInstallationGUID(Context context) {
@@ -48,7 +93,6 @@ public class PayPalDataCollector {
      * @param context       Android Context
      * @param configuration The merchant configuration
      */
-    @MainThread
     String getClientMetadataId(Context context, Configuration configuration) {
         PayPalDataCollectorRequest request = new PayPalDataCollectorRequest()
                 .setApplicationGuid(getPayPalInstallationGUID(context));
@@ -68,9 +112,51 @@ public class PayPalDataCollector {
      * @param request       configures what data to collect.
      * @param configuration the merchant configuration
      */
-    @MainThread
     String getClientMetadataId(Context context, PayPalDataCollectorRequest request, Configuration configuration) {
-        return magnesInternalClient.getClientMetadataId(context, configuration, request);
+        // every collection passes through here, including synchronous ones on the main thread
+        synchronized (MAGNES_LOCK) {
+            return magnesInternalClient.getClientMetadataId(context, configuration, request);
+        }
+    }
+
+    /**
+     * Gets a Client Metadata ID on a background thread. Magnes setup and collection run off the
+     * main thread and the result is delivered on the main thread, so callers can start collection
+     * alongside other work and join on the result when it is needed.
+     * <p>
+     * Canceling the signal before collection starts skips Magnes entirely; once canceled, the
+     * callback is never invoked.
+     *
+     * @param context            Android Context
+     * @param configuration      the merchant configuration
+     * @param cancellationSignal signal used to abandon the collection
+     * @param callback           {@link PayPalClientMetadataIdCallback}
+     */
+    void getClientMetadataId(final Context context, final Configuration configuration, final CancellationSignal cancellationSignal, final PayPalClientMetadataIdCallback callback) {
+        scheduler.runOnBackground(new Runnable() {
+            @Override
+            public void run() {
+                if (cancellationSignal.isCanceled()) {
+                    return;
+                }
+                String result;
+                try {
+                    result = getClientMetadataId(context, configuration);
+                } catch (RuntimeException e) {
+                    // never leave the caller waiting on a result that will not arrive
+                    result = null;
+                }
+                final String clientMetadataId = (result != null) ? result : "";
+                scheduler.runOnMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!cancellationSignal.isCanceled()) {
+                            callback.onResult(clientMetadataId);
+                        }
+                    }
+                });
+            }
+        });
     }
 
     /**
@@ -79,6 +165,9 @@ public class PayPalDataCollector {
      * We recommend that you call this method as early as possible, e.g. at app launch. If that's too early,
      * call it at the beginning of customer checkout.
      * <p>
+     * Device data is collected on a background thread and reused for the rest of the session, so
+     * repeated calls return immediately.
+     * <p>
      * Use the return value on your server, e.g. with `Transaction.sale`.
      *
      * @param context  Android Context
@@ -94,6 +183,9 @@ public class PayPalDataCollector {
      * We recommend that you call this method as early as possible, e.g. at app launch. If that's too early,
      * call it at the beginning of customer checkout.
      * <p>
+     * Device data is collected on a background thread and reused for the rest of the session, so
+     * repeated calls with the same risk correlation ID return immediately.
+     * <p>
      * Use the return value on your server, e.g. with `Transaction.sale`.
      *
      * @param context           Android Context
@@ -101,30 +193,139 @@ public class PayPalDataCollector {
      * @param callback          {@link PayPalDataCollectorCallback}
      */
     public void collectDeviceData(@NonNull final Context context, @Nullable final String riskCorrelationId, @NonNull final PayPalDataCollectorCallback callback) {
+        collectDeviceData(context, riskCorrelationId, null, callback);
+    }
+
+    /**
+     * Same as {@link #collectDeviceData(Context, String, PayPalDataCollectorCallback)}, but once
+     * {@code cancellationSignal} is canceled {@code callback} is no longer invoked, and a
+     * collection that nobody else is waiting on is skipped if it has not started yet. A running
+     * collection cannot be aborted; its result is still cached for the next call.
+     *
+     * @param context            Android Context
+     * @param riskCorrelationId  Optional client metadata id
+     * @param cancellationSignal cancels the collection, or {@code null}
+     * @param callback           {@link PayPalDataCollectorCallback}
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void collectDeviceData(@NonNull final Context context, @Nullable final String riskCorrelationId,
+                                  @Nullable final CancellationSignal cancellationSignal,
+                                  @NonNull final PayPalDataCollectorCallback callback) {
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (cancellationSignal != null && cancellationSignal.isCanceled()) {
+                    return;
+                }
                 if (configuration != null) {
-                    final JSONObject deviceData = new JSONObject();
-                    try {
-                        PayPalDataCollectorRequest request = new PayPalDataCollectorRequest()
-                                .setApplicationGuid(getPayPalInstallationGUID(context));
-                        if (riskCorrelationId != null) {
-                            request.setRiskCorrelationId(riskCorrelationId);
-                        }
+                    collectDeviceData(context, configuration, riskCorrelationId, cancellationSignal, callback);
+                } else {
+                    callback.onResult(null, error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts collecting device data in the background so it is ready by the time
+     * {@link #collectDeviceData(Context, PayPalDataCollectorCallback)} is called, e.g. right after
+     * creating this client when the customer enters checkout.
+     *
+     * @param context Android Context
+     */
+    public void prefetchDeviceData(@NonNull Context context) {
+        prefetchDeviceData(context, null);
+    }
 
-                        String correlationId =
-                                magnesInternalClient.getClientMetadataId(context, configuration, request);
-                        if (!TextUtils.isEmpty(correlationId)) {
-                            deviceData.put(CORRELATION_ID_KEY, correlationId);
+    /**
+     * Starts collecting device data in the background so it is ready by the time
+     * {@link #collectDeviceData(Context, String, PayPalDataCollectorCallback)} is called with the
+     * same risk correlation ID.
+     *
+     * @param context           Android Context
+     * @param riskCorrelationId Optional client metadata id
+     */
+    public void prefetchDeviceData(@NonNull Context context, @Nullable String riskCorrelationId) {
+        collectDeviceData(context, riskCorrelationId, new PayPalDataCollectorCallback() {
+            @Override
+            public void onResult(@Nullable String deviceData, @Nullable Exception error) {
+                // result is cached for the next collectDeviceData call
+            }
+        });
+    }
+
+    private void collectDeviceData(final Context context, final Configuration configuration, final String riskCorrelationId,
+                                   final CancellationSignal cancellationSignal, final PayPalDataCollectorCallback callback) {
+        final String key = PayPalDeviceDataCache.keyOf(braintreeClient.getSessionId(), riskCorrelationId);
+        String cachedDeviceData = deviceDataCache.get(key, System.currentTimeMillis());
+        if (cachedDeviceData != null) {
+            callback.onResult(cachedDeviceData, null);
+            return;
+        }
+
+        final PayPalDataCollectorCallback pendingCallback = (cancellationSignal == null) ? callback
+                : new PayPalDataCollectorCallback() {
+                    @Override
+                    public void onResult(@Nullable String deviceData, @Nullable Exception error) {
+                        if (!cancellationSignal.isCanceled()) {
+                            callback.onResult(deviceData, error);
                         }
-                    } catch (JSONException ignored) {
                     }
-                    callback.onResult(deviceData.toString(), null);
+                };
+        boolean isNewCollection = deviceDataCache.addPendingCallback(key, pendingCallback);
+        if (cancellationSignal != null) {
+            cancellationSignal.setOnCancelListener(new CancellationSignal.OnCancelListener() {
+                @Override
+                public void onCancel() {
+                    deviceDataCache.removePendingCallback(key, pendingCallback);
+                }
+            });
+        }
+        if (!isNewCollection) {
+            // a collection for this session and risk correlation ID is already running
+            return;
+        }
 
-                } else {
-                    callback.onResult(null, error);
+        scheduler.runOnBackground(new Runnable() {
+            @Override
+            public void run() {
+                if (deviceDataCache.abandonIfNoPendingCallbacks(key)) {
+                    // every caller canceled before the collection started
+                    return;
+                }
+                String correlationId;
+                try {
+                    PayPalDataCollectorRequest request = new PayPalDataCollectorRequest()
+                            .setApplicationGuid(getPayPalInstallationGUID(context));
+                    if (riskCorrelationId != null) {
+                        request.setRiskCorrelationId(riskCorrelationId);
+                    }
+                    correlationId = getClientMetadataId(context, request, configuration);
+                } catch (RuntimeException | NoClassDefFoundError e) {
+                    // never leave the callers waiting on a result that will not arrive
+                    correlationId = null;
                 }
+
+                final JSONObject deviceData = new JSONObject();
+                if (!TextUtils.isEmpty(correlationId)) {
+                    try {
+                        deviceData.put(CORRELATION_ID_KEY, correlationId);
+                    } catch (JSONException ignored) {
+                    }
+                    // only successful collections are reused; a failed one is retried next time
+                    deviceDataCache.put(key, deviceData.toString(), System.currentTimeMillis());
+                }
+                final List<PayPalDataCollectorCallback> callbacks = deviceDataCache.removePendingCallbacks(key);
+
+                scheduler.runOnMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (PayPalDataCollectorCallback waitingCallback : callbacks) {
+                            waitingCallback.onResult(deviceData.toString(), null);
+                        }
+                    }
+                });
             }
         });
     }
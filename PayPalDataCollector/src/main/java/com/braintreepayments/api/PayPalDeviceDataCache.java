@@ -0,0 +1,130 @@
+package com.braintreepayments.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, least recently used cache of collected device data keyed by the Braintree session and
+ * risk correlation ID it was collected for. Also tracks collections that are still running so
+ * callers asking for the same key while Magnes is busy share a single collection.
+ */
+class PayPalDeviceDataCache {
+
+    static final int MAX_SIZE = 8;
+    static final long DEFAULT_TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static PayPalDeviceDataCache instance;
+
+    private final long timeToLiveMs;
+    private final Map<String, List<PayPalDataCollectorCallback>> pendingCallbacks = new HashMap<>();
+    private final LinkedHashMap<String, Entry> entries =
+        new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+
+    static synchronized PayPalDeviceDataCache getInstance() {
+        if (instance == null) {
+            instance = new PayPalDeviceDataCache(DEFAULT_TIME_TO_LIVE_MS);
+        }
+        return instance;
+    }
+
+    PayPalDeviceDataCache(long timeToLiveMs) {
+        this.timeToLiveMs = timeToLiveMs;
+    }
+
+    static String keyOf(String sessionId, String riskCorrelationId) {
+        return String.format("%s:%s",
+                (sessionId != null) ? sessionId : "", (riskCorrelationId != null) ? riskCorrelationId : "");
+    }
+
+    synchronized String get(String key, long currentTimeMillis) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (currentTimeMillis - entry.createdAt >= timeToLiveMs) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.deviceData;
+    }
+
+    synchronized void put(String key, String deviceData, long currentTimeMillis) {
+        entries.put(key, new Entry(deviceData, currentTimeMillis));
+    }
+
+    /**
+     * Registers {@code callback} to receive the result of the collection for {@code key}.
+     *
+     * @return {@code true} if no collection for {@code key} is running and the caller must start one
+     */
+    synchronized boolean addPendingCallback(String key, PayPalDataCollectorCallback callback) {
+        List<PayPalDataCollectorCallback> callbacks = pendingCallbacks.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return false;
+        }
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        pendingCallbacks.put(key, callbacks);
+        return true;
+    }
+
+    /**
+     * Stops {@code callback} from receiving the result of the collection for {@code key}. The
+     * collection keeps running for any other callbacks waiting on it.
+     */
+    synchronized void removePendingCallback(String key, PayPalDataCollectorCallback callback) {
+        List<PayPalDataCollectorCallback> callbacks = pendingCallbacks.get(key);
+        if (callbacks != null) {
+            callbacks.remove(callback);
+        }
+    }
+
+    /**
+     * Marks the collection for {@code key} as finished if every callback waiting on it was
+     * removed before it started.
+     *
+     * @return {@code true} if nobody is waiting and the collection should be skipped
+     */
+    synchronized boolean abandonIfNoPendingCallbacks(String key) {
+        List<PayPalDataCollectorCallback> callbacks = pendingCallbacks.get(key);
+        if (callbacks != null && callbacks.isEmpty()) {
+            pendingCallbacks.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marks the collection for {@code key} as finished and hands back every callback that was
+     * waiting on it.
+     */
+    synchronized List<PayPalDataCollectorCallback> removePendingCallbacks(String key) {
+        List<PayPalDataCollectorCallback> callbacks = pendingCallbacks.remove(key);
+        return (callbacks != null) ? callbacks : new ArrayList<PayPalDataCollectorCallback>();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+
+        final String deviceData;
+        final long createdAt;
+
+        Entry(String deviceData, long createdAt) {
+            this.deviceData = deviceData;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.braintreepayments.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.os.CancellationSignal;
 
 import androidx.test.core.app.ApplicationProvider;
 
@@ -20,6 +24,8 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.concurrent.Executor;
+
 @RunWith(RobolectricTestRunner.class)
 public class PayPalDataCollectorUnitTest {
 
@@ -32,6 +38,9 @@ public class PayPalDataCollectorUnitTest {
     private BraintreeClient braintreeClient;
     private MagnesInternalClient magnesInternalClient;
 
+    private Scheduler immediateScheduler;
+    private PayPalDeviceDataCache deviceDataCache;
+
     @Before
     public void beforeEach() throws JSONException {
         uuidHelper = mock(UUIDHelper.class);
@@ -41,6 +50,19 @@ public class PayPalDataCollectorUnitTest {
 
         configuration = mock(Configuration.class);
 
+        immediateScheduler = new Scheduler() {
+            @Override
+            public void runOnMain(Runnable runnable) {
+                runnable.run();
+            }
+
+            @Override
+            public void runOnBackground(Runnable runnable) {
+                runnable.run();
+            }
+        };
+        deviceDataCache = new PayPalDeviceDataCache(PayPalDeviceDataCache.DEFAULT_TIME_TO_LIVE_MS);
+
         // this uuid has no actual meaning; magnes requires a valid guid for tests
         sampleInstallationGUID = "0665203b-16e4-4ce2-be98-d7d73ec32e8a";
 
@@ -49,11 +71,54 @@ public class PayPalDataCollectorUnitTest {
                 .build();
     }
 
+    @Test
+    public void getMagnesScheduler_withNetworkExecutor_runsCollectionsOnNetworkExecutor() {
+        Executor networkExecutor = mock(Executor.class);
+        Runnable collection = mock(Runnable.class);
+
+        Scheduler sut = PayPalDataCollector.getMagnesScheduler(networkExecutor, null);
+        sut.runOnBackground(collection);
+
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(networkExecutor).execute(captor.capture());
+        captor.getValue().run();
+        verify(collection).run();
+    }
+
+    @Test
+    public void getMagnesScheduler_withoutNetworkExecutor_sharesOneScheduler() {
+        assertSame(PayPalDataCollector.getMagnesScheduler(null, null),
+                PayPalDataCollector.getMagnesScheduler(null, null));
+    }
+
+    @Test
+    public void getMagnesScheduler_withCallbackExecutor_deliversResultsOnCallbackExecutor() {
+        Executor networkExecutor = mock(Executor.class);
+        Executor callbackExecutor = mock(Executor.class);
+        Runnable result = mock(Runnable.class);
+
+        Scheduler sut = PayPalDataCollector.getMagnesScheduler(networkExecutor, callbackExecutor);
+        sut.runOnMain(result);
+
+        verify(callbackExecutor).execute(result);
+    }
+
+    @Test
+    public void getMagnesScheduler_withCallbackExecutorOnly_deliversResultsOnCallbackExecutor() {
+        Executor callbackExecutor = mock(Executor.class);
+        Runnable result = mock(Runnable.class);
+
+        Scheduler sut = PayPalDataCollector.getMagnesScheduler(null, callbackExecutor);
+        sut.runOnMain(result);
+
+        verify(callbackExecutor).execute(result);
+    }
+
     @Test
     public void getPayPalInstallationGUID_returnsInstallationIdentifier() {
 
         when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
 
         assertEquals(sampleInstallationGUID, sut.getPayPalInstallationGUID(context));
     }
@@ -64,7 +129,7 @@ public class PayPalDataCollectorUnitTest {
 
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
         sut.getClientMetadataId(context, configuration);
 
         ArgumentCaptor<PayPalDataCollectorRequest> captor = ArgumentCaptor.forClass(PayPalDataCollectorRequest.class);
@@ -81,7 +146,7 @@ public class PayPalDataCollectorUnitTest {
         PayPalDataCollectorRequest customRequest = new PayPalDataCollectorRequest();
         when(magnesInternalClient.getClientMetadataId(context, configuration, customRequest)).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
         sut.getClientMetadataId(context, customRequest, configuration);
 
         verify(magnesInternalClient).getClientMetadataId(same(context), same(configuration), same(customRequest));
@@ -93,12 +158,100 @@ public class PayPalDataCollectorUnitTest {
 
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
         String result = sut.getClientMetadataId(context, configuration);
 
         assertEquals("paypal-clientmetadata-id", result);
     }
 
+    @Test
+    public void getClientMetadataId_withCallback_collectsOnBackgroundAndDeliversOnMain() {
+        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler, deviceDataCache);
+
+        PayPalClientMetadataIdCallback callback = mock(PayPalClientMetadataIdCallback.class);
+        sut.getClientMetadataId(context, configuration, new CancellationSignal(), callback);
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(backgroundCaptor.capture());
+        verifyNoInteractions(magnesInternalClient);
+
+        backgroundCaptor.getValue().run();
+        verify(magnesInternalClient).getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class));
+        verifyNoInteractions(callback);
+
+        ArgumentCaptor<Runnable> mainCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnMain(mainCaptor.capture());
+
+        mainCaptor.getValue().run();
+        verify(callback).onResult("paypal-clientmetadata-id");
+    }
+
+    @Test
+    public void getClientMetadataId_withCallback_whenCanceledBeforeCollection_skipsMagnesAndCallback() {
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler, deviceDataCache);
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        PayPalClientMetadataIdCallback callback = mock(PayPalClientMetadataIdCallback.class);
+        sut.getClientMetadataId(context, configuration, cancellationSignal, callback);
+        cancellationSignal.cancel();
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(backgroundCaptor.capture());
+        backgroundCaptor.getValue().run();
+
+        verifyNoInteractions(magnesInternalClient);
+        verifyNoInteractions(callback);
+    }
+
+    @Test
+    public void getClientMetadataId_withCallback_whenCanceledDuringCollection_doesNotCallBack() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler, deviceDataCache);
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        PayPalClientMetadataIdCallback callback = mock(PayPalClientMetadataIdCallback.class);
+        sut.getClientMetadataId(context, configuration, cancellationSignal, callback);
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(backgroundCaptor.capture());
+        backgroundCaptor.getValue().run();
+        cancellationSignal.cancel();
+
+        ArgumentCaptor<Runnable> mainCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnMain(mainCaptor.capture());
+        mainCaptor.getValue().run();
+
+        verifyNoInteractions(callback);
+    }
+
+    @Test
+    public void getClientMetadataId_withCallback_whenMagnesThrows_callsBackEmptyClientMetadataId() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenThrow(new IllegalStateException("magnes error"));
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler, deviceDataCache);
+
+        PayPalClientMetadataIdCallback callback = mock(PayPalClientMetadataIdCallback.class);
+        sut.getClientMetadataId(context, configuration, new CancellationSignal(), callback);
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(backgroundCaptor.capture());
+        backgroundCaptor.getValue().run();
+
+        ArgumentCaptor<Runnable> mainCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnMain(mainCaptor.capture());
+        mainCaptor.getValue().run();
+
+        verify(callback).onResult("");
+    }
+
     @Test
     public void collectDeviceData_forwardsConfigurationFetchErrors() {
         Exception configError = new Exception("configuration error");
@@ -106,7 +259,7 @@ public class PayPalDataCollectorUnitTest {
                 .configurationError(configError)
                 .build();
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
 
         PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -123,7 +276,7 @@ public class PayPalDataCollectorUnitTest {
         when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
 
         PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -144,7 +297,7 @@ public class PayPalDataCollectorUnitTest {
         when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
 
         PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
         sut.collectDeviceData(context, "custom-client-metadata-id", callback);
@@ -165,7 +318,7 @@ public class PayPalDataCollectorUnitTest {
 
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
 
-        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
 
         PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
         sut.collectDeviceData(context, callback);
@@ -177,4 +330,203 @@ public class PayPalDataCollectorUnitTest {
         JSONObject json = new JSONObject(deviceData);
         assertEquals("paypal-clientmetadata-id", json.getString("correlation_id"));
     }
+
+    @Test
+    public void collectDeviceData_collectsOnBackgroundAndDeliversOnMain() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler, deviceDataCache);
+
+        PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, callback);
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(backgroundCaptor.capture());
+        verifyNoInteractions(magnesInternalClient);
+
+        backgroundCaptor.getValue().run();
+        verifyNoInteractions(callback);
+
+        ArgumentCaptor<Runnable> mainCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnMain(mainCaptor.capture());
+        mainCaptor.getValue().run();
+
+        verify(callback).onResult("{\"correlation_id\":\"paypal-clientmetadata-id\"}", null);
+    }
+
+    @Test
+    public void collectDeviceData_withinSession_returnsCachedDeviceDataWithoutCollectingAgain() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .sessionId("session-id")
+                .build();
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
+
+        PayPalDataCollectorCallback callback1 = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, callback1);
+        PayPalDataCollectorCallback callback2 = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, callback2);
+
+        verify(magnesInternalClient, times(1)).getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class));
+        verify(callback1).onResult("{\"correlation_id\":\"paypal-clientmetadata-id\"}", null);
+        verify(callback2).onResult("{\"correlation_id\":\"paypal-clientmetadata-id\"}", null);
+    }
+
+    @Test
+    public void collectDeviceData_withDifferentRiskCorrelationIds_collectsForEach() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .sessionId("session-id")
+                .build();
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
+
+        sut.collectDeviceData(context, "risk-correlation-id-1", mock(PayPalDataCollectorCallback.class));
+        sut.collectDeviceData(context, "risk-correlation-id-2", mock(PayPalDataCollectorCallback.class));
+
+        verify(magnesInternalClient, times(2)).getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class));
+    }
+
+    @Test
+    public void collectDeviceData_inNewSession_collectsAgain() {
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        BraintreeClient firstSession = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .sessionId("session-id-1")
+                .build();
+        BraintreeClient secondSession = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .sessionId("session-id-2")
+                .build();
+
+        new PayPalDataCollector(firstSession, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache)
+                .collectDeviceData(context, mock(PayPalDataCollectorCallback.class));
+        new PayPalDataCollector(secondSession, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache)
+                .collectDeviceData(context, mock(PayPalDataCollectorCallback.class));
+
+        verify(magnesInternalClient, times(2)).getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class));
+    }
+
+    @Test
+    public void collectDeviceData_whilePrefetchIsRunning_sharesPrefetchedCollection() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .sessionId("session-id")
+                .build();
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler, deviceDataCache);
+
+        sut.prefetchDeviceData(context);
+        PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, callback);
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).runOnBackground(backgroundCaptor.capture());
+        backgroundCaptor.getValue().run();
+
+        ArgumentCaptor<Runnable> mainCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnMain(mainCaptor.capture());
+        mainCaptor.getValue().run();
+
+        verify(magnesInternalClient, times(1)).getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class));
+        verify(callback).onResult("{\"correlation_id\":\"paypal-clientmetadata-id\"}", null);
+    }
+
+    @Test
+    public void collectDeviceData_whenMagnesReturnsNoClientMetadataId_doesNotCache() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .sessionId("session-id")
+                .build();
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("");
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
+
+        PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, callback);
+        sut.collectDeviceData(context, callback);
+
+        verify(magnesInternalClient, times(2)).getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class));
+        verify(callback, times(2)).onResult("{}", null);
+    }
+
+    @Test
+    public void collectDeviceData_whenCanceledBeforeCollectionStarts_skipsMagnesAndCallback() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .sessionId("session-id")
+                .build();
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler, deviceDataCache);
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, null, cancellationSignal, callback);
+        cancellationSignal.cancel();
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnBackground(backgroundCaptor.capture());
+        backgroundCaptor.getValue().run();
+
+        verifyNoInteractions(magnesInternalClient);
+        verifyNoInteractions(callback);
+    }
+
+    @Test
+    public void collectDeviceData_whenCanceledWhileSharingCollection_stillDeliversToOtherCallers() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .sessionId("session-id")
+                .build();
+        when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorRequest.class))).thenReturn("paypal-clientmetadata-id");
+
+        Scheduler scheduler = mock(Scheduler.class);
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, scheduler, deviceDataCache);
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        PayPalDataCollectorCallback canceledCallback = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, null, cancellationSignal, canceledCallback);
+        PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, callback);
+        cancellationSignal.cancel();
+
+        ArgumentCaptor<Runnable> backgroundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).runOnBackground(backgroundCaptor.capture());
+        backgroundCaptor.getValue().run();
+
+        ArgumentCaptor<Runnable> mainCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runOnMain(mainCaptor.capture());
+        mainCaptor.getValue().run();
+
+        verifyNoInteractions(canceledCallback);
+        verify(callback).onResult("{\"correlation_id\":\"paypal-clientmetadata-id\"}", null);
+    }
+
+    @Test
+    public void collectDeviceData_whenCanceledBeforeConfigurationLoads_doesNotCollect() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+
+        PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper, immediateScheduler, deviceDataCache);
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        cancellationSignal.cancel();
+        PayPalDataCollectorCallback callback = mock(PayPalDataCollectorCallback.class);
+        sut.collectDeviceData(context, null, cancellationSignal, callback);
+
+        verifyNoInteractions(magnesInternalClient);
+        verifyNoInteractions(callback);
+    }
 }
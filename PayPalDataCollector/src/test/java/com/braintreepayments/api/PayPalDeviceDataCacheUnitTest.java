@@ -0,0 +1,76 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class PayPalDeviceDataCacheUnitTest {
+
+    @Test
+    public void keyOf_combinesSessionIdAndRiskCorrelationId() {
+        assertEquals("session-id:risk-correlation-id",
+                PayPalDeviceDataCache.keyOf("session-id", "risk-correlation-id"));
+        assertEquals("session-id:", PayPalDeviceDataCache.keyOf("session-id", null));
+        assertEquals(":", PayPalDeviceDataCache.keyOf(null, null));
+    }
+
+    @Test
+    public void get_returnsDeviceDataUntilTimeToLiveElapses() {
+        PayPalDeviceDataCache sut = new PayPalDeviceDataCache(1000);
+        sut.put("key", "device-data", 0);
+
+        assertEquals("device-data", sut.get("key", 999));
+        assertNull(sut.get("key", 1000));
+        assertNull(sut.get("key", 0));
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedEntryWhenFull() {
+        PayPalDeviceDataCache sut = new PayPalDeviceDataCache(1000);
+        for (int i = 0; i < PayPalDeviceDataCache.MAX_SIZE; i++) {
+            sut.put("key-" + i, "device-data-" + i, 0);
+        }
+        sut.get("key-0", 0);
+        sut.put("key-new", "device-data-new", 0);
+
+        assertEquals("device-data-0", sut.get("key-0", 0));
+        assertNull(sut.get("key-1", 0));
+        assertEquals("device-data-new", sut.get("key-new", 0));
+    }
+
+    @Test
+    public void addPendingCallback_onlyFirstCallerStartsCollection() {
+        PayPalDeviceDataCache sut = new PayPalDeviceDataCache(1000);
+        PayPalDataCollectorCallback first = mock(PayPalDataCollectorCallback.class);
+        PayPalDataCollectorCallback second = mock(PayPalDataCollectorCallback.class);
+
+        assertTrue(sut.addPendingCallback("key", first));
+        assertFalse(sut.addPendingCallback("key", second));
+
+        List<PayPalDataCollectorCallback> callbacks = sut.removePendingCallbacks("key");
+        assertEquals(2, callbacks.size());
+        assertTrue(sut.addPendingCallback("key", first));
+    }
+
+    @Test
+    public void abandonIfNoPendingCallbacks_onceEveryCallbackIsRemoved_endsCollection() {
+        PayPalDeviceDataCache sut = new PayPalDeviceDataCache(1000);
+        PayPalDataCollectorCallback first = mock(PayPalDataCollectorCallback.class);
+        PayPalDataCollectorCallback second = mock(PayPalDataCollectorCallback.class);
+        sut.addPendingCallback("key", first);
+        sut.addPendingCallback("key", second);
+
+        sut.removePendingCallback("key", first);
+        assertFalse(sut.abandonIfNoPendingCallbacks("key"));
+
+        sut.removePendingCallback("key", second);
+        assertTrue(sut.abandonIfNoPendingCallbacks("key"));
+        assertTrue(sut.addPendingCallback("key", first));
+    }
+}
@@ -1,8 +1,15 @@
 package com.braintreepayments.api;
 
+import android.util.JsonWriter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 class SEPADirectDebitApi {
 
     private final BraintreeClient braintreeClient;
@@ -34,29 +41,31 @@ class SEPADirectDebitApi {
         }
     }
 
-    void tokenize(String ibanLastFour, String customerId, String bankReferenceToken, String mandateType, final SEPADirectDebitTokenizeCallback callback) {
-        try {
-            JSONObject jsonObject = buildTokenizeRequest(ibanLastFour, customerId, bankReferenceToken, mandateType);
-            String url = "v1/payment_methods/sepa_debit_accounts";
-            braintreeClient.sendPOST(url, jsonObject.toString(), new HttpResponseCallback() {
-
-                @Override
-                public void onResult(String responseBody, Exception httpError) {
-                   if (responseBody != null) {
-                       try {
-                           SEPADirectDebitNonce nonce = parseTokenizeResponse(responseBody);
-                           callback.onResult(nonce, null);
-                       } catch (JSONException jsonException) {
-                           callback.onResult(null, jsonException);
-                       }
-                   } else if (httpError != null) {
-                       callback.onResult(null, httpError);
-                   }
-                }
-            });
-        } catch (JSONException e) {
-            callback.onResult(null, e);
-        }
+    void tokenize(final String ibanLastFour, final String customerId, final String bankReferenceToken, final String mandateType, final SEPADirectDebitTokenizeCallback callback) {
+        TokenizationSpec<SEPADirectDebitNonce> spec = new StringTokenizationSpec<SEPADirectDebitNonce>() {
+            @Override
+            public String getPath() {
+                return "v1/payment_methods/sepa_debit_accounts";
+            }
+
+            @NonNull
+            @Override
+            public JsonPayload serialize(@Nullable Configuration configuration) {
+                return buildTokenizeRequest(ibanLastFour, customerId, bankReferenceToken, mandateType);
+            }
+
+            @Override
+            public SEPADirectDebitNonce decode(@NonNull String responseBody) throws JSONException {
+                return parseTokenizeResponse(responseBody);
+            }
+        };
+
+        braintreeClient.tokenize(spec, new TokenizationPipelineCallback<SEPADirectDebitNonce>() {
+            @Override
+            public void onResult(@Nullable SEPADirectDebitNonce nonce, @Nullable Exception error) {
+                callback.onResult(nonce, error);
+            }
+        });
     }
 
     private SEPADirectDebitNonce parseTokenizeResponse(String responseBody) throws JSONException {
@@ -64,16 +73,18 @@ class SEPADirectDebitApi {
         return SEPADirectDebitNonce.fromJSON(jsonResponse);
     }
 
-    private JSONObject buildTokenizeRequest(String ibanLastFour, String customerId, String bankReferenceToken, String mandateType) throws JSONException {
-        JSONObject accountData = new JSONObject()
-                .put("last_4", ibanLastFour)
-                .put("merchant_or_partner_customer_id", customerId)
-                .put("bank_reference_token", bankReferenceToken)
-                .put("mandate_type", mandateType);
-        JSONObject requestData = new JSONObject()
-                .put("sepa_debit_account", accountData);
-
-        return requestData;
+    private JsonPayload buildTokenizeRequest(final String ibanLastFour, final String customerId, final String bankReferenceToken, final String mandateType) {
+        return new JsonPayload() {
+            @Override
+            public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                writer.name("sepa_debit_account").beginObject();
+                Json.writeOpt(writer, "last_4", ibanLastFour);
+                Json.writeOpt(writer, "merchant_or_partner_customer_id", customerId);
+                Json.writeOpt(writer, "bank_reference_token", bankReferenceToken);
+                Json.writeOpt(writer, "mandate_type", mandateType);
+                writer.endObject();
+            }
+        };
     }
 
     private CreateMandateResult parseCreateMandateResponse(String responseBody) throws JSONException {
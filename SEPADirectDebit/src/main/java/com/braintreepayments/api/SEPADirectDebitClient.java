@@ -76,6 +76,7 @@ public class SEPADirectDebitClient {
     public void tokenize(final FragmentActivity activity, final SEPADirectDebitRequest sepaDirectDebitRequest) {
         braintreeClient.sendAnalyticsEvent("sepa-direct-debit.selected.started");
         braintreeClient.sendAnalyticsEvent("sepa-direct-debit.create-mandate.requested");
+        braintreeClient.warmUpBrowserSwitch();
         sepaDirectDebitApi.createMandate(sepaDirectDebitRequest, braintreeClient.getReturnUrlScheme(), new CreateMandateCallback() {
             @Override
             public void onResult(@Nullable CreateMandateResult result, @Nullable Exception createMandateError) {
@@ -130,25 +131,7 @@ public class SEPADirectDebitClient {
                 if (deepLinkUri != null) {
                     if (deepLinkUri.getPath().contains("success") && deepLinkUri.getQueryParameter("success").equals("true")) {
                         braintreeClient.sendAnalyticsEvent("sepa-direct-debit.browser-switch.success");
-                        JSONObject metadata = browserSwitchResult.getRequestMetadata();
-                        String ibanLastFour = metadata.optString(IBAN_LAST_FOUR_KEY);
-                        String customerId = metadata.optString(CUSTOMER_ID_KEY);
-                        String bankReferenceToken = metadata.optString(BANK_REFERENCE_TOKEN_KEY);
-                        String mandateType = metadata.optString(MANDATE_TYPE_KEY);
-
-                        braintreeClient.sendAnalyticsEvent("sepa-direct-debit.tokenize.requested");
-                        sepaDirectDebitApi.tokenize(ibanLastFour, customerId, bankReferenceToken, mandateType, new SEPADirectDebitTokenizeCallback() {
-                            @Override
-                            public void onResult(@Nullable SEPADirectDebitNonce sepaDirectDebitNonce, @Nullable Exception error) {
-                                if (sepaDirectDebitNonce != null) {
-                                    braintreeClient.sendAnalyticsEvent("sepa-direct-debit.tokenize.success");
-                                    listener.onSEPADirectDebitSuccess(sepaDirectDebitNonce);
-                                } else if (error != null) {
-                                    braintreeClient.sendAnalyticsEvent("sepa-direct-debit.tokenize.failure");
-                                    listener.onSEPADirectDebitFailure(error);
-                                }
-                            }
-                        });
+                        tokenizeApprovedMandate(browserSwitchResult.getRequestMetadata());
                     } else if (deepLinkUri.getPath().contains("cancel")) {
                         braintreeClient.sendAnalyticsEvent("sepa-direct-debit.browser-switch.failure");
                         listener.onSEPADirectDebitFailure(new BraintreeException("An unexpected error occurred."));
@@ -161,6 +144,48 @@ public class SEPADirectDebitClient {
         }
     }
 
+    /**
+     * Continues a tokenization that was interrupted by the process being killed after the customer
+     * approved the mandate, without creating the mandate again. The pending mandate is read in the
+     * background and only resumed for the merchant it was approved for.
+     */
+    void resumeTokenization() {
+        braintreeClient.restoreFlowState(BraintreeRequestCodes.SEPA_DEBIT, new FlowStateCallback() {
+            @Override
+            public void onResult(@Nullable JSONObject pendingMandate) {
+                if (pendingMandate != null) {
+                    braintreeClient.sendAnalyticsEvent("sepa-direct-debit.tokenize.resumed");
+                    tokenizeApprovedMandate(pendingMandate);
+                }
+            }
+        });
+    }
+
+    private void tokenizeApprovedMandate(JSONObject metadata) {
+        String ibanLastFour = metadata.optString(IBAN_LAST_FOUR_KEY);
+        String customerId = metadata.optString(CUSTOMER_ID_KEY);
+        String bankReferenceToken = metadata.optString(BANK_REFERENCE_TOKEN_KEY);
+        String mandateType = metadata.optString(MANDATE_TYPE_KEY);
+
+        // the approved mandate is kept until tokenization completes so it can be resumed if the
+        // process is killed in the meantime
+        braintreeClient.saveFlowState(BraintreeRequestCodes.SEPA_DEBIT, metadata);
+        braintreeClient.sendAnalyticsEvent("sepa-direct-debit.tokenize.requested");
+        sepaDirectDebitApi.tokenize(ibanLastFour, customerId, bankReferenceToken, mandateType, new SEPADirectDebitTokenizeCallback() {
+            @Override
+            public void onResult(@Nullable SEPADirectDebitNonce sepaDirectDebitNonce, @Nullable Exception error) {
+                braintreeClient.clearFlowState(BraintreeRequestCodes.SEPA_DEBIT);
+                if (sepaDirectDebitNonce != null) {
+                    braintreeClient.sendAnalyticsEvent("sepa-direct-debit.tokenize.success");
+                    listener.onSEPADirectDebitSuccess(sepaDirectDebitNonce);
+                } else if (error != null) {
+                    braintreeClient.sendAnalyticsEvent("sepa-direct-debit.tokenize.failure");
+                    listener.onSEPADirectDebitFailure(error);
+                }
+            }
+        });
+    }
+
     BrowserSwitchResult getBrowserSwitchResult(FragmentActivity activity) {
         return braintreeClient.getBrowserSwitchResult(activity);
     }
@@ -33,7 +33,9 @@ class SEPADirectDebitLifecycleObserver implements LifecycleEventObserver {
 
             if (activity != null) {
                 BrowserSwitchResult pendingResult = sepaDirectDebitClient.getBrowserSwitchResult(activity);
-                if (pendingResult != null && pendingResult.getRequestCode() == BraintreeRequestCodes.SEPA_DEBIT) {
+                if (pendingResult == null) {
+                    sepaDirectDebitClient.resumeTokenization();
+                } else if (pendingResult.getRequestCode() == BraintreeRequestCodes.SEPA_DEBIT) {
                     sepaDirectDebitClient.onBrowserSwitchResult(activity);
                 }
             }
@@ -10,6 +10,8 @@ import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import android.os.CancellationSignal;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Before;
@@ -161,6 +163,26 @@ public class SEPADirectDebitApiUnitTest {
         verify(sepaDirectDebitTokenizeCallback).onResult(null, error);
     }
 
+    @Test
+    public void tokenize_properlyFormatsPOSTBody() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .returnUrlScheme("sample-scheme")
+                .build();
+
+        SEPADirectDebitApi sut = new SEPADirectDebitApi(braintreeClient);
+        sut.tokenize("1234", "a-customer-id", "a-bank-reference-token", "ONE_OFF", sepaDirectDebitTokenizeCallback);
+
+        ArgumentCaptor<JsonPayload> captor = ArgumentCaptor.forClass(JsonPayload.class);
+        verify(braintreeClient).sendPOST(eq("v1/payment_methods/sepa_debit_accounts"), captor.capture(),
+                any(CancellationSignal.class), any(HttpResponseCallback.class));
+
+        JSONObject sepaDebitAccount = Json.toJSONObject(captor.getValue()).getJSONObject("sepa_debit_account");
+        assertEquals("1234", sepaDebitAccount.getString("last_4"));
+        assertEquals("a-customer-id", sepaDebitAccount.getString("merchant_or_partner_customer_id"));
+        assertEquals("a-bank-reference-token", sepaDebitAccount.getString("bank_reference_token"));
+        assertEquals("ONE_OFF", sepaDebitAccount.getString("mandate_type"));
+    }
+
     @Test
     public void createMandate_properlyFormatsPOSTBody() throws JSONException {
         BraintreeClient mockBraintreeClient = new MockBraintreeClientBuilder()
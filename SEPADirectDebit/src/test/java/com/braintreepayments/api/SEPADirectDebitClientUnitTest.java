@@ -6,7 +6,9 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -24,6 +26,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 
 @RunWith(RobolectricTestRunner.class)
@@ -140,6 +145,20 @@ public class SEPADirectDebitClientUnitTest {
         assertEquals("ONE_OFF", metadata.get("mandateType"));
     }
 
+    @Test
+    public void tokenize_warmsUpBrowserBeforeBrowserSwitch() throws BrowserSwitchException {
+        SEPADirectDebitApi sepaDirectDebitApi = new MockSEPADirectDebitApiBuilder()
+                .createMandateResultSuccess(createMandateResult)
+                .build();
+
+        SEPADirectDebitClient sut = new SEPADirectDebitClient(activity, lifecycle, braintreeClient, sepaDirectDebitApi);
+        sut.tokenize(activity, sepaDirectDebitRequest);
+
+        InOrder inOrder = inOrder(braintreeClient);
+        inOrder.verify(braintreeClient).warmUpBrowserSwitch();
+        inOrder.verify(braintreeClient).startBrowserSwitch(same(activity), any(BrowserSwitchOptions.class));
+    }
+
     @Test
     public void tokenize_onCreateMandateRequestSuccess_whenMandateAlreadyApproved_onTokenizeSuccess_forwardsResultToListener_andSendsAnalytics() throws JSONException {
         // null approval URL indicates mandate approved
@@ -517,4 +536,89 @@ public class SEPADirectDebitClientUnitTest {
         sut.getBrowserSwitchResult(activity);
         verify(braintreeClient).getBrowserSwitchResult(activity);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void onBrowserSwitchResult_whenBrowserSwitchStatusSuccess_savesMandateUntilTokenizeCompletes() throws JSONException {
+        SEPADirectDebitNonce nonce = SEPADirectDebitNonce.fromJSON(new JSONObject(Fixtures.SEPA_DEBIT_TOKENIZE_RESPONSE));
+        SEPADirectDebitApi sepaDirectDebitApi = new MockSEPADirectDebitApiBuilder()
+                .tokenizeSuccess(nonce)
+                .build();
+
+        JSONObject metadata = new JSONObject()
+                .put("ibanLastFour", "1234")
+                .put("customerId", "customer-id")
+                .put("bankReferenceToken", "bank-reference-token")
+                .put("mandateType", "ONE_OFF");
+
+        BrowserSwitchResult browserSwitchResult = mock(BrowserSwitchResult.class);
+        when(browserSwitchResult.getStatus()).thenReturn(BrowserSwitchStatus.SUCCESS);
+        when(browserSwitchResult.getDeepLinkUrl()).thenReturn(Uri.parse("com.braintreepayments.demo.braintree://sepa/success?success=true"));
+        when(browserSwitchResult.getRequestMetadata()).thenReturn(metadata);
+
+        braintreeClient = new MockBraintreeClientBuilder()
+                .deliverBrowserSwitchResult(browserSwitchResult)
+                .build();
+
+        SEPADirectDebitClient sut = new SEPADirectDebitClient(activity, lifecycle, braintreeClient, sepaDirectDebitApi);
+        sut.setListener(listener);
+
+        sut.onBrowserSwitchResult(activity);
+
+        InOrder inOrder = inOrder(braintreeClient, sepaDirectDebitApi, listener);
+        inOrder.verify(braintreeClient).saveFlowState(BraintreeRequestCodes.SEPA_DEBIT, metadata);
+        inOrder.verify(sepaDirectDebitApi).tokenize(eq("1234"), eq("customer-id"), eq("bank-reference-token"), eq("ONE_OFF"), any(SEPADirectDebitTokenizeCallback.class));
+        inOrder.verify(braintreeClient).clearFlowState(BraintreeRequestCodes.SEPA_DEBIT);
+        inOrder.verify(listener).onSEPADirectDebitSuccess(nonce);
+    }
+
+    @Test
+    public void resumeTokenization_whenMandatePending_tokenizesWithoutCreatingMandate_andSendsAnalytics() throws JSONException {
+        SEPADirectDebitNonce nonce = SEPADirectDebitNonce.fromJSON(new JSONObject(Fixtures.SEPA_DEBIT_TOKENIZE_RESPONSE));
+        SEPADirectDebitApi sepaDirectDebitApi = new MockSEPADirectDebitApiBuilder()
+                .tokenizeSuccess(nonce)
+                .build();
+
+        JSONObject pendingMandate = new JSONObject()
+                .put("ibanLastFour", "1234")
+                .put("customerId", "customer-id")
+                .put("bankReferenceToken", "bank-reference-token")
+                .put("mandateType", "ONE_OFF");
+        stubRestoreFlowState(pendingMandate);
+
+        SEPADirectDebitClient sut = new SEPADirectDebitClient(activity, lifecycle, braintreeClient, sepaDirectDebitApi);
+        sut.setListener(listener);
+
+        sut.resumeTokenization();
+
+        verify(braintreeClient).sendAnalyticsEvent("sepa-direct-debit.tokenize.resumed");
+        verify(sepaDirectDebitApi).tokenize(eq("1234"), eq("customer-id"), eq("bank-reference-token"), eq("ONE_OFF"), any(SEPADirectDebitTokenizeCallback.class));
+        verify(sepaDirectDebitApi, never()).createMandate(any(SEPADirectDebitRequest.class), any(String.class), any(CreateMandateCallback.class));
+        verify(braintreeClient).clearFlowState(BraintreeRequestCodes.SEPA_DEBIT);
+        verify(listener).onSEPADirectDebitSuccess(nonce);
+    }
+
+    @Test
+    public void resumeTokenization_whenNoMandatePending_doesNothing() {
+        SEPADirectDebitApi sepaDirectDebitApi = new MockSEPADirectDebitApiBuilder().build();
+        stubRestoreFlowState(null);
+
+        SEPADirectDebitClient sut = new SEPADirectDebitClient(activity, lifecycle, braintreeClient, sepaDirectDebitApi);
+        sut.setListener(listener);
+
+        sut.resumeTokenization();
+
+        verify(sepaDirectDebitApi, never()).tokenize(any(String.class), any(String.class), any(String.class), any(String.class), any(SEPADirectDebitTokenizeCallback.class));
+        verify(braintreeClient, never()).sendAnalyticsEvent("sepa-direct-debit.tokenize.resumed");
+    }
+
+    private void stubRestoreFlowState(final JSONObject state) {
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                FlowStateCallback callback = (FlowStateCallback) invocation.getArguments()[1];
+                callback.onResult(state);
+                return null;
+            }
+        }).when(braintreeClient).restoreFlowState(eq(BraintreeRequestCodes.SEPA_DEBIT), any(FlowStateCallback.class));
+    }
+}
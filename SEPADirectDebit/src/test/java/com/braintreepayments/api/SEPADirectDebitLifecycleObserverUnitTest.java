@@ -70,4 +70,36 @@ public class SEPADirectDebitLifecycleObserverUnitTest {
 
         verify(sepaDirectDebitClient, never()).onBrowserSwitchResult(any(FragmentActivity.class));
     }
+
+    @Test
+    public void onResume_whenNoPendingBrowserSwitchResult_resumesTokenization() {
+        FragmentActivity activity = mock(FragmentActivity.class);
+
+        SEPADirectDebitClient sepaDirectDebitClient = mock(SEPADirectDebitClient.class);
+        when(sepaDirectDebitClient.getBrowserSwitchResult(activity)).thenReturn(null);
+
+        SEPADirectDebitLifecycleObserver sut = new SEPADirectDebitLifecycleObserver(sepaDirectDebitClient);
+
+        sut.onStateChanged(activity, Lifecycle.Event.ON_RESUME);
+
+        verify(sepaDirectDebitClient).resumeTokenization();
+        verify(sepaDirectDebitClient, never()).onBrowserSwitchResult(any(FragmentActivity.class));
+    }
+
+    @Test
+    public void onResume_whenPendingBrowserSwitchResultExists_doesNotResumeTokenization() {
+        FragmentActivity activity = mock(FragmentActivity.class);
+
+        BrowserSwitchResult browserSwitchResult = mock(BrowserSwitchResult.class);
+        when(browserSwitchResult.getRequestCode()).thenReturn(BraintreeRequestCodes.PAYPAL);
+
+        SEPADirectDebitClient sepaDirectDebitClient = mock(SEPADirectDebitClient.class);
+        when(sepaDirectDebitClient.getBrowserSwitchResult(activity)).thenReturn(browserSwitchResult);
+
+        SEPADirectDebitLifecycleObserver sut = new SEPADirectDebitLifecycleObserver(sepaDirectDebitClient);
+
+        sut.onStateChanged(activity, Lifecycle.Event.ON_RESUME);
+
+        verify(sepaDirectDebitClient, never()).resumeTokenization();
+    }
 }
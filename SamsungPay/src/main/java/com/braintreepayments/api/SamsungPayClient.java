@@ -1,5 +1,6 @@
 package com.braintreepayments.api;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
@@ -19,6 +20,8 @@ import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_READY;
 
 public class SamsungPayClient {
 
+    private static final String PAYMENT_METHOD = "samsung-pay";
+
     private final BraintreeClient braintreeClient;
 
     @VisibleForTesting
@@ -39,6 +42,7 @@ public class SamsungPayClient {
             public void onResult(@Nullable SamsungPayInternalClient internalClient, @Nullable Exception error) {
                 if (internalClient != null) {
                     internalClient.goToSamsungPayUpdatePage();
+                    braintreeClient.invalidateReadyToPay(PAYMENT_METHOD);
                     braintreeClient.sendAnalyticsEvent("samsung-pay.goto-update-page");
                     callback.onResult(null);
                 } else {
@@ -59,6 +63,7 @@ public class SamsungPayClient {
             public void onResult(@Nullable SamsungPayInternalClient internalClient, @Nullable Exception error) {
                 if (internalClient != null) {
                     internalClient.activateSamsungPay();
+                    braintreeClient.invalidateReadyToPay(PAYMENT_METHOD);
                     braintreeClient.sendAnalyticsEvent("samsung-pay.activate-samsung-pay");
                     callback.onResult(null);
                 } else {
@@ -73,10 +78,37 @@ public class SamsungPayClient {
      * status of Samsung Pay. If if the status of Samsung Pay is anything but [SamsungPayStatus.SPAY_READY],
      * the listener will be called back with a value of false. If the Samsung Pay callback returns an error,
      * see {@link SamsungPayError} for a list of possible error codes
+     * <p>
+     * The result is cached for a few minutes and refreshed whenever an app is installed, updated
+     * or removed, so it is safe to call this every time your checkout screen resumes.
      *
      * @param callback {@link SamsungPayIsReadyToPayCallback}
      */
     public void isReadyToPay(final SamsungPayIsReadyToPayCallback callback) {
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception configError) {
+                if (configuration == null) {
+                    callback.onResult(false, configError);
+                    return;
+                }
+
+                braintreeClient.loadReadyToPay(PAYMENT_METHOD, configuration, null, new ReadyToPayLoader() {
+                    @Override
+                    public void load(@NonNull final ReadyToPayResultCallback loaderCallback) {
+                        checkReadyToPay(loaderCallback);
+                    }
+                }, new ReadyToPayResultCallback() {
+                    @Override
+                    public void onResult(boolean isReadyToPay, @Nullable Exception error) {
+                        callback.onResult(isReadyToPay, error);
+                    }
+                });
+            }
+        });
+    }
+
+    private void checkReadyToPay(final ReadyToPayResultCallback callback) {
         getSamsungPayStatus(new GetSamsungPayStatusCallback() {
             @Override
             public void onResult(@Nullable Integer status, @Nullable Exception samsungPayError) {
@@ -214,24 +246,29 @@ public class SamsungPayClient {
         });
     }
 
+    // the configuration is cached by BraintreeClient, so checking it on every call is cheap; the
+    // internal client and the Samsung Pay results it caches are only replaced when the parts of
+    // the configuration it was built from change
     @VisibleForTesting
     void getInternalClient(final GetSamsungPayInternalClientCallback callback) {
-        if (internalClient != null) {
-            callback.onResult(internalClient, null);
-        } else {
-            braintreeClient.getConfiguration(new ConfigurationCallback() {
-                @Override
-                public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
-                    if (configuration != null) {
-                        internalClient =
-                            new SamsungPayInternalClient(braintreeClient, configuration);
-                        braintreeClient.sendAnalyticsEvent("samsung-pay.create-payment-manager.success");
-                        callback.onResult(internalClient, null);
-                    } else {
-                        callback.onResult(null, error);
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (configuration != null) {
+                    SamsungPayInternalClient client;
+                    synchronized (SamsungPayClient.this) {
+                        if (internalClient == null || !internalClient.isFor(configuration)) {
+                            internalClient =
+                                new SamsungPayInternalClient(braintreeClient, configuration);
+                            braintreeClient.sendAnalyticsEvent("samsung-pay.create-payment-manager.success");
+                        }
+                        client = internalClient;
                     }
+                    callback.onResult(client, null);
+                } else {
+                    callback.onResult(null, error);
                 }
-            });
-        }
+            }
+        });
     }
 }
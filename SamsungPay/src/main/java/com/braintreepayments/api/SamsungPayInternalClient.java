@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import android.content.Context;
 import android.os.Bundle;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.samsung.android.sdk.samsungpay.v2.PartnerInfo;
@@ -21,6 +22,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static com.braintreepayments.api.SamsungPayMapAcceptedCardBrands.mapToSamsungPayCardBrands;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.ERROR_SPAY_APP_NEED_TO_UPDATE;
@@ -31,11 +33,19 @@ import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_READY;
 
 class SamsungPayInternalClient {
 
+    static final long RESULT_TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(1);
+
     private final SamsungPay samsungPay;
     private final PaymentManager paymentManager;
 
+    private final String configurationKey;
     private final Set<SpaySdk.Brand> braintreeAcceptedCardBrands;
 
+    private final SamsungPayResultCache<Integer> statusCache =
+            new SamsungPayResultCache<>(RESULT_TIME_TO_LIVE_MS);
+    private final SamsungPayResultCache<List<SpaySdk.Brand>> acceptedCardBrandsCache =
+            new SamsungPayResultCache<>(RESULT_TIME_TO_LIVE_MS);
+
     SamsungPayInternalClient(BraintreeClient braintreeClient, Configuration configuration) {
         this(braintreeClient.getApplicationContext(), configuration, new SamsungPayPartnerInfoBuilder()
                 .setConfiguration(configuration)
@@ -50,16 +60,40 @@ class SamsungPayInternalClient {
 
     @VisibleForTesting
     SamsungPayInternalClient(Configuration configuration, SamsungPay samsungPay, PaymentManager paymentManager) {
+        this.configurationKey = configurationKeyOf(configuration);
         this.braintreeAcceptedCardBrands = mapToSamsungPayCardBrands(configuration.getSupportedCardTypes());
         this.samsungPay = samsungPay;
         this.paymentManager = paymentManager;
     }
 
+    /**
+     * The parts of a {@link Configuration} this client was built from. A configuration with a
+     * different key needs a new client.
+     */
+    static String configurationKeyOf(Configuration configuration) {
+        return String.format("%s|%s|%s|%s|%s|%s",
+                configuration.getSamsungPayEnvironment(),
+                configuration.getSamsungPayServiceId(),
+                configuration.getSamsungPayMerchantDisplayName(),
+                configuration.getSamsungPayAuthorization(),
+                configuration.getSamsungPaySupportedCardBrands(),
+                configuration.getSupportedCardTypes());
+    }
+
+    boolean isFor(Configuration configuration) {
+        return configurationKey.equals(configurationKeyOf(configuration));
+    }
+
     void goToSamsungPayUpdatePage() {
+        // the customer may come back with an updated Samsung Pay app
+        statusCache.invalidate();
         samsungPay.goToUpdatePage();
     }
 
     void activateSamsungPay() {
+        // the customer may come back with Samsung Pay set up and cards added
+        statusCache.invalidate();
+        acceptedCardBrandsCache.invalidate();
         samsungPay.activateSamsungPay();
     }
 
@@ -68,6 +102,20 @@ class SamsungPayInternalClient {
     }
 
     void getSamsungPayStatus(final GetSamsungPayStatusCallback callback) {
+        statusCache.get(new SamsungPayResultCache.Request<Integer>() {
+            @Override
+            public void send(SamsungPayResultCache.Callback<Integer> requestCallback) {
+                requestSamsungPayStatus(requestCallback);
+            }
+        }, new SamsungPayResultCache.Callback<Integer>() {
+            @Override
+            public void onResult(@Nullable Integer status, @Nullable Exception error) {
+                callback.onResult(status, error);
+            }
+        }, System.currentTimeMillis());
+    }
+
+    private void requestSamsungPayStatus(final SamsungPayResultCache.Callback<Integer> callback) {
         samsungPay.getSamsungPayStatus(new StatusListener() {
             @Override
             public void onSuccess(int statusCode, Bundle bundle) {
@@ -107,6 +155,20 @@ class SamsungPayInternalClient {
     }
 
     void getAcceptedCardBrands(final GetAcceptedCardBrandsCallback callback) {
+        acceptedCardBrandsCache.get(new SamsungPayResultCache.Request<List<SpaySdk.Brand>>() {
+            @Override
+            public void send(SamsungPayResultCache.Callback<List<SpaySdk.Brand>> requestCallback) {
+                requestAcceptedCardBrands(requestCallback);
+            }
+        }, new SamsungPayResultCache.Callback<List<SpaySdk.Brand>>() {
+            @Override
+            public void onResult(@Nullable List<SpaySdk.Brand> acceptedCardBrands, @Nullable Exception error) {
+                callback.onResult(acceptedCardBrands, error);
+            }
+        }, System.currentTimeMillis());
+    }
+
+    private void requestAcceptedCardBrands(final SamsungPayResultCache.Callback<List<SpaySdk.Brand>> callback) {
         paymentManager.requestCardInfo(new Bundle(), new PaymentManager.CardInfoListener() {
             @Override
             public void onResult(final List<CardInfo> cardInfos) {
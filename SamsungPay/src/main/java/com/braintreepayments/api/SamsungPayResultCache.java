@@ -0,0 +1,102 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the last successful result of a Samsung Pay SDK request for a limited time.
+ * <p>
+ * A fresh result is returned without calling the Samsung Pay service. An expired result is still
+ * returned right away, and the request is sent again so the next caller gets an up to date value.
+ * Callers arriving while a request is in flight share it. Failed requests are never cached.
+ *
+ * @param <T> the type of result
+ */
+class SamsungPayResultCache<T> {
+
+    interface Callback<T> {
+        void onResult(@Nullable T result, @Nullable Exception error);
+    }
+
+    interface Request<T> {
+        void send(Callback<T> callback);
+    }
+
+    private final long timeToLiveMs;
+
+    private T result;
+    private Exception resultError;
+    private long resultCreatedAt;
+    private List<Callback<T>> pendingCallbacks;
+
+    SamsungPayResultCache(long timeToLiveMs) {
+        this.timeToLiveMs = timeToLiveMs;
+    }
+
+    void get(Request<T> request, Callback<T> callback, long currentTimeMillis) {
+        T cachedResult;
+        Exception cachedError;
+        boolean shouldSend;
+
+        synchronized (this) {
+            cachedResult = result;
+            cachedError = resultError;
+            boolean isFresh = cachedResult != null
+                    && currentTimeMillis - resultCreatedAt < timeToLiveMs;
+
+            if (isFresh) {
+                shouldSend = false;
+            } else if (pendingCallbacks != null) {
+                if (cachedResult == null) {
+                    pendingCallbacks.add(callback);
+                }
+                shouldSend = false;
+            } else {
+                pendingCallbacks = new ArrayList<>();
+                if (cachedResult == null) {
+                    pendingCallbacks.add(callback);
+                }
+                shouldSend = true;
+            }
+        }
+
+        if (cachedResult != null) {
+            callback.onResult(cachedResult, cachedError);
+        }
+
+        if (shouldSend) {
+            send(request, currentTimeMillis);
+        }
+    }
+
+    private void send(Request<T> request, final long requestedAt) {
+        request.send(new Callback<T>() {
+            @Override
+            public void onResult(@Nullable T newResult, @Nullable Exception error) {
+                List<Callback<T>> callbacks;
+                synchronized (SamsungPayResultCache.this) {
+                    if (newResult != null) {
+                        result = newResult;
+                        resultError = error;
+                        resultCreatedAt = requestedAt;
+                    }
+                    callbacks = pendingCallbacks;
+                    pendingCallbacks = null;
+                }
+
+                if (callbacks != null) {
+                    for (Callback<T> callback : callbacks) {
+                        callback.onResult(newResult, error);
+                    }
+                }
+            }
+        });
+    }
+
+    synchronized void invalidate() {
+        result = null;
+        resultError = null;
+    }
+}
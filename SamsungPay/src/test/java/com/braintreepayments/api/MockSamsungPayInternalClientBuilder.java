@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.samsung.android.sdk.samsungpay.v2.SpaySdk;
 
@@ -41,6 +42,7 @@ public class MockSamsungPayInternalClientBuilder {
 
     SamsungPayInternalClient build() {
         SamsungPayInternalClient internalClient = mock(SamsungPayInternalClient.class);
+        when(internalClient.isFor(any(Configuration.class))).thenReturn(true);
 
         doAnswer(new Answer<Void>() {
             @Override
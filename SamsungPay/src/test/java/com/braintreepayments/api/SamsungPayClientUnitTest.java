@@ -6,8 +6,11 @@ import com.samsung.android.sdk.samsungpay.v2.SpaySdk;
 import com.samsung.android.sdk.samsungpay.v2.payment.CustomSheetPaymentInfo;
 
 import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -18,11 +21,16 @@ import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_NOT_READY;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_NOT_SUPPORTED;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_READY;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -78,39 +86,105 @@ public class SamsungPayClientUnitTest {
                 .sendAnalyticsEvent("samsung-pay.create-payment-manager.success");
     }
 
+    @Test
+    public void getInternalClient_whenSamsungPayConfigurationChanges_createsNewInternalClient() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        Context context = mock(Context.class);
+        when(braintreeClient.getApplicationContext()).thenReturn(context);
+
+        GetSamsungPayInternalClientCallback callback0 = mock(GetSamsungPayInternalClientCallback.class);
+        sut.getInternalClient(callback0);
+
+        JSONObject changedConfiguration = new JSONObject(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY);
+        changedConfiguration.getJSONObject("samsungPay").put("serviceId", "another-service-id");
+        final Configuration configuration = Configuration.fromJson(changedConfiguration.toString());
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ((ConfigurationCallback) invocation.getArguments()[0]).onResult(configuration, null);
+                return null;
+            }
+        }).when(braintreeClient).getConfiguration(any(ConfigurationCallback.class));
+
+        GetSamsungPayInternalClientCallback callback1 = mock(GetSamsungPayInternalClientCallback.class);
+        sut.getInternalClient(callback1);
+
+        ArgumentCaptor<SamsungPayInternalClient> captor0 =
+                ArgumentCaptor.forClass(SamsungPayInternalClient.class);
+        verify(callback0).onResult(captor0.capture(), (Exception) isNull());
+
+        ArgumentCaptor<SamsungPayInternalClient> captor1 =
+                ArgumentCaptor.forClass(SamsungPayInternalClient.class);
+        verify(callback1).onResult(captor1.capture(), (Exception) isNull());
+
+        assertNotSame(captor0.getValue(), captor1.getValue());
+        assertTrue(captor1.getValue().isFor(configuration));
+        verify(braintreeClient, times(2))
+                .sendAnalyticsEvent("samsung-pay.create-payment-manager.success");
+    }
+
+    @Test
+    public void getInternalClient_whenUnrelatedConfigurationChanges_keepsInternalClient() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder().build();
+        sut.internalClient = internalClient;
+
+        GetSamsungPayInternalClientCallback callback = mock(GetSamsungPayInternalClientCallback.class);
+        sut.getInternalClient(callback);
+
+        verify(callback).onResult(same(internalClient), (Exception) isNull());
+        verify(braintreeClient, never()).sendAnalyticsEvent("samsung-pay.create-payment-manager.success");
+    }
+
     @Test
     public void goToUpdatePage_forwardsInvocationToInternalClient_andNotifiesCompletion() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
-        SamsungPayInternalClient internalClient = mock(SamsungPayInternalClient.class);
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder().build();
         sut.internalClient = internalClient;
 
         SamsungPayUpdateCallback callback = mock(SamsungPayUpdateCallback.class);
         sut.updateSamsungPay(callback);
 
         verify(internalClient).goToSamsungPayUpdatePage();
+        verify(braintreeClient).invalidateReadyToPay("samsung-pay");
         verify(callback).onResult(null);
     }
 
     @Test
     public void activateSamsungPay_forwardsInvocationToInternalClient_andNotifiesCompletion() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
-        SamsungPayInternalClient internalClient = mock(SamsungPayInternalClient.class);
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder().build();
         sut.internalClient = internalClient;
 
         SamsungPayActivateCallback callback = mock(SamsungPayActivateCallback.class);
         sut.activateSamsungPay(callback);
 
         verify(internalClient).activateSamsungPay();
+        verify(braintreeClient).invalidateReadyToPay("samsung-pay");
         verify(callback).onResult(null);
     }
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsNotReady_callsBackFalseAndForwardsError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         Exception samsungPayError = new Exception("samsung error");
@@ -127,7 +201,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsNotReady_sendsAnalyticsEvent() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -142,7 +218,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsNotSupported_callsBackFalseAndForwardsError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         Exception samsungPayError = new Exception("samsung error");
@@ -159,7 +237,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsNotSupported_sendsAnalyticsEvent() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -174,7 +254,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusErrorOccurs_callsBackFalseAndPropagatesError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         SamsungPayException error = new SamsungPayException(123);
@@ -190,7 +272,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsReady_andAcceptedCardsExist_callsBackTrue() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -206,7 +290,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsReady_andAcceptedCardsExist_sendsAnalyticsEvent() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -222,7 +308,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsReady_andNoAcceptedCardsExist_callsBackFalseWithError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -242,7 +330,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenSamsungPayStatusIsReady_andNoAcceptedCardsExist_sendsAnalyticsEvent() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         sut.internalClient = new MockSamsungPayInternalClientBuilder()
@@ -258,7 +348,9 @@ public class SamsungPayClientUnitTest {
 
     @Test
     public void isReadyToPay_whenGetAcceptedCardBrandsErrorOccurs_callsBackFalseAndPropagatesError() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
         SamsungPayException error = new SamsungPayException(123);
@@ -273,12 +365,48 @@ public class SamsungPayClientUnitTest {
         verify(callback).onResult(false, error);
     }
 
+    @Test
+    public void isReadyToPay_whenConfigurationFails_callsBackFalseAndPropagatesError() {
+        Exception configError = new Exception("configuration error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configurationError(configError)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        SamsungPayIsReadyToPayCallback callback = mock(SamsungPayIsReadyToPayCallback.class);
+        sut.isReadyToPay(callback);
+
+        verify(callback).onResult(false, configError);
+    }
+
+    @Test
+    public void isReadyToPay_loadsReadinessThroughBraintreeClientCache() {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+        SamsungPayClient sut = new SamsungPayClient(braintreeClient);
+
+        sut.internalClient = new MockSamsungPayInternalClientBuilder()
+                .getSamsungPayStatusSuccess(SPAY_READY)
+                .getAcceptedCardBrandsSuccess(Collections.singletonList(SpaySdk.Brand.VISA))
+                .build();
+
+        SamsungPayIsReadyToPayCallback callback = mock(SamsungPayIsReadyToPayCallback.class);
+        sut.isReadyToPay(callback);
+
+        verify(braintreeClient).loadReadyToPay(eq("samsung-pay"), same(configuration), isNull(),
+                any(ReadyToPayLoader.class), any(ReadyToPayResultCallback.class));
+    }
+
     @Test
     public void startSamsungPay_forwardsInvocationToInternalClient() {
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY))
+                .build();
         SamsungPayClient sut = new SamsungPayClient(braintreeClient);
 
-        SamsungPayInternalClient internalClient = mock(SamsungPayInternalClient.class);
+        SamsungPayInternalClient internalClient = new MockSamsungPayInternalClientBuilder().build();
         sut.internalClient = internalClient;
 
         CustomSheetPaymentInfo paymentInfo = mock(CustomSheetPaymentInfo.class);
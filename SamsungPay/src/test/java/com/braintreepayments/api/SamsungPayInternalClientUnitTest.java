@@ -6,12 +6,14 @@ import androidx.annotation.Nullable;
 
 import com.samsung.android.sdk.samsungpay.v2.SamsungPay;
 import com.samsung.android.sdk.samsungpay.v2.SpaySdk;
+import com.samsung.android.sdk.samsungpay.v2.StatusListener;
 import com.samsung.android.sdk.samsungpay.v2.payment.CardInfo;
 import com.samsung.android.sdk.samsungpay.v2.payment.CustomSheetPaymentInfo;
 import com.samsung.android.sdk.samsungpay.v2.payment.PaymentManager;
 import com.samsung.android.sdk.samsungpay.v2.payment.sheet.CustomSheet;
 
 import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -32,6 +34,7 @@ import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.EXTRA_ERROR_REASON;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_NOT_READY;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_NOT_SUPPORTED;
 import static com.samsung.android.sdk.samsungpay.v2.SpaySdk.SPAY_READY;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -40,6 +43,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -195,6 +199,67 @@ public class SamsungPayInternalClientUnitTest {
         assertEquals(456, exception.getErrorCode());
     }
 
+    @Test
+    public void getSamsungPayStatus_whenCalledAgain_returnsCachedStatusWithoutQueryingSamsungPay() {
+        PaymentManager paymentManager = mock(PaymentManager.class);
+        SamsungPay samsungPay = new MockSamsungPayBuilder()
+                .successStatusCode(SPAY_READY)
+                .build();
+        SamsungPayInternalClient sut = new SamsungPayInternalClient(configuration, samsungPay, paymentManager);
+
+        GetSamsungPayStatusCallback callback = mock(GetSamsungPayStatusCallback.class);
+        sut.getSamsungPayStatus(callback);
+        sut.getSamsungPayStatus(callback);
+
+        verify(callback, times(2)).onResult(SPAY_READY, null);
+        verify(samsungPay, times(1)).getSamsungPayStatus(any(StatusListener.class));
+    }
+
+    @Test
+    public void getSamsungPayStatus_afterFailure_queriesSamsungPayAgain() {
+        PaymentManager paymentManager = mock(PaymentManager.class);
+        SamsungPay samsungPay = new MockSamsungPayBuilder()
+                .errorCode(456)
+                .build();
+        SamsungPayInternalClient sut = new SamsungPayInternalClient(configuration, samsungPay, paymentManager);
+
+        GetSamsungPayStatusCallback callback = mock(GetSamsungPayStatusCallback.class);
+        sut.getSamsungPayStatus(callback);
+        sut.getSamsungPayStatus(callback);
+
+        verify(samsungPay, times(2)).getSamsungPayStatus(any(StatusListener.class));
+    }
+
+    @Test
+    public void activateSamsungPay_invalidatesCachedStatus() {
+        PaymentManager paymentManager = mock(PaymentManager.class);
+        SamsungPay samsungPay = new MockSamsungPayBuilder()
+                .successStatusCode(SPAY_NOT_READY)
+                .build();
+        SamsungPayInternalClient sut = new SamsungPayInternalClient(configuration, samsungPay, paymentManager);
+
+        GetSamsungPayStatusCallback callback = mock(GetSamsungPayStatusCallback.class);
+        sut.getSamsungPayStatus(callback);
+        sut.activateSamsungPay();
+        sut.getSamsungPayStatus(callback);
+
+        verify(samsungPay, times(2)).getSamsungPayStatus(any(StatusListener.class));
+    }
+
+    @Test
+    public void isFor_comparesSamsungPayConfiguration() throws JSONException {
+        SamsungPayInternalClient sut =
+                new SamsungPayInternalClient(configuration, mock(SamsungPay.class), mock(PaymentManager.class));
+
+        JSONObject changedAnalytics = new JSONObject(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY)
+                .put("merchantAccountId", "another_merchant_account_id");
+        assertTrue(sut.isFor(Configuration.fromJson(changedAnalytics.toString())));
+
+        JSONObject changedSamsungPay = new JSONObject(Fixtures.CONFIGURATION_WITH_SAMSUNGPAY);
+        changedSamsungPay.getJSONObject("samsungPay").put("displayName", "another merchant");
+        assertFalse(sut.isFor(Configuration.fromJson(changedSamsungPay.toString())));
+    }
+
     @Test
     public void getAcceptedCardBrands_returnsCardsSupportedByBothBraintreeConfigAndSamsungPay() {
         CardInfo visaCardInfo = mock(CardInfo.class);
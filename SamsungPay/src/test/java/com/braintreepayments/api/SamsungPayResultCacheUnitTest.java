@@ -0,0 +1,109 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SamsungPayResultCacheUnitTest {
+
+    private SamsungPayResultCache<String> sut;
+
+    private int requestCount;
+    private SamsungPayResultCache.Callback<String> pendingRequest;
+    private List<String> results;
+
+    private final SamsungPayResultCache.Request<String> deferredRequest =
+            new SamsungPayResultCache.Request<String>() {
+                @Override
+                public void send(SamsungPayResultCache.Callback<String> callback) {
+                    requestCount++;
+                    pendingRequest = callback;
+                }
+            };
+
+    private final SamsungPayResultCache.Callback<String> collectingCallback =
+            new SamsungPayResultCache.Callback<String>() {
+                @Override
+                public void onResult(@Nullable String result, @Nullable Exception error) {
+                    results.add(result);
+                }
+            };
+
+    @Before
+    public void beforeEach() {
+        sut = new SamsungPayResultCache<>(1000L);
+        requestCount = 0;
+        pendingRequest = null;
+        results = new ArrayList<>();
+    }
+
+    @Test
+    public void get_whenResultIsFresh_returnsItWithoutSendingRequest() {
+        sut.get(deferredRequest, collectingCallback, 0L);
+        pendingRequest.onResult("ready", null);
+
+        sut.get(deferredRequest, collectingCallback, 999L);
+
+        assertEquals(Arrays.asList("ready", "ready"), results);
+        assertEquals(1, requestCount);
+    }
+
+    @Test
+    public void get_whenResultExpired_returnsItImmediatelyAndRefreshes() {
+        sut.get(deferredRequest, collectingCallback, 0L);
+        pendingRequest.onResult("ready", null);
+
+        sut.get(deferredRequest, collectingCallback, 1000L);
+        assertEquals(Arrays.asList("ready", "ready"), results);
+        assertEquals(2, requestCount);
+
+        pendingRequest.onResult("not-ready", null);
+        assertEquals(Arrays.asList("ready", "ready"), results);
+
+        sut.get(deferredRequest, collectingCallback, 1001L);
+        assertEquals(Arrays.asList("ready", "ready", "not-ready"), results);
+    }
+
+    @Test
+    public void get_whileRequestInFlight_sharesRequest() {
+        sut.get(deferredRequest, collectingCallback, 0L);
+        sut.get(deferredRequest, collectingCallback, 0L);
+        assertTrue(results.isEmpty());
+
+        pendingRequest.onResult("ready", null);
+
+        assertEquals(Arrays.asList("ready", "ready"), results);
+        assertEquals(1, requestCount);
+    }
+
+    @Test
+    public void get_whenRequestFails_doesNotCacheFailure() {
+        sut.get(deferredRequest, collectingCallback, 0L);
+        pendingRequest.onResult(null, new Exception("error"));
+
+        sut.get(deferredRequest, collectingCallback, 1L);
+
+        assertEquals(Collections.singletonList((String) null), results);
+        assertEquals(2, requestCount);
+    }
+
+    @Test
+    public void invalidate_dropsCachedResult() {
+        sut.get(deferredRequest, collectingCallback, 0L);
+        pendingRequest.onResult("ready", null);
+
+        sut.invalidate();
+        sut.get(deferredRequest, collectingCallback, 1L);
+
+        assertEquals(2, requestCount);
+    }
+}
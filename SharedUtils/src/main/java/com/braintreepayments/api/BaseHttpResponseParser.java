@@ -1,11 +1,11 @@
 package com.braintreepayments.api;
 
-import java.io.ByteArrayOutputStream;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
-import java.nio.charset.StandardCharsets;
-import java.util.zip.GZIPInputStream;
 
 import static java.net.HttpURLConnection.HTTP_ACCEPTED;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
@@ -25,6 +25,19 @@ class BaseHttpResponseParser implements HttpResponseParser {
     private static final int HTTP_UPGRADE_REQUIRED = 426;
     private static final int HTTP_TOO_MANY_REQUESTS = 429;
 
+    static final long MAX_RESPONSE_SIZE_BYTES = 10 * 1024 * 1024;
+
+    private final long maxResponseSize;
+
+    BaseHttpResponseParser() {
+        this(MAX_RESPONSE_SIZE_BYTES);
+    }
+
+    @VisibleForTesting
+    BaseHttpResponseParser(long maxResponseSize) {
+        this.maxResponseSize = maxResponseSize;
+    }
+
     /**
      * @param responseCode the response code returned when the http request was made.
      * @param connection the connection through which the http request was made.
@@ -35,27 +48,71 @@ class BaseHttpResponseParser implements HttpResponseParser {
         switch (responseCode) {
             case HTTP_OK: case HTTP_CREATED: case HTTP_ACCEPTED:
                 return responseBody;
+            default:
+                throw createException(responseCode, responseBody);
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #parse(int, HttpURLConnection)}. Successful response bodies are
+     * decoded incrementally and handed to {@code streamHandler} without being buffered into a
+     * {@link String}; error responses are read and thrown exactly as in the {@link String} variant.
+     *
+     * @param responseCode the response code returned when the http request was made.
+     * @param connection the connection through which the http request was made.
+     * @param streamHandler consumes the body of a successful http response.
+     * @return the result produced by {@code streamHandler}.
+     */
+    public <T> T parse(int responseCode, HttpURLConnection connection,
+                       HttpResponseStreamHandler<T> streamHandler) throws Exception {
+        switch (responseCode) {
+            case HTTP_OK: case HTTP_CREATED: case HTTP_ACCEPTED:
+                InputStream in = connection.getInputStream();
+                if (in == null) {
+                    in = new ByteArrayInputStream(new byte[0]);
+                }
+                HttpResponseReader reader =
+                        new HttpResponseReader(in, isGzip(connection), maxResponseSize);
+                try {
+                    return streamHandler.handle(reader);
+                } finally {
+                    try {
+                        reader.close();
+                    } catch (IOException ignored) {}
+                }
+            default:
+                // error bodies are small and are read in full to build the exception message
+                throw createException(responseCode, parseBody(responseCode, connection));
+        }
+    }
+
+    private static Exception createException(int responseCode, String responseBody) {
+        switch (responseCode) {
             case HTTP_BAD_REQUEST: case HTTP_UNPROCESSABLE_ENTITY:
-                throw new UnprocessableEntityException(responseBody);
+                return new UnprocessableEntityException(responseBody);
             case HTTP_UNAUTHORIZED:
-                throw new AuthenticationException(responseBody);
+                return new AuthenticationException(responseBody);
             case HTTP_FORBIDDEN:
-                throw new AuthorizationException(responseBody);
+                return new AuthorizationException(responseBody);
             case HTTP_UPGRADE_REQUIRED:
-                throw new UpgradeRequiredException(responseBody);
+                return new UpgradeRequiredException(responseBody);
             case HTTP_TOO_MANY_REQUESTS:
-                throw new RateLimitException("You are being rate-limited. Please try again in a few minutes.");
+                return new RateLimitException("You are being rate-limited. Please try again in a few minutes.");
             case HTTP_INTERNAL_ERROR:
-                throw new ServerException(responseBody);
+                return new ServerException(responseBody);
             case HTTP_UNAVAILABLE:
-                throw new ServiceUnavailableException(responseBody);
+                return new ServiceUnavailableException(responseBody);
             default:
-                throw new UnexpectedException(responseBody);
+                return new UnexpectedException(responseBody);
         }
     }
 
+    private static boolean isGzip(HttpURLConnection connection) {
+        return "gzip".equals(connection.getContentEncoding());
+    }
+
     private String parseBody(int responseCode, HttpURLConnection connection) throws IOException {
-        boolean gzip = "gzip".equals(connection.getContentEncoding());
+        boolean gzip = isGzip(connection);
         switch (responseCode) {
             case HTTP_OK: case HTTP_CREATED: case HTTP_ACCEPTED:
                 return readStream(connection.getInputStream(), gzip);
@@ -78,21 +135,19 @@ class BaseHttpResponseParser implements HttpResponseParser {
             return null;
         }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HttpResponseReader reader = new HttpResponseReader(in, gzip, maxResponseSize);
+        char[] buffer = BufferPool.getInstance().acquireCharBuffer();
         try {
-            if (gzip) {
-                in = new GZIPInputStream(in);
-            }
-
-            byte[] buffer = new byte[1024];
-            for (int count; (count = in.read(buffer)) != -1; ) {
-                out.write(buffer, 0, count);
+            StringBuilder out = new StringBuilder(buffer.length);
+            for (int count; (count = reader.read(buffer)) != -1; ) {
+                out.append(buffer, 0, count);
             }
-            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+            return out.toString();
 
         } finally {
+            BufferPool.getInstance().releaseCharBuffer(buffer);
             try {
-                in.close();
+                reader.close();
             } catch (IOException ignored) {}
         }
     }
@@ -0,0 +1,70 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Small, bounded pool of fixed size byte and char buffers shared by the http layer. Buffers are
+ * handed out on acquire and returned on release; when the pool is empty a new buffer is
+ * allocated, and when it is full released buffers are dropped for the garbage collector.
+ *
+ * Released buffers are overwritten with zeros since they may have held payment data.
+ */
+class BufferPool {
+
+    static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 4;
+
+    private static final BufferPool INSTANCE = new BufferPool(MAX_POOLED_BUFFERS);
+
+    static BufferPool getInstance() {
+        return INSTANCE;
+    }
+
+    private final int maxPooledBuffers;
+    private final ArrayDeque<byte[]> byteBuffers;
+    private final ArrayDeque<char[]> charBuffers;
+
+    @VisibleForTesting
+    BufferPool(int maxPooledBuffers) {
+        this.maxPooledBuffers = maxPooledBuffers;
+        this.byteBuffers = new ArrayDeque<>(maxPooledBuffers);
+        this.charBuffers = new ArrayDeque<>(maxPooledBuffers);
+    }
+
+    synchronized byte[] acquireByteBuffer() {
+        byte[] buffer = byteBuffers.poll();
+        return (buffer != null) ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    void releaseByteBuffer(byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        Arrays.fill(buffer, (byte) 0);
+        synchronized (this) {
+            if (buffer.length == BUFFER_SIZE && byteBuffers.size() < maxPooledBuffers) {
+                byteBuffers.offer(buffer);
+            }
+        }
+    }
+
+    synchronized char[] acquireCharBuffer() {
+        char[] buffer = charBuffers.poll();
+        return (buffer != null) ? buffer : new char[BUFFER_SIZE];
+    }
+
+    void releaseCharBuffer(char[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        Arrays.fill(buffer, (char) 0);
+        synchronized (this) {
+            if (buffer.length == BUFFER_SIZE && charBuffers.size() < maxPooledBuffers) {
+                charBuffers.offer(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.braintreepayments.api;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link Scheduler} that runs work on executors supplied by the host app. An executor that is not
+ * supplied falls back to what {@link ThreadScheduler} uses.
+ */
+class ExecutorScheduler implements Scheduler {
+
+    private final Executor backgroundExecutor;
+    private final Executor mainExecutor;
+
+    ExecutorScheduler(@Nullable Executor backgroundExecutor, @Nullable Executor mainExecutor) {
+        this.backgroundExecutor =
+            (backgroundExecutor != null) ? backgroundExecutor : Executors.newCachedThreadPool();
+        this.mainExecutor = (mainExecutor != null) ? mainExecutor : createMainThreadExecutor();
+    }
+
+    private static Executor createMainThreadExecutor() {
+        final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+        return new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                mainThreadHandler.post(runnable);
+            }
+        };
+    }
+
+    public void runOnBackground(Runnable runnable) {
+        backgroundExecutor.execute(runnable);
+    }
+
+    public void runOnMain(Runnable runnable) {
+        mainExecutor.execute(runnable);
+    }
+}
@@ -1,6 +1,9 @@
 package com.braintreepayments.api;
 
+import android.os.CancellationSignal;
+
 import androidx.annotation.IntDef;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import java.lang.annotation.Retention;
@@ -34,6 +37,10 @@ class HttpClient {
         this(new SynchronousHttpClient(socketFactory, httpResponseParser), new ThreadScheduler());
     }
 
+    HttpClient(SSLSocketFactory socketFactory, HttpResponseParser httpResponseParser, Scheduler scheduler) {
+        this(new SynchronousHttpClient(socketFactory, httpResponseParser), scheduler);
+    }
+
     @VisibleForTesting
     HttpClient(SynchronousHttpClient syncHttpClient, Scheduler scheduler) {
         this.syncHttpClient = syncHttpClient;
@@ -45,6 +52,10 @@ class HttpClient {
         return syncHttpClient.request(request);
     }
 
+    <T> T sendRequest(HttpRequest request, HttpResponseStreamHandler<T> streamHandler) throws Exception {
+        return syncHttpClient.request(request, streamHandler);
+    }
+
     void sendRequest(HttpRequest request, HttpResponseCallback callback) {
         sendRequest(request, HttpClient.NO_RETRY, callback);
     }
@@ -53,6 +64,68 @@ class HttpClient {
         scheduleRequest(request, retryStrategy, callback);
     }
 
+    /**
+     * Sends the request on a background thread without retrying it. Canceling
+     * {@code cancellationSignal} aborts the request, and {@code callback} then receives an
+     * {@link android.os.OperationCanceledException}.
+     */
+    void sendRequest(final HttpRequest request, @Nullable final CancellationSignal cancellationSignal,
+                     final HttpResponseCallback callback) {
+        scheduler.runOnBackground(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    String responseBody = syncHttpClient.request(request, cancellationSignal);
+                    notifySuccessOnMainThread(callback, responseBody);
+                } catch (Exception e) {
+                    notifyErrorOnMainThread(callback, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends the request on a background thread and hands a successful response body to
+     * {@code streamHandler} as it is read from the connection. The result, or the error, is
+     * delivered to {@code callback} through the scheduler's main executor. Streamed requests are
+     * not retried, since the body may already have been partially consumed.
+     */
+    <T> void sendRequest(HttpRequest request, HttpResponseStreamHandler<T> streamHandler,
+                         HttpResponseStreamCallback<T> callback) {
+        sendRequest(request, streamHandler, null, callback);
+    }
+
+    /**
+     * Sends the request like {@link #sendRequest(HttpRequest, HttpResponseStreamHandler,
+     * HttpResponseStreamCallback)}, aborting it when {@code cancellationSignal} is canceled.
+     */
+    <T> void sendRequest(final HttpRequest request, final HttpResponseStreamHandler<T> streamHandler,
+                         @Nullable final CancellationSignal cancellationSignal,
+                         final HttpResponseStreamCallback<T> callback) {
+        scheduler.runOnBackground(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final T result =
+                            syncHttpClient.request(request, streamHandler, cancellationSignal);
+                    scheduler.runOnMain(new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onResult(result, null);
+                        }
+                    });
+                } catch (final Exception e) {
+                    scheduler.runOnMain(new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onResult(null, e);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
     private void scheduleRequest(final HttpRequest request, @RetryStrategy final int retryStrategy, final HttpResponseCallback callback) {
         resetRetryCount(request);
 
@@ -1,6 +1,10 @@
 package com.braintreepayments.api;
 
+import android.util.JsonWriter;
+
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -9,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -19,6 +24,7 @@ class HttpRequest {
     private String path;
     private String baseUrl;
     private byte[] data;
+    private PooledByteArrayOutputStream jsonBody;
     private String method;
 
     private final int readTimeout;
@@ -55,6 +61,51 @@ class HttpRequest {
         return this;
     }
 
+    /**
+     * Serializes the payload as UTF-8 JSON into a pooled buffer, which is released on
+     * {@link #dispose()}.
+     */
+    HttpRequest data(JsonPayload payload) throws IOException {
+        return data(Collections.singletonList(payload), false);
+    }
+
+    /**
+     * Serializes the payloads as a UTF-8 JSON array of objects into a pooled buffer, which is
+     * released on {@link #dispose()}.
+     */
+    HttpRequest data(List<? extends JsonPayload> payloads) throws IOException {
+        return data(payloads, true);
+    }
+
+    private HttpRequest data(List<? extends JsonPayload> payloads, boolean asArray)
+            throws IOException {
+        PooledByteArrayOutputStream body = new PooledByteArrayOutputStream();
+        boolean written = false;
+        try {
+            JsonWriter writer =
+                new JsonWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+            if (asArray) {
+                writer.beginArray();
+            }
+            for (JsonPayload payload : payloads) {
+                writer.beginObject();
+                payload.writeMembers(writer);
+                writer.endObject();
+            }
+            if (asArray) {
+                writer.endArray();
+            }
+            writer.flush();
+            written = true;
+        } finally {
+            if (!written) {
+                body.release();
+            }
+        }
+        this.jsonBody = body;
+        return this;
+    }
+
     HttpRequest method(String method) {
         this.method = method;
         return this;
@@ -73,11 +124,19 @@ class HttpRequest {
         return data;
     }
 
+    PooledByteArrayOutputStream getJsonBody() {
+        return jsonBody;
+    }
+
     void dispose() {
         // overwrite data content with zeros
         if (data != null) {
             Arrays.fill(data, (byte) 0);
         }
+        if (jsonBody != null) {
+            jsonBody.release();
+            jsonBody = null;
+        }
     }
 
     String getMethod() {
@@ -4,4 +4,7 @@ import java.net.HttpURLConnection;
 
 interface HttpResponseParser {
     String parse(int responseCode, HttpURLConnection connection) throws Exception;
+
+    <T> T parse(int responseCode, HttpURLConnection connection,
+                HttpResponseStreamHandler<T> streamHandler) throws Exception;
 }
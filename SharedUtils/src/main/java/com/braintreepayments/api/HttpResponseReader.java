@@ -0,0 +1,131 @@
+package com.braintreepayments.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link Reader} that incrementally decodes an http response body as UTF-8, inflating it first
+ * when the body is gzip encoded. Bytes are staged in a buffer borrowed from {@link BufferPool},
+ * which is returned on {@link #close()}, and reading fails with an {@link IOException} once more
+ * than {@code maxResponseSize} decoded bytes have been read.
+ */
+class HttpResponseReader extends Reader {
+
+    private final InputStream in;
+    private final long maxResponseSize;
+    private final CharsetDecoder decoder;
+
+    private byte[] byteBuffer;
+    private final ByteBuffer bytes;
+
+    // holds the low surrogate of a code point that did not fit in the caller's buffer
+    private final CharBuffer pendingChars = CharBuffer.allocate(2);
+
+    private long totalBytesRead;
+    private boolean endOfInput;
+    private boolean flushed;
+    private boolean closed;
+
+    HttpResponseReader(InputStream in, boolean gzip, long maxResponseSize) throws IOException {
+        if (gzip) {
+            try {
+                in = new GZIPInputStream(in, BufferPool.BUFFER_SIZE);
+            } catch (IOException e) {
+                closeQuietly(in);
+                throw e;
+            }
+        }
+        this.in = in;
+        this.maxResponseSize = maxResponseSize;
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        this.byteBuffer = BufferPool.getInstance().acquireByteBuffer();
+        this.bytes = ByteBuffer.wrap(byteBuffer);
+        this.bytes.limit(0);
+        this.pendingChars.limit(0);
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (pendingChars.hasRemaining() && out.hasRemaining()) {
+            out.put(pendingChars.get());
+        }
+
+        while (out.position() == off && !flushed) {
+            CoderResult result = decoder.decode(bytes, out, endOfInput);
+            if (result.isOverflow() && out.position() == off) {
+                // a surrogate pair does not fit; decode it aside and hand out the first half
+                pendingChars.clear();
+                decoder.decode(bytes, pendingChars, endOfInput);
+                pendingChars.flip();
+                out.put(pendingChars.get());
+            } else if (result.isUnderflow()) {
+                if (endOfInput) {
+                    decoder.flush(out);
+                    flushed = true;
+                } else {
+                    fill();
+                }
+            }
+        }
+
+        int charsRead = out.position() - off;
+        return (charsRead == 0 && flushed) ? -1 : charsRead;
+    }
+
+    private void fill() throws IOException {
+        bytes.compact();
+        int count = in.read(byteBuffer, bytes.position(), bytes.remaining());
+        if (count == -1) {
+            endOfInput = true;
+        } else {
+            bytes.position(bytes.position() + count);
+            totalBytesRead += count;
+            if (totalBytesRead > maxResponseSize) {
+                String message = String.format(Locale.US,
+                        "Response body exceeded the maximum size of %d bytes.", maxResponseSize);
+                throw new IOException(message);
+            }
+        }
+        bytes.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            in.close();
+        } finally {
+            BufferPool.getInstance().releaseByteBuffer(byteBuffer);
+            byteBuffer = null;
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,16 @@
+package com.braintreepayments.api
+
+import androidx.annotation.MainThread
+import androidx.annotation.RestrictTo
+
+/**
+ * Receives the result a stream handler decoded from a http response body.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface HttpResponseStreamCallback<T> {
+
+    @MainThread
+    fun onResult(result: T?, httpError: Exception?)
+}
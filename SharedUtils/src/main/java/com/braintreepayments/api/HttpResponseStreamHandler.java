@@ -0,0 +1,13 @@
+package com.braintreepayments.api;
+
+import java.io.Reader;
+
+/**
+ * Consumes a successful http response body as a character stream, e.g. by feeding it to a
+ * pull parser, without materializing the body as a {@link String} first.
+ *
+ * @param <T> the type produced from the response body
+ */
+interface HttpResponseStreamHandler<T> {
+    T handle(Reader responseBody) throws Exception;
+}
@@ -1,6 +1,20 @@
 package com.braintreepayments.api;
 
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+import android.util.MalformedJsonException;
+
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Iterator;
 
 class Json {
 
@@ -30,4 +44,211 @@ class Json {
             return json.optBoolean(name, fallback);
         }
     }
+
+    /**
+     * Writes the name and value to the writer if the value is not null, mirroring
+     * {@link JSONObject#put(String, Object)} which drops null values.
+     */
+    static void writeOpt(JsonWriter writer, String name, String value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+
+    /**
+     * Writes every member of a {@link JSONObject} to a writer that has an object open, for payloads
+     * that still carry parts built as {@link JSONObject}s.
+     */
+    static void writeMembers(JsonWriter writer, JSONObject json) throws IOException {
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            writer.name(key);
+            writeValue(writer, json.opt(key));
+        }
+    }
+
+    private static void writeValue(JsonWriter writer, Object value) throws IOException {
+        if (value == null || value == JSONObject.NULL) {
+            writer.nullValue();
+        } else if (value instanceof JSONObject) {
+            writer.beginObject();
+            writeMembers(writer, (JSONObject) value);
+            writer.endObject();
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            writer.beginArray();
+            for (int i = 0; i < array.length(); i++) {
+                writeValue(writer, array.opt(i));
+            }
+            writer.endArray();
+        } else if (value instanceof Boolean) {
+            writer.value((Boolean) value);
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else {
+            writer.value(value.toString());
+        }
+    }
+
+    /**
+     * Renders a {@link JsonPayload} as a JSON object string.
+     */
+    static String toJsonString(JsonPayload payload) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        payload.writeMembers(writer);
+        writer.endObject();
+        writer.flush();
+        return out.toString();
+    }
+
+    /**
+     * Renders a {@link JsonPayload} as a {@link JSONObject}, for callers that still need a tree.
+     */
+    static JSONObject toJSONObject(JsonPayload payload) throws JSONException {
+        try {
+            return new JSONObject(toJsonString(payload));
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the next value as a string the way {@link JSONObject#getString(String)} coerces it:
+     * numbers and booleans are read as their string form and JSON null is read as {@code "null"}.
+     * Nested objects and arrays are skipped and read as {@code null}.
+     */
+    static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return "null";
+        }
+        return nextOptString(reader);
+    }
+
+    /**
+     * Reads the next value as a string, returning {@code null} for JSON null, nested objects and
+     * arrays. Mirrors {@link #optString(JSONObject, String, String)}, which falls back for null
+     * values.
+     */
+    static String nextOptString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * Reads the next value as a boolean the way {@link JSONObject#optBoolean(String, boolean)}
+     * coerces it, returning fallback for values that are not booleans or boolean strings.
+     */
+    static boolean nextOptBoolean(JsonReader reader, boolean fallback) throws IOException {
+        switch (reader.peek()) {
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case STRING:
+                String value = reader.nextString();
+                if ("true".equalsIgnoreCase(value)) {
+                    return true;
+                } else if ("false".equalsIgnoreCase(value)) {
+                    return false;
+                }
+                return fallback;
+            default:
+                reader.skipValue();
+                return fallback;
+        }
+    }
+
+    /**
+     * Reads the next value into the {@link JSONObject} representation of it: a
+     * {@link JSONObject}, {@link JSONArray}, {@link String}, {@link Boolean}, number or
+     * {@link JSONObject#NULL}. Meant for small parts of a streamed document, such as errors, that
+     * are easier to inspect as a tree.
+     */
+    static Object nextValue(JsonReader reader) throws IOException, JSONException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                JSONObject object = new JSONObject();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    object.put(name, nextValue(reader));
+                }
+                reader.endObject();
+                return object;
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.put(nextValue(reader));
+                }
+                reader.endArray();
+                return array;
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NUMBER:
+                return new JSONTokener(reader.nextString()).nextValue();
+            case NULL:
+                reader.nextNull();
+                return JSONObject.NULL;
+            default:
+                return reader.nextString();
+        }
+    }
+
+    /**
+     * Returns true if the next value is a JSON object, skipping it otherwise. Mirrors
+     * {@link JSONObject#optJSONObject(String)}, which ignores values of other types.
+     */
+    static boolean peekObject(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            return true;
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    /**
+     * Decodes a JSON string with a {@link JsonDecoder}, reporting malformed input as a
+     * {@link JSONException} like the {@link JSONObject} based parsers do.
+     */
+    static <T> T decode(String json, JsonDecoder<T> decoder) throws JSONException {
+        if (json == null) {
+            throw new JSONException("Value null cannot be converted to JSONObject");
+        }
+        try {
+            return decode(new StringReader(json), decoder);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes a JSON document as it is read from {@code json}, e.g. a http response body. Malformed
+     * input is reported as a {@link JSONException}, while other {@link IOException}s, such as a
+     * dropped connection, are rethrown as is.
+     */
+    static <T> T decode(Reader json, JsonDecoder<T> decoder) throws IOException, JSONException {
+        JsonReader reader = new JsonReader(json);
+        // org.json tolerates the same relaxed syntax
+        reader.setLenient(true);
+        try {
+            return decoder.decode(reader);
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JSONException(e.getMessage());
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {}
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.braintreepayments.api;
+
+import android.util.JsonReader;
+
+import androidx.annotation.RestrictTo;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+
+/**
+ * Decodes a model from a {@link JsonReader} in a single pass, skipping unknown members.
+ * Implementations that throw a {@link JSONException} consume the value they were reading first,
+ * so that the reader can move on to the next member.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface JsonDecoder<T> {
+
+    T decode(JsonReader reader) throws IOException, JSONException;
+}
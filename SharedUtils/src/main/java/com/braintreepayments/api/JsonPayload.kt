@@ -0,0 +1,22 @@
+package com.braintreepayments.api
+
+import android.util.JsonWriter
+import androidx.annotation.RestrictTo
+import java.io.IOException
+
+/**
+ * A JSON request body that writes itself directly into a [JsonWriter], without building an
+ * intermediate [org.json.JSONObject] tree or [String].
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface JsonPayload {
+
+    /**
+     * Write the members of the top level JSON object. The enclosing object is opened and closed
+     * by the caller so that transports can add members of their own.
+     */
+    @Throws(IOException::class)
+    fun writeMembers(writer: JsonWriter)
+}
@@ -0,0 +1,75 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * {@link OutputStream} that collects bytes into a buffer borrowed from {@link BufferPool}. The
+ * buffer grows on demand and every buffer it lets go of is handed back to the pool, which
+ * overwrites it with zeros.
+ */
+class PooledByteArrayOutputStream extends OutputStream {
+
+    private final BufferPool bufferPool;
+
+    private byte[] buffer;
+    private int count;
+
+    PooledByteArrayOutputStream() {
+        this(BufferPool.getInstance());
+    }
+
+    @VisibleForTesting
+    PooledByteArrayOutputStream(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        this.buffer = bufferPool.acquireByteBuffer();
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(bytes, off, buffer, count, len);
+        count += len;
+    }
+
+    int size() {
+        return count;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, count);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Zero the collected bytes and return the buffer to the pool. The stream must not be used
+     * afterwards.
+     */
+    void release() {
+        if (buffer != null) {
+            bufferPool.releaseByteBuffer(buffer);
+            buffer = null;
+            count = 0;
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buffer.length) {
+            byte[] grown = Arrays.copyOf(buffer, Math.max(buffer.length * 2, minCapacity));
+            bufferPool.releaseByteBuffer(buffer);
+            buffer = grown;
+        }
+    }
+}
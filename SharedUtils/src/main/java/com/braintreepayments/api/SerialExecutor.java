@@ -0,0 +1,45 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Executor} that runs its tasks one at a time, in the order they were submitted, on a
+ * delegate executor that may run tasks concurrently.
+ */
+class SerialExecutor implements Executor {
+
+    private final Executor delegate;
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private Runnable active;
+
+    SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void execute(@NonNull final Runnable runnable) {
+        tasks.add(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } finally {
+                    scheduleNext();
+                }
+            }
+        });
+        if (active == null) {
+            scheduleNext();
+        }
+    }
+
+    private synchronized void scheduleNext() {
+        active = tasks.poll();
+        if (active != null) {
+            delegate.execute(active);
+        }
+    }
+}
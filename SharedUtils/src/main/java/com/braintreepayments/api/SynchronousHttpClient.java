@@ -1,5 +1,10 @@
 package com.braintreepayments.api;
 
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+
+import androidx.annotation.Nullable;
+
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -36,11 +41,98 @@ class SynchronousHttpClient {
     }
 
     String request(HttpRequest httpRequest) throws Exception {
+        return request(httpRequest, (CancellationSignal) null);
+    }
+
+    /**
+     * Performs the request like {@link #request(HttpRequest)}. Canceling
+     * {@code cancellationSignal} disconnects the connection, so a request that is being sent or
+     * read fails with an {@link OperationCanceledException}.
+     */
+    String request(HttpRequest httpRequest, @Nullable CancellationSignal cancellationSignal)
+            throws Exception {
+        HttpURLConnection connection = openConnection(httpRequest, cancellationSignal);
+        try {
+            bindCancellation(connection, cancellationSignal);
+            sendBody(connection, httpRequest);
+            int responseCode = connection.getResponseCode();
+            return parser.parse(responseCode, connection);
+        } catch (Exception e) {
+            throw canceledOr(e, cancellationSignal);
+        } finally {
+            closeConnection(connection, cancellationSignal);
+        }
+    }
+
+    /**
+     * Performs the request and hands the response body to {@code streamHandler} as it is read
+     * from the connection, instead of returning it as a {@link String}.
+     */
+    <T> T request(HttpRequest httpRequest, HttpResponseStreamHandler<T> streamHandler) throws Exception {
+        return request(httpRequest, streamHandler, null);
+    }
+
+    /**
+     * Performs the request like {@link #request(HttpRequest, HttpResponseStreamHandler)}, aborting
+     * it when {@code cancellationSignal} is canceled.
+     */
+    <T> T request(HttpRequest httpRequest, HttpResponseStreamHandler<T> streamHandler,
+                  @Nullable CancellationSignal cancellationSignal) throws Exception {
+        HttpURLConnection connection = openConnection(httpRequest, cancellationSignal);
+        try {
+            bindCancellation(connection, cancellationSignal);
+            sendBody(connection, httpRequest);
+            int responseCode = connection.getResponseCode();
+            return parser.parse(responseCode, connection, streamHandler);
+        } catch (Exception e) {
+            throw canceledOr(e, cancellationSignal);
+        } finally {
+            closeConnection(connection, cancellationSignal);
+        }
+    }
+
+    private static Exception canceledOr(Exception error,
+                                        @Nullable CancellationSignal cancellationSignal) {
+        // a disconnect from the cancel listener surfaces as an arbitrary I/O error
+        if (cancellationSignal != null && cancellationSignal.isCanceled()) {
+            return new OperationCanceledException();
+        }
+        return error;
+    }
+
+    private static void bindCancellation(final HttpURLConnection connection,
+                                         @Nullable CancellationSignal cancellationSignal) {
+        if (cancellationSignal != null) {
+            cancellationSignal.setOnCancelListener(new CancellationSignal.OnCancelListener() {
+                @Override
+                public void onCancel() {
+                    connection.disconnect();
+                }
+            });
+            // the listener runs right away for a canceled signal, before anything was connected
+            cancellationSignal.throwIfCanceled();
+        }
+    }
+
+    private static void closeConnection(HttpURLConnection connection,
+                                        @Nullable CancellationSignal cancellationSignal) {
+        if (cancellationSignal != null) {
+            cancellationSignal.setOnCancelListener(null);
+        }
+        connection.disconnect();
+    }
+
+    private HttpURLConnection openConnection(HttpRequest httpRequest,
+                                             @Nullable CancellationSignal cancellationSignal)
+            throws Exception {
         if (httpRequest.getPath() == null) {
             throw new IllegalArgumentException("Path cannot be null");
         }
         URL url = httpRequest.getURL();
 
+        if (cancellationSignal != null) {
+            cancellationSignal.throwIfCanceled();
+        }
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
         if (connection instanceof HttpsURLConnection) {
             if (socketFactory == null) {
@@ -64,20 +156,29 @@ class SynchronousHttpClient {
         if (requestMethod != null && requestMethod.equals("POST")) {
             connection.setRequestProperty("Content-Type", "application/json");
             connection.setDoOutput(true);
+        }
+        return connection;
+    }
 
-            OutputStream outputStream = connection.getOutputStream();
-            outputStream.write(httpRequest.getData());
-            outputStream.flush();
-            outputStream.close();
+    private static void sendBody(HttpURLConnection connection, HttpRequest httpRequest)
+            throws Exception {
+        String requestMethod = httpRequest.getMethod();
+        if (requestMethod != null && requestMethod.equals("POST")) {
+            PooledByteArrayOutputStream jsonBody = httpRequest.getJsonBody();
+            if (jsonBody != null) {
+                connection.setFixedLengthStreamingMode(jsonBody.size());
+                OutputStream outputStream = connection.getOutputStream();
+                jsonBody.writeTo(outputStream);
+                outputStream.flush();
+                outputStream.close();
+            } else {
+                OutputStream outputStream = connection.getOutputStream();
+                outputStream.write(httpRequest.getData());
+                outputStream.flush();
+                outputStream.close();
+            }
 
             httpRequest.dispose();
         }
-
-        try {
-            int responseCode = connection.getResponseCode();
-            return parser.parse(responseCode, connection);
-        } finally {
-            connection.disconnect();
-        }
     }
 }
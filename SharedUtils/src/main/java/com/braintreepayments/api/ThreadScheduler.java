@@ -14,7 +14,11 @@ class ThreadScheduler implements Scheduler {
     private final ExecutorService backgroundThreadService;
 
     ThreadScheduler() {
-        this(new Handler(Looper.getMainLooper()), Executors.newCachedThreadPool());
+        this(Executors.newCachedThreadPool());
+    }
+
+    ThreadScheduler(ExecutorService backgroundThreadPool) {
+        this(new Handler(Looper.getMainLooper()), backgroundThreadPool);
     }
 
     @VisibleForTesting
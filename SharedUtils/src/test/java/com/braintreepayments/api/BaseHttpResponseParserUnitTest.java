@@ -6,10 +6,12 @@ import org.junit.function.ThrowingRunnable;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -29,6 +31,7 @@ import static org.junit.Assert.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(Enclosed.class)
@@ -152,6 +155,64 @@ public class BaseHttpResponseParserUnitTest {
         }
     }
 
+    public static class HttpStreamingTest {
+
+        @Test
+        public void parse_withStreamHandler_onSuccess_handsDecodedBodyToHandler() throws Exception {
+            HttpURLConnection connection = mock(HttpURLConnection.class);
+            InputStream inputStream = createGzippedInputStream("200_ok_gzip");
+            when(connection.getContentEncoding()).thenReturn("gzip");
+            when(connection.getInputStream()).thenReturn(inputStream);
+
+            BaseHttpResponseParser sut = new BaseHttpResponseParser();
+            String result = sut.parse(HTTP_OK, connection, new HttpResponseStreamHandler<String>() {
+                @Override
+                public String handle(Reader responseBody) throws Exception {
+                    return new BufferedReader(responseBody).readLine();
+                }
+            });
+
+            assertEquals("200_ok_gzip", result);
+            verify(inputStream).close();
+        }
+
+        @Test
+        public void parse_withStreamHandler_onError_throwsWithoutCallingHandler() throws Exception {
+            final HttpURLConnection connection = mock(HttpURLConnection.class);
+            InputStream errorStream = createPlainTextInputStream("500_internal_server_error");
+            when(connection.getErrorStream()).thenReturn(errorStream);
+
+            final HttpResponseStreamHandler<String> streamHandler = mock(HttpResponseStreamHandler.class);
+            final BaseHttpResponseParser sut = new BaseHttpResponseParser();
+            ServerException exception = assertThrows(ServerException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    sut.parse(HTTP_INTERNAL_ERROR, connection, streamHandler);
+                }
+            });
+
+            assertEquals("500_internal_server_error", exception.getMessage());
+            verifyNoInteractions(streamHandler);
+            verify(errorStream).close();
+        }
+
+        @Test
+        public void parse_whenBodyExceedsMaxResponseSize_throwsIOException() throws Exception {
+            final HttpURLConnection connection = mock(HttpURLConnection.class);
+            InputStream inputStream = createPlainTextInputStream("200_ok_plaintext");
+            when(connection.getInputStream()).thenReturn(inputStream);
+
+            final BaseHttpResponseParser sut = new BaseHttpResponseParser(4);
+            assertThrows(IOException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    sut.parse(HTTP_OK, connection);
+                }
+            });
+            verify(inputStream).close();
+        }
+    }
+
     private static InputStream createPlainTextInputStream(String input) {
         return spy(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
     }
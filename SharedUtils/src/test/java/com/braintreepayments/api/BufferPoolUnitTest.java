@@ -0,0 +1,75 @@
+package com.braintreepayments.api;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class BufferPoolUnitTest {
+
+    @Test
+    public void acquireByteBuffer_whenPoolIsEmpty_allocatesNewBuffer() {
+        BufferPool sut = new BufferPool(1);
+        byte[] buffer = sut.acquireByteBuffer();
+        assertEquals(BufferPool.BUFFER_SIZE, buffer.length);
+    }
+
+    @Test
+    public void acquireByteBuffer_reusesReleasedBuffer() {
+        BufferPool sut = new BufferPool(1);
+        byte[] buffer = sut.acquireByteBuffer();
+        sut.releaseByteBuffer(buffer);
+        assertSame(buffer, sut.acquireByteBuffer());
+    }
+
+    @Test
+    public void releaseByteBuffer_zeroesBufferContents() {
+        BufferPool sut = new BufferPool(1);
+        byte[] buffer = sut.acquireByteBuffer();
+        buffer[0] = 42;
+        sut.releaseByteBuffer(buffer);
+        assertEquals(0, sut.acquireByteBuffer()[0]);
+    }
+
+    @Test
+    public void releaseByteBuffer_whenPoolIsFull_dropsBuffer() {
+        BufferPool sut = new BufferPool(1);
+        byte[] first = sut.acquireByteBuffer();
+        byte[] second = sut.acquireByteBuffer();
+        sut.releaseByteBuffer(first);
+        sut.releaseByteBuffer(second);
+
+        assertSame(first, sut.acquireByteBuffer());
+        assertNotSame(second, sut.acquireByteBuffer());
+    }
+
+    @Test
+    public void releaseByteBuffer_whenPoolIsFull_zeroesDroppedBuffer() {
+        BufferPool sut = new BufferPool(0);
+        byte[] buffer = sut.acquireByteBuffer();
+        buffer[0] = 42;
+        sut.releaseByteBuffer(buffer);
+        assertEquals(0, buffer[0]);
+    }
+
+    @Test
+    public void releaseByteBuffer_ignoresBuffersOfOtherSizes() {
+        BufferPool sut = new BufferPool(1);
+        byte[] buffer = new byte[16];
+        sut.releaseByteBuffer(buffer);
+        assertNotSame(buffer, sut.acquireByteBuffer());
+    }
+
+    @Test
+    public void acquireCharBuffer_reusesReleasedBuffer() {
+        BufferPool sut = new BufferPool(1);
+        char[] buffer = sut.acquireCharBuffer();
+        buffer[0] = 'a';
+        sut.releaseCharBuffer(buffer);
+
+        char[] reused = sut.acquireCharBuffer();
+        assertSame(buffer, reused);
+        assertEquals(0, reused[0]);
+    }
+}
@@ -0,0 +1,47 @@
+package com.braintreepayments.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class ExecutorSchedulerUnitTest {
+
+    private Executor backgroundExecutor;
+    private Executor mainExecutor;
+    private Runnable runnable;
+
+    @Before
+    public void beforeEach() {
+        backgroundExecutor = mock(Executor.class);
+        mainExecutor = mock(Executor.class);
+        runnable = new Runnable() {
+            @Override
+            public void run() {}
+        };
+    }
+
+    @Test
+    public void runOnBackground_executesRunnableOnBackgroundExecutor() {
+        ExecutorScheduler sut = new ExecutorScheduler(backgroundExecutor, mainExecutor);
+
+        sut.runOnBackground(runnable);
+
+        verify(backgroundExecutor).execute(runnable);
+        verifyNoInteractions(mainExecutor);
+    }
+
+    @Test
+    public void runOnMain_executesRunnableOnMainExecutor() {
+        ExecutorScheduler sut = new ExecutorScheduler(backgroundExecutor, mainExecutor);
+
+        sut.runOnMain(runnable);
+
+        verify(mainExecutor).execute(runnable);
+        verifyNoInteractions(backgroundExecutor);
+    }
+}
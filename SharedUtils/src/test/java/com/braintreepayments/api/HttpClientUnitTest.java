@@ -12,6 +12,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import android.os.CancellationSignal;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -171,4 +173,59 @@ public class HttpClientUnitTest {
         String result = sut.sendRequest(httpRequest);
         assertEquals("response body", result);
     }
+
+    @Test
+    public void sendRequest_withStreamHandler_decodesOnBackgroundThreadAndNotifiesOnMainThread() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        HttpResponseStreamHandler<String> streamHandler = mock(HttpResponseStreamHandler.class);
+        when(syncHttpClient.request(httpRequest, streamHandler, null)).thenReturn("decoded");
+
+        HttpResponseStreamCallback<String> callback = mock(HttpResponseStreamCallback.class);
+        sut.sendRequest(httpRequest, streamHandler, callback);
+
+        verifyNoInteractions(syncHttpClient);
+        threadScheduler.flushBackgroundThread();
+        verify(syncHttpClient).request(httpRequest, streamHandler, null);
+        verify(callback, never()).onResult("decoded", null);
+
+        threadScheduler.flushMainThread();
+        verify(callback).onResult("decoded", null);
+    }
+
+    @Test
+    public void sendRequest_withStreamHandler_whenRequestFails_notifiesErrorWithoutRetrying() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        HttpResponseStreamHandler<String> streamHandler = mock(HttpResponseStreamHandler.class);
+        Exception exception = new Exception("error");
+        when(syncHttpClient.request(httpRequest, streamHandler, null)).thenThrow(exception);
+
+        HttpResponseStreamCallback<String> callback = mock(HttpResponseStreamCallback.class);
+        sut.sendRequest(httpRequest, streamHandler, callback);
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+
+        verify(syncHttpClient, times(1)).request(httpRequest, streamHandler, null);
+        verify(callback).onResult(null, exception);
+    }
+
+    @Test
+    public void sendRequest_withCancellationSignal_passesSignalToRequestWithoutRetrying() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        CancellationSignal cancellationSignal = mock(CancellationSignal.class);
+        Exception exception = new Exception("error");
+        when(syncHttpClient.request(httpRequest, cancellationSignal)).thenThrow(exception);
+
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        sut.sendRequest(httpRequest, cancellationSignal, callback);
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+
+        verify(syncHttpClient, times(1)).request(httpRequest, cancellationSignal);
+        verify(callback).onResult(null, exception);
+    }
 }
@@ -1,9 +1,15 @@
 package com.braintreepayments.api;
 
+import android.util.JsonWriter;
+
+import androidx.annotation.NonNull;
+
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
+import org.junit.function.ThrowingRunnable;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.robolectric.RobolectricTestRunner;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -20,6 +26,75 @@ import static org.junit.Assert.*;
 @RunWith(Enclosed.class)
 public class HttpRequestUnitTest {
 
+    @RunWith(RobolectricTestRunner.class)
+    public static class JsonPayloadScenarios {
+
+        @Test
+        public void data_withJsonPayload_serializesPayloadAsUTF8() throws IOException {
+            HttpRequest sut = HttpRequest.newInstance()
+                    .data(new JsonPayload() {
+                        @Override
+                        public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                            writer.name("key").value("v\u00e4lue");
+                        }
+                    });
+
+            assertNull(sut.getData());
+            assertEquals("{\"key\":\"v\u00e4lue\"}",
+                    new String(sut.getJsonBody().toByteArray(), StandardCharsets.UTF_8));
+        }
+
+        @Test
+        public void data_withJsonPayloadList_serializesPayloadsAsArray() throws IOException {
+            HttpRequest sut = HttpRequest.newInstance()
+                    .data(Arrays.asList(new JsonPayload() {
+                        @Override
+                        public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                            writer.name("key").value("first");
+                        }
+                    }, new JsonPayload() {
+                        @Override
+                        public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                            writer.name("key").value("second");
+                        }
+                    }));
+
+            assertEquals("[{\"key\":\"first\"},{\"key\":\"second\"}]",
+                    new String(sut.getJsonBody().toByteArray(), StandardCharsets.UTF_8));
+        }
+
+        @Test
+        public void data_withJsonPayload_whenPayloadThrows_doesNotSetBody() {
+            final HttpRequest sut = HttpRequest.newInstance();
+            assertThrows(IOException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    sut.data(new JsonPayload() {
+                        @Override
+                        public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                            throw new IOException("error");
+                        }
+                    });
+                }
+            });
+            assertNull(sut.getJsonBody());
+        }
+
+        @Test
+        public void dispose_whenJsonBodyExists_releasesJsonBody() throws IOException {
+            HttpRequest sut = HttpRequest.newInstance()
+                    .data(new JsonPayload() {
+                        @Override
+                        public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                            writer.name("key").value("value");
+                        }
+                    });
+            sut.dispose();
+
+            assertNull(sut.getJsonBody());
+        }
+    }
+
     public static class NonParameterizedScenarios {
 
         @Test
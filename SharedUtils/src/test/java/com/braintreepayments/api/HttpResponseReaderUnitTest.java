@@ -0,0 +1,121 @@
+package com.braintreepayments.api;
+
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class HttpResponseReaderUnitTest {
+
+    @Test
+    public void read_decodesPlainTextUTF8() throws IOException {
+        String body = "{\"name\":\"Bjärne Stroustrüp\"}";
+        HttpResponseReader sut = new HttpResponseReader(toInputStream(body), false, 1024);
+        assertEquals(body, readFully(sut, 64));
+    }
+
+    @Test
+    public void read_decodesGzippedUTF8() throws IOException {
+        String body = "{\"name\":\"Bjärne Stroustrüp\"}";
+        HttpResponseReader sut = new HttpResponseReader(toGzippedInputStream(body), true, 1024);
+        assertEquals(body, readFully(sut, 64));
+    }
+
+    @Test
+    public void read_decodesBodiesLargerThanTheBuffer() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BufferPool.BUFFER_SIZE; i++) {
+            builder.append("ü€");
+        }
+        String body = builder.toString();
+
+        HttpResponseReader sut =
+            new HttpResponseReader(toInputStream(body), false, Long.MAX_VALUE);
+        assertEquals(body, readFully(sut, 1000));
+    }
+
+    @Test
+    public void read_withSingleCharReads_decodesSurrogatePairs() throws IOException {
+        String body = "a💳b";
+        HttpResponseReader sut = new HttpResponseReader(toInputStream(body), false, 1024);
+        assertEquals(body, readFully(sut, 1));
+    }
+
+    @Test
+    public void read_afterEndOfStream_returnsMinusOne() throws IOException {
+        HttpResponseReader sut = new HttpResponseReader(toInputStream("a"), false, 1024);
+        char[] buffer = new char[4];
+        assertEquals(1, sut.read(buffer));
+        assertEquals(-1, sut.read(buffer));
+        assertEquals(-1, sut.read(buffer));
+    }
+
+    @Test
+    public void read_whenBodyExceedsMaxResponseSize_throwsIOException() throws IOException {
+        final HttpResponseReader sut =
+            new HttpResponseReader(toInputStream("0123456789"), false, 5);
+        IOException exception = assertThrows(IOException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                readFully(sut, 64);
+            }
+        });
+        assertEquals("Response body exceeded the maximum size of 5 bytes.", exception.getMessage());
+    }
+
+    @Test
+    public void read_whenGzippedBodyInflatesBeyondMaxResponseSize_throwsIOException() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append('0');
+        }
+        final HttpResponseReader sut =
+            new HttpResponseReader(toGzippedInputStream(builder.toString()), true, 100);
+        assertThrows(IOException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                readFully(sut, 64);
+            }
+        });
+    }
+
+    @Test
+    public void close_closesUnderlyingStream() throws IOException {
+        InputStream inputStream = spy(toInputStream("body"));
+        HttpResponseReader sut = new HttpResponseReader(inputStream, false, 1024);
+        sut.close();
+        verify(inputStream).close();
+    }
+
+    private static String readFully(HttpResponseReader reader, int chunkSize) throws IOException {
+        StringBuilder out = new StringBuilder();
+        char[] buffer = new char[chunkSize];
+        for (int count; (count = reader.read(buffer)) != -1; ) {
+            out.append(buffer, 0, count);
+        }
+        reader.close();
+        return out.toString();
+    }
+
+    private static InputStream toInputStream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream toGzippedInputStream(String input) throws IOException {
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteOutputStream);
+        gzipOutputStream.write(input.getBytes(StandardCharsets.UTF_8));
+        gzipOutputStream.close();
+        return new ByteArrayInputStream(byteOutputStream.toByteArray());
+    }
+}
@@ -0,0 +1,93 @@
+package com.braintreepayments.api;
+
+import android.util.JsonReader;
+import android.util.JsonWriter;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(RobolectricTestRunner.class)
+public class JsonUnitTest {
+
+    @Test
+    public void writeOpt_skipsNullValues() throws IOException {
+        String json = Json.toJsonString(new JsonPayload() {
+            @Override
+            public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                Json.writeOpt(writer, "present", "value");
+                Json.writeOpt(writer, "absent", null);
+            }
+        });
+
+        assertEquals("{\"present\":\"value\"}", json);
+    }
+
+    @Test
+    public void writeMembers_writesJSONObjectInOrder() throws IOException, JSONException {
+        final JSONObject source = new JSONObject()
+                .put("string", "value")
+                .put("number", 1)
+                .put("boolean", true)
+                .put("null", JSONObject.NULL)
+                .put("object", new JSONObject().put("nested", "value"))
+                .put("array", new JSONArray().put("a").put(2).put(new JSONObject()));
+
+        String json = Json.toJsonString(new JsonPayload() {
+            @Override
+            public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                Json.writeMembers(writer, source);
+            }
+        });
+
+        assertEquals(source.toString(), json);
+    }
+
+    @Test
+    public void toJSONObject_rendersPayload() throws JSONException {
+        JSONObject json = Json.toJSONObject(new JsonPayload() {
+            @Override
+            public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                writer.name("key").value("value");
+            }
+        });
+
+        assertEquals("value", json.getString("key"));
+        assertFalse(json.has("other"));
+    }
+
+    @Test(expected = JSONException.class)
+    public void toJSONObject_whenPayloadThrows_throwsJSONException() throws JSONException {
+        Json.toJSONObject(new JsonPayload() {
+            @Override
+            public void writeMembers(@NonNull JsonWriter writer) throws IOException {
+                throw new IOException("error");
+            }
+        });
+    }
+
+    @Test
+    public void nextValue_readsNestedValuesIntoJSONObjectTree() throws IOException, JSONException {
+        JsonReader reader = new JsonReader(new StringReader(
+                "{\"errors\": [{\"message\": \"boom\", \"line\": 2, \"ok\": false, \"path\": null}]}"));
+
+        JSONObject value = (JSONObject) Json.nextValue(reader);
+
+        JSONObject error = value.getJSONArray("errors").getJSONObject(0);
+        assertEquals("boom", error.getString("message"));
+        assertEquals(2, error.getInt("line"));
+        assertFalse(error.getBoolean("ok"));
+        assertEquals(JSONObject.NULL, error.get("path"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.braintreepayments.api;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PooledByteArrayOutputStreamUnitTest {
+
+    @Test
+    public void write_collectsBytes() {
+        PooledByteArrayOutputStream sut = new PooledByteArrayOutputStream(new BufferPool(1));
+        byte[] bytes = "sample".getBytes(StandardCharsets.UTF_8);
+        sut.write(bytes, 0, bytes.length);
+        sut.write('!');
+
+        assertEquals(7, sut.size());
+        assertArrayEquals("sample!".getBytes(StandardCharsets.UTF_8), sut.toByteArray());
+    }
+
+    @Test
+    public void write_whenBufferIsFull_growsBufferAndKeepsContents() {
+        PooledByteArrayOutputStream sut = new PooledByteArrayOutputStream(new BufferPool(1));
+        byte[] bytes = new byte[BufferPool.BUFFER_SIZE + 10];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        sut.write(bytes, 0, 10);
+        sut.write(bytes, 10, bytes.length - 10);
+
+        assertEquals(bytes.length, sut.size());
+        assertArrayEquals(bytes, sut.toByteArray());
+    }
+
+    @Test
+    public void write_whenBufferGrows_returnsZeroedBufferToPool() {
+        BufferPool bufferPool = new BufferPool(1);
+        PooledByteArrayOutputStream sut = new PooledByteArrayOutputStream(bufferPool);
+        byte[] bytes = new byte[BufferPool.BUFFER_SIZE + 1];
+        bytes[0] = 42;
+        sut.write(bytes, 0, bytes.length);
+
+        byte[] pooled = bufferPool.acquireByteBuffer();
+        assertEquals(BufferPool.BUFFER_SIZE, pooled.length);
+        assertEquals(0, pooled[0]);
+    }
+
+    @Test
+    public void writeTo_writesCollectedBytes() throws IOException {
+        PooledByteArrayOutputStream sut = new PooledByteArrayOutputStream(new BufferPool(1));
+        byte[] bytes = "sample".getBytes(StandardCharsets.UTF_8);
+        sut.write(bytes, 0, bytes.length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sut.writeTo(out);
+        assertArrayEquals(bytes, out.toByteArray());
+    }
+
+    @Test
+    public void release_returnsZeroedBufferToPool() {
+        BufferPool bufferPool = new BufferPool(1);
+        byte[] buffer = bufferPool.acquireByteBuffer();
+        bufferPool.releaseByteBuffer(buffer);
+
+        PooledByteArrayOutputStream sut = new PooledByteArrayOutputStream(bufferPool);
+        sut.write(42);
+        sut.release();
+
+        byte[] pooled = bufferPool.acquireByteBuffer();
+        assertSame(buffer, pooled);
+        assertEquals(0, pooled[0]);
+        assertEquals(0, sut.size());
+    }
+}
@@ -0,0 +1,82 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class SerialExecutorUnitTest {
+
+    private List<Runnable> delegated;
+    private Executor delegate;
+
+    @Before
+    public void beforeEach() {
+        delegated = new ArrayList<>();
+        delegate = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                delegated.add(runnable);
+            }
+        };
+    }
+
+    @Test
+    public void execute_passesOneTaskAtATimeToDelegate() {
+        final List<String> runs = new ArrayList<>();
+        SerialExecutor sut = new SerialExecutor(delegate);
+
+        sut.execute(new Runnable() {
+            @Override
+            public void run() {
+                runs.add("first");
+            }
+        });
+        sut.execute(new Runnable() {
+            @Override
+            public void run() {
+                runs.add("second");
+            }
+        });
+        assertEquals(1, delegated.size());
+
+        delegated.get(0).run();
+        assertEquals(2, delegated.size());
+
+        delegated.get(1).run();
+        assertEquals(2, runs.size());
+        assertEquals("first", runs.get(0));
+        assertEquals("second", runs.get(1));
+    }
+
+    @Test
+    public void execute_whenTaskThrows_runsNextTask() {
+        final List<String> runs = new ArrayList<>();
+        SerialExecutor sut = new SerialExecutor(delegate);
+
+        sut.execute(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        });
+        sut.execute(new Runnable() {
+            @Override
+            public void run() {
+                runs.add("second");
+            }
+        });
+
+        try {
+            delegated.get(0).run();
+        } catch (IllegalStateException ignored) {
+        }
+        delegated.get(1).run();
+
+        assertEquals(1, runs.size());
+    }
+}
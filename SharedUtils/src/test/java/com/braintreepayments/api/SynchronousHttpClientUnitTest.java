@@ -1,17 +1,29 @@
 package com.braintreepayments.api;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.function.ThrowingRunnable;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
@@ -22,6 +34,7 @@ import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLSocketFactory;
 
+@RunWith(RobolectricTestRunner.class)
 public class SynchronousHttpClientUnitTest {
 
     BaseHttpResponseParser httpResponseParser;
@@ -245,6 +258,29 @@ public class SynchronousHttpClientUnitTest {
         assertEquals("http_ok", result);
     }
 
+    @Test
+    public void request_withStreamHandler_parsesResponseWithStreamHandler() throws Exception {
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        HttpResponseStreamHandler<Integer> streamHandler = mock(HttpResponseStreamHandler.class);
+        when(connection.getResponseCode()).thenReturn(200);
+        when(httpResponseParser.parse(200, connection, streamHandler)).thenReturn(42);
+
+        SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        Integer result = sut.request(httpRequest, streamHandler);
+        assertEquals(Integer.valueOf(42), result);
+        verify(connection).disconnect();
+    }
+
     @Test
     public void request_onSuccess_closesUrlConnection() throws Exception {
         final HttpRequest httpRequest = spy(new HttpRequest()
@@ -316,6 +352,40 @@ public class SynchronousHttpClientUnitTest {
         verify(connection).setRequestProperty("Content-Type", "application/json");
     }
 
+    @Test
+    public void request_whenPostWithJsonBody_streamsFixedLengthBodyToOutputStream() throws Exception {
+        PooledByteArrayOutputStream jsonBody = new PooledByteArrayOutputStream();
+        byte[] body = "{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8);
+        jsonBody.write(body, 0, body.length);
+
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("POST")
+                .baseUrl("https://www.sample.com"));
+        when(httpRequest.getJsonBody()).thenReturn(jsonBody);
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        when(connection.getResponseCode()).thenReturn(200);
+        when(httpResponseParser.parse(200, connection)).thenReturn("http_ok");
+
+        ByteArrayOutputStream outputStream = spy(new ByteArrayOutputStream());
+        when(connection.getOutputStream()).thenReturn(outputStream);
+
+        SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        sut.request(httpRequest);
+
+        verify(connection).setDoOutput(true);
+        verify(connection).setFixedLengthStreamingMode(body.length);
+        assertArrayEquals(body, outputStream.toByteArray());
+        verify(outputStream).close();
+        verify(httpRequest).dispose();
+    }
+
     @Test
     public void request_whenPost_writesAsciiCharactersToOutputStream() throws Exception {
         final HttpRequest httpRequest = spy(new HttpRequest()
@@ -376,6 +446,87 @@ public class SynchronousHttpClientUnitTest {
         verify(httpRequest).dispose();
     }
 
+    @Test
+    public void request_whenCanceledBeforeSending_throwsWithoutOpeningConnection() throws Exception {
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        final CancellationSignal cancellationSignal = new CancellationSignal();
+        cancellationSignal.cancel();
+
+        final SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        assertThrows(OperationCanceledException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                sut.request(httpRequest, cancellationSignal);
+            }
+        });
+        verify(url, never()).openConnection();
+    }
+
+    @Test
+    public void request_whenCanceledWhileWaitingForResponse_disconnectsAndThrowsOperationCanceledException() throws Exception {
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        final CancellationSignal cancellationSignal = new CancellationSignal();
+        when(connection.getResponseCode()).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) throws Throwable {
+                cancellationSignal.cancel();
+                throw new IOException("Socket closed");
+            }
+        });
+
+        final HttpResponseStreamHandler<String> streamHandler = mock(HttpResponseStreamHandler.class);
+        final SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        assertThrows(OperationCanceledException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                sut.request(httpRequest, streamHandler, cancellationSignal);
+            }
+        });
+        // once by the cancel listener and once when the request completes
+        verify(connection, times(2)).disconnect();
+    }
+
+    @Test
+    public void request_afterCompleting_doesNotDisconnectWhenCanceled() throws Exception {
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        when(connection.getResponseCode()).thenReturn(200);
+        when(httpResponseParser.parse(200, connection)).thenReturn("http_ok");
+
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        assertEquals("http_ok", sut.request(httpRequest, cancellationSignal));
+
+        cancellationSignal.cancel();
+        verify(connection, times(1)).disconnect();
+    }
+
     private static byte[] toByteArray(String data) {
         return data.getBytes(StandardCharsets.UTF_8);
     }
@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class Assertions {
 
@@ -23,4 +24,45 @@ public class Assertions {
         assertEquals(expected.getCountryOfIssuance(), actual.getCountryOfIssuance());
         assertEquals(expected.getProductId(), actual.getProductId());
     }
+
+    public static void assertThreeDSecureInfoEqual(ThreeDSecureInfo expected, ThreeDSecureInfo actual) {
+        assertEquals(expected.getCavv(), actual.getCavv());
+        assertEquals(expected.getDsTransactionId(), actual.getDsTransactionId());
+        assertEquals(expected.getEciFlag(), actual.getEciFlag());
+        assertEquals(expected.getEnrolled(), actual.getEnrolled());
+        assertEquals(expected.isLiabilityShifted(), actual.isLiabilityShifted());
+        assertEquals(expected.isLiabilityShiftPossible(), actual.isLiabilityShiftPossible());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getThreeDSecureVersion(), actual.getThreeDSecureVersion());
+        assertEquals(expected.wasVerified(), actual.wasVerified());
+        assertEquals(expected.getXid(), actual.getXid());
+        assertEquals(expected.getAcsTransactionId(), actual.getAcsTransactionId());
+        assertEquals(expected.getThreeDSecureAuthenticationId(), actual.getThreeDSecureAuthenticationId());
+        assertEquals(expected.getThreeDSecureServerTransactionId(), actual.getThreeDSecureServerTransactionId());
+        assertEquals(expected.getParesStatus(), actual.getParesStatus());
+        assertEquals(expected.getAuthenticationTransactionStatus(), actual.getAuthenticationTransactionStatus());
+        assertEquals(expected.getAuthenticationTransactionStatusReason(), actual.getAuthenticationTransactionStatusReason());
+        assertEquals(expected.getLookupTransactionStatus(), actual.getLookupTransactionStatus());
+        assertEquals(expected.getLookupTransactionStatusReason(), actual.getLookupTransactionStatusReason());
+    }
+
+    public static void assertCardNonceEqual(CardNonce expected, CardNonce actual) {
+        assertEquals(expected.getString(), actual.getString());
+        assertEquals(expected.isDefault(), actual.isDefault());
+        assertEquals(expected.getCardType(), actual.getCardType());
+        assertEquals(expected.getLastTwo(), actual.getLastTwo());
+        assertEquals(expected.getLastFour(), actual.getLastFour());
+        assertEquals(expected.getBin(), actual.getBin());
+        assertEquals(expected.getExpirationMonth(), actual.getExpirationMonth());
+        assertEquals(expected.getExpirationYear(), actual.getExpirationYear());
+        assertEquals(expected.getCardholderName(), actual.getCardholderName());
+        assertBinDataEqual(expected.getBinData(), actual.getBinData());
+        assertThreeDSecureInfoEqual(expected.getThreeDSecureInfo(), actual.getThreeDSecureInfo());
+        if (expected.getAuthenticationInsight() == null) {
+            assertNull(actual.getAuthenticationInsight());
+        } else {
+            assertEquals(expected.getAuthenticationInsight().getRegulationEnvironment(),
+                    actual.getAuthenticationInsight().getRegulationEnvironment());
+        }
+    }
 }
@@ -1,13 +1,18 @@
 package com.braintreepayments.api;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.mockito.ArgumentMatchers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.List;
+
 public class MockApiClientBuilder {
 
     private Exception tokenizeRESTError;
@@ -48,6 +53,26 @@ public class MockApiClientBuilder {
             }
         }).when(apiClient).tokenizeREST(any(PaymentMethod.class), any(TokenizeCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                JsonDecoder<Object> decoder = invocation.getArgument(1);
+                HttpResponseStreamCallback<Object> listener = invocation.getArgument(2);
+                notifyDecoded(tokenizeRESTSuccess, tokenizeRESTError, decoder, listener);
+                return null;
+            }
+        }).when(apiClient).tokenizeREST(any(PaymentMethod.class), any(JsonDecoder.class), any(HttpResponseStreamCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                JsonDecoder<Object> decoder = invocation.getArgument(2);
+                HttpResponseStreamCallback<Object> listener = invocation.getArgument(3);
+                notifyDecoded(tokenizeRESTSuccess, tokenizeRESTError, decoder, listener);
+                return null;
+            }
+        }).when(apiClient).tokenizeREST(any(PaymentMethod.class), anyBoolean(), any(JsonDecoder.class), any(HttpResponseStreamCallback.class));
+
         doAnswer(new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
@@ -57,6 +82,55 @@ public class MockApiClientBuilder {
             }
         }).when(apiClient).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                TokenizeCallback listener = (TokenizeCallback) invocation.getArguments()[1];
+                listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError);
+                return null;
+            }
+        }).when(apiClient).tokenizeGraphQL(any(JsonPayload.class), any(TokenizeCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                JsonDecoder<Object> dataDecoder = invocation.getArgument(1);
+                HttpResponseStreamCallback<Object> listener = invocation.getArgument(2);
+                notifyDecoded(graphQLData(), tokenizeGraphQLError, dataDecoder, listener);
+                return null;
+            }
+        }).when(apiClient).tokenizeGraphQL(any(JsonPayload.class), any(JsonDecoder.class), any(HttpResponseStreamCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                JsonDecoder<Object> dataDecoder = invocation.getArgument(1);
+                List<HttpResponseStreamCallback<Object>> listeners = invocation.getArgument(2);
+                for (HttpResponseStreamCallback<Object> listener : listeners) {
+                    notifyDecoded(graphQLData(), tokenizeGraphQLError, dataDecoder, listener);
+                }
+                return null;
+            }
+        }).when(apiClient).tokenizeGraphQL(ArgumentMatchers.<JsonPayload>anyList(), any(JsonDecoder.class),
+                ArgumentMatchers.<HttpResponseStreamCallback<Object>>anyList());
+
         return apiClient;
     }
+
+    private JSONObject graphQLData() {
+        return tokenizeGraphQLSuccess == null ? null : tokenizeGraphQLSuccess.optJSONObject("data");
+    }
+
+    private static void notifyDecoded(JSONObject success, Exception error, JsonDecoder<Object> decoder,
+                                      HttpResponseStreamCallback<Object> listener) {
+        if (success == null) {
+            listener.onResult(null, error);
+            return;
+        }
+        try {
+            listener.onResult(Json.decode(success.toString(), decoder), null);
+        } catch (JSONException e) {
+            listener.onResult(null, e);
+        }
+    }
 }
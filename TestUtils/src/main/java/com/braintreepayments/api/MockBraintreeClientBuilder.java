@@ -3,20 +3,32 @@ package com.braintreepayments.api;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import android.content.pm.ActivityInfo;
+import android.os.CancellationSignal;
 
 import androidx.fragment.app.FragmentActivity;
 
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.concurrent.Executor;
+
 public class MockBraintreeClientBuilder {
 
+    // runs the stages of a tokenization on the calling thread so results are delivered synchronously
+    private static final Executor directExecutor = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
     private String sendGETSuccess;
     private Exception sendGETError;
 
@@ -127,7 +139,7 @@ public class MockBraintreeClientBuilder {
     }
 
     public BraintreeClient build() {
-        BraintreeClient braintreeClient = mock(BraintreeClient.class);
+        final BraintreeClient braintreeClient = mock(BraintreeClient.class);
         when(braintreeClient.getSessionId()).thenReturn(sessionId);
         when(braintreeClient.getIntegrationType()).thenReturn(integration);
 
@@ -143,6 +155,7 @@ public class MockBraintreeClientBuilder {
                 return null;
             }
         }).when(braintreeClient).getAuthorization(any(AuthorizationCallback.class));
+        when(braintreeClient.getCachedAuthorization()).thenReturn(authorization);
 
         when(braintreeClient.getReturnUrlScheme()).thenReturn(returnUrlScheme);
 
@@ -196,6 +209,47 @@ public class MockBraintreeClientBuilder {
             }
         }).when(braintreeClient).sendPOST(anyString(), anyString(), any(HttpResponseCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[3];
+                if (sendPOSTSuccess != null) {
+                    callback.onResult(sendPOSTSuccess, null);
+                } else if (sendPOSTError != null) {
+                    callback.onResult(null, sendPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendPOST(anyString(), anyString(), nullable(CancellationSignal.class),
+                any(HttpResponseCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                if (sendPOSTSuccess != null) {
+                    callback.onResult(sendPOSTSuccess, null);
+                } else if (sendPOSTError != null) {
+                    callback.onResult(null, sendPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendPOST(anyString(), any(JsonPayload.class), any(HttpResponseCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[3];
+                if (sendPOSTSuccess != null) {
+                    callback.onResult(sendPOSTSuccess, null);
+                } else if (sendPOSTError != null) {
+                    callback.onResult(null, sendPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendPOST(anyString(), any(JsonPayload.class), nullable(CancellationSignal.class),
+                any(HttpResponseCallback.class));
+
         doAnswer(new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
@@ -209,6 +263,54 @@ public class MockBraintreeClientBuilder {
             }
         }).when(braintreeClient).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[1];
+                if (sendGraphQLPOSTSuccess != null) {
+                    callback.onResult(sendGraphQLPOSTSuccess, null);
+                } else if (sendGraphQLPOSTError != null) {
+                    callback.onResult(null, sendGraphQLPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendGraphQLPOST(any(JsonPayload.class), any(HttpResponseCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                if (sendGraphQLPOSTSuccess != null) {
+                    callback.onResult(sendGraphQLPOSTSuccess, null);
+                } else if (sendGraphQLPOSTError != null) {
+                    callback.onResult(null, sendGraphQLPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendGraphQLPOST(any(JsonPayload.class), nullable(CancellationSignal.class),
+                any(HttpResponseCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ReadyToPayLoader loader = (ReadyToPayLoader) invocation.getArguments()[3];
+                ReadyToPayResultCallback callback = (ReadyToPayResultCallback) invocation.getArguments()[4];
+                loader.load(callback);
+                return null;
+            }
+        }).when(braintreeClient).loadReadyToPay(anyString(), any(Configuration.class), any(),
+                any(ReadyToPayLoader.class), any(ReadyToPayResultCallback.class));
+
+        doAnswer(new Answer<TokenizationTask>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public TokenizationTask answer(InvocationOnMock invocation) {
+                TokenizationSpec<Object> spec = (TokenizationSpec<Object>) invocation.getArguments()[0];
+                TokenizationPipelineCallback<Object> callback = (TokenizationPipelineCallback<Object>) invocation.getArguments()[1];
+                return new TokenizationPipeline(braintreeClient, directExecutor, directExecutor).execute(spec, callback);
+            }
+        }).when(braintreeClient).tokenize(any(TokenizationSpec.class), any(TokenizationPipelineCallback.class));
+
         return braintreeClient;
     }
 }
@@ -38,11 +38,19 @@ class MockkApiClientBuilder {
         every { apiClient.tokenizeREST(any(), any()) } answers {
             val listener = lastArg() as TokenizeCallback
             listener.onResult(tokenizeRESTSuccess, tokenizeRESTError)
+            mockk<TokenizationTask>(relaxed = true)
         }
 
-        every { apiClient.tokenizeGraphQL(any(), any()) } answers {
+        every { apiClient.tokenizeGraphQL(any<JSONObject>(), any()) } answers {
             val listener = lastArg() as TokenizeCallback
             listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError)
+            mockk<TokenizationTask>(relaxed = true)
+        }
+
+        every { apiClient.tokenizeGraphQL(any<JsonPayload>(), any()) } answers {
+            val listener = lastArg() as TokenizeCallback
+            listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError)
+            mockk<TokenizationTask>(relaxed = true)
         }
         return apiClient
     }
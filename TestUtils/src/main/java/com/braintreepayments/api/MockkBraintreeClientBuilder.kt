@@ -2,9 +2,13 @@ package com.braintreepayments.api
 
 import io.mockk.every
 import io.mockk.mockk
+import java.util.concurrent.Executor
 
 class MockkBraintreeClientBuilder {
 
+    // runs the stages of a tokenization on the calling thread so results are delivered synchronously
+    private val directExecutor = Executor { it.run() }
+
     private var sessionId: String = "session-id-from-mockk-braintree-client-builder"
 
     private var sendGraphQLPostSuccess: String? = null
@@ -28,6 +32,7 @@ class MockkBraintreeClientBuilder {
         return this
     }
 
+    @Suppress("UNCHECKED_CAST")
     fun build(): BraintreeClient {
         val braintreeClient = mockk<BraintreeClient>(relaxed = true)
         every { braintreeClient.sessionId } returns sessionId
@@ -41,13 +46,37 @@ class MockkBraintreeClientBuilder {
             val callback = call.invocation.args[0] as AuthorizationCallback
             authorizationSuccess?.let { callback.onAuthorizationResult(it, null) }
         }
+        every { braintreeClient.getCachedAuthorization() } returns authorizationSuccess
+
+        every { braintreeClient.sendGraphQLPOST(any<String>(), any()) } answers { call ->
+            val callback = call.invocation.args[1] as HttpResponseCallback
+            sendGraphQLPostSuccess?.let { callback.onResult(it, null) }
+                ?: sendGraphQLPOSTError?.let { callback.onResult(null, it) }
+        }
 
-        every { braintreeClient.sendGraphQLPOST(any(), any()) } answers { call ->
+        every { braintreeClient.sendGraphQLPOST(any<JsonPayload>(), any()) } answers { call ->
             val callback = call.invocation.args[1] as HttpResponseCallback
             sendGraphQLPostSuccess?.let { callback.onResult(it, null) }
                 ?: sendGraphQLPOSTError?.let { callback.onResult(null, it) }
         }
 
+        every {
+            braintreeClient.sendGraphQLPOST(any<JsonPayload>(), any(), any<HttpResponseCallback>())
+        } answers { call ->
+            val callback = call.invocation.args[2] as HttpResponseCallback
+            sendGraphQLPostSuccess?.let { callback.onResult(it, null) }
+                ?: sendGraphQLPOSTError?.let { callback.onResult(null, it) }
+        }
+
+        every {
+            braintreeClient.tokenize(any<TokenizationSpec<Any?>>(), any())
+        } answers { call ->
+            TokenizationPipeline(braintreeClient, directExecutor, directExecutor).execute(
+                call.invocation.args[0] as TokenizationSpec<Any?>,
+                call.invocation.args[1] as TokenizationPipelineCallback<Any?>
+            )
+        }
+
         return braintreeClient
     }
 
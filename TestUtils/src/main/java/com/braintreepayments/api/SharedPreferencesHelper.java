@@ -3,7 +3,9 @@ package com.braintreepayments.api;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.net.Uri;
-import android.util.Base64;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class SharedPreferencesHelper {
 
@@ -22,13 +24,27 @@ public class SharedPreferencesHelper {
                 .build()
                 .toString();
 
-        String cacheKey = Base64.encodeToString(String.format("%s%s", configUrl, authorization.getBearer()).getBytes(), 0);
+        String cacheKey = createConfigurationCacheKey(configUrl + authorization.getBearer());
         String timestampKey = String.format("%s_timestamp", cacheKey);
         BraintreeSharedPreferences
                 .getInstance(context)
                 .putStringAndLong(cacheKey, configuration.toJson(), timestampKey, System.currentTimeMillis());
     }
 
+    // mirrors ConfigurationLoader#createCacheKey
+    private static String createConfigurationCacheKey(String configUrlAndBearer) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(configUrlAndBearer.getBytes());
+            StringBuilder cacheKey = new StringBuilder("configuration_");
+            for (int i = 0; i < 16; i++) {
+                cacheKey.append(String.format("%02x", digest[i]));
+            }
+            return cacheKey.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public static void clearConfigurationCacheOverride(Context context) {
         BraintreeSharedPreferences.getInstance(context).clearSharedPreferences();
     }
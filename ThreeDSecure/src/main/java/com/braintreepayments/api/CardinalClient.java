@@ -2,6 +2,7 @@ package com.braintreepayments.api;
 
 import android.content.Context;
 
+import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.FragmentActivity;
 
 import com.cardinalcommerce.cardinalmobilesdk.Cardinal;
@@ -16,36 +17,137 @@ import com.cardinalcommerce.cardinalmobilesdk.services.CardinalValidateReceiver;
 
 import org.json.JSONArray;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 class CardinalClient {
 
-    private String consumerSessionId;
+    /**
+     * How long a consumer session id is reused for further verifications with the same Cardinal
+     * setup before Cardinal is initialized again.
+     */
+    static final long SESSION_TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(10);
+
+    // Cardinal is a process-wide singleton, so its session is shared by every CardinalClient;
+    // a client must not reuse a session after another one has configured Cardinal differently
+    private static final Session SESSION = new Session();
 
     CardinalClient () {}
 
+    /**
+     * Forgets the Cardinal session shared by all clients.
+     */
+    @VisibleForTesting
+    static void resetSession() {
+        synchronized (SESSION) {
+            SESSION.consumerSessionId = null;
+            SESSION.key = null;
+            SESSION.createdAt = 0;
+            SESSION.pendingInitialization = null;
+        }
+    }
+
+    /**
+     * Configures and initializes Cardinal, unless a session for the same authentication JWT and
+     * Cardinal parameters was set up within {@link #SESSION_TIME_TO_LIVE_MS}, in which case its
+     * consumer session id is returned immediately. Calls made while an identical initialization
+     * is in flight wait for it instead of starting another one.
+     */
     void initialize(Context context, Configuration configuration, final ThreeDSecureRequest request, final CardinalInitializeCallback callback) throws BraintreeException {
-        configureCardinal(context, configuration, request);
+        SessionKey key = new SessionKey(configuration, request);
+        final PendingInitialization initialization;
+        String reusableSessionId = null;
+        synchronized (SESSION) {
+            if (key.equals(SESSION.key)
+                    && System.currentTimeMillis() - SESSION.createdAt < SESSION_TIME_TO_LIVE_MS) {
+                reusableSessionId = SESSION.consumerSessionId;
+                initialization = null;
+            } else if (SESSION.pendingInitialization != null
+                    && key.equals(SESSION.pendingInitialization.key)) {
+                SESSION.pendingInitialization.callbacks.add(callback);
+                return;
+            } else {
+                // the previous session belongs to another setup and must not be handed out
+                SESSION.consumerSessionId = null;
+                SESSION.key = null;
+                initialization = new PendingInitialization(key, callback);
+                SESSION.pendingInitialization = initialization;
+            }
+        }
+
+        if (reusableSessionId != null) {
+            callback.onResult(reusableSessionId, null);
+            return;
+        }
 
         CardinalInitService cardinalInitService = new CardinalInitService() {
             @Override
             public void onSetupCompleted(String sessionId) {
-                consumerSessionId = sessionId;
-                callback.onResult(consumerSessionId, null);
+                complete(initialization, sessionId, null, true);
             }
 
             @Override
             public void onValidated(ValidateResponse validateResponse, String serverJWT) {
-                if (consumerSessionId == null) {
-                    callback.onResult(null, new BraintreeException("consumer session id not available"));
+                String sessionId = getConsumerSessionId();
+                if (sessionId == null) {
+                    complete(initialization, null, new BraintreeException("consumer session id not available"), false);
                 } else {
-                    callback.onResult(consumerSessionId, null);
+                    complete(initialization, sessionId, null, false);
                 }
             }
         };
 
         try {
-            Cardinal.getInstance().init(configuration.getCardinalAuthenticationJwt(), cardinalInitService);
-        } catch (RuntimeException e) {
-            throw new BraintreeException("Cardinal SDK init Error.", e);
+            configureCardinal(context, configuration, request);
+            try {
+                Cardinal.getInstance().init(configuration.getCardinalAuthenticationJwt(), cardinalInitService);
+            } catch (RuntimeException e) {
+                throw new BraintreeException("Cardinal SDK init Error.", e);
+            }
+        } catch (BraintreeException e) {
+            List<CardinalInitializeCallback> waiting = abandon(initialization);
+            for (CardinalInitializeCallback waitingCallback : waiting) {
+                if (waitingCallback != callback) {
+                    waitingCallback.onResult(null, e);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Delivers the outcome of {@code initialization} once. Only a completed setup starts a new
+     * session that later initializations may reuse.
+     */
+    private void complete(PendingInitialization initialization, String sessionId, Exception error,
+                          boolean setupCompleted) {
+        synchronized (SESSION) {
+            if (initialization.completed) {
+                return;
+            }
+            initialization.completed = true;
+            if (SESSION.pendingInitialization == initialization) {
+                SESSION.pendingInitialization = null;
+                if (setupCompleted && sessionId != null) {
+                    SESSION.consumerSessionId = sessionId;
+                    SESSION.key = initialization.key;
+                    SESSION.createdAt = System.currentTimeMillis();
+                }
+            }
+        }
+        for (CardinalInitializeCallback callback : initialization.callbacks) {
+            callback.onResult(sessionId, error);
+        }
+    }
+
+    private List<CardinalInitializeCallback> abandon(PendingInitialization initialization) {
+        synchronized (SESSION) {
+            initialization.completed = true;
+            if (SESSION.pendingInitialization == initialization) {
+                SESSION.pendingInitialization = null;
+            }
+            return initialization.callbacks;
         }
     }
 
@@ -112,6 +214,82 @@ class CardinalClient {
     }
 
     String getConsumerSessionId() {
-        return consumerSessionId;
+        synchronized (SESSION) {
+            return SESSION.consumerSessionId;
+        }
+    }
+
+    /**
+     * Identifies the Cardinal setup a consumer session belongs to. UI customizations are compared
+     * by instance.
+     */
+    private static class SessionKey {
+
+        private final String authenticationJwt;
+        private final String environment;
+        private final int uiType;
+        private final List<Integer> renderTypes;
+        private final ThreeDSecureV2UiCustomization v2UiCustomization;
+
+        SessionKey(Configuration configuration, ThreeDSecureRequest request) {
+            authenticationJwt = configuration.getCardinalAuthenticationJwt();
+            environment = configuration.getEnvironment();
+            uiType = request.getUiType();
+            renderTypes = (request.getRenderTypes() != null)
+                    ? new ArrayList<>(request.getRenderTypes()) : null;
+            v2UiCustomization = request.getV2UiCustomization();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SessionKey)) {
+                return false;
+            }
+            SessionKey other = (SessionKey) o;
+            return uiType == other.uiType
+                    && v2UiCustomization == other.v2UiCustomization
+                    && equal(authenticationJwt, other.authenticationJwt)
+                    && equal(environment, other.environment)
+                    && equal(renderTypes, other.renderTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (authenticationJwt != null) ? authenticationJwt.hashCode() : 0;
+            result = 31 * result + uiType;
+            return result;
+        }
+
+        private static boolean equal(Object a, Object b) {
+            return (a == null) ? b == null : a.equals(b);
+        }
+    }
+
+    /**
+     * The consumer session of the Cardinal singleton and the initialization in flight.
+     */
+    private static class Session {
+
+        // guarded by this
+        String consumerSessionId;
+        SessionKey key;
+        long createdAt;
+        PendingInitialization pendingInitialization;
+    }
+
+    private static class PendingInitialization {
+
+        final SessionKey key;
+        final List<CardinalInitializeCallback> callbacks = new ArrayList<>();
+        // guarded by SESSION
+        boolean completed;
+
+        PendingInitialization(SessionKey key, CardinalInitializeCallback callback) {
+            this.key = key;
+            callbacks.add(callback);
+        }
     }
 }
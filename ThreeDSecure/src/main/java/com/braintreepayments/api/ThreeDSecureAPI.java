@@ -1,5 +1,7 @@
 package com.braintreepayments.api;
 
+import android.os.CancellationSignal;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -11,11 +13,11 @@ class ThreeDSecureAPI {
         this.braintreeClient = braintreeClient;
     }
 
-    void performLookup(final ThreeDSecureRequest request, String cardinalConsumerSessionId, final ThreeDSecureResultCallback callback) {
+    void performLookup(final ThreeDSecureRequest request, String cardinalConsumerSessionId, CancellationSignal cancellationSignal, final ThreeDSecureResultCallback callback) {
         String url = ApiClient.versionedPath(ApiClient.PAYMENT_METHOD_ENDPOINT + "/" + request.getNonce() + "/three_d_secure/lookup");
         String data = request.build(cardinalConsumerSessionId);
 
-        braintreeClient.sendPOST(url, data, new HttpResponseCallback() {
+        braintreeClient.sendPOST(url, data, cancellationSignal, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
@@ -7,10 +7,13 @@ import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.CancellationSignal;
+import android.os.SystemClock;
 import android.os.TransactionTooLargeException;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
@@ -35,6 +38,7 @@ public class ThreeDSecureClient {
     private final CardinalClient cardinalClient;
     private final BraintreeClient braintreeClient;
     private final ThreeDSecureAPI api;
+    private CardClient cardClient;
     private ThreeDSecureListener listener;
 
     @VisibleForTesting
@@ -78,9 +82,15 @@ public class ThreeDSecureClient {
 
     @VisibleForTesting
     ThreeDSecureClient(FragmentActivity activity, Lifecycle lifecycle, BraintreeClient braintreeClient, CardinalClient cardinalClient, ThreeDSecureAPI threeDSecureAPI) {
+        this(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI, null);
+    }
+
+    @VisibleForTesting
+    ThreeDSecureClient(FragmentActivity activity, Lifecycle lifecycle, BraintreeClient braintreeClient, CardinalClient cardinalClient, ThreeDSecureAPI threeDSecureAPI, CardClient cardClient) {
         this.cardinalClient = cardinalClient;
         this.braintreeClient = braintreeClient;
         this.api = threeDSecureAPI;
+        this.cardClient = cardClient;
         if (activity != null && lifecycle != null) {
             addObserver(activity, lifecycle);
         }
@@ -108,6 +118,48 @@ public class ThreeDSecureClient {
 
     // region Cardinal Initialize/Prepare Callback Methods
 
+    /**
+     * Initializes the Cardinal SDK ahead of a verification, e.g. when the checkout screen is
+     * shown, so that {@link #performVerification(FragmentActivity, ThreeDSecureRequest, ThreeDSecureResultCallback)}
+     * and {@link #prepareLookup(Context, ThreeDSecureRequest, ThreeDSecurePrepareLookupCallback)}
+     * can submit the lookup without waiting for Cardinal setup.
+     * <p>
+     * The Cardinal session is reused by this client until it expires or the merchant
+     * configuration changes, as long as later requests use the same UI type, render types and
+     * {@link ThreeDSecureV2UiCustomization} instance as {@code request}. Failures are not
+     * reported; Cardinal is initialized again during verification instead.
+     *
+     * @param context Android Context
+     * @param request a {@link ThreeDSecureRequest} with the UI options of later verifications.
+     *                The nonce and amount are not used.
+     */
+    public void warmUp(@NonNull final Context context, @NonNull final ThreeDSecureRequest request) {
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (configuration == null || !configuration.isThreeDSecureEnabled()
+                        || configuration.getCardinalAuthenticationJwt() == null) {
+                    return;
+                }
+
+                try {
+                    cardinalClient.initialize(context, configuration, request, new CardinalInitializeCallback() {
+                        @Override
+                        public void onResult(String consumerSessionId, Exception error) {
+                            if (consumerSessionId != null) {
+                                braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.warm-up.setup-completed");
+                            } else {
+                                braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.warm-up.setup-failed");
+                            }
+                        }
+                    });
+                } catch (BraintreeException initializeException) {
+                    braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.warm-up.failed");
+                }
+            }
+        });
+    }
+
     /**
      * Verification is associated with a transaction amount and your merchant account. To specify a
      * different merchant account (or, in turn, currency), you will need to specify the merchant
@@ -124,6 +176,25 @@ public class ThreeDSecureClient {
      * @param callback {@link ThreeDSecureResultCallback}
      */
     public void performVerification(@NonNull final FragmentActivity activity, @NonNull final ThreeDSecureRequest request, @NonNull final ThreeDSecureResultCallback callback) {
+        performVerification(activity, request, null, callback);
+    }
+
+    /**
+     * Same as {@link #performVerification(FragmentActivity, ThreeDSecureRequest, ThreeDSecureResultCallback)},
+     * but canceling {@code cancellationSignal} aborts the lookup request. Once canceled before the
+     * lookup is sent, {@code callback} is no longer invoked; the Cardinal SDK setup that precedes
+     * the lookup cannot be aborted.
+     *
+     * @param activity           Android FragmentActivity
+     * @param request            the {@link ThreeDSecureRequest} with information used for authentication.
+     * @param cancellationSignal cancels the lookup, or {@code null}
+     * @param callback           {@link ThreeDSecureResultCallback}
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void performVerification(@NonNull final FragmentActivity activity, @NonNull final ThreeDSecureRequest request,
+                                    @Nullable final CancellationSignal cancellationSignal,
+                                    @NonNull final ThreeDSecureResultCallback callback) {
         if (request.getAmount() == null || request.getNonce() == null) {
             callback.onResult(null, new InvalidArgumentException("The ThreeDSecureRequest nonce and amount cannot be null"));
             return;
@@ -137,36 +208,23 @@ public class ThreeDSecureClient {
                     return;
                 }
 
-                if (!configuration.isThreeDSecureEnabled()) {
-                    callback.onResult(null, new BraintreeException("Three D Secure is not enabled for this account. " +
-                            "Please contact Braintree Support for assistance."));
-                    return;
-                }
-
-                if (ThreeDSecureRequest.VERSION_1.equals(request.getVersionRequested())) {
-                    String threeDSecureV1UnsupportedMessage =
-                            "3D Secure v1 is deprecated and no longer supported. See https://developer.paypal.com/braintree/docs/guides/3d-secure/client-side/android/v4 for more information.";
-                    BraintreeException threeDSecureV1UnsupportedError =
-                            new BraintreeException(threeDSecureV1UnsupportedMessage);
-                    callback.onResult(null, threeDSecureV1UnsupportedError);
-
+                BraintreeException configurationError = checkConfiguration(configuration, request);
+                if (configurationError != null) {
+                    callback.onResult(null, configurationError);
                 } else {
-                    // VERSION_2
-                    if (configuration.getCardinalAuthenticationJwt() == null) {
-                        callback.onResult(null, new BraintreeException("Merchant is not configured for 3DS 2.0. " +
-                                "Please contact Braintree Support for assistance."));
-                        return;
-                    }
                     braintreeClient.sendAnalyticsEvent("three-d-secure.initialized");
 
                     CardinalInitializeCallback cardinalInitializeCallback = new CardinalInitializeCallback() {
                         @Override
                         public void onResult(String consumerSessionId, Exception error) {
+                            if (cancellationSignal != null && cancellationSignal.isCanceled()) {
+                                return;
+                            }
                             if (consumerSessionId != null) {
-                                api.performLookup(request, cardinalClient.getConsumerSessionId(), callback);
+                                api.performLookup(request, consumerSessionId, cancellationSignal, callback);
                                 braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-completed");
                             } else {
-                                api.performLookup(request, cardinalClient.getConsumerSessionId(), callback);
+                                api.performLookup(request, consumerSessionId, cancellationSignal, callback);
                                 braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-failed");
                             }
                         }
@@ -183,6 +241,47 @@ public class ThreeDSecureClient {
         });
     }
 
+    /**
+     * Tokenizes a card and performs a 3D Secure lookup for the resulting nonce. Card tokenization
+     * and Cardinal SDK setup run at the same time, and the lookup is submitted as soon as both
+     * have finished. The nonce of {@code request} is set to the tokenized card.
+     * <p>
+     * Continue the verification with
+     * {@link #continuePerformVerification(FragmentActivity, ThreeDSecureRequest, ThreeDSecureResult)}
+     * as with {@link #performVerification(FragmentActivity, ThreeDSecureRequest, ThreeDSecureResultCallback)}.
+     *
+     * @param activity Android FragmentActivity
+     * @param card     the {@link Card} to tokenize
+     * @param request  the {@link ThreeDSecureRequest} with information used for authentication.
+     * @param callback {@link ThreeDSecureTokenizeAndVerifyCallback}
+     */
+    public void tokenizeAndPerformVerification(@NonNull final FragmentActivity activity, @NonNull final Card card, @NonNull final ThreeDSecureRequest request, @NonNull final ThreeDSecureTokenizeAndVerifyCallback callback) {
+        final TokenizeAndVerify verification = new TokenizeAndVerify(request, callback);
+        if (request.getAmount() == null) {
+            verification.fail(new InvalidArgumentException("The ThreeDSecureRequest amount cannot be null"));
+            return;
+        }
+
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (configuration == null) {
+                    verification.fail(error);
+                    return;
+                }
+
+                BraintreeException configurationError = checkConfiguration(configuration, request);
+                if (configurationError != null) {
+                    verification.fail(configurationError);
+                    return;
+                }
+                braintreeClient.sendAnalyticsEvent("three-d-secure.initialized");
+
+                verification.start(activity, configuration, card);
+            }
+        });
+    }
+
     /**
      * Creates a stringified JSON object containing the information necessary to perform a lookup
      *
@@ -384,6 +483,33 @@ public class ThreeDSecureClient {
 
     // endregion
 
+    private static BraintreeException checkConfiguration(Configuration configuration, ThreeDSecureRequest request) {
+        if (!configuration.isThreeDSecureEnabled()) {
+            return new BraintreeException("Three D Secure is not enabled for this account. " +
+                    "Please contact Braintree Support for assistance.");
+        }
+
+        if (ThreeDSecureRequest.VERSION_1.equals(request.getVersionRequested())) {
+            String threeDSecureV1UnsupportedMessage =
+                    "3D Secure v1 is deprecated and no longer supported. See https://developer.paypal.com/braintree/docs/guides/3d-secure/client-side/android/v4 for more information.";
+            return new BraintreeException(threeDSecureV1UnsupportedMessage);
+        }
+
+        // VERSION_2
+        if (configuration.getCardinalAuthenticationJwt() == null) {
+            return new BraintreeException("Merchant is not configured for 3DS 2.0. " +
+                    "Please contact Braintree Support for assistance.");
+        }
+        return null;
+    }
+
+    private CardClient getCardClient() {
+        if (cardClient == null) {
+            cardClient = new CardClient(braintreeClient);
+        }
+        return cardClient;
+    }
+
     private void startVerificationFlow(FragmentActivity activity, Configuration configuration, ThreeDSecureRequest request, ThreeDSecureResult result, ThreeDSecureResultCallback callback) {
         ThreeDSecureLookup lookup = result.getLookup();
 
@@ -641,4 +767,110 @@ public class ThreeDSecureClient {
     }
 
     // endregion
+
+    /**
+     * Tracks a single {@link #tokenizeAndPerformVerification(FragmentActivity, Card, ThreeDSecureRequest, ThreeDSecureTokenizeAndVerifyCallback)}
+     * call. Both stages report on the main thread.
+     */
+    private class TokenizeAndVerify {
+
+        private final ThreeDSecureRequest request;
+        private final ThreeDSecureTokenizeAndVerifyCallback callback;
+        private final ThreeDSecureVerificationTimings timings = new ThreeDSecureVerificationTimings();
+        private final long startedAt = SystemClock.elapsedRealtime();
+
+        private boolean tokenizationFinished;
+        private boolean cardinalSetupFinished;
+        private CardNonce cardNonce;
+        private String consumerSessionId;
+        private Exception error;
+
+        TokenizeAndVerify(ThreeDSecureRequest request, ThreeDSecureTokenizeAndVerifyCallback callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+
+        void start(FragmentActivity activity, Configuration configuration, Card card) {
+            final long tokenizationStartedAt = SystemClock.elapsedRealtime();
+            getCardClient().tokenize(card, new CardTokenizeCallback() {
+                @Override
+                public void onResult(@Nullable CardNonce cardNonce, @Nullable Exception error) {
+                    timings.setTokenizationDurationMs(SystemClock.elapsedRealtime() - tokenizationStartedAt);
+                    onTokenizationResult(cardNonce, error);
+                }
+            });
+
+            final long cardinalSetupStartedAt = SystemClock.elapsedRealtime();
+            try {
+                cardinalClient.initialize(activity, configuration, request, new CardinalInitializeCallback() {
+                    @Override
+                    public void onResult(String consumerSessionId, Exception error) {
+                        timings.setCardinalSetupDurationMs(SystemClock.elapsedRealtime() - cardinalSetupStartedAt);
+                        if (consumerSessionId != null) {
+                            braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-completed");
+                        } else {
+                            braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-failed");
+                        }
+                        onCardinalSetupResult(consumerSessionId, null);
+                    }
+                });
+            } catch (BraintreeException initializeException) {
+                braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.failed");
+                onCardinalSetupResult(null, initializeException);
+            }
+        }
+
+        private void onTokenizationResult(CardNonce cardNonce, Exception error) {
+            tokenizationFinished = true;
+            this.cardNonce = cardNonce;
+            if (cardNonce == null && this.error == null) {
+                this.error = error;
+            }
+            performLookupIfReady();
+        }
+
+        private void onCardinalSetupResult(String consumerSessionId, Exception error) {
+            if (cardinalSetupFinished) {
+                return;
+            }
+            cardinalSetupFinished = true;
+            // the session of this setup; another initialization may already have replaced the
+            // one CardinalClient holds
+            this.consumerSessionId = consumerSessionId;
+            // as in performVerification, a lookup is attempted even when Cardinal setup fails
+            if (error != null && this.error == null) {
+                this.error = error;
+            }
+            performLookupIfReady();
+        }
+
+        private void performLookupIfReady() {
+            if (!tokenizationFinished || !cardinalSetupFinished) {
+                return;
+            }
+            if (error != null) {
+                fail(error);
+                return;
+            }
+
+            request.setNonce(cardNonce.getString());
+            final long lookupStartedAt = SystemClock.elapsedRealtime();
+            api.performLookup(request, consumerSessionId, null, new ThreeDSecureResultCallback() {
+                @Override
+                public void onResult(@Nullable ThreeDSecureResult threeDSecureResult, @Nullable Exception error) {
+                    timings.setLookupDurationMs(SystemClock.elapsedRealtime() - lookupStartedAt);
+                    finish(threeDSecureResult, error);
+                }
+            });
+        }
+
+        void fail(Exception error) {
+            finish(null, error);
+        }
+
+        private void finish(ThreeDSecureResult threeDSecureResult, Exception error) {
+            timings.setTotalDurationMs(SystemClock.elapsedRealtime() - startedAt);
+            callback.onResult(threeDSecureResult, timings, error);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -10,6 +11,8 @@ import androidx.fragment.app.FragmentActivity;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Class to parse and contain 3D Secure lookup params
  */
@@ -56,6 +59,62 @@ public class ThreeDSecureLookup implements Parcelable {
         return lookup;
     }
 
+    /**
+     * Decodes a {@link ThreeDSecureLookup} from a reader positioned at a JSON object, with the same
+     * required members and defaults as {@link #fromJson(String)}.
+     */
+    static ThreeDSecureLookup fromJson(JsonReader reader) throws IOException, JSONException {
+        ThreeDSecureLookup lookup = new ThreeDSecureLookup();
+        lookup.pareq = "";
+        lookup.threeDSecureVersion = "";
+        lookup.transactionId = "";
+        boolean hasAcsUrl = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case ACS_URL_KEY:
+                    hasAcsUrl = true;
+                    lookup.acsUrl = Json.nextOptString(reader);
+                    break;
+                case MD_KEY:
+                    lookup.md = Json.nextString(reader);
+                    break;
+                case TERM_URL_KEY:
+                    lookup.termUrl = Json.nextString(reader);
+                    break;
+                case PA_REQ_KEY:
+                    lookup.pareq = optString(reader);
+                    break;
+                case THREE_D_SECURE_VERSION_KEY:
+                    lookup.threeDSecureVersion = optString(reader);
+                    break;
+                case TRANSACTION_ID_KEY:
+                    lookup.transactionId = optString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!hasAcsUrl) {
+            lookup.acsUrl = null;
+        }
+        if (lookup.md == null) {
+            throw new JSONException("No value for " + MD_KEY);
+        }
+        if (lookup.termUrl == null) {
+            throw new JSONException("No value for " + TERM_URL_KEY);
+        }
+        return lookup;
+    }
+
+    private static String optString(JsonReader reader) throws IOException {
+        String value = Json.nextOptString(reader);
+        return (value != null) ? value : "";
+    }
+
     /**
      * @return The acs url from a 3D Secure lookup. May be {@code null} in which case no
      * authentication will be performed.
@@ -2,12 +2,16 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
+import android.util.JsonToken;
 
 import androidx.annotation.Nullable;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Class to parse and contain 3D Secure authentication responses
  */
@@ -25,37 +29,110 @@ public class ThreeDSecureResult implements Parcelable {
     private ThreeDSecureLookup lookup;
 
     /**
-     * Used to parse a response from the Braintree Gateway to be used for 3D Secure.
+     * Used to parse a response from the Braintree Gateway to be used for 3D Secure. The response
+     * is decoded in a single pass without building a {@link JSONObject} tree.
      *
      * @param jsonString The json response from the Braintree Gateway 3D Secure authentication route.
      * @return The {@link ThreeDSecureResult} to use when performing 3D Secure
      * authentication.
      */
     static ThreeDSecureResult fromJson(String jsonString) throws JSONException {
-        ThreeDSecureResult result = new ThreeDSecureResult();
-        JSONObject json = new JSONObject(jsonString);
-
-        JSONObject cardJson = json.optJSONObject(PAYMENT_METHOD_KEY);
-        if (cardJson != null) {
-            result.tokenizedCard = CardNonce.fromJSON(cardJson);
-        }
+        return Json.decode(jsonString, new JsonDecoder<ThreeDSecureResult>() {
+            @Override
+            public ThreeDSecureResult decode(JsonReader reader) throws IOException, JSONException {
+                return ThreeDSecureResult.fromJson(reader);
+            }
+        });
+    }
 
-        if (json.has(ERRORS_KEY)) {
-            // 3DS v2
-            result.errorMessage = Json.optString(json.getJSONArray(ERRORS_KEY).getJSONObject(0), MESSAGE_KEY, null);
-        } else if (json.has(ERROR_KEY)) {
-            // 3DS v1
-            result.errorMessage = Json.optString(json.getJSONObject(ERROR_KEY), MESSAGE_KEY, null);
+    private static ThreeDSecureResult fromJson(JsonReader reader) throws IOException, JSONException {
+        ThreeDSecureResult result = new ThreeDSecureResult();
+        boolean hasErrors = false;
+        boolean hasError = false;
+        String errorsMessage = null;
+        String errorMessage = null;
+        JSONException errorsFailure = null;
+        JSONException errorFailure = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case PAYMENT_METHOD_KEY:
+                    result.tokenizedCard = Json.peekObject(reader) ? CardNonce.fromJSON(reader) : null;
+                    break;
+                case ERRORS_KEY:
+                    // 3DS v2
+                    hasErrors = true;
+                    errorsMessage = null;
+                    errorsFailure = null;
+                    if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        reader.beginArray();
+                        if (reader.hasNext() && Json.peekObject(reader)) {
+                            errorsMessage = readMessage(reader);
+                        } else {
+                            errorsFailure = new JSONException("Value at 0 is not a JSONObject");
+                        }
+                        while (reader.hasNext()) {
+                            reader.skipValue();
+                        }
+                        reader.endArray();
+                    } else {
+                        reader.skipValue();
+                        errorsFailure = new JSONException("Value at " + ERRORS_KEY + " is not a JSONArray");
+                    }
+                    break;
+                case ERROR_KEY:
+                    // 3DS v1
+                    hasError = true;
+                    if (Json.peekObject(reader)) {
+                        errorMessage = readMessage(reader);
+                        errorFailure = null;
+                    } else {
+                        errorMessage = null;
+                        errorFailure = new JSONException("Value at " + ERROR_KEY + " is not a JSONObject");
+                    }
+                    break;
+                case LOOKUP_KEY:
+                    if (!Json.peekObject(reader)) {
+                        throw new JSONException("Value at " + LOOKUP_KEY + " is not a JSONObject");
+                    }
+                    result.lookup = ThreeDSecureLookup.fromJson(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
         }
-
-        if (json.has(LOOKUP_KEY)) {
-            String lookupJson = json.getJSONObject(LOOKUP_KEY).toString();
-            result.lookup = ThreeDSecureLookup.fromJson(lookupJson);
+        reader.endObject();
+
+        if (hasErrors) {
+            if (errorsFailure != null) {
+                throw errorsFailure;
+            }
+            result.errorMessage = errorsMessage;
+        } else if (hasError) {
+            if (errorFailure != null) {
+                throw errorFailure;
+            }
+            result.errorMessage = errorMessage;
         }
 
         return result;
     }
 
+    private static String readMessage(JsonReader reader) throws IOException {
+        String message = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (MESSAGE_KEY.equals(reader.nextName())) {
+                message = Json.nextOptString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return message;
+    }
+
     /**
      * @return The {@link CardNonce} associated with the 3D Secure
      * authentication
@@ -0,0 +1,19 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.FragmentActivity;
+
+/**
+ * Callback for receiving result of
+ * {@link ThreeDSecureClient#tokenizeAndPerformVerification(FragmentActivity, Card, ThreeDSecureRequest, ThreeDSecureTokenizeAndVerifyCallback)}.
+ */
+public interface ThreeDSecureTokenizeAndVerifyCallback {
+
+    /**
+     * @param threeDSecureResult {@link ThreeDSecureResult} of the lookup
+     * @param timings {@link ThreeDSecureVerificationTimings} of the stages that ran
+     * @param error an exception that occurred while tokenizing the card or performing the lookup
+     */
+    void onResult(@Nullable ThreeDSecureResult threeDSecureResult, @NonNull ThreeDSecureVerificationTimings timings, @Nullable Exception error);
+}
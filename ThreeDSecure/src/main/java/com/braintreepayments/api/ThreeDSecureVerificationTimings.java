@@ -0,0 +1,63 @@
+package com.braintreepayments.api;
+
+import androidx.fragment.app.FragmentActivity;
+
+/**
+ * Durations of the stages of
+ * {@link ThreeDSecureClient#tokenizeAndPerformVerification(FragmentActivity, Card, ThreeDSecureRequest, ThreeDSecureTokenizeAndVerifyCallback)}.
+ * Card tokenization and Cardinal setup run at the same time, so the total is usually shorter than
+ * the sum of the stages. Stages that did not run have a duration of -1.
+ */
+public class ThreeDSecureVerificationTimings {
+
+    private long tokenizationDurationMs = -1;
+    private long cardinalSetupDurationMs = -1;
+    private long lookupDurationMs = -1;
+    private long totalDurationMs = -1;
+
+    ThreeDSecureVerificationTimings() {}
+
+    /**
+     * @return time in milliseconds taken to tokenize the card
+     */
+    public long getTokenizationDurationMs() {
+        return tokenizationDurationMs;
+    }
+
+    /**
+     * @return time in milliseconds taken to configure and initialize the Cardinal SDK
+     */
+    public long getCardinalSetupDurationMs() {
+        return cardinalSetupDurationMs;
+    }
+
+    /**
+     * @return time in milliseconds taken by the 3D Secure lookup request
+     */
+    public long getLookupDurationMs() {
+        return lookupDurationMs;
+    }
+
+    /**
+     * @return time in milliseconds from the start of the verification to its result
+     */
+    public long getTotalDurationMs() {
+        return totalDurationMs;
+    }
+
+    void setTokenizationDurationMs(long tokenizationDurationMs) {
+        this.tokenizationDurationMs = tokenizationDurationMs;
+    }
+
+    void setCardinalSetupDurationMs(long cardinalSetupDurationMs) {
+        this.cardinalSetupDurationMs = cardinalSetupDurationMs;
+    }
+
+    void setLookupDurationMs(long lookupDurationMs) {
+        this.lookupDurationMs = lookupDurationMs;
+    }
+
+    void setTotalDurationMs(long totalDurationMs) {
+        this.totalDurationMs = totalDurationMs;
+    }
+}
@@ -15,6 +15,7 @@ import io.mockk.mockkStatic
 import io.mockk.slot
 import io.mockk.verify
 import junit.framework.TestCase.assertEquals
+import junit.framework.TestCase.assertNull
 import junit.framework.TestCase.assertSame
 import junit.framework.TestCase.assertTrue
 import junit.framework.TestCase.fail
@@ -34,6 +35,7 @@ class CardinalClientUnitTest {
     @Before
     fun beforeEach() {
         mockkStatic(Cardinal::class)
+        CardinalClient.resetSession()
 
         context = mockk(relaxed = true)
         configuration = mockk(relaxed = true)
@@ -183,6 +185,175 @@ class CardinalClientUnitTest {
         assertEquals(exceptionSlot.captured.message, "consumer session id not available")
     }
 
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_withinSessionTimeToLive_reusesConsumerSessionId() {
+        every { Cardinal.getInstance() } returns cardinalInstance
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+
+        val sut = CardinalClient()
+        val request = ThreeDSecureRequest()
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+
+        val cardinalInitServiceSlot = slot<CardinalInitService>()
+        verify { cardinalInstance.init("token", capture(cardinalInitServiceSlot)) }
+        cardinalInitServiceSlot.captured.onSetupCompleted("session-id")
+
+        val secondCallback = mockk<CardinalInitializeCallback>(relaxed = true)
+        sut.initialize(context, configuration, ThreeDSecureRequest(), secondCallback)
+
+        verify(exactly = 1) { cardinalInstance.configure(any(), any()) }
+        verify(exactly = 1) { cardinalInstance.init(any(), any()) }
+        verify { secondCallback.onResult("session-id", null) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenAuthenticationJwtChanges_initializesCardinalAgain() {
+        every { Cardinal.getInstance() } returns cardinalInstance
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+
+        val sut = CardinalClient()
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+
+        val cardinalInitServiceSlot = slot<CardinalInitService>()
+        verify { cardinalInstance.init("token", capture(cardinalInitServiceSlot)) }
+        cardinalInitServiceSlot.captured.onSetupCompleted("session-id")
+
+        every { configuration.cardinalAuthenticationJwt } returns "new-token"
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+
+        verify(exactly = 2) { cardinalInstance.configure(any(), any()) }
+        verify { cardinalInstance.init("new-token", any()) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenUiOptionsChange_initializesCardinalAgain() {
+        every { Cardinal.getInstance() } returns cardinalInstance
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+
+        val sut = CardinalClient()
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+
+        val cardinalInitServiceSlot = slot<CardinalInitService>()
+        verify { cardinalInstance.init("token", capture(cardinalInitServiceSlot)) }
+        cardinalInitServiceSlot.captured.onSetupCompleted("session-id")
+
+        val request = ThreeDSecureRequest()
+        request.v2UiCustomization = ThreeDSecureV2UiCustomization()
+        sut.initialize(context, configuration, request, cardinalInitializeCallback)
+
+        verify(exactly = 2) { cardinalInstance.init(any(), any()) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_afterAnotherClientConfiguredCardinal_initializesCardinalAgain() {
+        every { Cardinal.getInstance() } returns cardinalInstance
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+
+        val sut = CardinalClient()
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+
+        val initServices = mutableListOf<CardinalInitService>()
+        verify { cardinalInstance.init("token", capture(initServices)) }
+        initServices[0].onSetupCompleted("session-id")
+
+        val otherConfiguration = mockk<Configuration>(relaxed = true)
+        every { otherConfiguration.cardinalAuthenticationJwt } returns "other-token"
+        CardinalClient().initialize(
+            context, otherConfiguration, ThreeDSecureRequest(), mockk(relaxed = true)
+        )
+
+        val secondCallback = mockk<CardinalInitializeCallback>(relaxed = true)
+        sut.initialize(context, configuration, ThreeDSecureRequest(), secondCallback)
+
+        verify(exactly = 3) { cardinalInstance.init(any(), any()) }
+        verify(exactly = 0) { secondCallback.onResult("session-id", any()) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whileIdenticalInitializationIsInFlight_waitsForIt() {
+        every { Cardinal.getInstance() } returns cardinalInstance
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+
+        val sut = CardinalClient()
+        val secondCallback = mockk<CardinalInitializeCallback>(relaxed = true)
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+        sut.initialize(context, configuration, ThreeDSecureRequest(), secondCallback)
+
+        val cardinalInitServiceSlot = slot<CardinalInitService>()
+        verify(exactly = 1) { cardinalInstance.init("token", capture(cardinalInitServiceSlot)) }
+        cardinalInitServiceSlot.captured.onSetupCompleted("session-id")
+
+        verify { cardinalInitializeCallback.onResult("session-id", null) }
+        verify { secondCallback.onResult("session-id", null) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenSetupFailed_doesNotReuseSession() {
+        every { Cardinal.getInstance() } returns cardinalInstance
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+
+        val sut = CardinalClient()
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+
+        val cardinalInitServiceSlot = slot<CardinalInitService>()
+        verify { cardinalInstance.init("token", capture(cardinalInitServiceSlot)) }
+        cardinalInitServiceSlot.captured.onValidated(null, null)
+
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+
+        verify(exactly = 2) { cardinalInstance.init(any(), any()) }
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenSetupChanges_doesNotHandOutPreviousConsumerSessionId() {
+        every { Cardinal.getInstance() } returns cardinalInstance
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+
+        val sut = CardinalClient()
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+
+        val initServices = mutableListOf<CardinalInitService>()
+        verify { cardinalInstance.init("token", capture(initServices)) }
+        initServices[0].onSetupCompleted("session-id")
+
+        every { configuration.cardinalAuthenticationJwt } returns "new-token"
+        val secondCallback = mockk<CardinalInitializeCallback>(relaxed = true)
+        sut.initialize(context, configuration, ThreeDSecureRequest(), secondCallback)
+        assertNull(sut.consumerSessionId)
+
+        verify { cardinalInstance.init("new-token", capture(initServices)) }
+        initServices[1].onValidated(null, null)
+
+        val exceptionSlot = slot<BraintreeException>()
+        verify { secondCallback.onResult(isNull(), capture(exceptionSlot)) }
+        assertEquals("consumer session id not available", exceptionSlot.captured.message)
+    }
+
+    @Test
+    @Throws(BraintreeException::class)
+    fun initialize_whenValidatedAfterSetupCompleted_notifiesCallbacksOnce() {
+        every { Cardinal.getInstance() } returns cardinalInstance
+        every { configuration.cardinalAuthenticationJwt } returns "token"
+
+        val sut = CardinalClient()
+        sut.initialize(context, configuration, ThreeDSecureRequest(), cardinalInitializeCallback)
+
+        val cardinalInitServiceSlot = slot<CardinalInitService>()
+        verify { cardinalInstance.init("token", capture(cardinalInitServiceSlot)) }
+        cardinalInitServiceSlot.captured.onSetupCompleted("session-id")
+        cardinalInitServiceSlot.captured.onValidated(null, null)
+
+        verify(exactly = 1) { cardinalInitializeCallback.onResult(any(), any()) }
+        verify { cardinalInitializeCallback.onResult("session-id", null) }
+    }
+
     @Test
     fun initialize_onCardinalConfigureRuntimeException_throwsError() {
         every { Cardinal.getInstance() } returns cardinalInstance
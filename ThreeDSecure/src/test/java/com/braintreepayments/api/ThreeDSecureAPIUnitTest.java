@@ -13,6 +13,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.os.CancellationSignal;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
@@ -34,11 +36,12 @@ public class ThreeDSecureAPIUnitTest {
         when(threeDSecureRequest.build("cardinal-session-id")).thenReturn(mockData);
 
         ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
-        sut.performLookup(threeDSecureRequest, "cardinal-session-id", callback);
+        CancellationSignal cancellationSignal = mock(CancellationSignal.class);
+        sut.performLookup(threeDSecureRequest, "cardinal-session-id", cancellationSignal, callback);
 
         ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(urlCaptor.capture(), dataCaptor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendPOST(urlCaptor.capture(), dataCaptor.capture(), same(cancellationSignal), any(HttpResponseCallback.class));
 
         String url = urlCaptor.getValue();
         assertEquals("/v1/payment_methods/sample-nonce/three_d_secure/lookup", url);
@@ -58,7 +61,7 @@ public class ThreeDSecureAPIUnitTest {
         when(threeDSecureRequest.build(anyString())).thenReturn("{}");
 
         ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
-        sut.performLookup(threeDSecureRequest, "another-session-id", callback);
+        sut.performLookup(threeDSecureRequest, "another-session-id", null, callback);
 
         verify(callback).onResult(any(ThreeDSecureResult.class), isNull());
     }
@@ -74,7 +77,7 @@ public class ThreeDSecureAPIUnitTest {
         when(threeDSecureRequest.build(anyString())).thenReturn("{}");
 
         ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
-        sut.performLookup(threeDSecureRequest, "cardinal-session-id", callback);
+        sut.performLookup(threeDSecureRequest, "cardinal-session-id", null, callback);
 
         verify(callback).onResult(isNull(), any(JSONException.class));
     }
@@ -91,7 +94,7 @@ public class ThreeDSecureAPIUnitTest {
         when(threeDSecureRequest.build(anyString())).thenReturn("{}");
 
         ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
-        sut.performLookup(threeDSecureRequest, "cardinal-session-id", callback);
+        sut.performLookup(threeDSecureRequest, "cardinal-session-id", null, callback);
 
         verify(callback).onResult(isNull(), same(httpError));
     }
@@ -10,15 +10,20 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
+import android.os.CancellationSignal;
 
 import androidx.activity.result.ActivityResultRegistry;
 import androidx.appcompat.app.AppCompatActivity;
@@ -85,6 +90,226 @@ public class ThreeDSecureClientUnitTest {
         when(activity.getLifecycle()).thenReturn(lifecycle);
     }
 
+    @Test
+    public void warmUp_initializesCardinal() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("sample-session-id")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.warmUp(activity, basicRequest);
+
+        verify(cardinalClient).initialize(same(activity), same(threeDSecureEnabledConfig), same(basicRequest), any(CardinalInitializeCallback.class));
+        verify(braintreeClient).sendAnalyticsEvent("three-d-secure.cardinal-sdk.warm-up.setup-completed");
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), nullable(CancellationSignal.class), any(ThreeDSecureResultCallback.class));
+    }
+
+    @Test
+    public void warmUp_whenMerchantIsNotConfiguredForThreeDSecureV2_doesNotInitializeCardinal() throws BraintreeException, JSONException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
+        Configuration configuration = new TestConfigurationBuilder()
+                .threeDSecureEnabled(true)
+                .buildConfiguration();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.warmUp(activity, basicRequest);
+
+        verify(cardinalClient, never()).initialize(any(Context.class), any(Configuration.class), any(ThreeDSecureRequest.class), any(CardinalInitializeCallback.class));
+    }
+
+    @Test
+    public void warmUp_onCardinalInitializeError_sendsAnalyticsEvent() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .initializeRuntimeError(new BraintreeException("cardinal error"))
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.warmUp(activity, basicRequest);
+
+        verify(braintreeClient).sendAnalyticsEvent("three-d-secure.cardinal-sdk.warm-up.failed");
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_performsLookupWithTokenizedNonce() throws BraintreeException, JSONException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+        final CardNonce cardNonce = CardNonce.fromJSON(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD));
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ((CardTokenizeCallback) invocation.getArgument(1)).onResult(cardNonce, null);
+                return null;
+            }
+        }).when(cardClient).tokenize(any(Card.class), any(CardTokenizeCallback.class));
+        ThreeDSecureTokenizeAndVerifyCallback callback = mock(ThreeDSecureTokenizeAndVerifyCallback.class);
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("1.00");
+        Card card = new Card();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI, cardClient);
+        sut.tokenizeAndPerformVerification(activity, card, request, callback);
+
+        verify(cardClient).tokenize(same(card), any(CardTokenizeCallback.class));
+        verify(cardinalClient).initialize(same(activity), same(threeDSecureEnabledConfig), same(request), any(CardinalInitializeCallback.class));
+
+        ArgumentCaptor<ThreeDSecureResultCallback> lookupCaptor = ArgumentCaptor.forClass(ThreeDSecureResultCallback.class);
+        verify(threeDSecureAPI).performLookup(same(request), eq("df-reference-id"), nullable(CancellationSignal.class), lookupCaptor.capture());
+        assertEquals(cardNonce.getString(), request.getNonce());
+
+        lookupCaptor.getValue().onResult(threeDSecureResult, null);
+
+        ArgumentCaptor<ThreeDSecureVerificationTimings> timingsCaptor =
+                ArgumentCaptor.forClass(ThreeDSecureVerificationTimings.class);
+        verify(callback).onResult(same(threeDSecureResult), timingsCaptor.capture(), (Exception) isNull());
+        ThreeDSecureVerificationTimings timings = timingsCaptor.getValue();
+        assertTrue(timings.getTokenizationDurationMs() >= 0);
+        assertTrue(timings.getCardinalSetupDurationMs() >= 0);
+        assertTrue(timings.getLookupDurationMs() >= 0);
+        assertTrue(timings.getTotalDurationMs() >= 0);
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_waitsForTokenizationBeforeLookup() throws BraintreeException, JSONException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+        ThreeDSecureTokenizeAndVerifyCallback callback = mock(ThreeDSecureTokenizeAndVerifyCallback.class);
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("1.00");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI, cardClient);
+        sut.tokenizeAndPerformVerification(activity, new Card(), request, callback);
+
+        ArgumentCaptor<CardTokenizeCallback> tokenizeCaptor = ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(any(Card.class), tokenizeCaptor.capture());
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), nullable(CancellationSignal.class), any(ThreeDSecureResultCallback.class));
+
+        tokenizeCaptor.getValue().onResult(CardNonce.fromJSON(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD)), null);
+
+        verify(threeDSecureAPI).performLookup(same(request), eq("df-reference-id"), nullable(CancellationSignal.class), any(ThreeDSecureResultCallback.class));
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_usesSessionIdOfItsCardinalSetup() throws BraintreeException, JSONException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        // a concurrent initialization has since cleared the session CardinalClient holds
+        when(cardinalClient.getConsumerSessionId()).thenReturn(null);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+        ThreeDSecureTokenizeAndVerifyCallback callback = mock(ThreeDSecureTokenizeAndVerifyCallback.class);
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("1.00");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI, cardClient);
+        sut.tokenizeAndPerformVerification(activity, new Card(), request, callback);
+
+        ArgumentCaptor<CardTokenizeCallback> tokenizeCaptor = ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(any(Card.class), tokenizeCaptor.capture());
+        tokenizeCaptor.getValue().onResult(CardNonce.fromJSON(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD)), null);
+
+        verify(threeDSecureAPI).performLookup(same(request), eq("df-reference-id"), nullable(CancellationSignal.class), any(ThreeDSecureResultCallback.class));
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_onTokenizationError_returnsErrorWithoutLookup() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+        final Exception tokenizeError = new ErrorWithResponse(422, "");
+        CardClient cardClient = mock(CardClient.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ((CardTokenizeCallback) invocation.getArgument(1)).onResult(null, tokenizeError);
+                return null;
+            }
+        }).when(cardClient).tokenize(any(Card.class), any(CardTokenizeCallback.class));
+        ThreeDSecureTokenizeAndVerifyCallback callback = mock(ThreeDSecureTokenizeAndVerifyCallback.class);
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("1.00");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI, cardClient);
+        sut.tokenizeAndPerformVerification(activity, new Card(), request, callback);
+
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), nullable(CancellationSignal.class), any(ThreeDSecureResultCallback.class));
+        ArgumentCaptor<ThreeDSecureVerificationTimings> timingsCaptor =
+                ArgumentCaptor.forClass(ThreeDSecureVerificationTimings.class);
+        verify(callback).onResult((ThreeDSecureResult) isNull(), timingsCaptor.capture(), same(tokenizeError));
+        assertEquals(-1, timingsCaptor.getValue().getLookupDurationMs());
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_onCardinalInitializeError_returnsErrorAfterTokenization() throws BraintreeException {
+        BraintreeException initializeError = new BraintreeException("cardinal error");
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .initializeRuntimeError(initializeError)
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+        ThreeDSecureTokenizeAndVerifyCallback callback = mock(ThreeDSecureTokenizeAndVerifyCallback.class);
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("1.00");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI, cardClient);
+        sut.tokenizeAndPerformVerification(activity, new Card(), request, callback);
+
+        ArgumentCaptor<CardTokenizeCallback> tokenizeCaptor = ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(any(Card.class), tokenizeCaptor.capture());
+        verifyNoInteractions(callback);
+
+        tokenizeCaptor.getValue().onResult(null, new Exception("tokenize error"));
+
+        verify(callback).onResult((ThreeDSecureResult) isNull(), any(ThreeDSecureVerificationTimings.class), same(initializeError));
+        verify(braintreeClient).sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.failed");
+    }
+
+    @Test
+    public void tokenizeAndPerformVerification_withoutAmount_returnsError() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        CardClient cardClient = mock(CardClient.class);
+        ThreeDSecureTokenizeAndVerifyCallback callback = mock(ThreeDSecureTokenizeAndVerifyCallback.class);
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, mock(CardinalClient.class), threeDSecureAPI, cardClient);
+        sut.tokenizeAndPerformVerification(activity, new Card(), new ThreeDSecureRequest(), callback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(callback).onResult((ThreeDSecureResult) isNull(), any(ThreeDSecureVerificationTimings.class), captor.capture());
+        assertTrue(captor.getValue() instanceof InvalidArgumentException);
+        verifyNoInteractions(cardClient);
+    }
+
     @Test
     public void performVerification_sendsAnalyticEvent() throws BraintreeException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder()
@@ -101,6 +326,42 @@ public class ThreeDSecureClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent("three-d-secure.initialized");
     }
 
+    @Test
+    public void performVerification_withCancellationSignal_forwardsSignalToLookupRequest() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+        CancellationSignal cancellationSignal = new CancellationSignal();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, new ThreeDSecureAPI(braintreeClient));
+        sut.performVerification(activity, basicRequest, cancellationSignal, threeDSecureResultCallback);
+
+        verify(braintreeClient).sendPOST(anyString(), anyString(), same(cancellationSignal), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void performVerification_whenCanceledDuringCardinalSetup_skipsLookup() throws BraintreeException {
+        CardinalClient cardinalClient = mock(CardinalClient.class);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+        CancellationSignal cancellationSignal = new CancellationSignal();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.performVerification(activity, basicRequest, cancellationSignal, threeDSecureResultCallback);
+
+        ArgumentCaptor<CardinalInitializeCallback> captor = ArgumentCaptor.forClass(CardinalInitializeCallback.class);
+        verify(cardinalClient).initialize(same(activity), same(threeDSecureEnabledConfig), same(basicRequest), captor.capture());
+        cancellationSignal.cancel();
+        captor.getValue().onResult("df-reference-id", null);
+
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), nullable(CancellationSignal.class), any(ThreeDSecureResultCallback.class));
+        verifyNoInteractions(threeDSecureResultCallback);
+    }
+
     @Test
     public void performVerification_sendsParamsInLookupRequest() throws JSONException, BraintreeException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder()
@@ -126,7 +387,7 @@ public class ThreeDSecureClientUnitTest {
 
         String expectedUrl = "/v1/payment_methods/a-nonce/three_d_secure/lookup";
         ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(eq(expectedUrl), bodyCaptor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendPOST(eq(expectedUrl), bodyCaptor.capture(), nullable(CancellationSignal.class), any(HttpResponseCallback.class));
 
         JSONObject body = new JSONObject(bodyCaptor.getValue());
         assertEquals("amount", body.getString("amount"));
@@ -159,7 +420,7 @@ public class ThreeDSecureClientUnitTest {
 
         ArgumentCaptor<String> pathCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(pathCaptor.capture(), bodyCaptor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendPOST(pathCaptor.capture(), bodyCaptor.capture(), nullable(CancellationSignal.class), any(HttpResponseCallback.class));
 
         String path = pathCaptor.getValue();
         String body = bodyCaptor.getValue();
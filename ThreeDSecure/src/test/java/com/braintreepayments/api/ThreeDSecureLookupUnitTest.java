@@ -2,6 +2,8 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 
+import android.util.JsonReader;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Before;
@@ -9,6 +11,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.IOException;
+import java.io.StringReader;
+
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
@@ -91,6 +96,32 @@ public class ThreeDSecureLookupUnitTest {
         assertEquals("",sut.getPareq());
     }
 
+    @Test
+    public void fromJson_withJsonReader_matchesJSONObjectParsing() throws IOException, JSONException {
+        String[] responses = {
+                Fixtures.THREE_D_SECURE_LOOKUP_RESPONSE,
+                Fixtures.THREE_D_SECURE_V1_LOOKUP_RESPONSE,
+                Fixtures.THREE_D_SECURE_V2_LOOKUP_RESPONSE,
+                Fixtures.THREE_D_SECURE_LOOKUP_RESPONSE_NO_ACS_URL,
+                Fixtures.THREE_D_SECURE_V2_LOOKUP_RESPONSE_NULL_PAREQ,
+                Fixtures.THREE_D_SECURE_V2_LOOKUP_RESPONSE_MISSING_PAREQ
+        };
+
+        for (String response : responses) {
+            String lookupJSON = new JSONObject(response).getJSONObject("lookup").toString();
+            ThreeDSecureLookup expected = ThreeDSecureLookup.fromJson(lookupJSON);
+            ThreeDSecureLookup actual =
+                    ThreeDSecureLookup.fromJson(new JsonReader(new StringReader(lookupJSON)));
+
+            assertEquals(expected.getAcsUrl(), actual.getAcsUrl());
+            assertEquals(expected.getMd(), actual.getMd());
+            assertEquals(expected.getTermUrl(), actual.getTermUrl());
+            assertEquals(expected.getPareq(), actual.getPareq());
+            assertEquals(expected.getThreeDSecureVersion(), actual.getThreeDSecureVersion());
+            assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        }
+    }
+
     @Test
     public void isParcelable() {
         Parcel parcel = Parcel.obtain();
@@ -54,6 +54,25 @@ public class ThreeDSecureResultUnitTest {
         assertEquals("Failed to authenticate, please try a different form of payment.", authResponse.getErrorMessage());
     }
 
+    @Test
+    public void fromJson_whenBothErrorsAndErrorArePresent_prefersErrors() throws JSONException {
+        String response = "{" +
+                "\"error\": {\"message\": \"v1 message\"}," +
+                "\"errors\": [{\"message\": \"v2 message\"}, {\"message\": \"ignored\"}]" +
+                "}";
+
+        ThreeDSecureResult authResponse = ThreeDSecureResult.fromJson(response);
+
+        assertNull(authResponse.getTokenizedCard());
+        assertNull(authResponse.getLookup());
+        assertEquals("v2 message", authResponse.getErrorMessage());
+    }
+
+    @Test(expected = JSONException.class)
+    public void fromJson_whenErrorsIsEmpty_throwsJSONException() throws JSONException {
+        ThreeDSecureResult.fromJson("{\"errors\": []}");
+    }
+
     @Test
     public void isParcelable() throws JSONException {
         ThreeDSecureResult authResponse = ThreeDSecureResult.fromJson(
@@ -0,0 +1,80 @@
+package com.braintreepayments.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, least recently used cache of {@link UnionPayCapabilities} keyed by the BIN of the card
+ * they were fetched for. Capabilities only depend on the issuer of a card, so a lookup for any
+ * number with the same first 6 digits can be answered from the cache.
+ */
+class UnionPayCapabilitiesCache {
+
+    static final int MAX_SIZE = 32;
+    static final long TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int BIN_LENGTH = 6;
+
+    private final LinkedHashMap<String, Entry> entries =
+        new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+
+    synchronized UnionPayCapabilities get(String cardNumber, long currentTimeMillis) {
+        String bin = binOf(cardNumber);
+        if (bin == null) {
+            return null;
+        }
+        Entry entry = entries.get(bin);
+        if (entry == null) {
+            return null;
+        }
+        if (currentTimeMillis - entry.createdAt >= TIME_TO_LIVE_MS) {
+            entries.remove(bin);
+            return null;
+        }
+        return entry.capabilities;
+    }
+
+    synchronized void put(String cardNumber, UnionPayCapabilities capabilities, long currentTimeMillis) {
+        String bin = binOf(cardNumber);
+        if (bin != null) {
+            entries.put(bin, new Entry(capabilities, currentTimeMillis));
+        }
+    }
+
+    /**
+     * @return the first 6 digits of {@code cardNumber} without spaces and dashes, or {@code null}
+     * if it has fewer digits or contains any other character before them.
+     */
+    static String binOf(String cardNumber) {
+        if (cardNumber == null) {
+            return null;
+        }
+        StringBuilder bin = new StringBuilder(BIN_LENGTH);
+        for (int i = 0; i < cardNumber.length() && bin.length() < BIN_LENGTH; i++) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                bin.append(c);
+            } else if (c != ' ' && c != '-') {
+                return null;
+            }
+        }
+        return (bin.length() == BIN_LENGTH) ? bin.toString() : null;
+    }
+
+    private static class Entry {
+
+        final UnionPayCapabilities capabilities;
+        final long createdAt;
+
+        Entry(UnionPayCapabilities capabilities, long createdAt) {
+            this.capabilities = capabilities;
+            this.createdAt = createdAt;
+        }
+    }
+}
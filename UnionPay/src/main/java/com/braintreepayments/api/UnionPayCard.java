@@ -3,20 +3,21 @@ package com.braintreepayments.api;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import androidx.annotation.Nullable;
-import androidx.annotation.RestrictTo;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Builder used to construct a UnionPay card tokenization request.
  */
 public class UnionPayCard extends BaseCard implements Parcelable {
 
     private static final String UNIONPAY_ENROLLMENT_KEY = "unionPayEnrollment";
-    private static final String UNIONPAY_KEY = "creditCard";
     private static final String MOBILE_COUNTRY_CODE_KEY = "mobileCountryCode";
     private static final String MOBILE_PHONE_NUMBER_KEY = "mobileNumber";
     private static final String SMS_CODE_KEY = "smsCode";
@@ -119,27 +120,14 @@ public class UnionPayCard extends BaseCard implements Parcelable {
         return payload;
     }
 
-    /**
-     * @hide
-     */
     @Override
-    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    public JSONObject buildJSON() throws JSONException {
-        JSONObject json = super.buildJSON();
-
-        JSONObject paymentMethodNonceJson = json.getJSONObject(BaseCard.CREDIT_CARD_KEY);
-        JSONObject options = paymentMethodNonceJson.optJSONObject(OPTIONS_KEY);
-        if (options == null) {
-            options = new JSONObject();
-            paymentMethodNonceJson.put(OPTIONS_KEY, options);
-        }
-        JSONObject unionPayEnrollment = new JSONObject();
-        unionPayEnrollment.put(SMS_CODE_KEY, smsCode);
-        unionPayEnrollment.put(ENROLLMENT_ID_KEY, enrollmentId);
-        options.put(UNIONPAY_ENROLLMENT_KEY, unionPayEnrollment);
-
-        json.put(UNIONPAY_KEY, paymentMethodNonceJson);
-        return json;
+    void writeCreditCardOptions(JsonWriter writer) throws IOException {
+        writer.name(OPTIONS_KEY).beginObject();
+        writer.name(UNIONPAY_ENROLLMENT_KEY).beginObject();
+        Json.writeOpt(writer, SMS_CODE_KEY, smsCode);
+        Json.writeOpt(writer, ENROLLMENT_ID_KEY, enrollmentId);
+        writer.endObject();
+        writer.endObject();
     }
 
     @Override
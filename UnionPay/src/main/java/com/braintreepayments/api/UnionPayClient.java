@@ -1,6 +1,8 @@
 package com.braintreepayments.api;
 
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -9,6 +11,8 @@ import androidx.annotation.VisibleForTesting;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Used to check, enroll, and tokenize UnionPay cards. For more information see the
  * <a href="https://developer.paypal.com/braintree/docs/guides/unionpay/overview">documentation</a>
@@ -24,8 +28,24 @@ public class UnionPayClient {
     private static final String UNIONPAY_CAPABILITIES_PATH =
         ApiClient.versionedPath("payment_methods/credit_cards/capabilities");
 
+    /**
+     * Time {@link #fetchCapabilitiesDebounced(String, UnionPayFetchCapabilitiesCallback)} waits
+     * for further input before fetching capabilities.
+     */
+    static final long DEBOUNCE_DELAY_MS = 300;
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
+    private final Handler debounceHandler;
+    private final UnionPayCapabilitiesCache capabilitiesCache = new UnionPayCapabilitiesCache();
+
+    private final AtomicLong capabilitiesCacheHitCount = new AtomicLong();
+    private final AtomicLong cancelledCapabilitiesRequestCount = new AtomicLong();
+
+    // debounced lookup state, only accessed on the main thread
+    private Runnable pendingDebouncedRequest;
+    private boolean debouncedRequestInFlight;
+    private int latestDebouncedRequestId;
 
     public UnionPayClient(@NonNull BraintreeClient braintreeClient) {
         this(braintreeClient, new ApiClient(braintreeClient));
@@ -33,8 +53,14 @@ public class UnionPayClient {
 
     @VisibleForTesting
     UnionPayClient(BraintreeClient braintreeClient, ApiClient apiClient) {
+        this(braintreeClient, apiClient, new Handler(Looper.getMainLooper()));
+    }
+
+    @VisibleForTesting
+    UnionPayClient(BraintreeClient braintreeClient, ApiClient apiClient, Handler debounceHandler) {
         this.braintreeClient = braintreeClient;
         this.apiClient = apiClient;
+        this.debounceHandler = debounceHandler;
     }
 
     /**
@@ -46,14 +72,29 @@ public class UnionPayClient {
      * <p>
      * On error, an exception will be passed back to
      * {@link UnionPayFetchCapabilitiesCallback#onResult(UnionPayCapabilities, Exception)}
+     * <p>
+     * Capabilities are cached by the BIN of the card for this {@link UnionPayClient}. When another
+     * card with the same BIN was checked recently the cached capabilities are returned immediately
+     * without a network request.
      *
      * @param cardNumber The card number to check for Union Pay capabilities.
      * @param callback {@link UnionPayFetchCapabilitiesCallback}
      */
     public void fetchCapabilities(@NonNull final String cardNumber, @NonNull final UnionPayFetchCapabilitiesCallback callback) {
+        UnionPayCapabilities cachedCapabilities = getCachedCapabilities(cardNumber);
+        if (cachedCapabilities != null) {
+            callback.onResult(cachedCapabilities, null);
+            return;
+        }
+
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (error != null) {
+                    callback.onResult(null, error);
+                    return;
+                }
+
                 if (!configuration.isUnionPayEnabled()) {
                     callback.onResult(null, new ConfigurationException("UnionPay is not enabled"));
                     return;
@@ -69,7 +110,9 @@ public class UnionPayClient {
                     @Override
                     public void onResult(String responseBody, Exception httpError) {
                         if (responseBody != null) {
-                            callback.onResult(UnionPayCapabilities.fromJson(responseBody), null);
+                            UnionPayCapabilities capabilities = UnionPayCapabilities.fromJson(responseBody);
+                            capabilitiesCache.put(cardNumber, capabilities, System.currentTimeMillis());
+                            callback.onResult(capabilities, null);
                             braintreeClient.sendAnalyticsEvent("union-pay.capabilities-received");
                         } else {
                             callback.onResult(null, httpError);
@@ -81,6 +124,81 @@ public class UnionPayClient {
         });
     }
 
+    /**
+     * Fetches the capabilities of a card as the user types. Use this instead of
+     * {@link UnionPayClient#fetchCapabilities(String, UnionPayFetchCapabilitiesCallback)} when
+     * calling on every change of a card number field. Must be called on the main thread.
+     * <p>
+     * The lookup starts after no further call has been made for a short delay. Each call
+     * supersedes the previous one: a lookup that has not started yet is cancelled, and the
+     * response of a lookup that is already in flight is discarded. Only the callback of the
+     * latest call is invoked. Cached capabilities are returned immediately.
+     *
+     * @param cardNumber The card number to check for Union Pay capabilities.
+     * @param callback {@link UnionPayFetchCapabilitiesCallback}
+     */
+    public void fetchCapabilitiesDebounced(@NonNull final String cardNumber, @NonNull final UnionPayFetchCapabilitiesCallback callback) {
+        final int requestId = ++latestDebouncedRequestId;
+        if (pendingDebouncedRequest != null) {
+            debounceHandler.removeCallbacks(pendingDebouncedRequest);
+            pendingDebouncedRequest = null;
+            cancelledCapabilitiesRequestCount.incrementAndGet();
+        } else if (debouncedRequestInFlight) {
+            debouncedRequestInFlight = false;
+            cancelledCapabilitiesRequestCount.incrementAndGet();
+        }
+
+        UnionPayCapabilities cachedCapabilities = getCachedCapabilities(cardNumber);
+        if (cachedCapabilities != null) {
+            callback.onResult(cachedCapabilities, null);
+            return;
+        }
+
+        pendingDebouncedRequest = new Runnable() {
+            @Override
+            public void run() {
+                pendingDebouncedRequest = null;
+                debouncedRequestInFlight = true;
+                fetchCapabilities(cardNumber, new UnionPayFetchCapabilitiesCallback() {
+                    @Override
+                    public void onResult(@Nullable UnionPayCapabilities capabilities, @Nullable Exception error) {
+                        if (requestId != latestDebouncedRequestId) {
+                            // superseded by a later call
+                            return;
+                        }
+                        debouncedRequestInFlight = false;
+                        callback.onResult(capabilities, error);
+                    }
+                });
+            }
+        };
+        debounceHandler.postDelayed(pendingDebouncedRequest, DEBOUNCE_DELAY_MS);
+    }
+
+    /**
+     * @return the number of capability lookups answered from the cache.
+     */
+    public long getCapabilitiesCacheHitCount() {
+        return capabilitiesCacheHitCount.get();
+    }
+
+    /**
+     * @return the number of debounced capability lookups that were cancelled or whose response
+     * was discarded because a later lookup superseded them.
+     */
+    public long getCancelledCapabilitiesRequestCount() {
+        return cancelledCapabilitiesRequestCount.get();
+    }
+
+    private UnionPayCapabilities getCachedCapabilities(String cardNumber) {
+        UnionPayCapabilities capabilities =
+            capabilitiesCache.get(cardNumber, System.currentTimeMillis());
+        if (capabilities != null) {
+            capabilitiesCacheHitCount.incrementAndGet();
+        }
+        return capabilities;
+    }
+
     /**
      * Enrolls a Union Pay card. Only call this method if the card needs to be enrolled. Check {@link
      * UnionPayClient#fetchCapabilities(String, UnionPayFetchCapabilitiesCallback)} if your card needs to be enrolled.
@@ -151,17 +269,12 @@ public class UnionPayClient {
      * @param callback {@link UnionPayTokenizeCallback}
      */
     public void tokenize(@NonNull UnionPayCard unionPayCard, @NonNull final UnionPayTokenizeCallback callback) {
-        apiClient.tokenizeREST(unionPayCard, new TokenizeCallback() {
+        apiClient.tokenizeREST(unionPayCard, CardNonce.DECODER, new HttpResponseStreamCallback<CardNonce>() {
             @Override
-            public void onResult(JSONObject tokenizationResponse, Exception exception) {
-                if (tokenizationResponse != null) {
-                    try {
-                        CardNonce cardNonce = CardNonce.fromJSON(tokenizationResponse);
-                        callback.onResult(cardNonce, null);
-                        braintreeClient.sendAnalyticsEvent("union-pay.nonce-received");
-                    } catch (JSONException e) {
-                        callback.onResult(null, e);
-                    }
+            public void onResult(CardNonce cardNonce, Exception exception) {
+                if (cardNonce != null) {
+                    callback.onResult(cardNonce, null);
+                    braintreeClient.sendAnalyticsEvent("union-pay.nonce-received");
                 } else {
                     callback.onResult(null, exception);
                     braintreeClient.sendAnalyticsEvent("union-pay.nonce-failed");
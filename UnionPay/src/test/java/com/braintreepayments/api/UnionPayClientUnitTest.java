@@ -5,14 +5,20 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import android.net.Uri;
+import android.os.Handler;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -58,11 +64,12 @@ public class UnionPayClientUnitTest {
         UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
         sut.tokenize(unionPayCard, unionPayTokenizeCallback);
 
-        ArgumentCaptor<TokenizeCallback> captor = ArgumentCaptor.forClass(TokenizeCallback.class);
-        verify(apiClient).tokenizeREST(same(unionPayCard), captor.capture());
+        ArgumentCaptor<HttpResponseStreamCallback<CardNonce>> captor =
+                ArgumentCaptor.forClass(HttpResponseStreamCallback.class);
+        verify(apiClient).tokenizeREST(same(unionPayCard), same(CardNonce.DECODER), captor.capture());
 
-        TokenizeCallback callback = captor.getValue();
-        callback.onResult(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD), null);
+        HttpResponseStreamCallback<CardNonce> callback = captor.getValue();
+        callback.onResult(CardNonce.fromJSON(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD), null);
 
         verify(braintreeClient).sendAnalyticsEvent("union-pay.nonce-received");
     }
@@ -73,10 +80,11 @@ public class UnionPayClientUnitTest {
         UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
         sut.tokenize(unionPayCard, unionPayTokenizeCallback);
 
-        ArgumentCaptor<TokenizeCallback> captor = ArgumentCaptor.forClass(TokenizeCallback.class);
-        verify(apiClient).tokenizeREST(same(unionPayCard), captor.capture());
+        ArgumentCaptor<HttpResponseStreamCallback<CardNonce>> captor =
+                ArgumentCaptor.forClass(HttpResponseStreamCallback.class);
+        verify(apiClient).tokenizeREST(same(unionPayCard), same(CardNonce.DECODER), captor.capture());
 
-        TokenizeCallback callback = captor.getValue();
+        HttpResponseStreamCallback<CardNonce> callback = captor.getValue();
         Exception error = new ErrorWithResponse(422, "");
         callback.onResult(null, error);
 
@@ -89,10 +97,11 @@ public class UnionPayClientUnitTest {
         UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
         sut.tokenize(unionPayCard, unionPayTokenizeCallback);
 
-        ArgumentCaptor<TokenizeCallback> captor = ArgumentCaptor.forClass(TokenizeCallback.class);
-        verify(apiClient).tokenizeREST(same(unionPayCard), captor.capture());
+        ArgumentCaptor<HttpResponseStreamCallback<CardNonce>> captor =
+                ArgumentCaptor.forClass(HttpResponseStreamCallback.class);
+        verify(apiClient).tokenizeREST(same(unionPayCard), same(CardNonce.DECODER), captor.capture());
 
-        TokenizeCallback callback = captor.getValue();
+        HttpResponseStreamCallback<CardNonce> callback = captor.getValue();
         Exception error = new ErrorWithResponse(422, "");
         callback.onResult(null, error);
 
@@ -288,4 +297,117 @@ public class UnionPayClientUnitTest {
         assertTrue(exception instanceof ConfigurationException);
         assertEquals("UnionPay is not enabled", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fetchCapabilities_whenBinWasFetchedBefore_returnsCachedCapabilitiesWithoutRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_DEBIT, unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, times(1)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(braintreeClient, times(1)).sendAnalyticsEvent("union-pay.capabilities-received");
+        verify(unionPayFetchCapabilitiesCallback, times(2))
+                .onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+        assertEquals(1, sut.getCapabilitiesCacheHitCount());
+    }
+
+    @Test
+    public void fetchCapabilities_onFailure_doesNotCache() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETErrorResponse(new Exception("error"))
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        assertEquals(0, sut.getCapabilitiesCacheHitCount());
+    }
+
+    @Test
+    public void fetchCapabilities_onConfigurationError_callsListenerWithError() {
+        Exception configError = new Exception("no config");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configurationError(configError)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+
+        verify(unionPayFetchCapabilitiesCallback).onResult(null, configError);
+    }
+
+    @Test
+    public void fetchCapabilitiesDebounced_fetchesOnlyAfterDelay() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+        Handler handler = mock(Handler.class);
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient, handler);
+        sut.fetchCapabilitiesDebounced(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, never()).sendGET(anyString(), any(HttpResponseCallback.class));
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(handler).postDelayed(captor.capture(), eq(UnionPayClient.DEBOUNCE_DELAY_MS));
+
+        captor.getValue().run();
+
+        verify(braintreeClient).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(unionPayFetchCapabilitiesCallback)
+                .onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+    }
+
+    @Test
+    public void fetchCapabilitiesDebounced_cancelsPendingLookup() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .build();
+        Handler handler = mock(Handler.class);
+        UnionPayFetchCapabilitiesCallback supersededCallback =
+                mock(UnionPayFetchCapabilitiesCallback.class);
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient, handler);
+        sut.fetchCapabilitiesDebounced("62123", supersededCallback);
+        sut.fetchCapabilitiesDebounced("621234", unionPayFetchCapabilitiesCallback);
+
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(handler, times(2)).postDelayed(captor.capture(), anyLong());
+        verify(handler).removeCallbacks(captor.getAllValues().get(0));
+        assertEquals(1, sut.getCancelledCapabilitiesRequestCount());
+    }
+
+    @Test
+    public void fetchCapabilitiesDebounced_discardsResponseOfSupersededLookup() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .build();
+        Handler handler = mock(Handler.class);
+        UnionPayFetchCapabilitiesCallback supersededCallback =
+                mock(UnionPayFetchCapabilitiesCallback.class);
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient, handler);
+        sut.fetchCapabilitiesDebounced(CardNumber.UNIONPAY_CREDIT, supersededCallback);
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(handler).postDelayed(runnableCaptor.capture(), anyLong());
+        runnableCaptor.getValue().run();
+
+        ArgumentCaptor<HttpResponseCallback> httpCaptor =
+                ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGET(anyString(), httpCaptor.capture());
+
+        sut.fetchCapabilitiesDebounced(CardNumber.UNIONPAY_DEBIT, unionPayFetchCapabilitiesCallback);
+        httpCaptor.getValue().onResult(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE, null);
+
+        verifyNoInteractions(supersededCallback);
+        assertEquals(1, sut.getCancelledCapabilitiesRequestCount());
+    }
+}
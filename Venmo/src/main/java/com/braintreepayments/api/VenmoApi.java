@@ -1,15 +1,26 @@
 package com.braintreepayments.api;
 
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import androidx.annotation.NonNull;
 
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONArray;
+
+import java.io.IOException;
 
 class VenmoApi {
 
+    private static final GraphQLOperation CREATE_PAYMENT_CONTEXT = GraphQLOperationRegistry.register(
+            "CreateVenmoPaymentContext",
+            "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }");
+
+    private static final GraphQLOperation PAYMENT_CONTEXT = GraphQLOperationRegistry.register(
+            "PaymentContext",
+            "query PaymentContext($id: ID!) { node(id: $id) { ... on VenmoPaymentContext { paymentMethodId userName payerInfo { firstName lastName phoneNumber email externalId userName " +
+                    "shippingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } billingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } } } } }");
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
 
@@ -18,52 +29,53 @@ class VenmoApi {
         this.apiClient = apiClient;
     }
 
-    void createPaymentContext(@NonNull final VenmoRequest request, String venmoProfileId, final VenmoApiCallback callback) {
-        JSONObject params = new JSONObject();
-        try {
-            params.put("query", "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }");
-            JSONObject input = new JSONObject();
-            input.put("paymentMethodUsage", request.getPaymentMethodUsageAsString());
-            input.put("merchantProfileId", venmoProfileId);
-            input.put("customerClient", "MOBILE_APP");
-            input.put("intent", "CONTINUE");
-            JSONObject paysheetDetails = new JSONObject();
-            paysheetDetails.put("collectCustomerShippingAddress", request.getCollectCustomerShippingAddressAsString());
-            paysheetDetails.put("collectCustomerBillingAddress", request.getCollectCustomerBillingAddressAsString());
-
-            JSONObject transactionDetails = new JSONObject();
-            transactionDetails.put("subTotalAmount", request.getSubTotalAmount());
-            transactionDetails.put("discountAmount", request.getDiscountAmount());
-            transactionDetails.put("taxAmount", request.getTaxAmount());
-            transactionDetails.put("shippingAmount", request.getShippingAmount());
-            transactionDetails.put("totalAmount", request.getTotalAmount());
-
-            if (!request.getLineItems().isEmpty()) {
-                JSONArray lineItems = new JSONArray();
-                for (VenmoLineItem lineItem : request.getLineItems()) {
-                    if (lineItem.getUnitTaxAmount() == null || lineItem.getUnitTaxAmount().equals("")) {
-                        lineItem.setUnitTaxAmount("0");
+    void createPaymentContext(@NonNull final VenmoRequest request, final String venmoProfileId, final VenmoApiCallback callback) {
+        for (VenmoLineItem lineItem : request.getLineItems()) {
+            if (lineItem.getUnitTaxAmount() == null || lineItem.getUnitTaxAmount().equals("")) {
+                lineItem.setUnitTaxAmount("0");
+            }
+        }
+
+        GraphQLPayload params = new GraphQLPayload(CREATE_PAYMENT_CONTEXT) {
+            @Override
+            public void writeOperationMembers(@NonNull JsonWriter writer) throws IOException {
+                writer.name("variables").beginObject();
+                writer.name("input").beginObject();
+                Json.writeOpt(writer, "paymentMethodUsage", request.getPaymentMethodUsageAsString());
+                Json.writeOpt(writer, "merchantProfileId", venmoProfileId);
+                writer.name("customerClient").value("MOBILE_APP");
+                writer.name("intent").value("CONTINUE");
+
+                writer.name("paysheetDetails").beginObject();
+                Json.writeOpt(writer, "collectCustomerShippingAddress", request.getCollectCustomerShippingAddressAsString());
+                Json.writeOpt(writer, "collectCustomerBillingAddress", request.getCollectCustomerBillingAddressAsString());
+                if (hasTransactionDetails(request)) {
+                    writer.name("transactionDetails").beginObject();
+                    Json.writeOpt(writer, "subTotalAmount", request.getSubTotalAmount());
+                    Json.writeOpt(writer, "discountAmount", request.getDiscountAmount());
+                    Json.writeOpt(writer, "taxAmount", request.getTaxAmount());
+                    Json.writeOpt(writer, "shippingAmount", request.getShippingAmount());
+                    Json.writeOpt(writer, "totalAmount", request.getTotalAmount());
+                    if (!request.getLineItems().isEmpty()) {
+                        writer.name("lineItems").beginArray();
+                        for (VenmoLineItem lineItem : request.getLineItems()) {
+                            writer.beginObject();
+                            Json.writeMembers(writer, lineItem.toJson());
+                            writer.endObject();
+                        }
+                        writer.endArray();
                     }
-                    lineItems.put(lineItem.toJson());
+                    writer.endObject();
                 }
-                transactionDetails.put("lineItems", lineItems);
-            }
+                writer.endObject();
 
-            if (transactionDetails.length() > 0) {
-                paysheetDetails.put("transactionDetails", transactionDetails);
+                Json.writeOpt(writer, "displayName", request.getDisplayName());
+                writer.endObject();
+                writer.endObject();
             }
-            input.put("paysheetDetails", paysheetDetails);
-
-            input.putOpt("displayName", request.getDisplayName());
-
-            JSONObject variables = new JSONObject();
-            variables.put("input", input);
-            params.put("variables", variables);
-        } catch (JSONException e) {
-            callback.onResult(null, new BraintreeException("unexpected error"));
-        }
+        };
 
-        braintreeClient.sendGraphQLPOST(params.toString(), new HttpResponseCallback() {
+        braintreeClient.sendGraphQLPOST(params, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
@@ -84,8 +96,7 @@ class VenmoApi {
     void createNonceFromPaymentContext(String paymentContextId, final VenmoOnActivityResultCallback callback) {
         JSONObject params = new JSONObject();
         try {
-            params.put("query", "query PaymentContext($id: ID!) { node(id: $id) { ... on VenmoPaymentContext { paymentMethodId userName payerInfo { firstName lastName phoneNumber email externalId userName " +
-                    "shippingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } billingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } } } } }");
+            params.put("query", PAYMENT_CONTEXT.getQuery());
             JSONObject variables = new JSONObject();
             variables.put("id", paymentContextId);
             params.put("variables", variables);
@@ -135,6 +146,12 @@ class VenmoApi {
         });
     }
 
+    private static boolean hasTransactionDetails(VenmoRequest request) {
+        return request.getSubTotalAmount() != null || request.getDiscountAmount() != null
+                || request.getTaxAmount() != null || request.getShippingAmount() != null
+                || request.getTotalAmount() != null || !request.getLineItems().isEmpty();
+    }
+
     private static String parsePaymentContextId(String createPaymentContextResponse) {
         String paymentContextId = null;
         try {
@@ -426,6 +426,9 @@ public class VenmoClient {
      * Venmo is supported and set up on the device. When the callback is called with
      * {@code true}, show the Venmo button. When it is called with {@code false}, display other
      * checkout options.
+     * <p>
+     * The result is cached for a few minutes and refreshed whenever an app is installed, updated
+     * or removed, so it is safe to call this every time your checkout screen resumes.
      *
      * @param context  Android Context
      * @param callback {@link VenmoIsReadyToPayCallback}
@@ -435,9 +438,19 @@ public class VenmoClient {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception configError) {
                 if (configuration != null) {
-                    boolean result =
-                            configuration.isVenmoEnabled() && isVenmoAppSwitchAvailable(context);
-                    callback.onResult(result, null);
+                    final boolean isVenmoEnabled = configuration.isVenmoEnabled();
+                    braintreeClient.loadReadyToPay("venmo", configuration, null, new ReadyToPayLoader() {
+                        @Override
+                        public void load(@NonNull ReadyToPayResultCallback loaderCallback) {
+                            boolean result = isVenmoEnabled && isVenmoAppSwitchAvailable(context);
+                            loaderCallback.onResult(result, null);
+                        }
+                    }, new ReadyToPayResultCallback() {
+                        @Override
+                        public void onResult(boolean isReadyToPay, @Nullable Exception error) {
+                            callback.onResult(isReadyToPay, error);
+                        }
+                    });
                 } else {
                     callback.onResult(false, configError);
                 }
@@ -52,11 +52,10 @@ public class VenmoApiUnitTest {
 
         venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonPayload> captor = ArgumentCaptor.forClass(JsonPayload.class);
         verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
 
-        String graphQLBody = captor.getValue();
-        JSONObject graphQLJSON = new JSONObject(graphQLBody);
+        JSONObject graphQLJSON = Json.toJSONObject(captor.getValue());
         String expectedQuery = "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }";
         assertEquals(expectedQuery, graphQLJSON.getString("query"));
 
@@ -94,11 +93,10 @@ public class VenmoApiUnitTest {
 
         venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonPayload> captor = ArgumentCaptor.forClass(JsonPayload.class);
         verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
 
-        String graphQLBody = captor.getValue();
-        JSONObject graphQLJSON = new JSONObject(graphQLBody);
+        JSONObject graphQLJSON = Json.toJSONObject(captor.getValue());
         String expectedQuery = "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }";
         assertEquals(expectedQuery, graphQLJSON.getString("query"));
 
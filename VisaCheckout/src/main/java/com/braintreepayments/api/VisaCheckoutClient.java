@@ -4,14 +4,14 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
-import com.visa.checkout.Environment;
 import com.visa.checkout.Profile;
 import com.visa.checkout.VisaPaymentSummary;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Used to create and tokenize Visa Checkout. For more information see the
@@ -19,6 +19,14 @@ import java.util.List;
  */
 public class VisaCheckoutClient {
 
+    // the classpath cannot change while the process is running
+    private static volatile Boolean isSdkAvailable;
+
+    // shared by every client so a revisited checkout screen can reuse the values derived from
+    // the configuration; keyed by the configuration URL of the authorization, which identifies
+    // the merchant, so a client never sees another merchant's API key or external client ID
+    private static final Map<String, VisaCheckoutProfileParameters> profileParameters = new HashMap<>();
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
 
@@ -59,39 +67,114 @@ public class VisaCheckoutClient {
         braintreeClient.getConfiguration(new ConfigurationCallback() {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception e) {
+                if (configuration == null) {
+                    callback.onResult(null, e);
+                    return;
+                }
+
                 boolean enabledAndSdkAvailable =
                     isVisaCheckoutSDKAvailable() && configuration.isVisaCheckoutEnabled();
 
                 if (!enabledAndSdkAvailable) {
+                    clearProfileParameters(getProfileParametersKey());
                     callback.onResult(null, new ConfigurationException("Visa Checkout is not enabled."));
                     return;
                 }
 
-                String merchantApiKey = configuration.getVisaCheckoutApiKey();
-                List<String> acceptedCardBrands = configuration.getVisaCheckoutSupportedNetworks();
-                String environment = Environment.SANDBOX;
+                callback.onResult(getProfileParameters(getProfileParametersKey(), configuration).createProfileBuilder(), null);
+            }
+        });
+    }
 
-                if ("production".equals(configuration.getEnvironment())) {
-                    environment = Environment.PRODUCTION;
+    /**
+     * Fetches the configuration and prepares the values used by
+     * {@link #createProfileBuilder(VisaCheckoutCreateProfileBuilderCallback)} so that
+     * {@link #getCachedProfileBuilder()} can return a {@link Profile.ProfileBuilder} right away.
+     * Call this as early as possible, e.g. when your checkout screen is created.
+     */
+    public void warmUp() {
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception e) {
+                if (configuration == null) {
+                    return;
                 }
 
-                Profile.ProfileBuilder profileBuilder = new Profile.ProfileBuilder(merchantApiKey, environment);
-                profileBuilder.setCardBrands(acceptedCardBrands.toArray(new String[acceptedCardBrands.size()]));
-                profileBuilder.setDataLevel(Profile.DataLevel.FULL);
-                profileBuilder.setExternalClientId(configuration.getVisaCheckoutExternalClientId());
-
-                callback.onResult(profileBuilder, null);
+                if (configuration.isVisaCheckoutEnabled() && isVisaCheckoutSDKAvailable()) {
+                    getProfileParameters(getProfileParametersKey(), configuration);
+                } else {
+                    clearProfileParameters(getProfileParametersKey());
+                }
             }
         });
     }
 
+    /**
+     * Returns a {@link Profile.ProfileBuilder} with the same properties as
+     * {@link #createProfileBuilder(VisaCheckoutCreateProfileBuilderCallback)} without waiting for
+     * the configuration, so a Visa Checkout button can be rendered immediately when a checkout
+     * screen is revisited.
+     *
+     * @return a {@link Profile.ProfileBuilder} for the most recently fetched configuration of the
+     * merchant this client is authorized for, or {@code null} if Visa Checkout has not been set up
+     * yet in this process for that merchant, or the authorization has not been loaded yet. Use
+     * {@link #createProfileBuilder(VisaCheckoutCreateProfileBuilderCallback)} in that case.
+     */
+    @Nullable
+    public Profile.ProfileBuilder getCachedProfileBuilder() {
+        String key = getProfileParametersKey();
+        if (key == null) {
+            return null;
+        }
+        VisaCheckoutProfileParameters parameters;
+        synchronized (VisaCheckoutClient.class) {
+            parameters = profileParameters.get(key);
+        }
+        return (parameters != null) ? parameters.createProfileBuilder() : null;
+    }
+
+    // the configuration is only fetched once the authorization is loaded, so the key is always
+    // available when a configuration is
+    @Nullable
+    private String getProfileParametersKey() {
+        Authorization authorization = braintreeClient.getCachedAuthorization();
+        return (authorization != null) ? authorization.getConfigUrl() : null;
+    }
+
+    private static synchronized VisaCheckoutProfileParameters getProfileParameters(@Nullable String key, Configuration configuration) {
+        VisaCheckoutProfileParameters parameters = (key != null) ? profileParameters.get(key) : null;
+        if (parameters == null || !parameters.isFor(configuration)) {
+            parameters = new VisaCheckoutProfileParameters(configuration);
+            if (key != null) {
+                profileParameters.put(key, parameters);
+            }
+        }
+        return parameters;
+    }
+
+    private static synchronized void clearProfileParameters(@Nullable String key) {
+        if (key != null) {
+            profileParameters.remove(key);
+        }
+    }
+
+    @VisibleForTesting
+    static synchronized void clearProfileParameters() {
+        profileParameters.clear();
+    }
+
     static boolean isVisaCheckoutSDKAvailable() {
-        try {
-            Class.forName("com.visa.checkout.VisaCheckoutSdk");
-            return true;
-        } catch (ClassNotFoundException e) {
-            return false;
+        Boolean isAvailable = isSdkAvailable;
+        if (isAvailable == null) {
+            try {
+                Class.forName("com.visa.checkout.VisaCheckoutSdk");
+                isAvailable = true;
+            } catch (ClassNotFoundException e) {
+                isAvailable = false;
+            }
+            isSdkAvailable = isAvailable;
         }
+        return isAvailable;
     }
 
     /**
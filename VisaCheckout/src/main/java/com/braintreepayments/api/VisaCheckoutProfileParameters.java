@@ -0,0 +1,50 @@
+package com.braintreepayments.api;
+
+import com.visa.checkout.Environment;
+import com.visa.checkout.Profile;
+
+import java.util.List;
+
+/**
+ * The values {@link VisaCheckoutClient} fills in on a {@link Profile.ProfileBuilder}, derived once
+ * from a {@link Configuration}. A {@link Profile.ProfileBuilder} is mutable, so every caller gets a
+ * new one built from these values.
+ */
+class VisaCheckoutProfileParameters {
+
+    private final String configurationJson;
+    private final String merchantApiKey;
+    private final String environment;
+    private final String[] cardBrands;
+    private final String externalClientId;
+
+    VisaCheckoutProfileParameters(Configuration configuration) {
+        configurationJson = configuration.toJson();
+        merchantApiKey = configuration.getVisaCheckoutApiKey();
+        externalClientId = configuration.getVisaCheckoutExternalClientId();
+
+        List<String> acceptedCardBrands = configuration.getVisaCheckoutSupportedNetworks();
+        cardBrands = acceptedCardBrands.toArray(new String[acceptedCardBrands.size()]);
+
+        if ("production".equals(configuration.getEnvironment())) {
+            environment = Environment.PRODUCTION;
+        } else {
+            environment = Environment.SANDBOX;
+        }
+    }
+
+    /**
+     * @return true if these parameters were derived from {@code configuration}
+     */
+    boolean isFor(Configuration configuration) {
+        return configurationJson.equals(configuration.toJson());
+    }
+
+    Profile.ProfileBuilder createProfileBuilder() {
+        Profile.ProfileBuilder profileBuilder = new Profile.ProfileBuilder(merchantApiKey, environment);
+        profileBuilder.setCardBrands(cardBrands.clone());
+        profileBuilder.setDataLevel(Profile.DataLevel.FULL);
+        profileBuilder.setExternalClientId(externalClientId);
+        return profileBuilder;
+    }
+}
@@ -2,6 +2,7 @@ package com.braintreepayments.api
 
 import com.braintreepayments.api.Configuration.Companion.fromJson
 import com.braintreepayments.api.TestConfigurationBuilder.TestVisaCheckoutConfigurationBuilder
+import com.visa.checkout.Profile
 import com.visa.checkout.Profile.CardBrand
 import com.visa.checkout.VisaPaymentSummary
 import io.mockk.every
@@ -10,6 +11,8 @@ import io.mockk.slot
 import io.mockk.verify
 import junit.framework.TestCase.assertEquals
 import junit.framework.TestCase.assertNotNull
+import junit.framework.TestCase.assertNotSame
+import junit.framework.TestCase.assertNull
 import org.json.JSONException
 import org.json.JSONObject
 import org.junit.Before
@@ -23,12 +26,15 @@ import java.util.concurrent.CountDownLatch
 class VisaCheckoutClientUnitTest {
 
     private lateinit var configurationWithVisaCheckout: Configuration
+    private lateinit var authorization: Authorization
     private lateinit var visaPaymentSummary: VisaPaymentSummary
 
     @Before
     @Throws(Exception::class)
     fun setup() {
+        VisaCheckoutClient.clearProfileParameters()
         configurationWithVisaCheckout = fromJson(Fixtures.CONFIGURATION_WITH_VISA_CHECKOUT)
+        authorization = Authorization.fromString(Fixtures.TOKENIZATION_KEY)
         visaPaymentSummary = mockk(relaxed = true)
 
         every { visaPaymentSummary.callId } returns "stubbedCallId"
@@ -108,6 +114,108 @@ class VisaCheckoutClientUnitTest {
         lock.await()
     }
 
+    @Test
+    fun createProfileBuilder_whenConfigurationFails_forwardsError() {
+        val configError = Exception("configuration error")
+        val braintreeClient = mockk<BraintreeClient>(relaxed = true)
+        every { braintreeClient.getConfiguration(any()) } answers {
+            firstArg<ConfigurationCallback>().onResult(null, configError)
+        }
+        val sut = VisaCheckoutClient(braintreeClient, MockkApiClientBuilder().build())
+        val listener = mockk<VisaCheckoutCreateProfileBuilderCallback>(relaxed = true)
+        sut.createProfileBuilder(listener)
+
+        verify(exactly = 1) { listener.onResult(null, configError) }
+    }
+
+    @Test
+    fun createProfileBuilder_returnsNewProfileBuilderOnEveryCall() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(configurationWithVisaCheckout)
+            .build()
+        val sut = VisaCheckoutClient(braintreeClient, MockkApiClientBuilder().build())
+
+        val profileBuilders = mutableListOf<Profile.ProfileBuilder?>()
+        sut.createProfileBuilder { profileBuilder, _ -> profileBuilders.add(profileBuilder) }
+        sut.createProfileBuilder { profileBuilder, _ -> profileBuilders.add(profileBuilder) }
+
+        assertEquals(2, profileBuilders.size)
+        assertNotNull(profileBuilders[0])
+        assertNotSame(profileBuilders[0], profileBuilders[1])
+    }
+
+    @Test
+    fun getCachedProfileBuilder_beforeWarmUp_returnsNull() {
+        val sut = VisaCheckoutClient(mockk(relaxed = true), MockkApiClientBuilder().build())
+        assertNull(sut.getCachedProfileBuilder())
+    }
+
+    @Test
+    fun getCachedProfileBuilder_afterWarmUp_returnsProfileBuilderWithoutFetchingConfiguration() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(configurationWithVisaCheckout)
+            .authorizationSuccess(authorization)
+            .build()
+        VisaCheckoutClient(braintreeClient, MockkApiClientBuilder().build()).warmUp()
+
+        // a client created later, e.g. for a revisited checkout screen
+        val newBraintreeClient = mockk<BraintreeClient>(relaxed = true)
+        every { newBraintreeClient.getCachedAuthorization() } returns authorization
+        val sut = VisaCheckoutClient(newBraintreeClient, MockkApiClientBuilder().build())
+        val profileBuilder = sut.getCachedProfileBuilder()
+
+        assertNotNull(profileBuilder)
+        assertNotNull(profileBuilder!!.build())
+        verify(exactly = 0) { newBraintreeClient.getConfiguration(any()) }
+    }
+
+    @Test
+    fun warmUp_whenVisaCheckoutDisabled_clearsCachedProfileBuilder() {
+        val enabledBraintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(configurationWithVisaCheckout)
+            .authorizationSuccess(authorization)
+            .build()
+        VisaCheckoutClient(enabledBraintreeClient, MockkApiClientBuilder().build()).warmUp()
+
+        val disabledBraintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(TestConfigurationBuilder.basicConfig<Configuration>())
+            .authorizationSuccess(authorization)
+            .build()
+        val sut = VisaCheckoutClient(disabledBraintreeClient, MockkApiClientBuilder().build())
+        sut.warmUp()
+
+        assertNull(sut.getCachedProfileBuilder())
+    }
+
+    @Test
+    fun getCachedProfileBuilder_afterWarmUpForAnotherMerchant_returnsNull() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(configurationWithVisaCheckout)
+            .authorizationSuccess(authorization)
+            .build()
+        VisaCheckoutClient(braintreeClient, MockkApiClientBuilder().build()).warmUp()
+
+        val otherMerchantBraintreeClient = MockkBraintreeClientBuilder()
+            .authorizationSuccess(Authorization.fromString(Fixtures.PROD_TOKENIZATION_KEY))
+            .build()
+        val sut = VisaCheckoutClient(otherMerchantBraintreeClient, MockkApiClientBuilder().build())
+
+        assertNull(sut.getCachedProfileBuilder())
+    }
+
+    @Test
+    fun getCachedProfileBuilder_beforeAuthorizationIsLoaded_returnsNull() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(configurationWithVisaCheckout)
+            .authorizationSuccess(authorization)
+            .build()
+        VisaCheckoutClient(braintreeClient, MockkApiClientBuilder().build()).warmUp()
+
+        val sut = VisaCheckoutClient(MockkBraintreeClientBuilder().build(), MockkApiClientBuilder().build())
+
+        assertNull(sut.getCachedProfileBuilder())
+    }
+
     @Test
     @Throws(JSONException::class)
     fun tokenize_whenSuccessful_postsVisaPaymentMethodNonce() {